@@ -0,0 +1,102 @@
+package com.mstcc.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resizes each cache from its {@link MissRatioCurve} and exposes the curves at
+ * {@code /actuator/cachecurve}.
+ *
+ * <p>Every pass picks, per cache, the smallest simulated size whose hit ratio is within
+ * {@value #HIT_RATIO_TOLERANCE} of the best size within the configured budget, and applies it
+ * through Caffeine's eviction policy. The budget in application.yml stays the ceiling; the
+ * curve also shows sizes above it, so a cache that would gain from more memory is visible
+ * before its budget is raised. Caches with too few sampled lookups keep their current size.
+ */
+@Endpoint(id = "cachecurve")
+public class CacheAutoSizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheAutoSizer.class);
+
+    private static final long RESIZE_INTERVAL_MS = 5 * 60_000L;
+    /** Sampled lookups a curve needs before it is trusted for sizing. */
+    private static final long MIN_SAMPLED_ACCESSES = 1000;
+    /** Hit ratio a smaller size may give up against the best size within budget. */
+    private static final double HIT_RATIO_TOLERANCE = 0.01;
+
+    private final CacheManager cacheManager;
+
+    public CacheAutoSizer(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the miss-ratio curve, current size and budget of every cache. The recommended
+     * size is null until the cache has enough sampled lookups.
+     * @return curves keyed by cache name
+     */
+    @ReadOperation
+    public Map<String, Object> curves() {
+        Map<String, Object> curves = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (!(cacheManager.getCache(name) instanceof SampledCaffeineCache cache)) {
+                continue;
+            }
+            MissRatioCurve curve = cache.curve();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("budgetBytes", curve.budgetBytes());
+            entry.put("maximumBytes", maximumBytes(cache));
+            entry.put("estimatedBytes", cache.getNativeCache().policy().eviction()
+                    .map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+            entry.put("sampledAccesses", curve.sampledAccesses());
+            entry.put("recommendedBytes", curve.sampledAccesses() >= MIN_SAMPLED_ACCESSES
+                    ? curve.recommendedBytes(HIT_RATIO_TOLERANCE) : null);
+            List<Map<String, Object>> points = curve.points().stream()
+                    .map(point -> Map.<String, Object>of("bytes", point.bytes(), "hitRatio", point.hitRatio()))
+                    .toList();
+            entry.put("points", points);
+            curves.put(name, entry);
+        }
+        return curves;
+    }
+
+    /**
+     * Applies the recommended size of every cache with enough samples, then ages the curves.
+     */
+    @Scheduled(initialDelay = RESIZE_INTERVAL_MS, fixedDelay = RESIZE_INTERVAL_MS)
+    public void resize() {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof SampledCaffeineCache sampled) {
+                resize(name, sampled);
+            }
+        }
+    }
+
+    private void resize(String name, SampledCaffeineCache cache) {
+        MissRatioCurve curve = cache.curve();
+        if (curve.sampledAccesses() >= MIN_SAMPLED_ACCESSES) {
+            long target = curve.recommendedBytes(HIT_RATIO_TOLERANCE);
+            long current = maximumBytes(cache);
+            if (target != current) {
+                cache.getNativeCache().policy().eviction().ifPresent(eviction -> eviction.setMaximum(target));
+                logger.info("Cache {} resized from {} to {} bytes (budget: {}, sampled lookups: {})",
+                           name, current, target, curve.budgetBytes(), curve.sampledAccesses());
+            }
+        }
+        curve.decay();
+    }
+
+    private static long maximumBytes(SampledCaffeineCache cache) {
+        return cache.getNativeCache().policy().eviction().map(eviction -> eviction.getMaximum()).orElse(0L);
+    }
+}
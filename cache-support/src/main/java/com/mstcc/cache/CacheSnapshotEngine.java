@@ -0,0 +1,302 @@
+package com.mstcc.cache;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes Caffeine caches to a local file on shutdown and reloads them on startup, so a
+ * restarted instance does not send its first minutes of traffic to the database and the
+ * services behind it.
+ *
+ * <p>The snapshot is big-endian and written field by field, without reflection:
+ * <pre>
+ *   header          magic, version, time written (epoch millis), cache count
+ *   per cache       name, entry count
+ *   per entry       write age and idle time (millis), key, value
+ * </pre>
+ * Keys and values are written by the {@link SnapshotCodec} registered for their cache; the
+ * version is the service's, and is bumped whenever one of its codecs changes. On startup the
+ * file is memory-mapped, read once and deleted. An entry is restored only if it would still be
+ * live had the instance kept running, and it is removed again when its original write TTL runs
+ * out, so a restart never makes an entry staler than the TTL allows.
+ *
+ * <p>Runs in a phase before Eureka registration and the web server: entries are loaded before
+ * the first request arrives and saved after the last one has been served.
+ */
+public class CacheSnapshotEngine implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotEngine.class);
+
+    /** Relative to the working directory; a named volume in docker-compose keeps it across restarts. */
+    public static final Path DEFAULT_DIRECTORY = Paths.get("data/cache");
+
+    /** Ahead of Eureka auto-registration (phase 0) and the web server. */
+    private static final int PHASE = -1000;
+    private static final String SNAPSHOT_FILE = "cache.snapshot";
+    private static final int MAGIC = 0x43534E31; // "CSN1"
+
+    private final CacheManager cacheManager;
+    private final Path path;
+    private final boolean enabled;
+    private final int version;
+    private final Map<String, SnapshotCodec> codecs;
+    private volatile boolean running;
+
+    /**
+     * @param cacheManager cache manager holding the snapshotted caches
+     * @param directory    directory of the snapshot file
+     * @param enabled      whether the caches are saved on shutdown and loaded on startup
+     * @param version      format version of the service's codecs
+     * @param codecs       codec per snapshotted cache, in the order the caches are written
+     */
+    public CacheSnapshotEngine(CacheManager cacheManager, Path directory, boolean enabled, int version,
+                               Map<String, SnapshotCodec> codecs) {
+        this.cacheManager = cacheManager;
+        this.path = directory.resolve(SNAPSHOT_FILE);
+        this.enabled = enabled;
+        this.version = version;
+        this.codecs = new LinkedHashMap<>(codecs);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (enabled && Files.isRegularFile(path)) {
+            load();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (enabled) {
+            save();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Writes the snapshotted caches to a temporary file and atomically renames it, so a crash
+     * mid-write never leaves a torn snapshot behind.
+     */
+    public void save() {
+        long startTime = System.currentTimeMillis();
+        Path temp = path.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        int entries = 0;
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.deleteIfExists(temp);
+            try (FileChannel channel = FileChannel.open(temp, Set.of(StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE), fileAttributes())) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                out.writeInt(MAGIC);
+                out.writeInt(version);
+                out.writeLong(startTime);
+                out.writeInt(codecs.size());
+                for (Map.Entry<String, SnapshotCodec> codec : codecs.entrySet()) {
+                    entries += writeCache(out, codec.getKey(), codec.getValue());
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Cache snapshot of {} entries written in {}ms", entries, System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            logger.warn("Could not write cache snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Restores every entry of the snapshot that has not expired in the meantime, then deletes
+     * the file. An unreadable snapshot is logged and skipped; the caches then start cold.
+     */
+    public void load() {
+        long startTime = System.currentTimeMillis();
+        int[] counts = new int[2];     // restored, read
+        RestoredExpiry expiry = new RestoredExpiry();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != version) {
+                logger.warn("Ignoring cache snapshot with unknown format: {}", path);
+            } else {
+                long downtime = Math.max(0, startTime - buffer.getLong());
+                int caches = buffer.getInt();
+                for (int i = 0; i < caches; i++) {
+                    readCache(buffer, downtime, expiry, counts);
+                }
+                expiry.schedule();
+                logger.info("Restored {} of {} cache snapshot entries in {}ms (downtime: {}ms)",
+                           counts[0], counts[1], System.currentTimeMillis() - startTime, downtime);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read cache snapshot, caches start cold: {}", e.toString());
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete cache snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Attributes the snapshot file is created with. None by default; a service whose caches
+     * hold personal data restricts the file to its owner.
+     */
+    protected FileAttribute<?>[] fileAttributes() {
+        return new FileAttribute<?>[0];
+    }
+
+    // -------------------------------------------------------------------------
+    // Cache sections
+    // -------------------------------------------------------------------------
+
+    private int writeCache(DataOutputStream out, String name, SnapshotCodec codec) throws IOException {
+        SnapshotFields.writeString(out, name);
+        if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+            out.writeInt(0);
+            return 0;
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+        List<Map.Entry<Object, Object>> entries = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : nativeCache.asMap().entrySet()) {
+            if (codec.isEncodable(entry.getKey(), entry.getValue())) {
+                entries.add(entry);
+            }
+        }
+        out.writeInt(entries.size());
+        Policy<Object, Object> policy = nativeCache.policy();
+        for (Map.Entry<Object, Object> entry : entries) {
+            Object key = entry.getKey();
+            out.writeLong(policy.expireAfterWrite().flatMap(expiration -> expiration.ageOf(key))
+                    .map(Duration::toMillis).orElse(0L));
+            out.writeLong(policy.expireAfterAccess().flatMap(expiration -> expiration.ageOf(key))
+                    .map(Duration::toMillis).orElse(0L));
+            codec.writeKey(out, key);
+            codec.writeValue(out, entry.getValue());
+        }
+        return entries.size();
+    }
+
+    private void readCache(ByteBuffer buffer, long downtime, RestoredExpiry expiry, int[] counts) {
+        String name = SnapshotFields.readString(buffer);
+        SnapshotCodec codec = codecs.get(name);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown cache in snapshot: " + name);
+        }
+        Cache cache = cacheManager.getCache(name);
+        int entries = buffer.getInt();
+        for (int i = 0; i < entries; i++) {
+            long writeAge = buffer.getLong() + downtime;
+            long idle = buffer.getLong() + downtime;
+            Object key = codec.readKey(buffer);
+            Object value = codec.readValue(buffer);
+            counts[1]++;
+            if (cache instanceof CaffeineCache caffeineCache && restore(caffeineCache, key, value, writeAge, idle, expiry)) {
+                counts[0]++;
+            }
+        }
+    }
+
+    /**
+     * Puts a snapshotted entry back unless it has expired, and hands it to {@code expiry} for
+     * removal when its original write TTL would have run out.
+     */
+    private static boolean restore(CaffeineCache cache, Object key, Object value, long writeAge, long idle,
+                                   RestoredExpiry expiry) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+        Policy<Object, Object> policy = nativeCache.policy();
+        long remaining = policy.expireAfterWrite()
+                .map(expiration -> expiration.getExpiresAfter(TimeUnit.MILLISECONDS) - writeAge)
+                .orElse(Long.MAX_VALUE);
+        long idleRemaining = policy.expireAfterAccess()
+                .map(expiration -> expiration.getExpiresAfter(TimeUnit.MILLISECONDS) - idle)
+                .orElse(Long.MAX_VALUE);
+        if (remaining <= 0 || idleRemaining <= 0) {
+            return false;
+        }
+        cache.put(key, value);
+        if (remaining != Long.MAX_VALUE) {
+            expiry.add(nativeCache, key, value, System.currentTimeMillis() + remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Removes restored entries once their original write TTL has run out. A single delayed
+     * task sweeps every entry that is due and reschedules itself for the next deadline, so a
+     * large snapshot does not leave one pending task per entry. Restored values are held
+     * weakly: one that was replaced or evicted meanwhile is not kept alive, and only the
+     * restored value is ever removed, never one written since.
+     */
+    private static final class RestoredExpiry {
+
+        private record Entry(long deadline, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                             Object key, WeakReference<Object> value) {
+        }
+
+        private final PriorityQueue<Entry> entries = new PriorityQueue<>(Comparator.comparingLong(Entry::deadline));
+
+        synchronized void add(com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, Object key, Object value,
+                              long deadline) {
+            entries.add(new Entry(deadline, cache, key, new WeakReference<>(value)));
+        }
+
+        synchronized void schedule() {
+            Entry next = entries.peek();
+            if (next != null) {
+                long delay = Math.max(0, next.deadline() - System.currentTimeMillis());
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(this::sweep);
+            }
+        }
+
+        private synchronized void sweep() {
+            long now = System.currentTimeMillis();
+            while (!entries.isEmpty() && entries.peek().deadline() <= now) {
+                Entry entry = entries.poll();
+                Object value = entry.value().get();
+                if (value != null) {
+                    entry.cache().asMap().remove(entry.key(), value);
+                }
+            }
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mstcc.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Estimates the heap footprint of a cache entry in bytes, so caches can be bounded by a
+ * byte budget instead of an entry count.
+ *
+ * <p>Estimates assume a 64-bit JVM with compressed oops and count strings at two bytes per
+ * character, so they err on the high side. This base weighs the JDK types cached values are
+ * built from: strings, boxed primitives, dates, lists and {@code long} arrays. Each service
+ * walks its own DTOs and entities field by field, without reflection, in
+ * {@link #estimateOther(Object)}.
+ */
+public abstract class EntryWeigher implements Weigher<Object, Object> {
+
+    /** Caffeine node, hash table slot and write/access order links. */
+    protected static final int ENTRY_OVERHEAD = 64;
+    protected static final int OBJECT_HEADER = 12;
+    protected static final int REFERENCE = 4;
+    /** Long, Integer, Boolean. */
+    protected static final int BOXED = 16;
+    /** String object plus the header of its backing array. */
+    protected static final int STRING_OVERHEAD = 40;
+    /** LocalDateTime with its LocalDate and LocalTime. */
+    protected static final int DATE_TIME = 72;
+    /** ArrayList or immutable list object plus the header of its backing array. */
+    protected static final int LIST_OVERHEAD = 40;
+    protected static final int ARRAY_HEADER = 16;
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + estimate(key) + estimate(value));
+    }
+
+    /**
+     * @param value a cache key, a cached value or a part of one
+     * @return estimated bytes of the value and everything only it references
+     */
+    public final long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof List<?> list) {
+            return list(list);
+        }
+        if (value instanceof String string) {
+            return string(string);
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return BOXED;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime(dateTime);
+        }
+        if (value instanceof long[] longs) {
+            return longs(longs);
+        }
+        return estimateOther(value);
+    }
+
+    /**
+     * Estimates a value of a type the base does not know. Services override this for their
+     * cached types and fall back to the default, which counts an opaque object.
+     * @param value non-null value that is not a JDK type handled by {@link #estimate(Object)}
+     * @return estimated bytes of the value
+     */
+    protected long estimateOther(Object value) {
+        return OBJECT_HEADER + REFERENCE;
+    }
+
+    protected final long list(List<?> list) {
+        if (list == null) {
+            return 0;
+        }
+        long bytes = LIST_OVERHEAD + align((long) list.size() * REFERENCE);
+        for (Object element : list) {
+            bytes += estimate(element);
+        }
+        return bytes;
+    }
+
+    protected static long string(String string) {
+        return string == null ? 0 : STRING_OVERHEAD + align(2L * string.length());
+    }
+
+    protected static long boxed(Object value) {
+        return value == null ? 0 : BOXED;
+    }
+
+    protected static long dateTime(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : DATE_TIME;
+    }
+
+    protected static long longs(long[] values) {
+        return values == null ? 0 : ARRAY_HEADER + 8L * values.length;
+    }
+
+    protected static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,167 @@
+package com.mstcc.cache;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate per-key lookup counter for one cache: a count-min sketch plus a small set of
+ * heavy-hitter candidates.
+ *
+ * <p>Only one lookup in {@value #SAMPLE_RATE} is counted (picked at random, so a viral key's
+ * counter cells are not hammered by every request) and estimates are scaled back up. The
+ * sketch never under-counts a key, and a key enters the candidate set once its estimate
+ * exceeds the smallest candidate, so the hottest keys are always among the candidates.
+ * Counters are halved by {@link #decay()} so the ranking reflects recent traffic: a key's
+ * estimate is its lookups since the last decay plus half the estimate before it, about twice
+ * its per-interval rate under steady traffic. The lookups since the last decay alone are read
+ * from the difference between the counters and a copy taken at the decay.
+ *
+ * <p>Keys can be pinned: the cache's weigher gives pinned keys zero weight, which Caffeine's
+ * size-based eviction skips.
+ */
+public final class HotKeySketch {
+
+    /** One lookup in this many is counted. */
+    static final int SAMPLE_RATE = 8;
+    private static final int DEPTH = 4;
+    /** Counters per row. Power of two. */
+    private static final int WIDTH = 4096;
+    /** Heavy-hitter candidates kept; the reported top is taken from these. */
+    private static final int CANDIDATES = 64;
+
+    /**
+     * Estimated lookups of one key.
+     * @param key           cache key
+     * @param lookups       decayed estimate the ranking uses: recent lookups plus half the
+     *                      previous estimate
+     * @param recentLookups estimated lookups since the counters were last halved
+     */
+    record HotKey(Object key, long lookups, long recentLookups) {
+    }
+
+    private final AtomicLongArray counters = new AtomicLongArray(DEPTH * WIDTH);
+    /** Counters as they were right after the last decay. */
+    private volatile long[] decayed = new long[DEPTH * WIDTH];
+    private final Map<Object, Long> candidates = new ConcurrentHashMap<>();
+    private final Set<Object> pinned = ConcurrentHashMap.newKeySet();
+    /** Smallest candidate estimate once the candidate set is full. */
+    private volatile long floor;
+
+    /** Records a lookup of {@code key}. */
+    void record(Object key) {
+        if (key == null || ThreadLocalRandom.current().nextInt(SAMPLE_RATE) != 0) {
+            return;
+        }
+        long hash = spread(key.hashCode());
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(cell(hash, row)));
+        }
+        if (estimate > floor || candidates.containsKey(key)) {
+            offer(key, estimate);
+        }
+    }
+
+    /**
+     * Returns the hottest keys, hottest first.
+     * @param limit maximum number of keys
+     */
+    List<HotKey> top(int limit) {
+        return candidates.entrySet().stream()
+                .sorted(Map.Entry.<Object, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> new HotKey(entry.getKey(), entry.getValue() * SAMPLE_RATE,
+                        recentLookups(entry.getKey())))
+                .toList();
+    }
+
+    /**
+     * Estimates a key's lookups since the last decay. The counters' growth since the copy taken
+     * at the decay is itself a count-min sketch of that interval, so the estimate never
+     * under-counts either.
+     */
+    private long recentLookups(Object key) {
+        long hash = spread(key.hashCode());
+        long[] baseline = decayed;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int cell = cell(hash, row);
+            estimate = Math.min(estimate, counters.get(cell) - baseline[cell]);
+        }
+        return Math.max(0, estimate) * SAMPLE_RATE;
+    }
+
+    /** Halves every counter and candidate estimate, dropping candidates that reach zero. */
+    synchronized void decay() {
+        long[] baseline = new long[counters.length()];
+        for (int i = 0; i < counters.length(); i++) {
+            baseline[i] = counters.updateAndGet(i, count -> count >>> 1);
+        }
+        decayed = baseline;
+        candidates.replaceAll((key, lookups) -> lookups >>> 1);
+        candidates.values().removeIf(lookups -> lookups == 0);
+        floor = candidates.size() < CANDIDATES ? 0 : minimum();
+    }
+
+    public boolean isPinned(Object key) {
+        return !pinned.isEmpty() && pinned.contains(key);
+    }
+
+    /**
+     * Replaces the pinned keys.
+     * @param keys keys to pin from now on
+     * @return keys whose pinned state changed and must be re-weighed
+     */
+    synchronized Set<Object> pin(Set<Object> keys) {
+        Set<Object> changed = new HashSet<>(keys);
+        for (Object key : pinned) {
+            if (!changed.remove(key)) {
+                changed.add(key);
+            }
+        }
+        pinned.clear();
+        pinned.addAll(keys);
+        return changed;
+    }
+
+    public Set<Object> pinned() {
+        return Set.copyOf(pinned);
+    }
+
+    private synchronized void offer(Object key, long estimate) {
+        candidates.merge(key, estimate, Math::max);
+        if (candidates.size() > CANDIDATES) {
+            candidates.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .ifPresent(coldest -> candidates.remove(coldest.getKey()));
+        }
+        floor = candidates.size() < CANDIDATES ? 0 : minimum();
+    }
+
+    private long minimum() {
+        long min = Long.MAX_VALUE;
+        for (long lookups : candidates.values()) {
+            min = Math.min(min, lookups);
+        }
+        return min == Long.MAX_VALUE ? 0 : min;
+    }
+
+    private static int cell(long hash, int row) {
+        return row * WIDTH + ((int) (hash >>> (row * 16)) & (WIDTH - 1));
+    }
+
+    /** MurmurHash3 64-bit finaliser — each row reads its own 16 bits of the result. */
+    private static long spread(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
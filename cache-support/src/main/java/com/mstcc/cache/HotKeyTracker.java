@@ -0,0 +1,123 @@
+package com.mstcc.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports the hottest keys of every cache with a {@link HotKeySketch}, at
+ * {@code /actuator/hotkeys} and as the {@code cache.hot.key.lookups} gauge tagged by cache and
+ * key.
+ *
+ * <p>Every minute the top {@value #TOP_KEYS} keys are published with their lookups in that
+ * minute, then the sketches are halved. Keys are ranked by the decayed estimate, so a key that
+ * turns hot shows up within a minute and drops out a few minutes after it cools down. Only the
+ * top keys are tagged, which keeps the gauge's cardinality bounded.
+ *
+ * <p>With {@code cache.hot-keys.pin: true} the hottest {@value #PINNED_KEYS} keys of each cache
+ * with at least {@value #MIN_PIN_LOOKUPS} estimated lookups in the last minute are pinned, so
+ * size-based eviction never drops them. Pinned entries still expire, so they are never staler
+ * than the cache's TTL.
+ */
+@Endpoint(id = "hotkeys")
+public class HotKeyTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private static final long REFRESH_INTERVAL_MS = 60_000L;
+    private static final int TOP_KEYS = 10;
+    private static final int PINNED_KEYS = 5;
+    private static final long MIN_PIN_LOOKUPS = 100;
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final boolean pinHotKeys;
+    private final Map<String, MultiGauge> gauges = new ConcurrentHashMap<>();
+
+    public HotKeyTracker(CacheManager cacheManager, MeterRegistry meterRegistry, Environment environment) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.pinHotKeys = environment.getProperty("cache.hot-keys.pin", Boolean.class, false);
+    }
+
+    /**
+     * Returns the hottest keys of every tracked cache, hottest first.
+     * @return keys with their estimated lookups and pinned state, keyed by cache name
+     */
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (!(cacheManager.getCache(name) instanceof SampledCaffeineCache cache) || cache.hotKeys() == null) {
+                continue;
+            }
+            HotKeySketch sketch = cache.hotKeys();
+            List<Map<String, Object>> keys = sketch.top(TOP_KEYS).stream()
+                    .map(hotKey -> Map.<String, Object>of(
+                            "key", String.valueOf(hotKey.key()),
+                            "lookupsSinceRefresh", hotKey.recentLookups(),
+                            "pinned", sketch.isPinned(hotKey.key())))
+                    .toList();
+            caches.put(name, keys);
+        }
+        return caches;
+    }
+
+    /**
+     * Publishes the current top keys, updates the pinned keys when pinning is enabled, then
+     * halves the sketches.
+     */
+    @Scheduled(initialDelay = REFRESH_INTERVAL_MS, fixedDelay = REFRESH_INTERVAL_MS)
+    public void refresh() {
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof SampledCaffeineCache cache && cache.hotKeys() != null) {
+                refresh(name, cache);
+            }
+        }
+    }
+
+    private void refresh(String name, SampledCaffeineCache cache) {
+        HotKeySketch sketch = cache.hotKeys();
+        List<HotKeySketch.HotKey> top = sketch.top(TOP_KEYS);
+
+        List<MultiGauge.Row<?>> rows = top.stream()
+                .<MultiGauge.Row<?>>map(hotKey -> MultiGauge.Row.of(Tags.of("key", String.valueOf(hotKey.key())),
+                        hotKey.recentLookups()))
+                .toList();
+        gauges.computeIfAbsent(name, cacheName -> MultiGauge.builder("cache.hot.key.lookups")
+                        .tag("cache", cacheName)
+                        .description("Estimated lookups of the hottest cache keys in the last one-minute refresh interval")
+                        .register(meterRegistry))
+                .register(rows, true);
+
+        if (pinHotKeys) {
+            Set<Object> pinned = new LinkedHashSet<>();
+            for (HotKeySketch.HotKey hotKey : top) {
+                if (pinned.size() < PINNED_KEYS && hotKey.recentLookups() >= MIN_PIN_LOOKUPS) {
+                    pinned.add(hotKey.key());
+                }
+            }
+            Set<Object> changed = sketch.pin(pinned);
+            // Rewriting an entry makes Caffeine weigh it again under its new pinned state
+            changed.forEach(key -> cache.getNativeCache().asMap().computeIfPresent(key, (k, value) -> value));
+            if (!changed.isEmpty()) {
+                logger.info("Cache {} pinned keys: {}", name, pinned);
+            }
+        }
+        sketch.decay();
+    }
+}
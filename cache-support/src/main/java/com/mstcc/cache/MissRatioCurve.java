@@ -0,0 +1,207 @@
+package com.mstcc.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sampled ghost-cache simulator that estimates the hit ratio a cache would reach at other
+ * sizes.
+ *
+ * <p>A fixed subset of keys (one in {@value #SAMPLE_RATE}, chosen by key hash so a key is
+ * either always or never sampled) is replayed against key-only LRU ghosts sized at fractions
+ * and multiples of the configured budget, each scaled down by the same sampling rate. Ghosts
+ * hold keys and weights only, never values. Caffeine's W-TinyLFU admission usually does at
+ * least as well as LRU at the same size, so the curve is a conservative estimate.
+ *
+ * <p>Counters are halved after every sizing pass, so the curve follows the recent workload.
+ *
+ * <p>The curve ignores hot-key pinning: it weighs entries with the cache's plain weigher, as if
+ * no key were pinned. Pinned entries weigh nothing in the real cache, so with pinning enabled
+ * the cache holds the recommended size plus its pinned entries.
+ */
+public final class MissRatioCurve {
+
+    /** One key in this many is simulated. Power of two. */
+    static final int SAMPLE_RATE = 16;
+    /** Simulated sizes as fractions of the configured budget. */
+    private static final double[] SIZE_FACTORS = {0.125, 0.25, 0.5, 0.75, 1.0, 1.5, 2.0};
+
+    /**
+     * Estimated hit ratio at one simulated size.
+     * @param bytes    simulated cache size in bytes
+     * @param hitRatio share of sampled lookups that would have hit
+     */
+    record Point(long bytes, double hitRatio) {
+    }
+
+    private final long budgetBytes;
+    private final Weigher<Object, Object> weigher;
+    private final Ghost[] ghosts;
+    private double accesses;
+
+    public MissRatioCurve(long budgetBytes, Weigher<Object, Object> weigher) {
+        this.budgetBytes = budgetBytes;
+        this.weigher = weigher;
+        this.ghosts = new Ghost[SIZE_FACTORS.length];
+        for (int i = 0; i < SIZE_FACTORS.length; i++) {
+            ghosts[i] = new Ghost((long) (budgetBytes * SIZE_FACTORS[i]));
+        }
+    }
+
+    /** Records a cache lookup. */
+    void recordAccess(Object key) {
+        if (!sampled(key)) {
+            return;
+        }
+        synchronized (this) {
+            accesses++;
+            for (Ghost ghost : ghosts) {
+                ghost.access(key);
+            }
+        }
+    }
+
+    /** Records a cache write, which is when the entry's weight becomes known. */
+    void recordWrite(Object key, Object value) {
+        if (!sampled(key)) {
+            return;
+        }
+        int weight = weigher.weigh(key, value);
+        synchronized (this) {
+            for (Ghost ghost : ghosts) {
+                ghost.put(key, weight);
+            }
+        }
+    }
+
+    /** Records an explicit eviction: the key is gone at every simulated size too. */
+    void recordEvict(Object key) {
+        if (!sampled(key)) {
+            return;
+        }
+        synchronized (this) {
+            for (Ghost ghost : ghosts) {
+                ghost.remove(key);
+            }
+        }
+    }
+
+    /** Records that the whole cache was cleared; the hit and access counters are kept. */
+    synchronized void clear() {
+        for (Ghost ghost : ghosts) {
+            ghost.clear();
+        }
+    }
+
+    /**
+     * Returns the estimated hit ratio at each simulated size, smallest first.
+     */
+    synchronized List<Point> points() {
+        List<Point> points = new ArrayList<>(ghosts.length);
+        for (Ghost ghost : ghosts) {
+            points.add(new Point(ghost.capacity * SAMPLE_RATE, accesses == 0 ? 0 : ghost.hits / accesses));
+        }
+        return points;
+    }
+
+    /**
+     * Picks the smallest simulated size, up to the configured budget, whose hit ratio is
+     * within {@code tolerance} of the best one within that budget.
+     * @param tolerance hit ratio that may be given up to save memory, e.g. 0.01
+     * @return recommended maximum weight in bytes
+     */
+    long recommendedBytes(double tolerance) {
+        List<Point> points = points();
+        double best = 0;
+        for (Point point : points) {
+            if (point.bytes() <= budgetBytes) {
+                best = Math.max(best, point.hitRatio());
+            }
+        }
+        for (Point point : points) {
+            if (point.bytes() <= budgetBytes && point.hitRatio() >= best - tolerance) {
+                return point.bytes();
+            }
+        }
+        return budgetBytes;
+    }
+
+    /** Sampled lookups counted so far, after decay. */
+    synchronized long sampledAccesses() {
+        return (long) accesses;
+    }
+
+    /** Halves all counters so older traffic weighs less on the next pass. */
+    synchronized void decay() {
+        accesses /= 2;
+        for (Ghost ghost : ghosts) {
+            ghost.hits /= 2;
+        }
+    }
+
+    long budgetBytes() {
+        return budgetBytes;
+    }
+
+    private static boolean sampled(Object key) {
+        if (key == null) {
+            return false;
+        }
+        // MurmurHash3 32-bit finaliser — spreads sequential IDs before taking low bits
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return (h & (SAMPLE_RATE - 1)) == 0;
+    }
+
+    /**
+     * Key-only LRU cache bounded by the sampled share of one hypothetical size.
+     */
+    private static final class Ghost {
+
+        private final long capacity;
+        private final LinkedHashMap<Object, Integer> weights = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+        private double hits;
+
+        Ghost(long bytes) {
+            this.capacity = bytes / SAMPLE_RATE;
+        }
+
+        void access(Object key) {
+            if (weights.get(key) != null) {
+                hits++;
+            }
+        }
+
+        void put(Object key, int entryWeight) {
+            Integer previous = weights.put(key, entryWeight);
+            weight += entryWeight - (previous != null ? previous : 0);
+            Iterator<Map.Entry<Object, Integer>> eldest = weights.entrySet().iterator();
+            while (weight > capacity && eldest.hasNext()) {
+                weight -= eldest.next().getValue();
+                eldest.remove();
+            }
+        }
+
+        void remove(Object key) {
+            Integer previous = weights.remove(key);
+            if (previous != null) {
+                weight -= previous;
+            }
+        }
+
+        void clear() {
+            weights.clear();
+            weight = 0;
+        }
+    }
+}
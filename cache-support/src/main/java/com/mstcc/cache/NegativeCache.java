@@ -0,0 +1,96 @@
+package com.mstcc.cache;
+
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Short-lived record of IDs the owning service answered 404 for, kept in one of the
+ * {@code missing*} caches. A repeat lookup of such an ID fails locally instead of calling the
+ * owning service again:
+ * <pre>
+ *   if (missingUsers.isKnownMissing(userId)) {
+ *       return missingUsers.failed(new RuntimeException("User not found: " + userId));
+ *   }
+ * </pre>
+ *
+ * <p>Only a 404 is recorded; timeouts and open circuits say nothing about whether the entity
+ * exists. The cache is resolved on every call, so a service without it simply never records.
+ */
+public class NegativeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NegativeCache.class);
+
+    private static final int NOT_FOUND = 404;
+
+    private final CacheManager cacheManager;
+    private final String cacheName;
+
+    public NegativeCache(CacheManager cacheManager, String cacheName) {
+        this.cacheManager = cacheManager;
+        this.cacheName = cacheName;
+    }
+
+    /**
+     * @param id entity ID
+     * @return true if the owning service recently answered that the entity does not exist
+     */
+    public boolean isKnownMissing(Object id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache != null && cache.get(id) != null;
+    }
+
+    /**
+     * Answers a lookup of a known missing entity without calling the owning service.
+     * @param notFound the not-found failure the caller reports
+     * @return a future failed with {@code notFound}
+     */
+    public <T> CompletableFuture<T> failed(RuntimeException notFound) {
+        logger.info("[{}] NEGATIVE HIT - {} ({})", Thread.currentThread().getName(), notFound.getMessage(), cacheName);
+        return CompletableFuture.failedFuture(notFound);
+    }
+
+    /**
+     * Remembers that an entity does not exist.
+     * @param id entity ID
+     */
+    public void recordMissing(Object id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.put(id, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Remembers the entity as missing if a lookup failed with a 404.
+     * @param id      entity ID
+     * @param failure failure of the lookup
+     * @return true if the failure was a 404
+     */
+    public boolean recordIfNotFound(Object id, Throwable failure) {
+        boolean notFound = isNotFound(failure);
+        if (notFound) {
+            recordMissing(id);
+        }
+        return notFound;
+    }
+
+    /**
+     * Tells a 404 from the owning service apart from other failures. Circuit breaker and
+     * future wrappers are unwrapped first.
+     * @param e failure of an upstream call
+     * @return true if the owning service answered that the entity does not exist
+     */
+    public static boolean isNotFound(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof FeignException feignException) {
+                return feignException.status() == NOT_FOUND;
+            }
+        }
+        return false;
+    }
+}
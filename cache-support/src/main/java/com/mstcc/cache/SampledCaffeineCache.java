@@ -0,0 +1,80 @@
+package com.mstcc.cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * {@link CaffeineCache} that feeds its lookups, writes and evictions to a {@link MissRatioCurve},
+ * and its lookups to a {@link HotKeySketch} when the cache tracks hot keys. Evicted keys leave
+ * the curve's ghosts too, so a lookup after an {@code @CacheEvict} misses at every size.
+ */
+public final class SampledCaffeineCache extends CaffeineCache {
+
+    private final MissRatioCurve curve;
+    private final HotKeySketch hotKeys;
+
+    public SampledCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                         boolean allowNullValues, MissRatioCurve curve, HotKeySketch hotKeys) {
+        super(name, cache, allowNullValues);
+        this.curve = curve;
+        this.hotKeys = hotKeys;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        curve.recordAccess(key);
+        if (hotKeys != null) {
+            hotKeys.record(key);
+        }
+        return super.lookup(key);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        curve.recordWrite(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            curve.recordWrite(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        curve.recordEvict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        curve.recordEvict(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        curve.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        curve.clear();
+        return invalidated;
+    }
+
+    MissRatioCurve curve() {
+        return curve;
+    }
+
+    /** Hot-key sketch, or null when this cache does not track hot keys. */
+    public HotKeySketch hotKeys() {
+        return hotKeys;
+    }
+}
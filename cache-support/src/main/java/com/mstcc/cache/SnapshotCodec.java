@@ -0,0 +1,28 @@
+package com.mstcc.cache;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the entries of one cache for {@link CacheSnapshotEngine}, field by field and without
+ * reflection. {@link SnapshotFields} writes the nullable strings, longs and dates most values
+ * are made of.
+ */
+public interface SnapshotCodec {
+
+    /**
+     * @param key   cache key
+     * @param value cached value
+     * @return whether this codec can write the entry; other entries are left out of the snapshot
+     */
+    boolean isEncodable(Object key, Object value);
+
+    void writeKey(DataOutput out, Object key) throws IOException;
+
+    Object readKey(ByteBuffer buffer);
+
+    void writeValue(DataOutput out, Object value) throws IOException;
+
+    Object readValue(ByteBuffer buffer);
+}
@@ -0,0 +1,188 @@
+package com.mstcc.cache;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Warms the instance up before it takes traffic. It replays the hot queries in
+ * {@code warmup.requests} and the hot IDs under the service's base path against the local
+ * server. The rounds repeat until the controller, serialisation and cache paths are
+ * JIT-compiled and fast.
+ *
+ * <p>Runs on {@link ApplicationReadyEvent}. Spring Boot marks the application ready for
+ * traffic only after that event's listeners return, so readiness stays
+ * {@code REFUSING_TRAFFIC} until the warm-up is done. Eureka follows health
+ * ({@code eureka.client.healthcheck}) and the instance registers as {@code STARTING}, so no
+ * traffic is routed to it meanwhile. Rounds repeat until the 95th percentile latency of
+ * {@value #STABLE_ROUNDS} consecutive rounds is within {@code warmup.latency-threshold}, or
+ * until {@code warmup.max-duration} runs out.
+ *
+ * <p>Hot IDs are asked for after the first round, so a service can pick them from the caches
+ * the configured queries just filled as well as from those a cache snapshot restored.
+ */
+public class StartupWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    /** Rounds run even when the first ones are already fast, so the JIT sees every path repeatedly. */
+    private static final int MIN_ROUNDS = 5;
+    private static final int STABLE_ROUNDS = 3;
+
+    private final String basePath;
+    private final Supplier<Collection<Long>> hotIds;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final boolean enabled;
+    private final List<String> requests;
+    private final Duration latencyThreshold;
+    private final Duration maxDuration;
+
+    /**
+     * @param basePath               path a hot ID is appended to, such as {@code /api/posts/}
+     * @param hotIds                 IDs of the entities to read once the configured queries ran
+     * @param applicationInfoManager Eureka's instance status, when the service registers
+     * @param environment            source of the {@code warmup.*} properties
+     */
+    public StartupWarmup(String basePath, Supplier<Collection<Long>> hotIds,
+                         ObjectProvider<ApplicationInfoManager> applicationInfoManager, Environment environment) {
+        Binder binder = Binder.get(environment);
+        this.basePath = basePath;
+        this.hotIds = hotIds;
+        this.applicationInfoManager = applicationInfoManager;
+        this.enabled = binder.bind("warmup.enabled", Boolean.class).orElse(true);
+        this.requests = binder.bind("warmup.requests", Bindable.listOf(String.class)).orElse(List.of());
+        this.latencyThreshold = binder.bind("warmup.latency-threshold", Duration.class).orElse(Duration.ofMillis(25));
+        this.maxDuration = binder.bind("warmup.max-duration", Duration.class).orElse(Duration.ofSeconds(60));
+    }
+
+    /**
+     * Runs the warm-up against the local web server.
+     * @param event the ready event, whose listeners hold back readiness until they return
+     */
+    @EventListener
+    public void warmUp(ApplicationReadyEvent event) {
+        if (enabled && event.getApplicationContext() instanceof WebServerApplicationContext context) {
+            warmUp("http://localhost:" + context.getWebServer().getPort());
+        }
+    }
+
+    /**
+     * Tells Eureka the instance is UP as soon as it accepts traffic, rather than on the next
+     * health check replication.
+     * @param event readiness change
+     */
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            applicationInfoManager.ifAvailable(manager -> manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP));
+        }
+    }
+
+    /**
+     * Replays the hot queries until they are consistently fast or the time runs out.
+     * @param baseUrl root URL of the local server
+     * @return number of rounds replayed
+     */
+    int warmUp(String baseUrl) {
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + maxDuration.toMillis();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        int rounds = 0;
+        try {
+            // The first pass fills the caches that some hot IDs are read from
+            Round round = replay(client, baseUrl, requests, deadline);
+            rounds++;
+            List<String> paths = new ArrayList<>(requests);
+            hotIds.get().forEach(id -> paths.add(basePath + id));
+            if (paths.isEmpty()) {
+                return rounds;
+            }
+
+            int stable = 0;
+            while (rounds < MIN_ROUNDS || stable < STABLE_ROUNDS) {
+                if (System.currentTimeMillis() >= deadline) {
+                    logger.warn("Warm-up stopped after {}ms without {} rounds within {}ms (last p95: {}ms, failures: {})",
+                               maxDuration.toMillis(), STABLE_ROUNDS, latencyThreshold.toMillis(),
+                               round.p95Millis(), round.failures());
+                    return rounds;
+                }
+                round = replay(client, baseUrl, paths, deadline);
+                rounds++;
+                stable = round.complete() && round.failures() == 0
+                        && round.p95Millis() <= latencyThreshold.toMillis() ? stable + 1 : 0;
+            }
+            logger.info("Warm-up finished after {} rounds of {} requests in {}ms (p95: {}ms)",
+                       rounds, paths.size(), System.currentTimeMillis() - startTime, round.p95Millis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return rounds;
+    }
+
+    /**
+     * Latency of one replay round.
+     * @param p95Millis 95th percentile request latency
+     * @param failures  requests that failed or answered with a server error
+     * @param complete  whether every request was sent before the deadline
+     */
+    private record Round(long p95Millis, int failures, boolean complete) {
+    }
+
+    /**
+     * Sends each path once. Stops before the next request once the deadline has passed, and
+     * no request waits beyond it, so a slow round cannot outlast {@code warmup.max-duration}.
+     */
+    private static Round replay(HttpClient client, String baseUrl, List<String> paths, long deadline)
+            throws InterruptedException {
+        long[] latencies = new long[paths.size()];
+        int sent = 0;
+        int failures = 0;
+        for (String path : paths) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(remaining < REQUEST_TIMEOUT.toMillis() ? Duration.ofMillis(remaining) : REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 500) {
+                    failures++;
+                }
+            } catch (IOException e) {
+                failures++;
+            }
+            latencies[sent++] = (System.nanoTime() - start) / 1_000_000;
+        }
+        if (sent == 0) {
+            return new Round(0, failures, paths.isEmpty());
+        }
+        Arrays.sort(latencies, 0, sent);
+        return new Round(latencies[(int) Math.ceil(sent * 0.95) - 1], failures, sent == paths.size());
+    }
+}
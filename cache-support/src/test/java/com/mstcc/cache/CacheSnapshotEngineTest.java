@@ -0,0 +1,98 @@
+package com.mstcc.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CacheSnapshotEngine}.
+ */
+class CacheSnapshotEngineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("encodable entries survive a restart and the others are left out")
+    void restart_restoresEncodableEntries() {
+        CacheManager before = cacheManager();
+        before.getCache("names").put(1L, "alice");
+        before.getCache("names").put("bob", "not a long key");
+        engine(before, 1).stop();
+
+        CacheManager after = cacheManager();
+        engine(after, 1).start();
+
+        assertThat(after.getCache("names").get(1L, String.class)).isEqualTo("alice");
+        assertThat(after.getCache("names").get("bob")).isNull();
+        assertThat(directory.resolve("cache.snapshot")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("a snapshot written by another codec version is skipped")
+    void restart_ignoresOtherVersion() {
+        CacheManager before = cacheManager();
+        before.getCache("names").put(1L, "alice");
+        engine(before, 1).stop();
+
+        CacheManager after = cacheManager();
+        engine(after, 2).start();
+
+        assertThat(after.getCache("names").get(1L)).isNull();
+        assertThat(directory.resolve("cache.snapshot")).doesNotExist();
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private CacheSnapshotEngine engine(CacheManager cacheManager, int version) {
+        return new CacheSnapshotEngine(cacheManager, directory, true, version, Map.of("names", new NameCodec()));
+    }
+
+    private static CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("names");
+        cacheManager.setCaffeine(Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(5)));
+        return cacheManager;
+    }
+
+    private static final class NameCodec implements SnapshotCodec {
+
+        @Override
+        public boolean isEncodable(Object key, Object value) {
+            return key instanceof Long && value instanceof String;
+        }
+
+        @Override
+        public void writeKey(DataOutput out, Object key) throws IOException {
+            out.writeLong((Long) key);
+        }
+
+        @Override
+        public Object readKey(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+
+        @Override
+        public void writeValue(DataOutput out, Object value) throws IOException {
+            SnapshotFields.writeString(out, (String) value);
+        }
+
+        @Override
+        public Object readValue(ByteBuffer buffer) {
+            return SnapshotFields.readString(buffer);
+        }
+    }
+}
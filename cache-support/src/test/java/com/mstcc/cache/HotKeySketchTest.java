@@ -0,0 +1,70 @@
+package com.mstcc.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link HotKeySketch}.
+ */
+class HotKeySketchTest {
+
+    @Test
+    @DisplayName("a viral key tops the ranking among thousands of cold keys")
+    void top_findsHeavyHitterAmongNoise() {
+        HotKeySketch sketch = new HotKeySketch();
+        for (long key = 0; key < 20_000; key++) {
+            sketch.record(key);
+            if (key % 4 == 0) {
+                sketch.record(42_000L);
+            }
+        }
+
+        List<HotKeySketch.HotKey> top = sketch.top(3);
+
+        assertThat(top.get(0).key()).isEqualTo(42_000L);
+        // 5000 lookups, counted one in eight and scaled back up
+        assertThat(top.get(0).lookups()).isBetween(3_500L, 7_000L);
+    }
+
+    @Test
+    @DisplayName("decay halves the estimates so a cooled-down key falls out of the ranking")
+    void decay_halvesEstimates() {
+        HotKeySketch sketch = new HotKeySketch();
+        for (int i = 0; i < 4_000; i++) {
+            sketch.record(7L);
+        }
+        long before = sketch.top(1).get(0).lookups();
+
+        sketch.decay();
+
+        // Halved in sampled units, so an odd sampled count loses one sample
+        assertThat(sketch.top(1).get(0).lookups()).isBetween(before / 2 - HotKeySketch.SAMPLE_RATE, before / 2);
+        for (int i = 0; i < 12; i++) {
+            sketch.decay();
+        }
+        assertThat(sketch.top(1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("recent lookups count only the lookups since the last decay")
+    void recentLookups_excludeDecayedHistory() {
+        HotKeySketch sketch = new HotKeySketch();
+        for (int i = 0; i < 4_000; i++) {
+            sketch.record(7L);
+        }
+        sketch.decay();
+        for (int i = 0; i < 1_000; i++) {
+            sketch.record(7L);
+        }
+
+        HotKeySketch.HotKey hotKey = sketch.top(1).get(0);
+
+        // 125 expected samples either side of the decay; scaled back up by eight
+        assertThat(hotKey.recentLookups()).isBetween(600L, 1_400L);
+        assertThat(hotKey.lookups()).isBetween(2_200L, 3_800L);
+    }
+}
@@ -0,0 +1,67 @@
+package com.mstcc.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link MissRatioCurve}.
+ */
+class MissRatioCurveTest {
+
+    /** Every entry weighs 1 KB, so sizes are easy to reason about. */
+    private static final int ENTRY_BYTES = 1024;
+    private static final long BUDGET = 4L * 1024 * 1024;
+
+    @Test
+    @DisplayName("the curve rises with size and the recommendation stops where the working set fits")
+    void recommendation_isSmallestSizeHoldingTheWorkingSet() {
+        MissRatioCurve curve = new MissRatioCurve(BUDGET, (key, value) -> ENTRY_BYTES);
+        // 800 KB working set read in a loop: fits in a quarter of the budget, not in an eighth
+        replay(curve, 800, 20);
+
+        List<MissRatioCurve.Point> points = curve.points();
+        assertThat(points.get(0).hitRatio()).isLessThan(0.5);
+        assertThat(points.get(1).hitRatio()).isGreaterThan(0.9);
+        assertThat(points.get(points.size() - 1).hitRatio()).isGreaterThan(0.9);
+        assertThat(curve.recommendedBytes(0.01)).isEqualTo(BUDGET / 4);
+    }
+
+    @Test
+    @DisplayName("a working set larger than any size within budget keeps the full budget")
+    void recommendation_keepsBudgetWhenMoreMemoryHelps() {
+        MissRatioCurve curve = new MissRatioCurve(BUDGET, (key, value) -> ENTRY_BYTES);
+        replay(curve, 3500, 10);
+
+        assertThat(curve.recommendedBytes(0.01)).isEqualTo(BUDGET);
+    }
+
+    @Test
+    @DisplayName("decay halves the sampled access count")
+    void decay_halvesCounters() {
+        MissRatioCurve curve = new MissRatioCurve(BUDGET, (key, value) -> ENTRY_BYTES);
+        replay(curve, 800, 5);
+        long before = curve.sampledAccesses();
+
+        curve.decay();
+
+        assertThat(curve.sampledAccesses()).isEqualTo(before / 2);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /** Looks keys up like {@code @Cacheable}: a miss is followed by a write. */
+    private static void replay(MissRatioCurve curve, int keys, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            for (long key = 0; key < keys; key++) {
+                curve.recordAccess(key);
+                curve.recordWrite(key, "value");
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.mstcc.cache;
+
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link NegativeCache}.
+ */
+class NegativeCacheTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/api/users/7", Map.of(), null,
+            StandardCharsets.UTF_8, null);
+
+    private final NegativeCache missingUsers = new NegativeCache(new ConcurrentMapCacheManager("missingUsers"),
+            "missingUsers");
+
+    @Test
+    @DisplayName("a 404, even wrapped by a future, is recorded")
+    void recordIfNotFound_recordsWrapped404() {
+        FeignException notFound = new FeignException.NotFound("Not Found", REQUEST, null, Map.of());
+
+        assertThat(missingUsers.recordIfNotFound(7L, new CompletionException(notFound))).isTrue();
+
+        assertThat(missingUsers.isKnownMissing(7L)).isTrue();
+        assertThat(missingUsers.isKnownMissing(8L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("timeouts and server errors are not recorded")
+    void recordIfNotFound_ignoresOtherFailures() {
+        RetryableException timeout = new RetryableException(-1, "Read timed out", Request.HttpMethod.GET,
+                (Long) null, REQUEST);
+        FeignException unavailable = new FeignException.ServiceUnavailable("Service Unavailable", REQUEST, null,
+                Map.of());
+
+        assertThat(missingUsers.recordIfNotFound(7L, timeout)).isFalse();
+        assertThat(missingUsers.recordIfNotFound(7L, unavailable)).isFalse();
+        assertThat(missingUsers.recordIfNotFound(7L, new IllegalStateException("circuit open"))).isFalse();
+
+        assertThat(missingUsers.isKnownMissing(7L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("without its cache nothing is recorded")
+    void recordMissing_withoutCache_isIgnored() {
+        NegativeCache unconfigured = new NegativeCache(new ConcurrentMapCacheManager("users"), "missingUsers");
+
+        unconfigured.recordMissing(7L);
+
+        assertThat(unconfigured.isKnownMissing(7L)).isFalse();
+    }
+}
@@ -0,0 +1,87 @@
+package com.mstcc.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SampledCaffeineCache}.
+ */
+class SampledCaffeineCacheTest {
+
+    private static final int ENTRY_BYTES = 1024;
+    private static final long BUDGET = 4L * 1024 * 1024;
+    private static final int KEYS = 800;
+
+    @Test
+    @DisplayName("evicted keys miss in the curve's ghosts just as in the cache")
+    void evict_removesKeysFromCurve() {
+        SampledCaffeineCache cache = cache();
+        fill(cache);
+
+        for (long key = 0; key < KEYS; key++) {
+            if (key % 2 == 0) {
+                cache.evict(key);
+            } else {
+                cache.evictIfPresent(key);
+            }
+        }
+        lookUpAll(cache);
+
+        assertThat(cache.curve().sampledAccesses()).isPositive();
+        assertThat(cache.curve().points()).allSatisfy(point -> assertThat(point.hitRatio()).isZero());
+    }
+
+    @Test
+    @DisplayName("clearing the cache empties the curve's ghosts")
+    void clear_emptiesCurve() {
+        SampledCaffeineCache cache = cache();
+        fill(cache);
+
+        cache.clear();
+        lookUpAll(cache);
+
+        assertThat(cache.curve().points()).allSatisfy(point -> assertThat(point.hitRatio()).isZero());
+    }
+
+    @Test
+    @DisplayName("entries that stay cached keep hitting in the curve")
+    void lookups_hitWhileCached() {
+        SampledCaffeineCache cache = cache();
+        fill(cache);
+
+        lookUpAll(cache);
+
+        assertThat(cache.curve().points())
+                .filteredOn(point -> point.bytes() >= BUDGET / 4)
+                .isNotEmpty()
+                .allSatisfy(point -> assertThat(point.hitRatio()).isEqualTo(1.0));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static SampledCaffeineCache cache() {
+        Weigher<Object, Object> weigher = (key, value) -> ENTRY_BYTES;
+        return new SampledCaffeineCache("test",
+                Caffeine.newBuilder().maximumWeight(BUDGET).weigher(weigher).build(),
+                false, new MissRatioCurve(BUDGET, weigher), null);
+    }
+
+    /** 800 KB: fits at every simulated size from a quarter of the budget up. */
+    private static void fill(SampledCaffeineCache cache) {
+        for (long key = 0; key < KEYS; key++) {
+            cache.put(key, "value");
+        }
+    }
+
+    private static void lookUpAll(SampledCaffeineCache cache) {
+        for (long key = 0; key < KEYS; key++) {
+            cache.get(key);
+        }
+    }
+}
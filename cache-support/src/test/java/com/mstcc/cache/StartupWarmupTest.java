@@ -0,0 +1,97 @@
+package com.mstcc.cache;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link StartupWarmup}, against a stub standing in for the local server.
+ */
+class StartupWarmupTest {
+
+    private final Set<String> requested = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("replays the configured queries and the hot IDs until latency settles")
+    void warmUp_replaysQueriesAndHotIds() throws IOException {
+        String baseUrl = startServer(200, 0);
+
+        int rounds = warmup(List.of(7L, 8L), "10s").warmUp(baseUrl);
+
+        assertThat(requested).containsExactlyInAnyOrder("/api/posts?limit=20", "/api/posts/7", "/api/posts/8");
+        assertThat(rounds).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("server errors never count as warm, so the warm-up runs until its time is up")
+    void warmUp_stopsAtMaxDurationWhileFailing() throws IOException {
+        String baseUrl = startServer(500, 0);
+        long start = System.currentTimeMillis();
+
+        int rounds = warmup(List.of(), "2s").warmUp(baseUrl);
+
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(2_000);
+        assertThat(rounds).isGreaterThan(5);
+    }
+
+    @Test
+    @DisplayName("a slow server cannot keep the warm-up past its deadline")
+    void warmUp_stopsMidRoundAtMaxDuration() throws IOException {
+        String baseUrl = startServer(200, 400);
+        long start = System.currentTimeMillis();
+
+        warmup(LongStream.rangeClosed(1, 20).boxed().toList(), "1s").warmUp(baseUrl);
+
+        // One round of 21 requests would take over 8 seconds
+        assertThat(System.currentTimeMillis() - start).isLessThan(2_000);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private String startServer(int status, long delayMillis) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requested.add(exchange.getRequestURI().toString());
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static StartupWarmup warmup(Collection<Long> hotIds, String maxDuration) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("warmup.requests[0]", "/api/posts?limit=20")
+                .withProperty("warmup.latency-threshold", "1s")
+                .withProperty("warmup.max-duration", maxDuration);
+        return new StartupWarmup("/api/posts/", () -> hotIds,
+                new StaticListableBeanFactory().getBeanProvider(ApplicationInfoManager.class), environment);
+    }
+}
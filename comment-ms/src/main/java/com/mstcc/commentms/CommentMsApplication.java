@@ -5,12 +5,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Comment Microservice
  * Enables Feign clients to communicate with User and Post services
+ * and scheduling for the periodic post existence filter rebuild
  */
 @EnableFeignClients
+@EnableScheduling
 @SpringBootApplication
 public class CommentMsApplication {
 
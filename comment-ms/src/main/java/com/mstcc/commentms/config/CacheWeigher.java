@@ -0,0 +1,88 @@
+package com.mstcc.commentms.config;
+
+import com.mstcc.cache.EntryWeigher;
+import com.mstcc.commentms.dto.CommentPageDTO;
+import com.mstcc.commentms.dto.CommentPreviewDTO;
+import com.mstcc.commentms.dto.CommentResponseDTO;
+import com.mstcc.commentms.dto.ThreadCommentDTO;
+import com.mstcc.commentms.dto.ThreadPageDTO;
+import com.mstcc.commentms.entities.Comment;
+
+/**
+ * Weighs comment-ms cache entries. Comment pages, thread pages and previews are weighed by
+ * walking their items; the content of each comment dominates the total.
+ */
+final class CacheWeigher extends EntryWeigher {
+
+    @Override
+    protected long estimateOther(Object value) {
+        if (value instanceof CommentPageDTO page) {
+            return commentPage(page);
+        }
+        if (value instanceof ThreadPageDTO page) {
+            return threadPage(page);
+        }
+        if (value instanceof CommentResponseDTO comment) {
+            return comment(comment);
+        }
+        if (value instanceof ThreadCommentDTO comment) {
+            return threadComment(comment);
+        }
+        if (value instanceof CommentPreviewDTO preview) {
+            return preview(preview);
+        }
+        if (value instanceof Comment comment) {
+            return comment(comment);
+        }
+        return super.estimateOther(value);
+    }
+
+    private long commentPage(CommentPageDTO page) {
+        return align(OBJECT_HEADER + 3 * REFERENCE)
+                + list(page.items())
+                + string(page.nextCursor())
+                + list(page.pending());
+    }
+
+    private long threadPage(ThreadPageDTO page) {
+        return align(OBJECT_HEADER + 2 * REFERENCE)
+                + list(page.items())
+                + string(page.nextCursor());
+    }
+
+    private long preview(CommentPreviewDTO preview) {
+        return align(OBJECT_HEADER + 2 * REFERENCE + 8)
+                + boxed(preview.postId())
+                + list(preview.comments());
+    }
+
+    private static long comment(CommentResponseDTO comment) {
+        return align(OBJECT_HEADER + 5 * REFERENCE)
+                + boxed(comment.id())
+                + boxed(comment.postId())
+                + boxed(comment.userId())
+                + string(comment.content())
+                + dateTime(comment.createdAt());
+    }
+
+    private static long threadComment(ThreadCommentDTO comment) {
+        return align(OBJECT_HEADER + 6 * REFERENCE + 4 + 8)
+                + boxed(comment.id())
+                + boxed(comment.postId())
+                + boxed(comment.userId())
+                + boxed(comment.parentId())
+                + string(comment.content())
+                + dateTime(comment.createdAt());
+    }
+
+    private static long comment(Comment comment) {
+        return align(OBJECT_HEADER + 8 * REFERENCE + 4 + 8)
+                + boxed(comment.getId())
+                + string(comment.getContent())
+                + boxed(comment.getPostId())
+                + boxed(comment.getUserId())
+                + dateTime(comment.getCreatedAt())
+                + boxed(comment.getParentId())
+                + string(comment.getPath());
+    }
+}
@@ -1,6 +1,11 @@
 package com.mstcc.commentms.controller;
 
+import com.mstcc.commentms.dto.CommentPageDTO;
+import com.mstcc.commentms.dto.CommentPreviewDTO;
+import com.mstcc.commentms.dto.CommentPreviewRequest;
+import com.mstcc.commentms.dto.ThreadPageDTO;
 import com.mstcc.commentms.entities.Comment;
+import com.mstcc.commentms.exception.ErrorResponse;
 import com.mstcc.commentms.services.CommentService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,6 +13,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,6 +32,9 @@ import java.util.List;
 public class CommentController {
 
     private static final Logger logger = LoggerFactory.getLogger(CommentController.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_PREVIEW_POSTS = 100;
+    private static final int DEFAULT_PREVIEW_SIZE = 3;
 
     private final CommentService commentService;
 
@@ -63,42 +73,185 @@ public class CommentController {
     }
 
     /**
-     * Retrieves all comments for a given post.
-     * Exceptions are propagated to {@code GlobalExceptionHandler}.
+     * Retrieves one page of validated comments for a given post, oldest first.
+     * Exceptions (e.g. a malformed cursor) are propagated to {@code GlobalExceptionHandler}.
      *
-     * @param postId post ID
-     * @return 200 with list of comments (may be empty)
+     * @param postId   post ID
+     * @param limit    maximum number of comments to return (defaults to 20, capped at 100)
+     * @param cursor   {@code nextCursor} of the previous page; omit for the first page
+     * @param viewerId optional viewer whose own pending comments are added to the first page
+     * @return 200 with the page (items may be empty), or 400 if limit is not positive
      */
     @GetMapping("/post/{postId}")
-    public ResponseEntity<List<Comment>> getCommentsByPostId(@PathVariable Long postId) {
-        logger.info("GET /api/comments/post/{} - Fetching comments by post", postId);
-        return ResponseEntity.ok(commentService.findCommentsByPostId(postId));
+    public ResponseEntity<?> getCommentsByPostId(
+            @PathVariable Long postId,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Long viewerId) {
+        logger.info("GET /api/comments/post/{} - Fetching comments by post (limit={})", postId, limit);
+        if (limit <= 0) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.of(400, "Bad Request", "limit must be greater than 0"));
+        }
+        CommentPageDTO page = commentService.findCommentsByPostId(postId, cursor, Math.min(limit, MAX_PAGE_SIZE));
+        if (viewerId != null && cursor == null) {
+            page = page.withPending(commentService.findPendingComments(postId, viewerId));
+        }
+        return ResponseEntity.ok(page);
     }
 
     /**
-     * Retrieves all comments by a given user.
+     * Retrieves one page of a post's top-level comments with their reply counts, oldest first.
+     * Exceptions (e.g. a malformed cursor) are propagated to {@code GlobalExceptionHandler}.
+     *
+     * @param postId post ID
+     * @param limit  maximum number of comments to return (defaults to 20, capped at 100)
+     * @param cursor {@code nextCursor} of the previous page; omit for the first page
+     * @return 200 with the page (items may be empty), or 400 if limit is not positive
+     */
+    @GetMapping("/post/{postId}/threads")
+    public ResponseEntity<?> getRootCommentsByPostId(
+            @PathVariable Long postId,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        logger.info("GET /api/comments/post/{}/threads - Fetching top-level comments (limit={})", postId, limit);
+        if (limit <= 0) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.of(400, "Bad Request", "limit must be greater than 0"));
+        }
+        ThreadPageDTO page = commentService.findRootComments(postId, cursor, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Retrieves one page of the whole thread below a comment, in depth-first order.
+     *
+     * @param id     ID of the comment the thread starts at
+     * @param limit  maximum number of replies to return (defaults to 20, capped at 100)
+     * @param cursor {@code nextCursor} of the previous page; omit for the first page
+     * @return 200 with the thread page, 404 if the comment does not exist, or 400 if limit is not positive
+     */
+    @GetMapping("/{id}/thread")
+    public ResponseEntity<?> getThread(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        logger.info("GET /api/comments/{}/thread - Fetching thread (limit={})", id, limit);
+        if (limit <= 0) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.of(400, "Bad Request", "limit must be greater than 0"));
+        }
+        return commentService.findThread(id, cursor, Math.min(limit, MAX_PAGE_SIZE))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves one page of the direct replies of a comment, each with its reply count.
+     *
+     * @param id     parent comment ID
+     * @param limit  maximum number of replies to return (defaults to 20, capped at 100)
+     * @param cursor {@code nextCursor} of the previous page; omit for the first page
+     * @return 200 with the page, 404 if the comment does not exist, or 400 if limit is not positive
+     */
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<?> getReplies(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        logger.info("GET /api/comments/{}/replies - Fetching replies (limit={})", id, limit);
+        if (limit <= 0) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.of(400, "Bad Request", "limit must be greater than 0"));
+        }
+        return commentService.findReplies(id, cursor, Math.min(limit, MAX_PAGE_SIZE))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Returns the latest comments and total count for each of several posts in one call.
+     * Intended for feed rendering, where one {@code /post/{postId}} call per post is too costly.
+     *
+     * @param request post IDs (at most 100) and the number of comments per post (defaults to 3)
+     * @return 200 with one preview per distinct post, or 400 if the request is out of bounds
+     */
+    @PostMapping("/preview")
+    public ResponseEntity<?> getCommentPreviews(@RequestBody CommentPreviewRequest request) {
+        List<Long> postIds = request.postIds();
+        int limit = request.limit() != null ? request.limit() : DEFAULT_PREVIEW_SIZE;
+        logger.info("POST /api/comments/preview - Fetching previews for {} posts (limit={})",
+                postIds != null ? postIds.size() : 0, limit);
+        if (postIds == null || postIds.isEmpty() || postIds.size() > MAX_PREVIEW_POSTS) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.of(400, "Bad Request",
+                            "postIds must contain between 1 and " + MAX_PREVIEW_POSTS + " entries"));
+        }
+        if (limit <= 0) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.of(400, "Bad Request", "limit must be greater than 0"));
+        }
+        List<CommentPreviewDTO> previews = commentService.findCommentPreviews(postIds, limit);
+        return ResponseEntity.ok(previews);
+    }
+
+    /**
+     * Retrieves all validated comments by a given user.
+     * When the viewer is the user themself, their pending comments are appended.
      * Exceptions are propagated to {@code GlobalExceptionHandler}.
      *
-     * @param userId user ID
+     * @param userId   user ID
+     * @param viewerId optional ID of the requesting user
      * @return 200 with list of comments (may be empty)
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Comment>> getCommentsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<List<Comment>> getCommentsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long viewerId) {
         logger.info("GET /api/comments/user/{} - Fetching comments by user", userId);
-        return ResponseEntity.ok(commentService.findCommentsByUserId(userId));
+        List<Comment> comments = commentService.findCommentsByUserId(userId);
+        if (userId.equals(viewerId)) {
+            List<Comment> pending = commentService.findPendingCommentsByUserId(userId);
+            if (!pending.isEmpty()) {
+                comments = new ArrayList<>(comments);
+                comments.addAll(pending);
+            }
+        }
+        return ResponseEntity.ok(comments);
     }
 
     /**
      * Creates a new comment.
      * Exceptions are propagated to {@code GlobalExceptionHandler}.
      *
+     * <p>With {@code async=true} the comment is stored as {@code PENDING} and 202 is returned
+     * immediately; user and post are validated in the background. The author can poll
+     * {@code GET /api/comments/{id}} for the final {@code VALIDATED} or {@code REJECTED} status.
+     *
      * @param comment comment data
-     * @return 201 with the created comment
+     * @param async   accept now and validate asynchronously (defaults to false)
+     * @return 201 with the created comment, or 202 with the pending comment in async mode
      */
     @PostMapping
-    public ResponseEntity<Comment> createComment(@RequestBody Comment comment) {
-        logger.info("POST /api/comments - Creating new comment for userId: {}, postId: {}",
-                comment.getUserId(), comment.getPostId());
+    public ResponseEntity<Comment> createComment(
+            @RequestBody Comment comment,
+            @RequestParam(defaultValue = "false") boolean async) {
+        logger.info("POST /api/comments - Creating new comment for userId: {}, postId: {} (async={})",
+                comment.getUserId(), comment.getPostId(), async);
+        if (async) {
+            Comment pendingComment = commentService.acceptComment(comment);
+            logger.info("Comment accepted: id={}", pendingComment.getId());
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/comments/" + pendingComment.getId()))
+                    .body(pendingComment);
+        }
         Comment savedComment = commentService.createAndValidateComment(comment);
         logger.info("Comment created: id={}", savedComment.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(savedComment);
@@ -123,7 +276,7 @@ public class CommentController {
     }
 
     /**
-     * Deletes a comment.
+     * Deletes a comment and all replies below it.
      * Exceptions are propagated to {@code GlobalExceptionHandler}.
      *
      * @param id comment ID
@@ -0,0 +1,58 @@
+package com.mstcc.commentms.controller;
+
+import com.mstcc.commentms.services.PostExistenceFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receives post lifecycle notifications from post-ms and applies them to the
+ * {@link PostExistenceFilter}, so newly created posts are validated without a remote call.
+ */
+@RestController
+@RequestMapping("/api/comments/post-events")
+public class PostEventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostEventController.class);
+
+    private final PostExistenceFilter postExistenceFilter;
+
+    /**
+     * Constructs the controller with the filter it updates.
+     *
+     * @param postExistenceFilter local post existence filter
+     */
+    public PostEventController(PostExistenceFilter postExistenceFilter) {
+        this.postExistenceFilter = postExistenceFilter;
+    }
+
+    /**
+     * Records a newly created post.
+     *
+     * @param postId the new post ID
+     * @return 204 No Content
+     */
+    @PostMapping("/{postId}/created")
+    public ResponseEntity<Void> postCreated(@PathVariable Long postId) {
+        logger.info("POST /api/comments/post-events/{}/created - Recording new post", postId);
+        postExistenceFilter.recordCreated(postId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Records a deleted post.
+     *
+     * @param postId the deleted post ID
+     * @return 204 No Content
+     */
+    @PostMapping("/{postId}/deleted")
+    public ResponseEntity<Void> postDeleted(@PathVariable Long postId) {
+        logger.info("POST /api/comments/post-events/{}/deleted - Recording deleted post", postId);
+        postExistenceFilter.recordDeleted(postId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.mstcc.commentms.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position inside the {@code (created_at, id)} ordering of a post's comments.
+ * Serialised as an opaque URL-safe token so clients never depend on its layout.
+ *
+ * @param createdAt creation timestamp of the last comment already returned
+ * @param id        ID of the last comment already returned (tie-breaker)
+ */
+public record CommentCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes this position as an opaque token.
+     *
+     * @return URL-safe Base64 cursor
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token opaque cursor received from a client
+     * @return decoded position
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static CommentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new CommentCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.mstcc.commentms.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of a post's validated comments in {@code (created_at, id)} order.
+ *
+ * @param items      comments on this page, oldest first
+ * @param nextCursor opaque cursor for the following page, or {@code null} on the last page
+ * @param pending    the viewer's own comments still awaiting validation (first page only)
+ */
+public record CommentPageDTO(List<CommentResponseDTO> items,
+                             String nextCursor,
+                             @JsonInclude(JsonInclude.Include.NON_EMPTY) List<CommentResponseDTO> pending) {
+
+    public CommentPageDTO(List<CommentResponseDTO> items, String nextCursor) {
+        this(items, nextCursor, List.of());
+    }
+
+    /**
+     * Returns a copy of this page carrying the given pending comments.
+     * @param pending the viewer's pending comments
+     * @return page with pending comments attached
+     */
+    public CommentPageDTO withPending(List<CommentResponseDTO> pending) {
+        return new CommentPageDTO(items, nextCursor, pending);
+    }
+}
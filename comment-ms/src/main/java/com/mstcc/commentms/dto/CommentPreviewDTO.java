@@ -0,0 +1,26 @@
+package com.mstcc.commentms.dto;
+
+import java.util.List;
+
+/**
+ * Feed-rendering summary of a post's comments: the latest few plus the total count.
+ *
+ * @param postId     ID of the post
+ * @param totalCount number of comments on the post
+ * @param comments   latest comments, newest first
+ */
+public record CommentPreviewDTO(Long postId, long totalCount, List<CommentResponseDTO> comments) {
+
+    /**
+     * Returns a copy holding at most {@code limit} comments.
+     *
+     * @param limit maximum number of comments to keep
+     * @return this preview if it is already small enough, otherwise a truncated copy
+     */
+    public CommentPreviewDTO truncate(int limit) {
+        if (comments.size() <= limit) {
+            return this;
+        }
+        return new CommentPreviewDTO(postId, totalCount, comments.subList(0, limit));
+    }
+}
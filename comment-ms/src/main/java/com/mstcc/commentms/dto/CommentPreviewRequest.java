@@ -0,0 +1,12 @@
+package com.mstcc.commentms.dto;
+
+import java.util.List;
+
+/**
+ * Request body for {@code POST /api/comments/preview}.
+ *
+ * @param postIds posts to summarise
+ * @param limit   latest comments to include per post; defaults to 3 when absent and is capped at 10
+ */
+public record CommentPreviewRequest(List<Long> postIds, Integer limit) {
+}
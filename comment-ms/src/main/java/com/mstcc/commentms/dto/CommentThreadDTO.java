@@ -0,0 +1,13 @@
+package com.mstcc.commentms.dto;
+
+import java.util.List;
+
+/**
+ * One page of a whole thread in depth-first order.
+ *
+ * @param root       the comment the thread starts at
+ * @param replies    validated comments below the root; every reply follows its parent
+ * @param nextCursor opaque cursor for the following page, or {@code null} on the last page
+ */
+public record CommentThreadDTO(ThreadCommentDTO root, List<ThreadCommentDTO> replies, String nextCursor) {
+}
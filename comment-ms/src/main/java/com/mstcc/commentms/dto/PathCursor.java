@@ -0,0 +1,45 @@
+package com.mstcc.commentms.dto;
+
+import com.mstcc.commentms.entities.Comment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position inside the materialised-path ordering of a thread.
+ * Serialised as an opaque URL-safe token so clients never depend on its layout.
+ *
+ * @param path materialised path of the last comment already returned
+ */
+public record PathCursor(String path) {
+
+    /**
+     * Encodes this position as an opaque token.
+     *
+     * @return URL-safe Base64 cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(path.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token opaque cursor received from a client
+     * @return decoded position
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PathCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+        if (raw.isEmpty() || raw.length() % Comment.PATH_SEGMENT_WIDTH != 0 || !raw.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        return new PathCursor(raw);
+    }
+}
@@ -0,0 +1,47 @@
+package com.mstcc.commentms.dto;
+
+import com.mstcc.commentms.entities.Comment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comment as shown in a thread view, with its position and the size of its subtree.
+ *
+ * @param id         unique identifier
+ * @param postId     ID of the post this comment belongs to
+ * @param userId     ID of the comment's author
+ * @param parentId   ID of the comment this one replies to, or {@code null} at top level
+ * @param depth      nesting level, 0 for top-level comments
+ * @param replyCount validated replies anywhere below this comment
+ * @param content    comment text
+ * @param createdAt  creation timestamp
+ */
+public record ThreadCommentDTO(
+        Long id,
+        Long postId,
+        Long userId,
+        Long parentId,
+        int depth,
+        long replyCount,
+        String content,
+        LocalDateTime createdAt
+) {
+    /**
+     * Creates a thread DTO from a {@link Comment} entity.
+     *
+     * @param comment source entity
+     * @return populated DTO
+     */
+    public static ThreadCommentDTO from(Comment comment) {
+        return new ThreadCommentDTO(
+                comment.getId(),
+                comment.getPostId(),
+                comment.getUserId(),
+                comment.getParentId(),
+                comment.getDepth(),
+                comment.getReplyCount(),
+                comment.getContent(),
+                comment.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.mstcc.commentms.dto;
+
+import java.util.List;
+
+/**
+ * One page of thread comments: top-level comments of a post or direct replies of a comment.
+ *
+ * @param items      comments on this page, each with its reply count
+ * @param nextCursor opaque cursor for the following page, or {@code null} on the last page
+ */
+public record ThreadPageDTO(List<ThreadCommentDTO> items, String nextCursor) {
+}
@@ -5,19 +5,30 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(
     name = "comments",
     indexes = {
-        @Index(name = "idx_comments_post_id", columnList = "post_id"),
-        @Index(name = "idx_comments_user_id", columnList = "user_id")
+        // Composite index backs keyset pagination over (created_at, id) within a post;
+        // its post_id prefix also serves plain per-post lookups.
+        @Index(name = "idx_comments_post_created_id", columnList = "post_id, created_at, id"),
+        @Index(name = "idx_comments_user_id", columnList = "user_id"),
+        // Lets the pending-comment sweeper find stale PENDING rows without a table scan
+        @Index(name = "idx_comments_status_created", columnList = "status, created_at"),
+        // A thread (or any subtree) is one contiguous path range within a post
+        @Index(name = "idx_comments_post_path", columnList = "post_id, path")
     }
 )
 @Setter
 @Getter
 public class Comment {
 
+    /** Width of one zero-padded comment ID in {@link #path}. */
+    public static final int PATH_SEGMENT_WIDTH = 19;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -34,9 +45,62 @@ public class Comment {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // Existing rows predate asynchronous validation and are backfilled as VALIDATED
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, columnDefinition = "varchar(16) default 'VALIDATED' not null")
+    private CommentStatus status = CommentStatus.VALIDATED;
+
+    // Comment this one replies to; null for top-level comments
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // Materialised path: zero-padded IDs from the thread root down to this comment.
+    // "C" collation compares bytes, so every subtree sorts as one contiguous range.
+    // Null only for top-level comments created before threading existed.
+    @Column(name = "path", length = 400, columnDefinition = "varchar(400) collate \"C\"")
+    private String path;
+
+    @Column(name = "depth", nullable = false, columnDefinition = "integer default 0 not null")
+    private int depth;
+
+    // Validated comments anywhere below this one in its thread. Only changed through
+    // CommentRepository.adjustReplyCounts, so saving a stale entity cannot overwrite it
+    @Column(name = "reply_count", nullable = false, updatable = false, columnDefinition = "bigint default 0 not null")
+    private long replyCount;
+
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
     }
 
+    /**
+     * Formats a comment ID as one fixed-width path segment.
+     * @param id comment ID
+     * @return zero-padded segment
+     */
+    public static String pathSegment(Long id) {
+        return String.format("%0" + PATH_SEGMENT_WIDTH + "d", id);
+    }
+
+    /**
+     * Path of this comment, derived from its ID for legacy top-level comments without one.
+     * @return materialised path
+     */
+    public String threadPath() {
+        return path != null ? path : pathSegment(id);
+    }
+
+    /**
+     * IDs of all comments above this one, root first.
+     * @return ancestor IDs; empty for top-level comments
+     */
+    public List<Long> ancestorIds() {
+        String resolved = threadPath();
+        List<Long> ancestors = new ArrayList<>();
+        for (int i = 0; i + PATH_SEGMENT_WIDTH < resolved.length(); i += PATH_SEGMENT_WIDTH) {
+            ancestors.add(Long.parseLong(resolved.substring(i, i + PATH_SEGMENT_WIDTH)));
+        }
+        return ancestors;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.mstcc.commentms.entities;
+
+/**
+ * Lifecycle of a comment accepted before its user and post were validated.
+ * Comments created synchronously are stored directly as {@link #VALIDATED}.
+ */
+public enum CommentStatus {
+    /** Persisted, upstream validation still running; visible only to its author. */
+    PENDING,
+    /** User and post confirmed; visible in all listings. */
+    VALIDATED,
+    /** Upstream validation failed; kept so the author can see the outcome. */
+    REJECTED
+}
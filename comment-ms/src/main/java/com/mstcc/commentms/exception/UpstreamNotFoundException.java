@@ -0,0 +1,30 @@
+package com.mstcc.commentms.exception;
+
+/**
+ * Exception thrown when user-ms or post-ms definitely reports an entity as missing — a 404,
+ * an {@code /exists} answer of {@code false}, or a recent negative cache entry.
+ *
+ * <p>Kept apart from timeouts and other upstream errors, which say nothing about whether the
+ * entity exists, so pending comments are only rejected on a definite answer.
+ */
+public class UpstreamNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new exception with the given detail message.
+     *
+     * @param message human-readable description of the missing entity
+     */
+    public UpstreamNotFoundException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new exception with the given detail message and root cause.
+     *
+     * @param message human-readable description of the missing entity
+     * @param cause   the underlying exception (e.g. a Feign 404)
+     */
+    public UpstreamNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -4,6 +4,9 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 /**
  * Feign client for post-ms.
@@ -21,4 +24,14 @@ public interface PostFeignClient {
      */
     @GetMapping("/{postId}/exists")
     ResponseEntity<Boolean> postExists(@PathVariable("postId") Long postId);
+
+    /**
+     * Returns a page of post IDs in ascending order, used to seed the local existence filter.
+     * @param afterId exclusive lower bound (0 for the first page)
+     * @param limit   maximum number of IDs to return
+     * @return ResponseEntity containing the IDs, empty when exhausted
+     */
+    @GetMapping("/ids")
+    ResponseEntity<List<Long>> getPostIds(@RequestParam("afterId") Long afterId,
+                                          @RequestParam("limit") int limit);
 }
@@ -1,21 +1,192 @@
 package com.mstcc.commentms.repositories;
 
 import com.mstcc.commentms.entities.Comment;
+import com.mstcc.commentms.entities.CommentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    
+
+    /**
+     * First page of a post's comments with the given status in {@code (created_at, id)} order.
+     * Served by the composite index {@code idx_comments_post_created_id}.
+     */
+    List<Comment> findByPostIdAndStatusOrderByCreatedAtAscIdAsc(Long postId, CommentStatus status, Pageable pageable);
+
+    /**
+     * Keyset page of a post's validated comments strictly after the given {@code (created_at, id)}
+     * position. Unlike OFFSET paging, the cost does not grow with the page number.
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId " +
+           "AND c.status = com.mstcc.commentms.entities.CommentStatus.VALIDATED " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findByPostIdAfter(@Param("postId") Long postId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    /**
+     * Latest {@code perPost} validated comments of every given post plus each post's total count,
+     * in a single round trip. Window functions rank and count inside each post partition,
+     * so the result size is bounded by {@code postIds.size() * perPost}.
+     */
+    @Query(value = "SELECT id AS id, post_id AS postId, user_id AS userId, content AS content, " +
+                   "created_at AS createdAt, total_count AS totalCount " +
+                   "FROM (SELECT c.*, " +
+                   "      ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.created_at DESC, c.id DESC) AS rn, " +
+                   "      COUNT(*) OVER (PARTITION BY c.post_id) AS total_count " +
+                   "      FROM comments c WHERE c.post_id IN (:postIds) AND c.status = 'VALIDATED') ranked " +
+                   "WHERE rn <= :perPost " +
+                   "ORDER BY post_id, created_at DESC, id DESC",
+           nativeQuery = true)
+    List<CommentPreviewRow> findLatestByPostIds(@Param("postIds") Collection<Long> postIds,
+                                                @Param("perPost") int perPost);
+
+    /**
+     * Row of {@link #findLatestByPostIds}: one comment plus the total count of its post.
+     */
+    interface CommentPreviewRow {
+        Long getId();
+        Long getPostId();
+        Long getUserId();
+        String getContent();
+        LocalDateTime getCreatedAt();
+        Long getTotalCount();
+    }
+
+    /**
+     * First page of a post's validated top-level comments in {@code (created_at, id)} order.
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId AND c.parentId IS NULL " +
+           "AND c.status = com.mstcc.commentms.entities.CommentStatus.VALIDATED " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findRootsByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    /**
+     * Keyset page of a post's validated top-level comments after the given position.
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId AND c.parentId IS NULL " +
+           "AND c.status = com.mstcc.commentms.entities.CommentStatus.VALIDATED " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findRootsAfter(@Param("postId") Long postId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
+
+    /**
+     * Validated comments of a subtree in depth-first (path) order, strictly after {@code afterPath}
+     * and before {@code upperBound}. One range scan of {@code idx_comments_post_path}.
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId " +
+           "AND c.path > :afterPath AND c.path < :upperBound " +
+           "AND c.status = com.mstcc.commentms.entities.CommentStatus.VALIDATED " +
+           "ORDER BY c.path ASC")
+    List<Comment> findSubtree(@Param("postId") Long postId,
+                              @Param("afterPath") String afterPath,
+                              @Param("upperBound") String upperBound,
+                              Pageable pageable);
+
+    /**
+     * Like {@link #findSubtree} but restricted to one depth, i.e. the direct replies of a comment.
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId " +
+           "AND c.path > :afterPath AND c.path < :upperBound AND c.depth = :depth " +
+           "AND c.status = com.mstcc.commentms.entities.CommentStatus.VALIDATED " +
+           "ORDER BY c.path ASC")
+    List<Comment> findSubtreeAtDepth(@Param("postId") Long postId,
+                                     @Param("afterPath") String afterPath,
+                                     @Param("upperBound") String upperBound,
+                                     @Param("depth") int depth,
+                                     Pageable pageable);
+
     /**
-     * Find all comments for a specific post
+     * Every comment of a subtree (any status), root included, for deletion bookkeeping.
      */
-    List<Comment> findByPostId(Long postId);
-    
+    @Query("SELECT c.id AS id, c.userId AS userId, c.status AS status FROM Comment c " +
+           "WHERE c.postId = :postId AND c.path >= :fromPath AND c.path < :upperBound")
+    List<SubtreeRow> findSubtreeRows(@Param("postId") Long postId,
+                                     @Param("fromPath") String fromPath,
+                                     @Param("upperBound") String upperBound);
+
+    /**
+     * Row of {@link #findSubtreeRows}.
+     */
+    interface SubtreeRow {
+        Long getId();
+        Long getUserId();
+        CommentStatus getStatus();
+    }
+
+    /**
+     * Deletes a whole subtree, root included, with one range delete.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Comment c WHERE c.postId = :postId AND c.path >= :fromPath AND c.path < :upperBound")
+    int deleteSubtree(@Param("postId") Long postId,
+                      @Param("fromPath") String fromPath,
+                      @Param("upperBound") String upperBound);
+
+    /**
+     * Adds {@code delta} to the reply counts of the given comments (the ancestors of a changed reply).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + :delta WHERE c.id IN :ids")
+    int adjustReplyCounts(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+
+    /**
+     * Find all comments by a specific user with the given status
+     */
+    List<Comment> findByUserIdAndStatus(Long userId, CommentStatus status);
+
+    /**
+     * A user's comments on one post with the given status (the author's pending comments).
+     */
+    List<Comment> findByPostIdAndUserIdAndStatusOrderByCreatedAtAscIdAsc(Long postId, Long userId, CommentStatus status);
+
+    /**
+     * Find all comments with the given status
+     */
+    List<Comment> findByStatus(CommentStatus status);
+
+    /**
+     * Comments still in the given status that were created before the cutoff.
+     * Served by {@code idx_comments_status_created}.
+     */
+    List<Comment> findByStatusAndCreatedAtBefore(CommentStatus status, LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Moves a comment out of {@code PENDING}. The status guard makes concurrent
+     * validations of the same comment idempotent: only the first one wins.
+     * @return number of updated rows (0 if the comment is gone or already resolved)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Comment c SET c.status = :status " +
+           "WHERE c.id = :id AND c.status = com.mstcc.commentms.entities.CommentStatus.PENDING")
+    int resolvePending(@Param("id") Long id, @Param("status") CommentStatus status);
+
     /**
-     * Find all comments by a specific user
+     * Marks a pending or rejected comment as validated. The status guard makes this race-free
+     * against the pending-comment sweeper: only one of them sees the row change.
+     * @return number of updated rows (0 if the comment is gone or already validated)
      */
-    List<Comment> findByUserId(Long userId);
-}
\ No newline at end of file
+    @Modifying
+    @Transactional
+    @Query("UPDATE Comment c SET c.status = com.mstcc.commentms.entities.CommentStatus.VALIDATED " +
+           "WHERE c.id = :id AND c.status <> com.mstcc.commentms.entities.CommentStatus.VALIDATED")
+    int markValidated(@Param("id") Long id);
+}
@@ -0,0 +1,86 @@
+package com.mstcc.commentms.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-post and per-user generation counters used as part of list cache keys.
+ *
+ * <p>Cached comment lists are keyed by {@code id + generation}. A write bumps only the
+ * generations of the posts and users it touches, so their old entries are never read again
+ * and age out through the cache's size limit, while every other cached list stays valid.
+ * This replaces {@code allEntries} eviction, which dropped every post and user on each write.
+ *
+ * <p>Generations come from one monotonic clock, so a counter evicted from this bounded map
+ * is re-created with a value no earlier entry can have used. Bumps run after the surrounding
+ * transaction commits, so a concurrent reader cannot cache pre-commit rows under the new key.
+ */
+@Component("cacheGenerations")
+public class CacheGenerations {
+
+    private static final int MAX_TRACKED_KEYS = 100_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<Long, Long> postGenerations = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_KEYS)
+            .build();
+    private final Cache<Long, Long> userGenerations = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_KEYS)
+            .build();
+
+    /**
+     * Current generation of a post's cached lists.
+     * @param postId the post ID
+     * @return the post generation
+     */
+    public long post(Long postId) {
+        return postGenerations.get(postId, k -> clock.incrementAndGet());
+    }
+
+    /**
+     * Current generation of a user's cached lists.
+     * @param userId the user ID
+     * @return the user generation
+     */
+    public long user(Long userId) {
+        return userGenerations.get(userId, k -> clock.incrementAndGet());
+    }
+
+    /**
+     * Invalidates the cached lists of a post once the current transaction commits.
+     * @param postId the post ID; ignored if null
+     */
+    public void bumpPost(Long postId) {
+        bump(postGenerations, postId);
+    }
+
+    /**
+     * Invalidates the cached lists of a user once the current transaction commits.
+     * @param userId the user ID; ignored if null
+     */
+    public void bumpUser(Long userId) {
+        bump(userGenerations, userId);
+    }
+
+    private void bump(Cache<Long, Long> generations, Long key) {
+        if (key == null) {
+            return;
+        }
+        Runnable advance = () -> generations.put(key, clock.incrementAndGet());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance.run();
+                }
+            });
+        } else {
+            advance.run();
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.mstcc.commentms.services;
 
+import com.mstcc.cache.NegativeCache;
 import com.mstcc.commentms.feignclients.PostFeignClient;
 import com.mstcc.commentms.feignclients.UserFeignClient;
 import com.mstcc.commentms.dto.UserDTO;
+import com.mstcc.commentms.exception.UpstreamNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
@@ -22,11 +25,18 @@ public class CommentAsyncHelper {
     
     private final UserFeignClient userFeignClient;
     private final PostFeignClient postFeignClient;
+    private final PostExistenceFilter postExistenceFilter;
+    /** IDs the owning service recently answered 404 for (see CacheConfig). */
+    private final NegativeCache missingUsers;
 
     public CommentAsyncHelper(UserFeignClient userFeignClient,
-                             PostFeignClient postFeignClient) {
+                             PostFeignClient postFeignClient,
+                             PostExistenceFilter postExistenceFilter,
+                             CacheManager cacheManager) {
         this.userFeignClient = userFeignClient;
         this.postFeignClient = postFeignClient;
+        this.postExistenceFilter = postExistenceFilter;
+        this.missingUsers = new NegativeCache(cacheManager, "missingUsers");
     }
 
     /**
@@ -40,6 +50,10 @@ public class CommentAsyncHelper {
         long startTime = System.currentTimeMillis();
         
         logger.info("[{}] START - Fetching user async: userId={}", threadName, userId);
+
+        if (missingUsers.isKnownMissing(userId)) {
+            return missingUsers.failed(new UpstreamNotFoundException("User not found: " + userId));
+        }
         
         try {
             ResponseEntity<UserDTO> response = userFeignClient.getUserById(userId);
@@ -55,11 +69,12 @@ public class CommentAsyncHelper {
             long duration = System.currentTimeMillis() - startTime;
             logger.error("[{}] FAILED - User fetch failed in {}ms: userId={}, error={}", 
                         threadName, duration, userId, e.getMessage());
-            
             CompletableFuture<UserDTO> failedFuture = new CompletableFuture<>();
-            failedFuture.completeExceptionally(
-                new RuntimeException("User not found: " + userId, e)
-            );
+            if (missingUsers.recordIfNotFound(userId, e)) {
+                failedFuture.completeExceptionally(new UpstreamNotFoundException("User not found: " + userId, e));
+            } else {
+                failedFuture.completeExceptionally(new RuntimeException("User lookup failed: " + userId, e));
+            }
             return failedFuture;
         }
     }
@@ -67,6 +82,7 @@ public class CommentAsyncHelper {
     /**
      * Checks post existence asynchronously.
      * Calls the lightweight /exists endpoint to avoid circular Feign call chains.
+     * The answer is recorded in {@link PostExistenceFilter} so repeat checks stay local.
      * @param postId the post ID to check
      * @return CompletableFuture containing true if the post exists
      */
@@ -75,8 +91,26 @@ public class CommentAsyncHelper {
         ResponseEntity<Boolean> response = postFeignClient.postExists(postId);
         Boolean exists = response.getBody();
         if (Boolean.FALSE.equals(exists)) {
-            throw new RuntimeException("Post not found: " + postId);
+            postExistenceFilter.recordMissing(postId);
+            throw new UpstreamNotFoundException("Post not found: " + postId);
         }
+        postExistenceFilter.recordExists(postId);
         return CompletableFuture.completedFuture(exists);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tells a definite not-found apart from timeouts and open circuits, which say nothing
+     * about whether the entity exists. Only the former is cached or rejects a comment.
+     * Circuit breaker and future wrappers are unwrapped first.
+     * @param e failure of an upstream call or of one of this helper's futures
+     * @return true if the owning service answered that the entity does not exist
+     */
+    public static boolean isNotFound(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof UpstreamNotFoundException) {
+                return true;
+            }
+        }
+        return NegativeCache.isNotFound(e);
+    }
+}
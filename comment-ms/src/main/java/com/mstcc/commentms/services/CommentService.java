@@ -1,5 +1,10 @@
 package com.mstcc.commentms.services;
 
+import com.mstcc.commentms.dto.CommentPageDTO;
+import com.mstcc.commentms.dto.CommentPreviewDTO;
+import com.mstcc.commentms.dto.CommentResponseDTO;
+import com.mstcc.commentms.dto.CommentThreadDTO;
+import com.mstcc.commentms.dto.ThreadPageDTO;
 import com.mstcc.commentms.entities.Comment;
 
 import java.util.List;
@@ -14,12 +19,21 @@ public interface CommentService {
 
     /**
      * Creates a new comment with parallel validation of user and post existence.
+     * A comment with {@code parentId} is a reply and joins its parent's thread.
      * @param comment comment entity to persist
      * @return the saved comment
      * @throws RuntimeException if user or post validation fails or times out
      */
     Comment createAndValidateComment(Comment comment);
 
+    /**
+     * Stores a new comment as {@code PENDING} and validates user and post asynchronously.
+     * @param comment comment entity to persist
+     * @return the saved pending comment
+     * @throws IllegalArgumentException if the post is known locally not to exist
+     */
+    Comment acceptComment(Comment comment);
+
     /**
      * Returns a comment by ID.
      * @param id comment ID
@@ -28,19 +42,75 @@ public interface CommentService {
     Optional<Comment> getCommentById(Long id);
 
     /**
-     * Returns all comments for a given post.
+     * Returns one page of a post's validated comments ordered by {@code (createdAt, id)}.
      * @param postId post ID
-     * @return list of comments, possibly empty
+     * @param cursor opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit  maximum number of comments on the page
+     * @return page of comments with the cursor of the next page, if any
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    CommentPageDTO findCommentsByPostId(Long postId, String cursor, int limit);
+
+    /**
+     * Returns one page of a post's validated top-level comments with their reply counts.
+     * @param postId post ID
+     * @param cursor opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit  maximum number of comments on the page
+     * @return page of top-level comments
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    ThreadPageDTO findRootComments(Long postId, String cursor, int limit);
+
+    /**
+     * Returns one page of the whole thread below a comment, in depth-first order.
+     * @param commentId ID of the comment the thread starts at
+     * @param cursor    opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit     maximum number of replies on the page
+     * @return the thread page, or empty if the comment does not exist
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    Optional<CommentThreadDTO> findThread(Long commentId, String cursor, int limit);
+
+    /**
+     * Returns one page of the direct replies of a comment.
+     * @param commentId parent comment ID
+     * @param cursor    opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit     maximum number of replies on the page
+     * @return the page of replies, or empty if the comment does not exist
+     * @throws IllegalArgumentException if the cursor is malformed
      */
-    List<Comment> findCommentsByPostId(Long postId);
+    Optional<ThreadPageDTO> findReplies(Long commentId, String cursor, int limit);
 
     /**
-     * Returns all comments authored by a given user.
+     * Returns a user's comments on a post that are still awaiting validation.
+     * @param postId post ID
+     * @param userId author of the pending comments
+     * @return pending comments, oldest first; usually empty
+     */
+    List<CommentResponseDTO> findPendingComments(Long postId, Long userId);
+
+    /**
+     * Returns the latest comments and the total comment count of several posts at once.
+     * @param postIds posts to summarise; duplicates are ignored
+     * @param limit   latest comments to include per post (capped by the implementation)
+     * @return one preview per distinct post, in request order; posts without comments are included
+     */
+    List<CommentPreviewDTO> findCommentPreviews(List<Long> postIds, int limit);
+
+    /**
+     * Returns all validated comments authored by a given user.
      * @param userId user ID
      * @return list of comments, possibly empty
      */
     List<Comment> findCommentsByUserId(Long userId);
 
+    /**
+     * Returns a user's comments still awaiting validation.
+     * @param userId user ID
+     * @return list of pending comments, possibly empty
+     */
+    List<Comment> findPendingCommentsByUserId(Long userId);
+
     /**
      * Updates an existing comment with re-validation of user and post.
      * @param id             comment ID to update
@@ -50,15 +120,15 @@ public interface CommentService {
     Optional<Comment> updateAndValidateComment(Long id, Comment commentDetails);
 
     /**
-     * Deletes a comment by ID.
+     * Deletes a comment by ID together with its replies.
      * @param id comment ID
      * @throws IllegalArgumentException if the comment does not exist
      */
     void deleteComment(Long id);
 
     /**
-     * Returns all comments (no filter).
-     * @return list of all comments
+     * Returns all validated comments.
+     * @return list of all validated comments
      */
     List<Comment> findAllComments();
 }
@@ -0,0 +1,185 @@
+package com.mstcc.commentms.services;
+
+import com.mstcc.commentms.dto.UserDTO;
+import com.mstcc.commentms.entities.Comment;
+import com.mstcc.commentms.entities.CommentStatus;
+import com.mstcc.commentms.repositories.CommentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Validates comments accepted in asynchronous mode and promotes or rejects them.
+ *
+ * <p>Validation runs on the {@code taskExecutor} pool after the accepting transaction commits.
+ * Only a definite not-found (a 404, {@code /exists} answering false, or a negative cache hit)
+ * rejects the comment. Timeouts, server errors and open circuits leave it {@code PENDING} for
+ * the sweeper, which retries stale pending comments and rejects those that stay unresolved
+ * for too long (e.g. after a crash or a long upstream outage).
+ */
+@Component
+public class PendingCommentValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingCommentValidator.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final long SWEEP_INTERVAL_MS = 60_000L;
+    private static final int RETRY_AFTER_MINUTES = 1;
+    private static final int MAX_PENDING_MINUTES = 30;
+    private static final int SWEEP_BATCH_SIZE = 50;
+
+    private final CommentRepository commentRepository;
+    private final CommentAsyncHelper asyncHelper;
+    private final PostExistenceFilter postExistenceFilter;
+    private final CacheGenerations cacheGenerations;
+    private final CacheManager cacheManager;
+
+    public PendingCommentValidator(CommentRepository commentRepository,
+                                   CommentAsyncHelper asyncHelper,
+                                   PostExistenceFilter postExistenceFilter,
+                                   CacheGenerations cacheGenerations,
+                                   CacheManager cacheManager) {
+        this.commentRepository = commentRepository;
+        this.asyncHelper = asyncHelper;
+        this.postExistenceFilter = postExistenceFilter;
+        this.cacheGenerations = cacheGenerations;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Validates a pending comment asynchronously.
+     * @param comment the pending comment (ID, user and post are read)
+     */
+    @Async("taskExecutor")
+    public void validateAsync(Comment comment) {
+        validate(comment);
+    }
+
+    /**
+     * Retries pending comments whose validation never completed and rejects expired ones.
+     * The batch is checked concurrently and waited for once, so a slow upstream costs one
+     * timeout per sweep rather than one per comment.
+     */
+    @Scheduled(initialDelay = SWEEP_INTERVAL_MS, fixedDelay = SWEEP_INTERVAL_MS)
+    public void sweepStalePending() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Comment> stale = commentRepository.findByStatusAndCreatedAtBefore(
+                CommentStatus.PENDING, now.minusMinutes(RETRY_AFTER_MINUTES), PageRequest.of(0, SWEEP_BATCH_SIZE));
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        logger.info("Sweeping {} stale pending comments", stale.size());
+        LocalDateTime expiry = now.minusMinutes(MAX_PENDING_MINUTES);
+        List<CompletableFuture<Void>> checks = new ArrayList<>();
+        for (Comment comment : stale) {
+            if (comment.getCreatedAt() != null && comment.getCreatedAt().isBefore(expiry)) {
+                resolve(comment, CommentStatus.REJECTED, "validation did not complete in " + MAX_PENDING_MINUTES + " minutes");
+            } else {
+                checks.add(check(comment));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(checks.toArray(new CompletableFuture[0]))
+                .get(VALIDATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            long unresolved = checks.stream().filter(check -> !check.isDone()).count();
+            logger.warn("Sweep timed out, {} pending comments left for retry", unresolved);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Sweep failed: {}", e.getCause().getMessage());
+        }
+    }
+
+    private void validate(Comment comment) {
+        try {
+            check(comment).get(VALIDATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Pending comment validation timed out, left for retry - commentId: {}", comment.getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Pending comment validation interrupted - commentId: {}", comment.getId());
+        } catch (ExecutionException e) {
+            logger.warn("Pending comment validation failed - commentId: {}, error: {}",
+                       comment.getId(), e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Starts the upstream checks for a comment and resolves it once they answer.
+     * Only a definite not-found rejects; any other failure leaves the comment pending.
+     */
+    private CompletableFuture<Void> check(Comment comment) {
+        long startTime = System.currentTimeMillis();
+        Long postId = comment.getPostId();
+
+        PostExistenceFilter.Verdict verdict = postExistenceFilter.check(postId);
+        if (verdict == PostExistenceFilter.Verdict.ABSENT) {
+            resolve(comment, CommentStatus.REJECTED, "Post not found: " + postId);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<UserDTO> userFuture = asyncHelper.getUserAsync(comment.getUserId());
+        CompletableFuture<Boolean> postFuture = verdict == PostExistenceFilter.Verdict.CONFIRMED
+                ? CompletableFuture.completedFuture(true)
+                : asyncHelper.postExistsAsync(postId);
+
+        return CompletableFuture.allOf(userFuture, postFuture).handle((ignored, error) -> {
+            if (error == null) {
+                resolve(comment, CommentStatus.VALIDATED, null);
+                long duration = System.currentTimeMillis() - startTime;
+                logger.info("Pending comment validated in {}ms - commentId: {}", duration, comment.getId());
+            } else if (CommentAsyncHelper.isNotFound(error)) {
+                resolve(comment, CommentStatus.REJECTED, unwrap(error).getMessage());
+            } else {
+                logger.warn("Pending comment validation failed, left for retry - commentId: {}, error: {}",
+                           comment.getId(), unwrap(error).getMessage());
+            }
+            return null;
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void resolve(Comment comment, CommentStatus status, String reason) {
+        if (commentRepository.resolvePending(comment.getId(), status) == 0) {
+            return;
+        }
+        Cache comments = cacheManager.getCache("comments");
+        if (status == CommentStatus.VALIDATED) {
+            // The comment now appears in the post's and the author's listings and its thread
+            cacheGenerations.bumpPost(comment.getPostId());
+            cacheGenerations.bumpUser(comment.getUserId());
+            List<Long> ancestors = comment.ancestorIds();
+            if (!ancestors.isEmpty()) {
+                commentRepository.adjustReplyCounts(ancestors, 1);
+                if (comments != null) {
+                    ancestors.forEach(comments::evict);
+                }
+            }
+        } else {
+            logger.warn("Pending comment rejected - commentId: {}, reason: {}", comment.getId(), reason);
+        }
+        if (comments != null) {
+            comments.evict(comment.getId());
+        }
+    }
+}
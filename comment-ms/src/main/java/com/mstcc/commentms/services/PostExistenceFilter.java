@@ -0,0 +1,288 @@
+package com.mstcc.commentms.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mstcc.commentms.feignclients.PostFeignClient;
+import org.springframework.cache.CacheManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Local post existence filter that lets comment-ms validate post IDs without calling post-ms.
+ *
+ * <p>Combines a Bloom filter of every known post ID with a small exact cache of recently
+ * confirmed posts:
+ * <ul>
+ *   <li>ID in the exact cache → {@link Verdict#CONFIRMED}, no network hop.</li>
+ *   <li>ID recently reported missing by post-ms or deleted → {@link Verdict#ABSENT}; these
+ *       live in the short-lived {@code missingPosts} cache so IDs newer than the seed, or
+ *       Bloom false positives, are not asked about again on every request.</li>
+ *   <li>Bloom filter says absent and the ID is well below the highest seeded ID →
+ *       {@link Verdict#ABSENT}; Bloom filters have no false negatives.</li>
+ *   <li>Otherwise (probable positive, ID near or above the highest seeded ID, filter not
+ *       seeded yet) →
+ *       {@link Verdict#UNKNOWN}; the caller confirms with post-ms.</li>
+ * </ul>
+ *
+ * <p>The filter is seeded from post-ms {@code /api/posts/ids} on startup and rebuilt
+ * periodically. Post created/deleted notifications from post-ms keep it current in between.
+ * A Bloom filter cannot forget an ID, so a deleted post only becomes a false positive that
+ * post-ms rejects until the next rebuild drops it.
+ */
+@Component
+public class PostExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostExistenceFilter.class);
+
+    private static final long EXPECTED_POSTS = 1_000_000L;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int SEED_PAGE_SIZE = 5000;
+    private static final long MAINTENANCE_INTERVAL_MS = 60_000L;
+    private static final long REBUILD_INTERVAL_MS = 10 * 60_000L;
+    private static final int CONFIRMED_CACHE_SIZE = 10_000;
+    private static final int CONFIRMED_TTL_MINUTES = 10;
+    /**
+     * IDs this close to the highest seeded ID are never reported absent. Sequence IDs are
+     * handed out before commit, so a post just below the seed's highest ID may have committed
+     * after its page was read, and its created notification may have been lost.
+     */
+    private static final long SEED_MARGIN = 1000;
+
+    /**
+     * Outcome of a local existence check.
+     */
+    public enum Verdict {
+        /** The post definitely does not exist. */
+        ABSENT,
+        /** The post was recently confirmed to exist. */
+        CONFIRMED,
+        /** The post probably exists, or the filter cannot tell; confirm with post-ms. */
+        UNKNOWN
+    }
+
+    private static final String MISSING_POSTS = "missingPosts";
+
+    private final PostFeignClient postFeignClient;
+    private final CacheManager cacheManager;
+    private final Cache<Long, Boolean> confirmedPosts = Caffeine.newBuilder()
+            .maximumSize(CONFIRMED_CACHE_SIZE)
+            .expireAfterWrite(CONFIRMED_TTL_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /** Active filter; null until the first seed completes. */
+    private volatile BloomFilter filter;
+    /** Filter being filled by a rebuild; notifications go to both so none are lost on swap. */
+    private volatile BloomFilter building;
+    /** Highest post ID covered by the last completed seed. */
+    private volatile long seededUpToId;
+    private volatile long lastRebuildAt;
+    private volatile long lastSeedCount;
+
+    public PostExistenceFilter(PostFeignClient postFeignClient, CacheManager cacheManager) {
+        this.postFeignClient = postFeignClient;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Checks a post ID locally.
+     * @param postId the post ID to check
+     * @return the local verdict
+     */
+    public Verdict check(Long postId) {
+        if (postId == null) {
+            return Verdict.UNKNOWN;
+        }
+        if (confirmedPosts.getIfPresent(postId) != null) {
+            return Verdict.CONFIRMED;
+        }
+        org.springframework.cache.Cache missing = missingPosts();
+        if (missing != null && missing.get(postId) != null) {
+            return Verdict.ABSENT;
+        }
+        BloomFilter current = filter;
+        if (current == null || postId > seededUpToId - SEED_MARGIN) {
+            return Verdict.UNKNOWN;
+        }
+        return current.mightContain(postId) ? Verdict.UNKNOWN : Verdict.ABSENT;
+    }
+
+    /**
+     * Records a positive answer from post-ms so the next check is served locally.
+     * @param postId the post ID confirmed to exist
+     */
+    public void recordExists(Long postId) {
+        confirmedPosts.put(postId, Boolean.TRUE);
+    }
+
+    /**
+     * Records a negative answer from post-ms; the post is treated as absent for a short time.
+     * @param postId the post ID reported missing
+     */
+    public void recordMissing(Long postId) {
+        org.springframework.cache.Cache missing = missingPosts();
+        if (missing != null) {
+            missing.put(postId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Handles a post created notification: the post is known to exist.
+     * @param postId the new post ID
+     */
+    public void recordCreated(Long postId) {
+        add(filter, postId);
+        add(building, postId);
+        confirmedPosts.put(postId, Boolean.TRUE);
+        org.springframework.cache.Cache missing = missingPosts();
+        if (missing != null) {
+            missing.evict(postId);
+        }
+    }
+
+    /**
+     * Handles a post deleted notification: drops the exact positive and treats the post as
+     * absent until the negative entry expires.
+     * @param postId the deleted post ID
+     */
+    public void recordDeleted(Long postId) {
+        confirmedPosts.invalidate(postId);
+        recordMissing(postId);
+    }
+
+    /**
+     * Seeds the filter once the application is ready, without delaying startup.
+     */
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Retries a failed seed and periodically rebuilds the filter so deleted posts age out.
+     */
+    @Scheduled(initialDelay = MAINTENANCE_INTERVAL_MS, fixedDelay = MAINTENANCE_INTERVAL_MS)
+    public void maintain() {
+        if (filter == null || System.currentTimeMillis() - lastRebuildAt >= REBUILD_INTERVAL_MS) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the filter from post-ms, paging through all post IDs.
+     * The previous filter stays active until the new one is complete; on failure it is kept.
+     */
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        BloomFilter next = new BloomFilter(Math.max(EXPECTED_POSTS, lastSeedCount * 2), FALSE_POSITIVE_RATE);
+        building = next;
+
+        try {
+            long afterId = 0;
+            long count = 0;
+            while (true) {
+                List<Long> ids = postFeignClient.getPostIds(afterId, SEED_PAGE_SIZE).getBody();
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                for (Long id : ids) {
+                    next.put(id);
+                }
+                count += ids.size();
+                afterId = ids.get(ids.size() - 1);
+                if (ids.size() < SEED_PAGE_SIZE) {
+                    break;
+                }
+            }
+
+            filter = next;
+            seededUpToId = afterId;
+            lastSeedCount = count;
+            lastRebuildAt = System.currentTimeMillis();
+
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("Post existence filter rebuilt in {}ms - posts: {}, highestId: {}, bits: {}",
+                       duration, count, afterId, next.bitSize());
+
+        } catch (Exception e) {
+            logger.warn("Post existence filter rebuild failed, keeping previous filter: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    /** Spring-managed so negative hits show up in the cache metrics. */
+    private org.springframework.cache.Cache missingPosts() {
+        return cacheManager.getCache(MISSING_POSTS);
+    }
+
+    private static void add(BloomFilter target, Long postId) {
+        if (target != null && postId != null) {
+            target.put(postId);
+        }
+    }
+
+    /**
+     * Lock-free Bloom filter over {@code long} keys using double hashing.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long numBits;
+        private final int numHashes;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate)
+                    / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1, (bits + 63) >>> 6);
+            this.words = new AtomicLongArray(wordCount);
+            this.numBits = (long) wordCount << 6;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        }
+
+        void put(long key) {
+            long h1 = mix(key);
+            long h2 = mix(h1) | 1L;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+                long mask = 1L << bit;
+                words.accumulateAndGet((int) (bit >>> 6), mask, (word, m) -> word | m);
+            }
+        }
+
+        boolean mightContain(long key) {
+            long h1 = mix(key);
+            long h2 = mix(h1) | 1L;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long bitSize() {
+            return numBits;
+        }
+
+        /** MurmurHash3 64-bit finaliser — spreads sequential IDs across the bit array. */
+        private static long mix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -1,20 +1,43 @@
 package com.mstcc.commentms.services.impl;
 
+import com.mstcc.commentms.dto.CommentCursor;
+import com.mstcc.commentms.dto.CommentPageDTO;
+import com.mstcc.commentms.dto.CommentPreviewDTO;
+import com.mstcc.commentms.dto.CommentResponseDTO;
+import com.mstcc.commentms.dto.CommentThreadDTO;
+import com.mstcc.commentms.dto.PathCursor;
+import com.mstcc.commentms.dto.ThreadCommentDTO;
+import com.mstcc.commentms.dto.ThreadPageDTO;
 import com.mstcc.commentms.dto.UserDTO;
 import com.mstcc.commentms.entities.Comment;
+import com.mstcc.commentms.entities.CommentStatus;
 import com.mstcc.commentms.repositories.CommentRepository;
+import com.mstcc.commentms.repositories.CommentRepository.CommentPreviewRow;
+import com.mstcc.commentms.repositories.CommentRepository.SubtreeRow;
+import com.mstcc.commentms.services.CacheGenerations;
 import com.mstcc.commentms.services.CommentAsyncHelper;
 import com.mstcc.commentms.services.CommentService;
+import com.mstcc.commentms.services.PendingCommentValidator;
+import com.mstcc.commentms.services.PostExistenceFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -24,7 +47,11 @@ import java.util.concurrent.TimeoutException;
 /**
  * Default implementation of {@link CommentService}.
  * Handles comment persistence and orchestrates parallel upstream validation
- * via {@link CommentAsyncHelper} (user-ms and post-ms).
+ * via {@link CommentAsyncHelper} (user-ms and post-ms). Post existence is answered locally by
+ * {@link PostExistenceFilter} when possible, so post-ms is only called for uncertain IDs.
+ * Per-post and per-user comment lists are keyed by {@link CacheGenerations}, so writes
+ * invalidate only the posts and users they touch. Replies form threads through a
+ * materialised path, so whole threads and direct replies are read with one range scan.
  */
 @Service
 @Transactional(readOnly = true)
@@ -32,20 +59,41 @@ public class CommentServiceImpl implements CommentService {
 
     private static final Logger logger = LoggerFactory.getLogger(CommentServiceImpl.class);
     private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final int MAX_PREVIEW_SIZE = 10;
+    private static final String PREVIEW_CACHE = "commentPreviews";
+    private static final int MAX_THREAD_DEPTH = 20;
+    // ':' sorts right after '9', so [path, path + ':') covers exactly the subtree under path
+    private static final String SUBTREE_UPPER_BOUND = ":";
 
     private final CommentRepository commentRepository;
     private final CommentAsyncHelper asyncHelper;
+    private final CacheManager cacheManager;
+    private final PostExistenceFilter postExistenceFilter;
+    private final CacheGenerations cacheGenerations;
+    private final PendingCommentValidator pendingCommentValidator;
 
     /**
      * Constructs the service with its required dependencies.
      *
      * @param commentRepository JPA repository for comment persistence
      * @param asyncHelper       helper that issues parallel async calls to upstream services
+     * @param cacheManager      cache manager used for per-post preview entries
+     * @param postExistenceFilter local filter that short-circuits post existence checks
+     * @param cacheGenerations  per-post and per-user generations used in list cache keys
+     * @param pendingCommentValidator validates comments accepted in asynchronous mode
      */
     public CommentServiceImpl(CommentRepository commentRepository,
-                              CommentAsyncHelper asyncHelper) {
+                              CommentAsyncHelper asyncHelper,
+                              CacheManager cacheManager,
+                              PostExistenceFilter postExistenceFilter,
+                              CacheGenerations cacheGenerations,
+                              PendingCommentValidator pendingCommentValidator) {
         this.commentRepository = commentRepository;
         this.asyncHelper = asyncHelper;
+        this.cacheManager = cacheManager;
+        this.postExistenceFilter = postExistenceFilter;
+        this.cacheGenerations = cacheGenerations;
+        this.pendingCommentValidator = pendingCommentValidator;
     }
 
     /**
@@ -53,27 +101,35 @@ public class CommentServiceImpl implements CommentService {
      *
      * @param comment the comment entity to create
      * @return the saved comment entity
+     * @throws IllegalArgumentException if the post is known locally not to exist
      * @throws RuntimeException if validation fails or times out
      */
     @Override
     @Transactional
-    @CacheEvict(value = {"comments", "postComments", "userComments"}, allEntries = true)
+    @CacheEvict(value = "comments", key = "#result.id")
     public Comment createAndValidateComment(Comment comment) {
         long startTime = System.currentTimeMillis();
         logger.info("Creating comment - userId: {}, postId: {}",
                    comment.getUserId(), comment.getPostId());
 
+        Comment parent = resolveParent(comment);
+        CompletableFuture<Boolean> postFuture = verifyPostAsync(comment.getPostId());
+
         try {
             // Parallel validation of user and post
             CompletableFuture<UserDTO> userFuture = asyncHelper.getUserAsync(comment.getUserId());
-            CompletableFuture<Boolean> postFuture = asyncHelper.postExistsAsync(comment.getPostId());
 
             // Wait for both validations with timeout
             CompletableFuture.allOf(userFuture, postFuture)
                 .get(VALIDATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
             comment.setCreatedAt(LocalDateTime.now());
+            comment.setStatus(CommentStatus.VALIDATED);
             Comment savedComment = commentRepository.save(comment);
+            assignThreadPosition(savedComment, parent);
+            adjustAncestorReplyCounts(savedComment, 1);
+            cacheGenerations.bumpPost(savedComment.getPostId());
+            cacheGenerations.bumpUser(savedComment.getUserId());
 
             long duration = System.currentTimeMillis() - startTime;
             logger.info("Comment created successfully in {}ms - commentId: {}",
@@ -94,6 +150,52 @@ public class CommentServiceImpl implements CommentService {
         }
     }
 
+    /**
+     * Accepts a comment without waiting for upstream validation.
+     *
+     * <p>The comment is stored as {@code PENDING} and validated by {@link PendingCommentValidator}
+     * once this transaction commits, so request latency no longer depends on user-ms and post-ms.
+     * Only the local post existence filter is consulted up front, since it costs no network hop.
+     * Pending comments stay out of shared listings, so no cache is invalidated here.
+     *
+     * @param comment the comment entity to accept
+     * @return the saved pending comment
+     * @throws IllegalArgumentException if the post is known locally not to exist
+     */
+    @Override
+    @Transactional
+    @CacheEvict(value = "comments", key = "#result.id")
+    public Comment acceptComment(Comment comment) {
+        logger.info("Accepting comment for async validation - userId: {}, postId: {}",
+                   comment.getUserId(), comment.getPostId());
+
+        Comment parent = resolveParent(comment);
+        if (postExistenceFilter.check(comment.getPostId()) == PostExistenceFilter.Verdict.ABSENT) {
+            logger.warn("Post rejected by local existence filter - postId: {}", comment.getPostId());
+            throw new IllegalArgumentException("Post not found: " + comment.getPostId());
+        }
+
+        comment.setCreatedAt(LocalDateTime.now());
+        comment.setStatus(CommentStatus.PENDING);
+        Comment savedComment = commentRepository.save(comment);
+        assignThreadPosition(savedComment, parent);
+
+        // Validate only after commit, so the validator always sees the row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingCommentValidator.validateAsync(savedComment);
+                }
+            });
+        } else {
+            pendingCommentValidator.validateAsync(savedComment);
+        }
+
+        logger.info("Comment accepted - commentId: {}", savedComment.getId());
+        return savedComment;
+    }
+
     /**
      * Retrieves a comment by ID.
      *
@@ -108,39 +210,143 @@ public class CommentServiceImpl implements CommentService {
     }
 
     /**
-     * Retrieves all comments for a post.
+     * Retrieves one keyset page of comments for a post.
+     *
+     * <p>Only first pages are cached: they absorb almost all reads (post-ms enrichment and
+     * initial renders), while deeper pages are rare and cheap thanks to the composite index.
+     * One extra row is fetched to detect whether a further page exists.
      *
      * @param postId post ID
-     * @return list of comments for the post
+     * @param cursor opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit  maximum number of comments on the page
+     * @return page of comments with the cursor of the next page, if any
      */
     @Override
-    @Cacheable(value = "postComments", key = "#postId")
-    public List<Comment> findCommentsByPostId(Long postId) {
-        logger.info("Fetching comments for postId: {}", postId);
+    @Cacheable(value = "postComments",
+               key = "#postId + '_' + @cacheGenerations.post(#postId) + '_' + #limit",
+               condition = "#cursor == null")
+    public CommentPageDTO findCommentsByPostId(Long postId, String cursor, int limit) {
+        logger.info("Fetching comments for postId: {}, limit: {}, cursor: {}", postId, limit, cursor);
         long startTime = System.currentTimeMillis();
 
-        List<Comment> comments = commentRepository.findByPostId(postId);
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<Comment> rows;
+        if (cursor == null) {
+            rows = commentRepository.findByPostIdAndStatusOrderByCreatedAtAscIdAsc(
+                    postId, CommentStatus.VALIDATED, pageRequest);
+        } else {
+            CommentCursor position = CommentCursor.decode(cursor);
+            rows = commentRepository.findByPostIdAfter(
+                    postId, position.createdAt(), position.id(), pageRequest);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<CommentResponseDTO> items = rows.stream()
+                .limit(limit)
+                .map(CommentResponseDTO::from)
+                .toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            CommentResponseDTO last = items.get(items.size() - 1);
+            nextCursor = new CommentCursor(last.createdAt(), last.id()).encode();
+        }
 
         long duration = System.currentTimeMillis() - startTime;
-        logger.info("Comments fetched in {}ms - postId: {}, count: {}",
-                   duration, postId, comments.size());
+        logger.info("Comments fetched in {}ms - postId: {}, count: {}, hasMore: {}",
+                   duration, postId, items.size(), hasMore);
 
-        return comments;
+        return new CommentPageDTO(items, nextCursor);
     }
 
     /**
-     * Retrieves all comments by a user.
+     * Retrieves a user's comments on a post that are still awaiting validation.
+     * Not cached: the result is per viewer and normally empty or tiny.
+     *
+     * @param postId post ID
+     * @param userId author whose pending comments are returned
+     * @return the author's pending comments on the post, oldest first
+     */
+    @Override
+    public List<CommentResponseDTO> findPendingComments(Long postId, Long userId) {
+        return commentRepository.findByPostIdAndUserIdAndStatusOrderByCreatedAtAscIdAsc(
+                        postId, userId, CommentStatus.PENDING)
+                .stream()
+                .map(CommentResponseDTO::from)
+                .toList();
+    }
+
+    /**
+     * Retrieves comment previews for several posts.
+     *
+     * <p>Each post is cached separately under its ID and generation with the maximum preview
+     * size, so any requested limit is served by truncation and a write only invalidates its
+     * own post.
+     * All cache misses are resolved together by one window-function query.
+     *
+     * @param postIds posts to summarise; duplicates and nulls are ignored
+     * @param limit   latest comments per post, capped at {@value #MAX_PREVIEW_SIZE}
+     * @return one preview per distinct post, in request order
+     */
+    @Override
+    public List<CommentPreviewDTO> findCommentPreviews(List<Long> postIds, int limit) {
+        long startTime = System.currentTimeMillis();
+        int perPost = Math.min(limit, MAX_PREVIEW_SIZE);
+        Cache cache = cacheManager.getCache(PREVIEW_CACHE);
+
+        Map<Long, CommentPreviewDTO> previews = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        postIds.stream().filter(Objects::nonNull).distinct().forEach(postId -> {
+            CommentPreviewDTO cached = cache != null ? cache.get(previewKey(postId), CommentPreviewDTO.class) : null;
+            previews.put(postId, cached);
+            if (cached == null) {
+                misses.add(postId);
+            }
+        });
+
+        if (!misses.isEmpty()) {
+            Map<Long, List<CommentResponseDTO>> commentsByPost = new HashMap<>();
+            Map<Long, Long> totalsByPost = new HashMap<>();
+            for (CommentPreviewRow row : commentRepository.findLatestByPostIds(misses, MAX_PREVIEW_SIZE)) {
+                commentsByPost.computeIfAbsent(row.getPostId(), k -> new ArrayList<>())
+                        .add(new CommentResponseDTO(row.getId(), row.getPostId(), row.getUserId(),
+                                row.getContent(), row.getCreatedAt()));
+                totalsByPost.put(row.getPostId(), row.getTotalCount());
+            }
+            for (Long postId : misses) {
+                CommentPreviewDTO preview = new CommentPreviewDTO(
+                        postId,
+                        totalsByPost.getOrDefault(postId, 0L),
+                        List.copyOf(commentsByPost.getOrDefault(postId, List.of())));
+                if (cache != null) {
+                    cache.put(previewKey(postId), preview);
+                }
+                previews.put(postId, preview);
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Comment previews fetched in {}ms - posts: {}, cacheMisses: {}",
+                   duration, previews.size(), misses.size());
+
+        return previews.values().stream()
+                .map(preview -> preview.truncate(perPost))
+                .toList();
+    }
+
+    /**
+     * Retrieves all validated comments by a user.
      *
      * @param userId user ID
-     * @return list of the user's comments
+     * @return list of the user's validated comments
      */
     @Override
-    @Cacheable(value = "userComments", key = "#userId")
+    @Cacheable(value = "userComments", key = "#userId + '_' + @cacheGenerations.user(#userId)")
     public List<Comment> findCommentsByUserId(Long userId) {
         logger.info("Fetching comments for userId: {}", userId);
         long startTime = System.currentTimeMillis();
 
-        List<Comment> comments = commentRepository.findByUserId(userId);
+        List<Comment> comments = commentRepository.findByUserIdAndStatus(userId, CommentStatus.VALIDATED);
 
         long duration = System.currentTimeMillis() - startTime;
         logger.info("Comments fetched in {}ms - userId: {}, count: {}",
@@ -149,8 +355,20 @@ public class CommentServiceImpl implements CommentService {
         return comments;
     }
 
+    /**
+     * Retrieves all of a user's comments still awaiting validation.
+     *
+     * @param userId user ID
+     * @return the user's pending comments
+     */
+    @Override
+    public List<Comment> findPendingCommentsByUserId(Long userId) {
+        return commentRepository.findByUserIdAndStatus(userId, CommentStatus.PENDING);
+    }
+
     /**
      * Updates a comment with parallel re-validation of user and post.
+     * A successful update also validates a pending or rejected comment.
      *
      * @param id             comment ID
      * @param commentDetails updated comment details
@@ -158,29 +376,43 @@ public class CommentServiceImpl implements CommentService {
      */
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "comments", key = "#id"),
-        @CacheEvict(value = "postComments", allEntries = true),
-        @CacheEvict(value = "userComments", allEntries = true)
-    })
+    @CacheEvict(value = "comments", key = "#id")
     public Optional<Comment> updateAndValidateComment(Long id, Comment commentDetails) {
         logger.info("Updating comment - id: {}", id);
 
         return commentRepository.findById(id).map(comment -> {
             long startTime = System.currentTimeMillis();
+            boolean inThread = comment.getParentId() != null || comment.getReplyCount() > 0;
+            if (inThread && !Objects.equals(comment.getPostId(), commentDetails.getPostId())) {
+                throw new IllegalArgumentException("Comment " + id + " is part of a thread and cannot move to another post");
+            }
+            CompletableFuture<Boolean> postFuture = verifyPostAsync(commentDetails.getPostId());
 
             try {
                 CompletableFuture<UserDTO> userFuture = asyncHelper.getUserAsync(commentDetails.getUserId());
-                CompletableFuture<Boolean> postFuture = asyncHelper.postExistsAsync(commentDetails.getPostId());
 
                 CompletableFuture.allOf(userFuture, postFuture)
                     .get(VALIDATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
+                // Both the old and the new post/user lists change
+                cacheGenerations.bumpPost(comment.getPostId());
+                cacheGenerations.bumpUser(comment.getUserId());
+                cacheGenerations.bumpPost(commentDetails.getPostId());
+                cacheGenerations.bumpUser(commentDetails.getUserId());
+
                 comment.setContent(commentDetails.getContent());
                 comment.setUserId(commentDetails.getUserId());
                 comment.setPostId(commentDetails.getPostId());
+                // Only the update that moves the row to VALIDATED counts the reply; the
+                // pending-comment sweeper may have validated it since it was loaded
+                boolean newlyValidated = comment.getStatus() != CommentStatus.VALIDATED
+                        && commentRepository.markValidated(id) == 1;
+                comment.setStatus(CommentStatus.VALIDATED);
 
                 Comment updated = commentRepository.save(comment);
+                if (newlyValidated) {
+                    adjustAncestorReplyCounts(updated, 1);
+                }
 
                 long duration = System.currentTimeMillis() - startTime;
                 logger.info("Comment updated successfully in {}ms", duration);
@@ -195,35 +427,244 @@ public class CommentServiceImpl implements CommentService {
     }
 
     /**
-     * Deletes a comment by ID.
+     * Retrieves one keyset page of a post's validated top-level comments with their reply counts.
+     * Reply counts are stored on each comment, so no join or aggregate is needed.
+     *
+     * @param postId post ID
+     * @param cursor opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit  maximum number of comments on the page
+     * @return page of top-level comments
+     */
+    @Override
+    @Cacheable(value = "postComments",
+               key = "'roots_' + #postId + '_' + @cacheGenerations.post(#postId) + '_' + #limit",
+               condition = "#cursor == null")
+    public ThreadPageDTO findRootComments(Long postId, String cursor, int limit) {
+        logger.info("Fetching top-level comments for postId: {}, limit: {}, cursor: {}", postId, limit, cursor);
+        long startTime = System.currentTimeMillis();
+
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<Comment> rows;
+        if (cursor == null) {
+            rows = commentRepository.findRootsByPostId(postId, pageRequest);
+        } else {
+            CommentCursor position = CommentCursor.decode(cursor);
+            rows = commentRepository.findRootsAfter(postId, position.createdAt(), position.id(), pageRequest);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<ThreadCommentDTO> items = rows.stream()
+                .limit(limit)
+                .map(ThreadCommentDTO::from)
+                .toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            ThreadCommentDTO last = items.get(items.size() - 1);
+            nextCursor = new CommentCursor(last.createdAt(), last.id()).encode();
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Top-level comments fetched in {}ms - postId: {}, count: {}, hasMore: {}",
+                   duration, postId, items.size(), hasMore);
+
+        return new ThreadPageDTO(items, nextCursor);
+    }
+
+    /**
+     * Retrieves one page of the thread below a comment in depth-first order,
+     * using a single range scan over the materialised path.
+     *
+     * @param commentId ID of the comment the thread starts at
+     * @param cursor    opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit     maximum number of replies on the page
+     * @return the thread page, or empty if the comment does not exist or is not validated
+     */
+    @Override
+    public Optional<CommentThreadDTO> findThread(Long commentId, String cursor, int limit) {
+        logger.info("Fetching thread - commentId: {}, limit: {}, cursor: {}", commentId, limit, cursor);
+
+        return commentRepository.findById(commentId)
+                .filter(root -> root.getStatus() == CommentStatus.VALIDATED)
+                .map(root -> {
+                    long startTime = System.currentTimeMillis();
+                    String rootPath = root.threadPath();
+                    String afterPath = cursor == null ? rootPath : PathCursor.decode(cursor).path();
+                    List<Comment> rows = commentRepository.findSubtree(root.getPostId(), afterPath,
+                            rootPath + SUBTREE_UPPER_BOUND, PageRequest.of(0, limit + 1));
+                    ThreadPageDTO page = toPathPage(rows, limit);
+
+                    long duration = System.currentTimeMillis() - startTime;
+                    logger.info("Thread fetched in {}ms - commentId: {}, replies: {}",
+                               duration, commentId, page.items().size());
+
+                    return new CommentThreadDTO(ThreadCommentDTO.from(root), page.items(), page.nextCursor());
+                });
+    }
+
+    /**
+     * Retrieves one page of the direct replies of a comment, each with its own reply count.
+     *
+     * @param commentId parent comment ID
+     * @param cursor    opaque cursor from a previous page, or {@code null} for the first page
+     * @param limit     maximum number of replies on the page
+     * @return the page of replies, or empty if the comment does not exist or is not validated
+     */
+    @Override
+    public Optional<ThreadPageDTO> findReplies(Long commentId, String cursor, int limit) {
+        logger.info("Fetching replies - commentId: {}, limit: {}, cursor: {}", commentId, limit, cursor);
+
+        return commentRepository.findById(commentId)
+                .filter(parent -> parent.getStatus() == CommentStatus.VALIDATED)
+                .map(parent -> {
+                    String parentPath = parent.threadPath();
+                    String afterPath = cursor == null ? parentPath : PathCursor.decode(cursor).path();
+                    List<Comment> rows = commentRepository.findSubtreeAtDepth(parent.getPostId(), afterPath,
+                            parentPath + SUBTREE_UPPER_BOUND, parent.getDepth() + 1, PageRequest.of(0, limit + 1));
+                    return toPathPage(rows, limit);
+                });
+    }
+
+    private ThreadPageDTO toPathPage(List<Comment> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<Comment> page = rows.subList(0, Math.min(limit, rows.size()));
+        String nextCursor = hasMore ? new PathCursor(page.get(page.size() - 1).threadPath()).encode() : null;
+        return new ThreadPageDTO(page.stream().map(ThreadCommentDTO::from).toList(), nextCursor);
+    }
+
+    /**
+     * Validates the parent of a reply and clears client-supplied thread fields.
+     *
+     * @param comment comment about to be created
+     * @return the parent comment, or {@code null} for a top-level comment
+     * @throws IllegalArgumentException if the parent is missing, not validated, on another post or too deep
+     */
+    private Comment resolveParent(Comment comment) {
+        comment.setPath(null);
+        comment.setDepth(0);
+        comment.setReplyCount(0);
+        if (comment.getParentId() == null) {
+            return null;
+        }
+
+        Comment parent = commentRepository.findById(comment.getParentId())
+                .filter(p -> p.getStatus() == CommentStatus.VALIDATED)
+                .orElseThrow(() -> new IllegalArgumentException("Parent comment not found: " + comment.getParentId()));
+        if (comment.getPostId() == null) {
+            comment.setPostId(parent.getPostId());
+        } else if (!comment.getPostId().equals(parent.getPostId())) {
+            throw new IllegalArgumentException("Parent comment " + parent.getId() + " belongs to another post");
+        }
+        if (parent.getDepth() >= MAX_THREAD_DEPTH) {
+            throw new IllegalArgumentException("Replies cannot be nested deeper than " + MAX_THREAD_DEPTH + " levels");
+        }
+        return parent;
+    }
+
+    /**
+     * Sets the materialised path and depth of a freshly saved comment (its ID is part of the path).
+     * The entity is managed, so the change is flushed with the surrounding transaction.
+     */
+    private void assignThreadPosition(Comment saved, Comment parent) {
+        if (parent == null) {
+            saved.setPath(Comment.pathSegment(saved.getId()));
+            saved.setDepth(0);
+        } else {
+            saved.setPath(parent.threadPath() + Comment.pathSegment(saved.getId()));
+            saved.setDepth(parent.getDepth() + 1);
+        }
+    }
+
+    /**
+     * Applies a change in validated replies to every ancestor of a comment.
+     */
+    private void adjustAncestorReplyCounts(Comment comment, long delta) {
+        List<Long> ancestors = comment.ancestorIds();
+        if (ancestors.isEmpty() || delta == 0) {
+            return;
+        }
+        commentRepository.adjustReplyCounts(ancestors, delta);
+        Cache commentsCache = cacheManager.getCache("comments");
+        if (commentsCache != null) {
+            ancestors.forEach(commentsCache::evict);
+        }
+    }
+
+    private String previewKey(Long postId) {
+        return postId + "_" + cacheGenerations.post(postId);
+    }
+
+    /**
+     * Resolves post existence locally when the filter can answer, otherwise asks post-ms.
+     *
+     * @param postId the post ID to verify
+     * @return future completing with true once the post is known to exist
+     * @throws IllegalArgumentException if the filter knows the post does not exist
+     */
+    private CompletableFuture<Boolean> verifyPostAsync(Long postId) {
+        return switch (postExistenceFilter.check(postId)) {
+            case ABSENT -> {
+                logger.warn("Post rejected by local existence filter - postId: {}", postId);
+                throw new IllegalArgumentException("Post not found: " + postId);
+            }
+            case CONFIRMED -> CompletableFuture.completedFuture(true);
+            case UNKNOWN -> asyncHelper.postExistsAsync(postId);
+        };
+    }
+
+    /**
+     * Deletes a comment by ID together with all replies below it.
+     * The subtree is removed with one range delete, and the reply counts of the
+     * comment's ancestors drop by the number of validated comments removed.
      *
      * @param id comment ID
      * @throws IllegalArgumentException if no comment with the given ID exists
      */
     @Override
     @Transactional
-    @CacheEvict(value = {"comments", "postComments", "userComments"}, allEntries = true)
+    @CacheEvict(value = "comments", key = "#id")
     public void deleteComment(Long id) {
         logger.info("Deleting comment - id: {}", id);
 
-        if (!commentRepository.existsById(id)) {
+        Comment comment = commentRepository.findById(id).orElseThrow(() -> {
             logger.warn("Comment not found for deletion - id: {}", id);
-            throw new IllegalArgumentException("Comment not found: " + id);
+            return new IllegalArgumentException("Comment not found: " + id);
+        });
+
+        String fromPath = comment.threadPath();
+        String upperBound = fromPath + SUBTREE_UPPER_BOUND;
+        List<SubtreeRow> subtree = commentRepository.findSubtreeRows(comment.getPostId(), fromPath, upperBound);
+        long validatedRemoved = subtree.stream().filter(row -> row.getStatus() == CommentStatus.VALIDATED).count();
+
+        commentRepository.deleteSubtree(comment.getPostId(), fromPath, upperBound);
+        if (comment.getPath() == null) {
+            // Legacy top-level comment: its own row has no path to match the range
+            commentRepository.deleteById(id);
         }
+        adjustAncestorReplyCounts(comment, -validatedRemoved);
 
-        commentRepository.deleteById(id);
-        logger.info("Comment deleted successfully - id: {}", id);
+        Cache commentsCache = cacheManager.getCache("comments");
+        for (SubtreeRow row : subtree) {
+            if (commentsCache != null) {
+                commentsCache.evict(row.getId());
+            }
+            cacheGenerations.bumpUser(row.getUserId());
+        }
+        cacheGenerations.bumpPost(comment.getPostId());
+        cacheGenerations.bumpUser(comment.getUserId());
+        logger.info("Comment deleted successfully - id: {}, replies removed: {}",
+                   id, Math.max(0, subtree.size() - 1));
     }
 
     /**
-     * Retrieves all comments without any filter.
+     * Retrieves all validated comments.
      *
-     * @return list of all comments
+     * @return list of all validated comments
      */
     @Override
     public List<Comment> findAllComments() {
         logger.info("Fetching all comments");
-        List<Comment> comments = commentRepository.findAll();
+        List<Comment> comments = commentRepository.findByStatus(CommentStatus.VALIDATED);
         logger.info("Returning {} comments", comments.size());
         return comments;
     }
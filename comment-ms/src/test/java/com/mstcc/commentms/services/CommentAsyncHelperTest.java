@@ -0,0 +1,93 @@
+package com.mstcc.commentms.services;
+
+import com.mstcc.commentms.dto.UserDTO;
+import com.mstcc.commentms.exception.UpstreamNotFoundException;
+import com.mstcc.commentms.feignclients.PostFeignClient;
+import com.mstcc.commentms.feignclients.UserFeignClient;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the negative caching in {@link CommentAsyncHelper}.
+ *
+ * <p>The helper is called on the bare object, so its {@code @Async} methods run on the test thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class CommentAsyncHelperTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/api/users/10", Map.of(), null,
+            StandardCharsets.UTF_8, null);
+
+    @Mock
+    private UserFeignClient userFeignClient;
+
+    @Mock
+    private PostFeignClient postFeignClient;
+
+    @Mock
+    private PostExistenceFilter postExistenceFilter;
+
+    private CommentAsyncHelper asyncHelper;
+
+    @BeforeEach
+    void setUp() {
+        asyncHelper = new CommentAsyncHelper(userFeignClient, postFeignClient, postExistenceFilter,
+                new ConcurrentMapCacheManager("missingUsers"));
+    }
+
+    @Test
+    @DisplayName("a 404 from user-ms is remembered and the next lookup is answered locally as not found")
+    void getUserAsync_whenNotFound_answersRepeatLocally() {
+        when(userFeignClient.getUserById(10L))
+                .thenThrow(new FeignException.NotFound("Not Found", REQUEST, null, Map.of()));
+
+        assertNotFound(asyncHelper.getUserAsync(10L));
+        assertNotFound(asyncHelper.getUserAsync(10L));
+
+        verify(userFeignClient, times(1)).getUserById(10L);
+    }
+
+    @Test
+    @DisplayName("a timeout or an open circuit is neither remembered nor reported as not found")
+    void getUserAsync_whenUnavailable_asksAgain() {
+        when(userFeignClient.getUserById(10L))
+                .thenThrow(new RetryableException(-1, "Read timed out", Request.HttpMethod.GET, (Long) null, REQUEST))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("user-ms")))
+                .thenReturn(ResponseEntity.ok(new UserDTO()));
+
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<UserDTO> lookup = asyncHelper.getUserAsync(10L);
+            assertThatThrownBy(lookup::join).satisfies(e -> assertThat(CommentAsyncHelper.isNotFound(e)).isFalse());
+        }
+        assertThat(asyncHelper.getUserAsync(10L)).isNotCompletedExceptionally();
+
+        verify(userFeignClient, times(3)).getUserById(10L);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static void assertNotFound(CompletableFuture<UserDTO> lookup) {
+        assertThatThrownBy(lookup::join).hasCauseInstanceOf(UpstreamNotFoundException.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.mstcc.commentms.services;
+
+import com.mstcc.commentms.dto.UserDTO;
+import com.mstcc.commentms.entities.Comment;
+import com.mstcc.commentms.entities.CommentStatus;
+import com.mstcc.commentms.exception.UpstreamNotFoundException;
+import com.mstcc.commentms.repositories.CommentRepository;
+import com.mstcc.commentms.services.PostExistenceFilter.Verdict;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PendingCommentValidator}.
+ *
+ * <p>{@code validateAsync} is called on the bare object, so it runs on the test thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class PendingCommentValidatorTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private CommentAsyncHelper asyncHelper;
+
+    @Mock
+    private PostExistenceFilter postExistenceFilter;
+
+    @Mock
+    private CacheGenerations cacheGenerations;
+
+    private PendingCommentValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = new PendingCommentValidator(commentRepository, asyncHelper, postExistenceFilter,
+                cacheGenerations, new ConcurrentMapCacheManager("comments"));
+    }
+
+    @Test
+    @DisplayName("a 503 from user-ms leaves the comment pending for the next sweep")
+    void validate_whenUpstreamUnavailable_leavesPending() {
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.CONFIRMED);
+        when(asyncHelper.getUserAsync(10L)).thenReturn(CompletableFuture.failedFuture(
+                new RuntimeException("User lookup failed: 10", serviceUnavailable())));
+
+        validator.validateAsync(pending(1L));
+
+        verify(commentRepository, never()).resolvePending(any(), any());
+    }
+
+    @Test
+    @DisplayName("post-ms answering that the post does not exist rejects the comment")
+    void validate_whenPostMissing_rejects() {
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.UNKNOWN);
+        when(asyncHelper.getUserAsync(10L)).thenReturn(CompletableFuture.completedFuture(new UserDTO()));
+        when(asyncHelper.postExistsAsync(20L)).thenReturn(CompletableFuture.failedFuture(
+                new UpstreamNotFoundException("Post not found: 20")));
+        when(commentRepository.resolvePending(1L, CommentStatus.REJECTED)).thenReturn(1);
+
+        validator.validateAsync(pending(1L));
+
+        verify(commentRepository).resolvePending(1L, CommentStatus.REJECTED);
+    }
+
+    @Test
+    @DisplayName("the sweep validates what it can and leaves upstream failures pending")
+    void sweep_resolvesAnsweredAndKeepsFailedPending() {
+        Comment failing = pending(1L);
+        Comment valid = pending(2L);
+        valid.setUserId(11L);
+        when(commentRepository.findByStatusAndCreatedAtBefore(eq(CommentStatus.PENDING), any(), any()))
+                .thenReturn(List.of(failing, valid));
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.CONFIRMED);
+        when(asyncHelper.getUserAsync(10L)).thenReturn(CompletableFuture.failedFuture(
+                new RuntimeException("User lookup failed: 10", serviceUnavailable())));
+        when(asyncHelper.getUserAsync(11L)).thenReturn(CompletableFuture.completedFuture(new UserDTO()));
+        when(commentRepository.resolvePending(2L, CommentStatus.VALIDATED)).thenReturn(1);
+
+        validator.sweepStalePending();
+
+        verify(commentRepository).resolvePending(2L, CommentStatus.VALIDATED);
+        verify(commentRepository, never()).resolvePending(eq(1L), any());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static Comment pending(Long id) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setUserId(10L);
+        comment.setPostId(20L);
+        comment.setContent("Pending comment");
+        comment.setStatus(CommentStatus.PENDING);
+        comment.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        return comment;
+    }
+
+    private static FeignException serviceUnavailable() {
+        Request request = Request.create(Request.HttpMethod.GET, "/api/users/10", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new FeignException.ServiceUnavailable("Service Unavailable", request, null, Map.of());
+    }
+}
@@ -1,23 +1,42 @@
 package com.mstcc.commentms.services.impl;
 
+import com.mstcc.commentms.dto.CommentCursor;
+import com.mstcc.commentms.dto.CommentPageDTO;
+import com.mstcc.commentms.dto.CommentPreviewDTO;
+import com.mstcc.commentms.dto.CommentResponseDTO;
+import com.mstcc.commentms.dto.CommentThreadDTO;
 import com.mstcc.commentms.dto.UserDTO;
 import com.mstcc.commentms.entities.Comment;
+import com.mstcc.commentms.entities.CommentStatus;
 import com.mstcc.commentms.repositories.CommentRepository;
+import com.mstcc.commentms.repositories.CommentRepository.CommentPreviewRow;
+import com.mstcc.commentms.repositories.CommentRepository.SubtreeRow;
+import com.mstcc.commentms.services.CacheGenerations;
 import com.mstcc.commentms.services.CommentAsyncHelper;
+import com.mstcc.commentms.services.PendingCommentValidator;
+import com.mstcc.commentms.services.PostExistenceFilter;
+import com.mstcc.commentms.services.PostExistenceFilter.Verdict;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -35,6 +54,18 @@ class CommentServiceImplTest {
     @Mock
     private CommentAsyncHelper asyncHelper;
 
+    @Mock
+    private PostExistenceFilter postExistenceFilter;
+
+    @Mock
+    private CacheGenerations cacheGenerations;
+
+    @Mock
+    private PendingCommentValidator pendingCommentValidator;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager("commentPreviews");
+
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -48,12 +79,31 @@ class CommentServiceImplTest {
         comment.setUserId(10L);
         comment.setPostId(20L);
         comment.setContent("Test comment");
+        comment.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
 
         userDTO = new UserDTO();
         userDTO.setId(10L);
         userDTO.setUsername("vitor");
     }
 
+    private Comment pendingReply() {
+        Comment reply = commentAt(5L, LocalDateTime.of(2024, 1, 1, 12, 5));
+        reply.setParentId(1L);
+        reply.setPath(Comment.pathSegment(1L) + Comment.pathSegment(5L));
+        reply.setStatus(CommentStatus.PENDING);
+        return reply;
+    }
+
+    private Comment commentAt(Long id, LocalDateTime createdAt) {
+        Comment c = new Comment();
+        c.setId(id);
+        c.setUserId(10L);
+        c.setPostId(20L);
+        c.setContent("Comment " + id);
+        c.setCreatedAt(createdAt);
+        return c;
+    }
+
     // -------------------------------------------------------------------------
     // createAndValidateComment
     // -------------------------------------------------------------------------
@@ -63,6 +113,7 @@ class CommentServiceImplTest {
     void createComment_whenValidationSucceeds_savesComment() throws Exception {
         when(asyncHelper.getUserAsync(10L))
                 .thenReturn(CompletableFuture.completedFuture(userDTO));
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.UNKNOWN);
         when(asyncHelper.postExistsAsync(20L))
                 .thenReturn(CompletableFuture.completedFuture(true));
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
@@ -71,6 +122,9 @@ class CommentServiceImplTest {
 
         assertThat(saved).isEqualTo(comment);
         verify(commentRepository).save(comment);
+        verify(cacheGenerations).bumpPost(20L);
+        verify(cacheGenerations).bumpUser(10L);
+        assertThat(saved.getStatus()).isEqualTo(CommentStatus.VALIDATED);
     }
 
     @Test
@@ -79,6 +133,7 @@ class CommentServiceImplTest {
         when(asyncHelper.getUserAsync(10L))
                 .thenReturn(CompletableFuture.failedFuture(
                         new RuntimeException("User not found: 10")));
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.UNKNOWN);
         when(asyncHelper.postExistsAsync(20L))
                 .thenReturn(CompletableFuture.completedFuture(true));
 
@@ -89,6 +144,64 @@ class CommentServiceImplTest {
         verify(commentRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("createComment rejects locally without upstream calls when the filter knows the post is absent")
+    void createComment_whenFilterSaysAbsent_throwsIllegalArgumentException() {
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.ABSENT);
+
+        assertThatThrownBy(() -> commentService.createAndValidateComment(comment))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Post not found: 20");
+
+        verifyNoInteractions(asyncHelper);
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createComment skips the post-ms call when the filter has confirmed the post")
+    void createComment_whenFilterConfirmsPost_skipsRemoteCheck() {
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.CONFIRMED);
+        when(asyncHelper.getUserAsync(10L))
+                .thenReturn(CompletableFuture.completedFuture(userDTO));
+        when(commentRepository.save(any(Comment.class))).thenReturn(comment);
+
+        commentService.createAndValidateComment(comment);
+
+        verify(asyncHelper, never()).postExistsAsync(any());
+        verify(commentRepository).save(comment);
+    }
+
+    // -------------------------------------------------------------------------
+    // acceptComment
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("acceptComment stores the comment as PENDING and hands it to the validator without upstream calls")
+    void acceptComment_savesPendingAndSchedulesValidation() {
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.UNKNOWN);
+        when(commentRepository.save(any(Comment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Comment accepted = commentService.acceptComment(comment);
+
+        assertThat(accepted.getStatus()).isEqualTo(CommentStatus.PENDING);
+        verify(pendingCommentValidator).validateAsync(accepted);
+        verifyNoInteractions(asyncHelper);
+        verifyNoInteractions(cacheGenerations);
+    }
+
+    @Test
+    @DisplayName("acceptComment rejects immediately when the filter knows the post is absent")
+    void acceptComment_whenFilterSaysAbsent_throwsIllegalArgumentException() {
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.ABSENT);
+
+        assertThatThrownBy(() -> commentService.acceptComment(comment))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Post not found: 20");
+
+        verify(commentRepository, never()).save(any());
+        verifyNoInteractions(pendingCommentValidator);
+    }
+
     // -------------------------------------------------------------------------
     // getCommentById
     // -------------------------------------------------------------------------
@@ -118,23 +231,197 @@ class CommentServiceImplTest {
     // -------------------------------------------------------------------------
 
     @Test
-    @DisplayName("findCommentsByPostId returns all comments for given post")
-    void findCommentsByPostId_returnsList() {
-        when(commentRepository.findByPostId(20L)).thenReturn(List.of(comment));
+    @DisplayName("findCommentsByPostId returns last page without cursor when rows fit the limit")
+    void findCommentsByPostId_whenFitsLimit_returnsPageWithoutCursor() {
+        when(commentRepository.findByPostIdAndStatusOrderByCreatedAtAscIdAsc(
+                eq(20L), eq(CommentStatus.VALIDATED), any(Pageable.class)))
+                .thenReturn(List.of(comment));
 
-        List<Comment> result = commentService.findCommentsByPostId(20L);
+        CommentPageDTO page = commentService.findCommentsByPostId(20L, null, 20);
 
-        assertThat(result).hasSize(1).containsExactly(comment);
+        assertThat(page.items()).extracting(CommentResponseDTO::id).containsExactly(1L);
+        assertThat(page.nextCursor()).isNull();
     }
 
     @Test
-    @DisplayName("findCommentsByPostId returns empty list when no comments exist")
-    void findCommentsByPostId_whenNone_returnsEmptyList() {
-        when(commentRepository.findByPostId(99L)).thenReturn(List.of());
+    @DisplayName("findCommentsByPostId returns next cursor pointing at last item when more rows exist")
+    void findCommentsByPostId_whenMoreRows_returnsNextCursor() {
+        Comment second = commentAt(2L, comment.getCreatedAt().plusSeconds(1));
+        Comment extra = commentAt(3L, comment.getCreatedAt().plusSeconds(2));
+        when(commentRepository.findByPostIdAndStatusOrderByCreatedAtAscIdAsc(
+                eq(20L), eq(CommentStatus.VALIDATED), any(Pageable.class)))
+                .thenReturn(List.of(comment, second, extra));
+
+        CommentPageDTO page = commentService.findCommentsByPostId(20L, null, 2);
+
+        assertThat(page.items()).extracting(CommentResponseDTO::id).containsExactly(1L, 2L);
+        assertThat(CommentCursor.decode(page.nextCursor()))
+                .isEqualTo(new CommentCursor(second.getCreatedAt(), 2L));
+    }
 
-        List<Comment> result = commentService.findCommentsByPostId(99L);
+    @Test
+    @DisplayName("findCommentsByPostId resumes after the cursor position")
+    void findCommentsByPostId_withCursor_queriesAfterPosition() {
+        CommentCursor position = new CommentCursor(comment.getCreatedAt(), 1L);
+        when(commentRepository.findByPostIdAfter(eq(20L), eq(position.createdAt()), eq(1L), any(Pageable.class)))
+                .thenReturn(List.of());
 
-        assertThat(result).isEmpty();
+        CommentPageDTO page = commentService.findCommentsByPostId(20L, position.encode(), 20);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+        verify(commentRepository, never()).findByPostIdAndStatusOrderByCreatedAtAscIdAsc(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("findCommentsByPostId throws IllegalArgumentException for a malformed cursor")
+    void findCommentsByPostId_withMalformedCursor_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> commentService.findCommentsByPostId(20L, "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    // -------------------------------------------------------------------------
+    // findCommentPreviews
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("findCommentPreviews resolves all posts with one query and includes posts without comments")
+    void findCommentPreviews_returnsPreviewPerPostInRequestOrder() {
+        when(commentRepository.findLatestByPostIds(List.of(20L, 21L), 10))
+                .thenReturn(List.of(previewRow(comment, 5L)));
+
+        List<CommentPreviewDTO> previews = commentService.findCommentPreviews(List.of(20L, 21L, 20L), 3);
+
+        assertThat(previews).extracting(CommentPreviewDTO::postId).containsExactly(20L, 21L);
+        assertThat(previews.get(0).totalCount()).isEqualTo(5L);
+        assertThat(previews.get(0).comments()).extracting(CommentResponseDTO::id).containsExactly(1L);
+        assertThat(previews.get(1).totalCount()).isZero();
+        assertThat(previews.get(1).comments()).isEmpty();
+        verify(commentRepository, times(1)).findLatestByPostIds(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("findCommentPreviews serves cached posts without querying and truncates to the limit")
+    void findCommentPreviews_whenCached_truncatesWithoutQuery() {
+        Comment older = commentAt(2L, comment.getCreatedAt().minusMinutes(1));
+        when(commentRepository.findLatestByPostIds(List.of(20L), 10))
+                .thenReturn(List.of(previewRow(comment, 2L), previewRow(older, 2L)));
+        commentService.findCommentPreviews(List.of(20L), 10);
+
+        List<CommentPreviewDTO> previews = commentService.findCommentPreviews(List.of(20L), 1);
+
+        assertThat(previews).hasSize(1);
+        assertThat(previews.get(0).totalCount()).isEqualTo(2L);
+        assertThat(previews.get(0).comments()).extracting(CommentResponseDTO::id).containsExactly(1L);
+        verify(commentRepository, times(1)).findLatestByPostIds(any(), anyInt());
+    }
+
+    private CommentPreviewRow previewRow(Comment c, long totalCount) {
+        return new CommentPreviewRow() {
+            public Long getId() { return c.getId(); }
+            public Long getPostId() { return c.getPostId(); }
+            public Long getUserId() { return c.getUserId(); }
+            public String getContent() { return c.getContent(); }
+            public LocalDateTime getCreatedAt() { return c.getCreatedAt(); }
+            public Long getTotalCount() { return totalCount; }
+        };
+    }
+
+    // -------------------------------------------------------------------------
+    // threads
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("createComment places a reply under its parent's path and increments ancestor reply counts")
+    void createComment_whenReply_extendsParentPathAndCountsReply() {
+        comment.setPath(Comment.pathSegment(1L));
+        Comment reply = commentAt(null, null);
+        reply.setParentId(1L);
+        reply.setPostId(null);
+
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.CONFIRMED);
+        when(asyncHelper.getUserAsync(10L))
+                .thenReturn(CompletableFuture.completedFuture(userDTO));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(inv -> {
+            Comment saved = inv.getArgument(0);
+            saved.setId(5L);
+            return saved;
+        });
+
+        Comment saved = commentService.createAndValidateComment(reply);
+
+        assertThat(saved.getPostId()).isEqualTo(20L);
+        assertThat(saved.getDepth()).isEqualTo(1);
+        assertThat(saved.getPath()).isEqualTo(Comment.pathSegment(1L) + Comment.pathSegment(5L));
+        verify(commentRepository).adjustReplyCounts(List.of(1L), 1);
+    }
+
+    @Test
+    @DisplayName("createComment rejects a reply whose parent belongs to another post")
+    void createComment_whenParentOnOtherPost_throwsIllegalArgumentException() {
+        Comment reply = commentAt(null, null);
+        reply.setParentId(1L);
+        reply.setPostId(99L);
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
+
+        assertThatThrownBy(() -> commentService.createAndValidateComment(reply))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("another post");
+
+        verifyNoInteractions(asyncHelper);
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("findThread scans the root's path range and returns a path cursor when more replies exist")
+    void findThread_returnsRepliesInPathOrderWithCursor() {
+        String rootPath = Comment.pathSegment(1L);
+        comment.setPath(rootPath);
+        Comment first = commentAt(2L, LocalDateTime.of(2024, 1, 1, 12, 1));
+        first.setPath(rootPath + Comment.pathSegment(2L));
+        Comment second = commentAt(3L, LocalDateTime.of(2024, 1, 1, 12, 2));
+        second.setPath(rootPath + Comment.pathSegment(3L));
+
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
+        when(commentRepository.findSubtree(eq(20L), eq(rootPath), eq(rootPath + ":"), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+
+        Optional<CommentThreadDTO> thread = commentService.findThread(1L, null, 1);
+
+        assertThat(thread).isPresent();
+        assertThat(thread.get().root().id()).isEqualTo(1L);
+        assertThat(thread.get().replies()).extracting("id").containsExactly(2L);
+        assertThat(thread.get().nextCursor()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("deleteComment removes a reply's subtree and decrements its ancestors by the validated rows removed")
+    void deleteComment_whenReply_deletesSubtreeAndDecrementsAncestors() {
+        String path = Comment.pathSegment(1L) + Comment.pathSegment(5L);
+        Comment reply = commentAt(5L, LocalDateTime.of(2024, 1, 1, 12, 1));
+        reply.setParentId(1L);
+        reply.setPath(path);
+        reply.setDepth(1);
+
+        when(commentRepository.findById(5L)).thenReturn(Optional.of(reply));
+        when(commentRepository.findSubtreeRows(20L, path, path + ":"))
+                .thenReturn(List.of(subtreeRow(5L, CommentStatus.VALIDATED), subtreeRow(6L, CommentStatus.PENDING)));
+
+        commentService.deleteComment(5L);
+
+        verify(commentRepository).deleteSubtree(20L, path, path + ":");
+        verify(commentRepository, never()).deleteById(any());
+        verify(commentRepository).adjustReplyCounts(List.of(1L), -1);
+    }
+
+    private SubtreeRow subtreeRow(Long id, CommentStatus status) {
+        return new SubtreeRow() {
+            @Override public Long getId() { return id; }
+            @Override public Long getUserId() { return 10L; }
+            @Override public CommentStatus getStatus() { return status; }
+        };
     }
 
     // -------------------------------------------------------------------------
@@ -144,7 +431,7 @@ class CommentServiceImplTest {
     @Test
     @DisplayName("findCommentsByUserId returns all comments for given user")
     void findCommentsByUserId_returnsList() {
-        when(commentRepository.findByUserId(10L)).thenReturn(List.of(comment));
+        when(commentRepository.findByUserIdAndStatus(10L, CommentStatus.VALIDATED)).thenReturn(List.of(comment));
 
         List<Comment> result = commentService.findCommentsByUserId(10L);
 
@@ -166,6 +453,7 @@ class CommentServiceImplTest {
         when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
         when(asyncHelper.getUserAsync(10L))
                 .thenReturn(CompletableFuture.completedFuture(userDTO));
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.UNKNOWN);
         when(asyncHelper.postExistsAsync(20L))
                 .thenReturn(CompletableFuture.completedFuture(true));
         when(commentRepository.save(any(Comment.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -176,6 +464,60 @@ class CommentServiceImplTest {
         assertThat(result.get().getContent()).isEqualTo("Updated content");
     }
 
+    @Test
+    @DisplayName("updateComment invalidates both the old and the new post and user lists")
+    void updateComment_whenMovedToOtherPost_bumpsOldAndNewGenerations() {
+        Comment details = new Comment();
+        details.setUserId(11L);
+        details.setPostId(21L);
+        details.setContent("Moved");
+
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
+        when(postExistenceFilter.check(21L)).thenReturn(Verdict.CONFIRMED);
+        when(asyncHelper.getUserAsync(11L))
+                .thenReturn(CompletableFuture.completedFuture(userDTO));
+        when(commentRepository.save(any(Comment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        commentService.updateAndValidateComment(1L, details);
+
+        verify(cacheGenerations).bumpPost(20L);
+        verify(cacheGenerations).bumpPost(21L);
+        verify(cacheGenerations).bumpUser(10L);
+        verify(cacheGenerations).bumpUser(11L);
+    }
+
+    @Test
+    @DisplayName("updateComment counts a pending reply once it moves the row to VALIDATED")
+    void updateComment_whenPendingReplyValidated_incrementsAncestors() {
+        Comment reply = pendingReply();
+        when(commentRepository.findById(5L)).thenReturn(Optional.of(reply));
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.CONFIRMED);
+        when(asyncHelper.getUserAsync(10L))
+                .thenReturn(CompletableFuture.completedFuture(userDTO));
+        when(commentRepository.markValidated(5L)).thenReturn(1);
+        when(commentRepository.save(any(Comment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        commentService.updateAndValidateComment(5L, reply);
+
+        verify(commentRepository).adjustReplyCounts(List.of(1L), 1);
+    }
+
+    @Test
+    @DisplayName("updateComment does not count a reply the sweeper validated since it was loaded")
+    void updateComment_whenSweeperValidatedFirst_doesNotCountAgain() {
+        Comment reply = pendingReply();
+        when(commentRepository.findById(5L)).thenReturn(Optional.of(reply));
+        when(postExistenceFilter.check(20L)).thenReturn(Verdict.CONFIRMED);
+        when(asyncHelper.getUserAsync(10L))
+                .thenReturn(CompletableFuture.completedFuture(userDTO));
+        when(commentRepository.markValidated(5L)).thenReturn(0);
+        when(commentRepository.save(any(Comment.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        commentService.updateAndValidateComment(5L, reply);
+
+        verify(commentRepository, never()).adjustReplyCounts(any(), anyLong());
+    }
+
     @Test
     @DisplayName("updateComment returns empty when comment not found")
     void updateComment_whenNotFound_returnsEmpty() {
@@ -194,17 +536,19 @@ class CommentServiceImplTest {
     @Test
     @DisplayName("deleteComment removes comment when found")
     void deleteComment_whenFound_deletesSuccessfully() {
-        when(commentRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
 
         assertThatCode(() -> commentService.deleteComment(1L)).doesNotThrowAnyException();
 
         verify(commentRepository).deleteById(1L);
+        verify(cacheGenerations).bumpPost(20L);
+        verify(cacheGenerations).bumpUser(10L);
     }
 
     @Test
     @DisplayName("deleteComment throws IllegalArgumentException when not found")
     void deleteComment_whenNotFound_throwsIllegalArgumentException() {
-        when(commentRepository.existsById(99L)).thenReturn(false);
+        when(commentRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> commentService.deleteComment(99L))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -5,12 +5,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Friendship Microservice
  * Enables Feign clients to communicate with User service
+ * and scheduling for periodic friendship graph snapshots
  */
 @EnableFeignClients
+@EnableScheduling
 @SpringBootApplication
 public class FriendshipMsApplication {
 
@@ -0,0 +1,59 @@
+package com.mstcc.friendshipms.config;
+
+import com.mstcc.cache.EntryWeigher;
+import com.mstcc.friendshipms.dto.FriendSuggestionDTO;
+import com.mstcc.friendshipms.dto.FriendshipPageDTO;
+import com.mstcc.friendshipms.dto.MutualFriendsDTO;
+import com.mstcc.friendshipms.entities.Friendship;
+
+/**
+ * Weighs friendship-ms cache entries. Friendship lists and mutual friend sets grow with a
+ * user's degree, so hubs weigh in proportion to their friend count instead of occupying one
+ * slot like everyone else.
+ */
+final class CacheWeigher extends EntryWeigher {
+
+    @Override
+    protected long estimateOther(Object value) {
+        if (value instanceof Friendship friendship) {
+            return friendship(friendship);
+        }
+        if (value instanceof FriendshipPageDTO page) {
+            return page(page);
+        }
+        if (value instanceof FriendSuggestionDTO suggestion) {
+            return suggestion(suggestion);
+        }
+        if (value instanceof MutualFriendsDTO mutual) {
+            return mutual(mutual);
+        }
+        return super.estimateOther(value);
+    }
+
+    private static long friendship(Friendship friendship) {
+        return align(OBJECT_HEADER + 6 * REFERENCE)
+                + boxed(friendship.getId())
+                + boxed(friendship.getUserId1())
+                + boxed(friendship.getUserId2())
+                + boxed(friendship.getRequesterId())
+                + dateTime(friendship.getCreatedAt());
+    }
+
+    private long page(FriendshipPageDTO page) {
+        return align(OBJECT_HEADER + 2 * REFERENCE)
+                + list(page.getItems())
+                + boxed(page.getNextAfterId());
+    }
+
+    private static long suggestion(FriendSuggestionDTO suggestion) {
+        return align(OBJECT_HEADER + REFERENCE + 4)
+                + boxed(suggestion.getUserId());
+    }
+
+    private static long mutual(MutualFriendsDTO mutual) {
+        return align(OBJECT_HEADER + 3 * REFERENCE + 4)
+                + boxed(mutual.getUserId())
+                + boxed(mutual.getOtherId())
+                + longs(mutual.getFriendIds());
+    }
+}
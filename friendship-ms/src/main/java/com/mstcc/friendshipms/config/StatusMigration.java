@@ -0,0 +1,44 @@
+package com.mstcc.friendshipms.config;
+
+import com.mstcc.friendshipms.repositories.FriendshipRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Upper-cases friendship statuses stored before the column was typed ("accepted" →
+ * "ACCEPTED"), so status queries and the per-status indexes match every row.
+ *
+ * <p>Once the rows are normalised a check constraint pins the column to the upper-case
+ * names. Its presence marks the migration as done, so later startups skip the full-table
+ * update with a catalog lookup.
+ */
+@Component("statusMigration")
+public class StatusMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusMigration.class);
+
+    private final FriendshipRepository friendshipRepository;
+
+    public StatusMigration(FriendshipRepository friendshipRepository) {
+        this.friendshipRepository = friendshipRepository;
+    }
+
+    @PostConstruct
+    public void normaliseLegacyStatuses() {
+        if (friendshipRepository.hasStatusConstraint()) {
+            return;
+        }
+        int updated = friendshipRepository.normaliseLegacyStatuses();
+        if (updated > 0) {
+            logger.info("Normalised {} legacy friendship statuses", updated);
+        }
+        try {
+            friendshipRepository.constrainStatuses();
+        } catch (RuntimeException e) {
+            // Unknown legacy statuses, or another instance added it first; retried next startup
+            logger.warn("Could not add the friendship status constraint: {}", e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.mstcc.friendshipms.controllers;
 
+import com.mstcc.friendshipms.dto.MutualFriendsDTO;
 import com.mstcc.friendshipms.entities.Friendship;
+import com.mstcc.friendshipms.exception.ErrorResponse;
 import com.mstcc.friendshipms.services.FriendshipService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * REST controller for Friendship operations.
@@ -25,6 +28,11 @@ import java.util.List;
 public class FriendshipController {
 
     private static final Logger logger = LoggerFactory.getLogger(FriendshipController.class);
+    private static final int MAX_SUGGESTIONS = 100;
+    private static final int MAX_DISTANCE_DEPTH = 12;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_FRIEND_CHECKS = 1000;
+    private static final int MAX_BULK_IMPORT = 1000;
 
     private final FriendshipService friendshipService;
 
@@ -75,6 +83,181 @@ public class FriendshipController {
         return ResponseEntity.ok(friendshipService.findFriendshipsByUserId(userId));
     }
 
+    /**
+     * Retrieves a page of a user's accepted friendships.
+     *
+     * @param userId  user ID
+     * @param afterId {@code nextAfterId} of the previous page (omit for the first page)
+     * @param limit   maximum number of friendships (defaults to 20, capped at 100)
+     * @return 200 with the page (items may be empty), or 400 if limit is not positive
+     */
+    @GetMapping("/user/{userId}/accepted")
+    public ResponseEntity<?> getAcceptedFriendships(@PathVariable Long userId,
+                                                    @RequestParam(defaultValue = "0") Long afterId,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        logger.info("GET /api/friendships/user/{}/accepted - Fetching accepted friendships (afterId={}, limit={})",
+                userId, afterId, limit);
+        if (limit <= 0) {
+            return invalidLimit();
+        }
+        return ResponseEntity.ok(friendshipService.findAcceptedFriendships(userId, afterId, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Retrieves a page of pending requests other users sent to a user.
+     *
+     * @param userId  recipient user ID
+     * @param afterId {@code nextAfterId} of the previous page (omit for the first page)
+     * @param limit   maximum number of requests (defaults to 20, capped at 100)
+     * @return 200 with the page (items may be empty), or 400 if limit is not positive
+     */
+    @GetMapping("/user/{userId}/requests/incoming")
+    public ResponseEntity<?> getIncomingRequests(@PathVariable Long userId,
+                                                 @RequestParam(defaultValue = "0") Long afterId,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        logger.info("GET /api/friendships/user/{}/requests/incoming - Fetching incoming requests (afterId={}, limit={})",
+                userId, afterId, limit);
+        if (limit <= 0) {
+            return invalidLimit();
+        }
+        return ResponseEntity.ok(friendshipService.findIncomingRequests(userId, afterId, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Retrieves a page of pending requests a user sent.
+     *
+     * @param userId  requesting user ID
+     * @param afterId {@code nextAfterId} of the previous page (omit for the first page)
+     * @param limit   maximum number of requests (defaults to 20, capped at 100)
+     * @return 200 with the page (items may be empty), or 400 if limit is not positive
+     */
+    @GetMapping("/user/{userId}/requests/outgoing")
+    public ResponseEntity<?> getOutgoingRequests(@PathVariable Long userId,
+                                                 @RequestParam(defaultValue = "0") Long afterId,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        logger.info("GET /api/friendships/user/{}/requests/outgoing - Fetching outgoing requests (afterId={}, limit={})",
+                userId, afterId, limit);
+        if (limit <= 0) {
+            return invalidLimit();
+        }
+        return ResponseEntity.ok(friendshipService.findOutgoingRequests(userId, afterId, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Retrieves the IDs of a user's accepted friends from the in-memory graph.
+     *
+     * @param userId user ID
+     * @return 200 with friend IDs sorted ascending (may be empty)
+     */
+    @GetMapping("/user/{userId}/friends")
+    public ResponseEntity<long[]> getFriendIds(@PathVariable Long userId) {
+        logger.info("GET /api/friendships/user/{}/friends - Fetching friend IDs", userId);
+        return ResponseEntity.ok(friendshipService.findFriendIds(userId));
+    }
+
+    /**
+     * Retrieves the number of accepted friends of a user from the in-memory graph.
+     *
+     * @param userId user ID
+     * @return 200 with the friend count
+     */
+    @GetMapping("/user/{userId}/friends/count")
+    public ResponseEntity<Integer> countFriends(@PathVariable Long userId) {
+        logger.info("GET /api/friendships/user/{}/friends/count - Counting friends", userId);
+        return ResponseEntity.ok(friendshipService.countFriends(userId));
+    }
+
+    /**
+     * Checks whether two users are friends using the in-memory graph.
+     *
+     * @param userId  user ID
+     * @param otherId other user ID
+     * @return 200 with {@code true} if they have an accepted friendship
+     */
+    @GetMapping("/user/{userId}/friends/{otherId}")
+    public ResponseEntity<Boolean> areFriends(@PathVariable Long userId, @PathVariable Long otherId) {
+        logger.info("GET /api/friendships/user/{}/friends/{} - Checking friendship", userId, otherId);
+        return ResponseEntity.ok(friendshipService.areFriends(userId, otherId));
+    }
+
+    /**
+     * Checks which of the given users are friends of a user, in one call.
+     *
+     * @param userId       user ID
+     * @param candidateIds user IDs to check (at most 1000)
+     * @return 200 with each distinct candidate ID mapped to whether it is a friend,
+     *         or 400 if the list is missing, contains nulls or is too long
+     */
+    @PostMapping("/user/{userId}/are-friends")
+    public ResponseEntity<?> areFriends(@PathVariable Long userId, @RequestBody List<Long> candidateIds) {
+        logger.info("POST /api/friendships/user/{}/are-friends - Checking {} candidates",
+                userId, candidateIds == null ? 0 : candidateIds.size());
+        if (candidateIds == null || candidateIds.stream().anyMatch(Objects::isNull)) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ErrorResponse.of(400, "Bad Request", "candidate IDs must not be null"));
+        }
+        if (candidateIds.size() > MAX_FRIEND_CHECKS) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ErrorResponse.of(400, "Bad Request",
+                            "at most " + MAX_FRIEND_CHECKS + " candidate IDs can be checked per request"));
+        }
+        return ResponseEntity.ok(friendshipService.areFriends(userId, candidateIds));
+    }
+
+    /**
+     * Suggests friends of friends ranked by number of mutual friends.
+     *
+     * @param userId user ID
+     * @param limit  maximum number of suggestions (defaults to 10, capped at 100)
+     * @return 200 with suggestions, best first (may be empty), or 400 if limit is not positive
+     */
+    @GetMapping("/user/{userId}/suggestions")
+    public ResponseEntity<?> getFriendSuggestions(@PathVariable Long userId,
+                                                  @RequestParam(defaultValue = "10") int limit) {
+        logger.info("GET /api/friendships/user/{}/suggestions - Suggesting friends (limit={})", userId, limit);
+        if (limit <= 0) {
+            return invalidLimit();
+        }
+        return ResponseEntity.ok(friendshipService.suggestFriends(userId, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Retrieves the friends two users have in common.
+     *
+     * @param userId  user ID
+     * @param otherId other user ID
+     * @return 200 with the mutual friend IDs and their count
+     */
+    @GetMapping("/user/{userId}/mutual/{otherId}")
+    public ResponseEntity<MutualFriendsDTO> getMutualFriends(@PathVariable Long userId, @PathVariable Long otherId) {
+        logger.info("GET /api/friendships/user/{}/mutual/{} - Fetching mutual friends", userId, otherId);
+        return ResponseEntity.ok(friendshipService.findMutualFriends(userId, otherId));
+    }
+
+    /**
+     * Finds the degree of separation between two users and one shortest chain of friends.
+     *
+     * @param from     starting user ID
+     * @param to       target user ID
+     * @param maxDepth maximum number of friendships in the chain (defaults to 6, capped at 12)
+     * @return 200 with the distance and path (both null if not connected within maxDepth),
+     *         or 400 if maxDepth is not positive
+     */
+    @GetMapping("/distance")
+    public ResponseEntity<?> getDistance(@RequestParam Long from,
+                                         @RequestParam Long to,
+                                         @RequestParam(defaultValue = "6") int maxDepth) {
+        logger.info("GET /api/friendships/distance - from={}, to={}, maxDepth={}", from, to, maxDepth);
+        if (maxDepth <= 0) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ErrorResponse.of(400, "Bad Request", "maxDepth must be greater than 0"));
+        }
+        return ResponseEntity.ok(friendshipService.findDistance(from, to, Math.min(maxDepth, MAX_DISTANCE_DEPTH)));
+    }
+
     /**
      * Creates a new friendship.
      * Exceptions are propagated to {@code GlobalExceptionHandler}.
@@ -90,6 +273,29 @@ public class FriendshipController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedFriendship);
     }
 
+    /**
+     * Creates many friendships at once, e.g. from a contact import.
+     *
+     * @param friendships pairs to create (at most 1000)
+     * @return 200 with the outcome of each pair in request order, or 400 if the list is missing or too long
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> importFriendships(@RequestBody List<Friendship> friendships) {
+        logger.info("POST /api/friendships/bulk - Importing {} friendships", friendships == null ? 0 : friendships.size());
+        if (friendships == null) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ErrorResponse.of(400, "Bad Request", "request body must be a list of friendships"));
+        }
+        if (friendships.size() > MAX_BULK_IMPORT) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(ErrorResponse.of(400, "Bad Request",
+                            "at most " + MAX_BULK_IMPORT + " friendships can be imported per request"));
+        }
+        return ResponseEntity.ok(friendshipService.importFriendships(friendships));
+    }
+
     /**
      * Updates an existing friendship.
      * Exceptions are propagated to {@code GlobalExceptionHandler}.
@@ -121,4 +327,10 @@ public class FriendshipController {
         friendshipService.deleteFriendship(id);
         return ResponseEntity.noContent().build();
     }
+
+    private ResponseEntity<ErrorResponse> invalidLimit() {
+        return ResponseEntity
+                .badRequest()
+                .body(ErrorResponse.of(400, "Bad Request", "limit must be greater than 0"));
+    }
 }
@@ -0,0 +1,82 @@
+package com.mstcc.friendshipms.dto;
+
+/**
+ * Outcome of one pair of a bulk friendship import, reported in request order.
+ * User IDs are normalised (userId1 &lt; userId2) for every outcome except {@code INVALID}.
+ */
+public class BulkFriendshipResultDTO {
+
+    /**
+     * What happened to a pair.
+     */
+    public enum Outcome {
+        /** The friendship was inserted; {@code id} is set. */
+        CREATED,
+        /** A friendship between the two users already existed. */
+        ALREADY_EXISTS,
+        /** The same pair appeared earlier in the request. */
+        DUPLICATE,
+        /** One of the users does not exist. */
+        USER_NOT_FOUND,
+        /** The pair itself is malformed (missing IDs, self-friendship, foreign requester). */
+        INVALID
+    }
+
+    private Long userId1;
+    private Long userId2;
+    private Outcome outcome;
+    private Long id;
+    private String message;
+
+    public BulkFriendshipResultDTO() {
+    }
+
+    public BulkFriendshipResultDTO(Long userId1, Long userId2, Outcome outcome, Long id, String message) {
+        this.userId1 = userId1;
+        this.userId2 = userId2;
+        this.outcome = outcome;
+        this.id = id;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public Long getUserId1() {
+        return userId1;
+    }
+
+    public void setUserId1(Long userId1) {
+        this.userId1 = userId1;
+    }
+
+    public Long getUserId2() {
+        return userId2;
+    }
+
+    public void setUserId2(Long userId2) {
+        this.userId2 = userId2;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
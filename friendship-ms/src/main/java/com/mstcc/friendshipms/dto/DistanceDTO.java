@@ -0,0 +1,55 @@
+package com.mstcc.friendshipms.dto;
+
+/**
+ * Degree of separation between two users and one shortest chain of friends connecting them.
+ * {@code distance} and {@code path} are null when no chain exists within the depth limit.
+ */
+public class DistanceDTO {
+    private Long from;
+    private Long to;
+    private Integer distance;
+    private long[] path;
+
+    public DistanceDTO() {
+    }
+
+    public DistanceDTO(Long from, Long to, long[] path) {
+        this.from = from;
+        this.to = to;
+        this.distance = path == null ? null : path.length - 1;
+        this.path = path;
+    }
+
+    // Getters and Setters
+    public Long getFrom() {
+        return from;
+    }
+
+    public void setFrom(Long from) {
+        this.from = from;
+    }
+
+    public Long getTo() {
+        return to;
+    }
+
+    public void setTo(Long to) {
+        this.to = to;
+    }
+
+    public Integer getDistance() {
+        return distance;
+    }
+
+    public void setDistance(Integer distance) {
+        this.distance = distance;
+    }
+
+    public long[] getPath() {
+        return path;
+    }
+
+    public void setPath(long[] path) {
+        this.path = path;
+    }
+}
@@ -0,0 +1,34 @@
+package com.mstcc.friendshipms.dto;
+
+/**
+ * A suggested friend: a user two hops away, ranked by the number of mutual friends.
+ */
+public class FriendSuggestionDTO {
+    private Long userId;
+    private int mutualFriends;
+
+    public FriendSuggestionDTO() {
+    }
+
+    public FriendSuggestionDTO(Long userId, int mutualFriends) {
+        this.userId = userId;
+        this.mutualFriends = mutualFriends;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public int getMutualFriends() {
+        return mutualFriends;
+    }
+
+    public void setMutualFriends(int mutualFriends) {
+        this.mutualFriends = mutualFriends;
+    }
+}
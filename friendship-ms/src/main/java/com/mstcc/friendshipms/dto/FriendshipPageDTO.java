@@ -0,0 +1,39 @@
+package com.mstcc.friendshipms.dto;
+
+import com.mstcc.friendshipms.entities.Friendship;
+
+import java.util.List;
+
+/**
+ * One page of a friendship listing. Pass {@code nextAfterId} as {@code afterId} to fetch the
+ * next page; it is null on the last page.
+ */
+public class FriendshipPageDTO {
+    private List<Friendship> items;
+    private Long nextAfterId;
+
+    public FriendshipPageDTO() {
+    }
+
+    public FriendshipPageDTO(List<Friendship> items, Long nextAfterId) {
+        this.items = items;
+        this.nextAfterId = nextAfterId;
+    }
+
+    // Getters and Setters
+    public List<Friendship> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Friendship> items) {
+        this.items = items;
+    }
+
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public void setNextAfterId(Long nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.mstcc.friendshipms.dto;
+
+/**
+ * Friends shared by two users.
+ */
+public class MutualFriendsDTO {
+    private Long userId;
+    private Long otherId;
+    private int count;
+    private long[] friendIds;
+
+    public MutualFriendsDTO() {
+    }
+
+    public MutualFriendsDTO(Long userId, Long otherId, long[] friendIds) {
+        this.userId = userId;
+        this.otherId = otherId;
+        this.count = friendIds.length;
+        this.friendIds = friendIds;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getOtherId() {
+        return otherId;
+    }
+
+    public void setOtherId(Long otherId) {
+        this.otherId = otherId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public long[] getFriendIds() {
+        return friendIds;
+    }
+
+    public void setFriendIds(long[] friendIds) {
+        this.friendIds = friendIds;
+    }
+}
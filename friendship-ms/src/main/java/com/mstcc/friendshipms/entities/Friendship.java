@@ -14,7 +14,13 @@ import java.time.LocalDateTime;
         // The unique constraint already creates an index on (user_id1, user_id2).
         // A separate index on user_id2 is needed so that findByUserId1OrUserId2
         // can resolve the user_id2 side of the OR without a full table scan.
-        @Index(name = "idx_friendships_user_id2", columnList = "user_id2")
+        @Index(name = "idx_friendships_user_id2", columnList = "user_id2"),
+        // Per-status listings (accepted friends, incoming requests) page by ID within one
+        // user and status, so each side of the OR reads only the rows it returns.
+        @Index(name = "idx_friendships_user1_status_id", columnList = "user_id1, status, id"),
+        @Index(name = "idx_friendships_user2_status_id", columnList = "user_id2, status, id"),
+        // Outgoing requests are looked up by the requesting user.
+        @Index(name = "idx_friendships_requester_status_id", columnList = "requester_id, status, id")
     }
 )
 @Setter
@@ -31,7 +37,15 @@ public class Friendship {
     @Column(name = "user_id2")
     private Long userId2;
 
-    private String status; // for example, 'pending', 'accepted', 'declined'
+    @Column(length = 16)
+    private FriendshipStatus status;
+
+    /**
+     * User who sent the request; the other user is the recipient. Null for rows created
+     * before requests were tracked, which therefore appear in neither request listing.
+     */
+    @Column(name = "requester_id")
+    private Long requesterId;
 
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
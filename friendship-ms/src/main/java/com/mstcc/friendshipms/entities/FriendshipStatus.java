@@ -0,0 +1,29 @@
+package com.mstcc.friendshipms.entities;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.Locale;
+
+/**
+ * Lifecycle status of a friendship.
+ */
+public enum FriendshipStatus {
+    /** Requested by {@code requesterId}, waiting for the other user. */
+    PENDING,
+    /** Both users are friends. */
+    ACCEPTED,
+    /** The other user declined the request. */
+    DECLINED;
+
+    /**
+     * Parses a status case-insensitively, so {@code "accepted"} and {@code "ACCEPTED"} are equal.
+     *
+     * @param value status name
+     * @return the status, or null if {@code value} is null
+     * @throws IllegalArgumentException if {@code value} is not a known status
+     */
+    @JsonCreator
+    public static FriendshipStatus from(String value) {
+        return value == null ? null : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,22 @@
+package com.mstcc.friendshipms.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link FriendshipStatus} by name and reads legacy lower-case values written
+ * before the status column was typed.
+ */
+@Converter(autoApply = true)
+public class FriendshipStatusConverter implements AttributeConverter<FriendshipStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(FriendshipStatus status) {
+        return status == null ? null : status.name();
+    }
+
+    @Override
+    public FriendshipStatus convertToEntityAttribute(String value) {
+        return FriendshipStatus.from(value);
+    }
+}
@@ -6,6 +6,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Collection;
+import java.util.List;
 
 @Component
 @FeignClient(name = "user-ms", path = "/api/users")
@@ -13,4 +18,7 @@ public interface UserFeignClient {
 
     @GetMapping("/{id}")
     ResponseEntity<UserDTO> getUserById(@PathVariable Long id);
+
+    @PostMapping("/exists")
+    ResponseEntity<List<Long>> findExistingUserIds(@RequestBody Collection<Long> ids);
 }
@@ -0,0 +1,73 @@
+package com.mstcc.friendshipms.repositories;
+
+import com.mstcc.friendshipms.entities.Friendship;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-row friendship inserts that skip pairs which already exist.
+ *
+ * <p>Each statement inserts up to {@value #ROWS_PER_STATEMENT} rows with
+ * {@code INSERT ... ON CONFLICT (user_id1, user_id2) DO NOTHING RETURNING ...}, so a batch
+ * costs one round trip per chunk instead of an existence query plus an insert per pair, and
+ * a pair created concurrently by another request is skipped instead of failing the batch.
+ * Runs in the caller's transaction.
+ */
+@Repository
+public class FriendshipBulkRepository {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final String INSERT_PREFIX =
+            "INSERT INTO friendships (user_id1, user_id2, status, requester_id, created_at) VALUES ";
+    private static final String INSERT_SUFFIX =
+            " ON CONFLICT (user_id1, user_id2) DO NOTHING RETURNING id, user_id1, user_id2";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FriendshipBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts normalised friendships, skipping pairs that already exist.
+     *
+     * @param friendships friendships with normalised user IDs, status and requester set
+     * @param createdAt   creation time stored on every row
+     * @return the inserted rows (ID and user pair only); pairs that already existed are absent
+     */
+    public List<Friendship> insertIgnoringExisting(List<Friendship> friendships, LocalDateTime createdAt) {
+        List<Friendship> inserted = new ArrayList<>(friendships.size());
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        for (int from = 0; from < friendships.size(); from += ROWS_PER_STATEMENT) {
+            List<Friendship> chunk = friendships.subList(from, Math.min(from + ROWS_PER_STATEMENT, friendships.size()));
+
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+            Object[] args = new Object[chunk.size() * 5];
+            int a = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                Friendship f = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+                args[a++] = f.getUserId1();
+                args[a++] = f.getUserId2();
+                args[a++] = f.getStatus().name();
+                args[a++] = f.getRequesterId();
+                args[a++] = timestamp;
+            }
+            sql.append(INSERT_SUFFIX);
+
+            inserted.addAll(jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+                Friendship row = new Friendship();
+                row.setId(rs.getLong("id"));
+                row.setUserId1(rs.getLong("user_id1"));
+                row.setUserId2(rs.getLong("user_id2"));
+                return row;
+            }, args));
+        }
+        return inserted;
+    }
+}
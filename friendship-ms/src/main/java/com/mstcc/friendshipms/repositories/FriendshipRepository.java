@@ -1,8 +1,14 @@
 package com.mstcc.friendshipms.repositories;
 
 import com.mstcc.friendshipms.entities.Friendship;
+import com.mstcc.friendshipms.entities.FriendshipStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -39,4 +45,109 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
      * @return an {@link Optional} containing the friendship if found, or empty
      */
     Optional<Friendship> findByUserId1AndUserId2(Long userId1, Long userId2);
+
+    /**
+     * Keyset page of a user's friendships with the given status, ordered by ID.
+     * Served by the (user_id1, status, id) and (user_id2, status, id) indexes.
+     *
+     * @param userId   user on either side of the friendship
+     * @param status   friendship status
+     * @param afterId  last friendship ID of the previous page (0 for the first page)
+     * @param pageable page size
+     * @return matching friendships
+     */
+    @Query("SELECT f FROM Friendship f WHERE f.status = :status " +
+           "AND (f.userId1 = :userId OR f.userId2 = :userId) AND f.id > :afterId ORDER BY f.id ASC")
+    List<Friendship> findByUserAndStatusAfter(@Param("userId") Long userId,
+                                              @Param("status") FriendshipStatus status,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    /**
+     * Keyset page of requests with the given status that other users sent to a user, ordered by ID.
+     *
+     * @param userId   recipient user ID
+     * @param status   friendship status
+     * @param afterId  last friendship ID of the previous page (0 for the first page)
+     * @param pageable page size
+     * @return matching friendships
+     */
+    @Query("SELECT f FROM Friendship f WHERE f.status = :status " +
+           "AND (f.userId1 = :userId OR f.userId2 = :userId) AND f.requesterId <> :userId " +
+           "AND f.id > :afterId ORDER BY f.id ASC")
+    List<Friendship> findReceivedAfter(@Param("userId") Long userId,
+                                       @Param("status") FriendshipStatus status,
+                                       @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    /**
+     * Keyset page of requests with the given status sent by a user, ordered by ID.
+     * Served by the (requester_id, status, id) index.
+     *
+     * @param requesterId requesting user ID
+     * @param status      friendship status
+     * @param afterId     last friendship ID of the previous page (0 for the first page)
+     * @param pageable    page size
+     * @return matching friendships
+     */
+    List<Friendship> findByRequesterIdAndStatusAndIdGreaterThanOrderByIdAsc(Long requesterId,
+                                                                           FriendshipStatus status,
+                                                                           Long afterId,
+                                                                           Pageable pageable);
+
+    /**
+     * Keyset page of friendships with the given status as bare user-ID pairs, ordered by ID.
+     * Used to load the in-memory friendship graph without materialising entities.
+     *
+     * @param status   friendship status
+     * @param afterId  last friendship ID of the previous page (0 for the first page)
+     * @param pageable page size
+     * @return ID and user pair of each matching friendship
+     */
+    @Query("SELECT f.id AS id, f.userId1 AS userId1, f.userId2 AS userId2 FROM Friendship f " +
+           "WHERE f.id > :afterId AND f.status = :status ORDER BY f.id ASC")
+    List<EdgeRow> findEdgesAfter(@Param("status") FriendshipStatus status,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
+
+    /**
+     * Upper-cases statuses written before the column was typed.
+     *
+     * @return number of rows updated
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE friendships SET status = UPPER(status) WHERE status <> UPPER(status)",
+           nativeQuery = true)
+    int normaliseLegacyStatuses();
+
+    /**
+     * Whether {@link #constrainStatuses} has run. A catalog lookup, so it stays cheap however
+     * large the table grows.
+     *
+     * @return true if the status check constraint exists
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'chk_friendships_status')",
+           nativeQuery = true)
+    boolean hasStatusConstraint();
+
+    /**
+     * Rejects anything but the upper-case status names from now on, so normalised rows stay
+     * normalised. Validating the constraint reads the table once.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "ALTER TABLE friendships ADD CONSTRAINT chk_friendships_status " +
+                   "CHECK (status IN ('PENDING', 'ACCEPTED', 'DECLINED'))",
+           nativeQuery = true)
+    void constrainStatuses();
+
+    /**
+     * Row of {@link #findEdgesAfter}.
+     */
+    interface EdgeRow {
+        Long getId();
+        Long getUserId1();
+        Long getUserId2();
+    }
 }
\ No newline at end of file
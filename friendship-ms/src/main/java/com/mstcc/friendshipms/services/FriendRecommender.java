@@ -0,0 +1,223 @@
+package com.mstcc.friendshipms.services;
+
+import com.mstcc.friendshipms.dto.FriendSuggestionDTO;
+import com.mstcc.friendshipms.services.FriendshipGraph.Adjacency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Friend-of-friend suggestions and mutual friends computed on the {@link FriendshipGraph}.
+ *
+ * <p>Suggestions gather the sorted neighbour arrays of a user's friends into one buffer and
+ * sort it: every run of equal IDs is a two-hop candidate, and the run length is exactly the
+ * size of the intersection of the user's and the candidate's friend lists, i.e. the number of
+ * mutual friends. Candidates stream through a bounded min-heap, so ranking costs
+ * O(candidates · log k) and only the top {@code k} are ever materialised. Large buffers
+ * (high-degree users) are sorted in parallel.
+ *
+ * <p>For users whose two-hop neighbourhood exceeds {@value #MAX_TWO_HOP_SCAN} entries, only
+ * the lowest-degree friends are expanded until the budget is spent; hubs contribute mostly
+ * weak candidates and would otherwise dominate memory and latency.
+ */
+@Component
+public class FriendRecommender {
+
+    private static final Logger logger = LoggerFactory.getLogger(FriendRecommender.class);
+
+    /** Two-hop buffer size from which the buffer is sorted on the common fork-join pool. */
+    static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+    /** Upper bound on two-hop entries scanned for a single user. */
+    static final int MAX_TWO_HOP_SCAN = 4_000_000;
+    /** Size ratio above which intersection binary-searches the larger list instead of merging. */
+    private static final int GALLOP_RATIO = 32;
+
+    /** Best first: more mutual friends, then lower user ID for a stable order. */
+    private static final Comparator<FriendSuggestionDTO> RANKING =
+            Comparator.comparingInt(FriendSuggestionDTO::getMutualFriends).reversed()
+                    .thenComparing(FriendSuggestionDTO::getUserId);
+
+    private final FriendshipGraph friendshipGraph;
+
+    public FriendRecommender(FriendshipGraph friendshipGraph) {
+        this.friendshipGraph = friendshipGraph;
+    }
+
+    /**
+     * Ranks the users two hops away from a user by number of mutual friends.
+     *
+     * @param userId user ID
+     * @param limit  maximum number of suggestions
+     * @return suggestions, best first (may be empty)
+     */
+    public List<FriendSuggestionDTO> suggest(long userId, int limit) {
+        Adjacency friends = friendshipGraph.adjacency(userId);
+        if (friends.size() == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        long[] twoHop = gatherTwoHop(userId, friends);
+        if (twoHop.length >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(twoHop);
+        } else {
+            Arrays.sort(twoHop);
+        }
+
+        // Head is the weakest suggestion kept so far
+        PriorityQueue<FriendSuggestionDTO> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        int i = 0;
+        while (i < twoHop.length) {
+            long candidate = twoHop[i];
+            int runEnd = i + 1;
+            while (runEnd < twoHop.length && twoHop[runEnd] == candidate) {
+                runEnd++;
+            }
+            int mutual = runEnd - i;
+            i = runEnd;
+
+            if (candidate == userId || friends.contains(candidate)) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(new FriendSuggestionDTO(candidate, mutual));
+            } else if (outranks(mutual, candidate, top.peek())) {
+                top.poll();
+                top.add(new FriendSuggestionDTO(candidate, mutual));
+            }
+        }
+
+        List<FriendSuggestionDTO> suggestions = new ArrayList<>(top);
+        suggestions.sort(RANKING);
+        return suggestions;
+    }
+
+    /**
+     * Returns the friends two users have in common.
+     *
+     * @param userId  first user ID
+     * @param otherId second user ID
+     * @return mutual friend IDs, sorted ascending
+     */
+    public long[] mutualFriends(long userId, long otherId) {
+        return intersect(friendshipGraph.adjacency(userId), friendshipGraph.adjacency(otherId));
+    }
+
+    /**
+     * Returns which of the given users are friends of a user.
+     *
+     * @param userId     user ID
+     * @param candidates user IDs to check, in any order, duplicates allowed
+     * @return the candidates that are friends of the user, sorted ascending without duplicates
+     */
+    public long[] friendsAmong(long userId, long[] candidates) {
+        long[] sorted = candidates.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return intersect(friendshipGraph.adjacency(userId), Adjacency.of(sorted, n));
+    }
+
+    /**
+     * Intersects two sorted neighbour lists. Similar sizes are merged linearly; when one list
+     * is much smaller, each of its IDs is binary-searched in the larger one instead.
+     */
+    static long[] intersect(Adjacency a, Adjacency b) {
+        if (a.size() > b.size()) {
+            Adjacency swap = a;
+            a = b;
+            b = swap;
+        }
+        long[] out = new long[a.size()];
+        int n = 0;
+        if ((long) a.size() * GALLOP_RATIO < b.size()) {
+            for (int i = 0; i < a.size(); i++) {
+                if (b.contains(a.get(i))) {
+                    out[n++] = a.get(i);
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < a.size() && j < b.size()) {
+                long x = a.get(i);
+                long y = b.get(j);
+                if (x == y) {
+                    out[n++] = x;
+                    i++;
+                    j++;
+                } else if (x < y) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private long[] gatherTwoHop(long userId, Adjacency friends) {
+        Adjacency[] lists = new Adjacency[friends.size()];
+        long total = 0;
+        for (int f = 0; f < lists.length; f++) {
+            lists[f] = friendshipGraph.adjacency(friends.get(f));
+            total += lists[f].size();
+        }
+        if (total > MAX_TWO_HOP_SCAN) {
+            lists = lowestDegreeWithinBudget(lists);
+            logger.info("Two-hop scan capped - userId: {}, friends: {}, expanded: {}, entries: {}",
+                    userId, friends.size(), lists.length, total);
+        }
+
+        int size = 0;
+        for (Adjacency list : lists) {
+            size += list.size();
+        }
+        long[] twoHop = new long[size];
+        int pos = 0;
+        for (Adjacency list : lists) {
+            list.copyTo(twoHop, pos);
+            pos += list.size();
+        }
+        return twoHop;
+    }
+
+    private static Adjacency[] lowestDegreeWithinBudget(Adjacency[] lists) {
+        // Pack (degree, index) into one long so a primitive sort orders friends by degree
+        long[] byDegree = new long[lists.length];
+        for (int f = 0; f < lists.length; f++) {
+            byDegree[f] = ((long) lists[f].size() << 32) | f;
+        }
+        Arrays.sort(byDegree);
+
+        List<Adjacency> kept = new ArrayList<>();
+        long budget = MAX_TWO_HOP_SCAN;
+        for (long packed : byDegree) {
+            Adjacency list = lists[(int) packed];
+            if (list.size() > budget) {
+                break;
+            }
+            budget -= list.size();
+            kept.add(list);
+        }
+        return kept.toArray(new Adjacency[0]);
+    }
+
+    private static boolean outranks(int mutual, long candidate, FriendSuggestionDTO weakest) {
+        return mutual > weakest.getMutualFriends()
+                || (mutual == weakest.getMutualFriends() && candidate < weakest.getUserId());
+    }
+}
@@ -1,13 +1,19 @@
 package com.mstcc.friendshipms.services;
 
+import com.mstcc.cache.NegativeCache;
 import com.mstcc.friendshipms.feignclients.UserFeignClient;
 import com.mstcc.friendshipms.dto.UserDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -20,9 +26,12 @@ public class FriendshipAsyncHelper {
     private static final Logger logger = LoggerFactory.getLogger(FriendshipAsyncHelper.class);
     
     private final UserFeignClient userFeignClient;
+    /** IDs the owning service recently answered 404 for (see CacheConfig). */
+    private final NegativeCache missingUsers;
 
-    public FriendshipAsyncHelper(UserFeignClient userFeignClient) {
+    public FriendshipAsyncHelper(UserFeignClient userFeignClient, CacheManager cacheManager) {
         this.userFeignClient = userFeignClient;
+        this.missingUsers = new NegativeCache(cacheManager, "missingUsers");
     }
 
     /**
@@ -36,6 +45,10 @@ public class FriendshipAsyncHelper {
         long startTime = System.currentTimeMillis();
         
         logger.info("[{}] START - Fetching user async: userId={}", threadName, userId);
+
+        if (missingUsers.isKnownMissing(userId)) {
+            return missingUsers.failed(new RuntimeException("User not found: " + userId));
+        }
         
         try {
             ResponseEntity<UserDTO> response = userFeignClient.getUserById(userId);
@@ -51,6 +64,7 @@ public class FriendshipAsyncHelper {
             long duration = System.currentTimeMillis() - startTime;
             logger.error("[{}] FAILED - User fetch failed in {}ms: userId={}, error={}", 
                         threadName, duration, userId, e.getMessage());
+            missingUsers.recordIfNotFound(userId, e);
             
             CompletableFuture<UserDTO> failedFuture = new CompletableFuture<>();
             failedFuture.completeExceptionally(
@@ -59,4 +73,52 @@ public class FriendshipAsyncHelper {
             return failedFuture;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks which of the given users exist with one batched call to user-ms.
+     * Users recently reported missing are left out of the call; users the call does not
+     * return are remembered as missing.
+     * @param userIds the user IDs to check
+     * @return CompletableFuture containing the IDs of existing users
+     */
+    @Async("taskExecutor")
+    public CompletableFuture<Set<Long>> getExistingUserIdsAsync(Collection<Long> userIds) {
+        String threadName = Thread.currentThread().getName();
+        long startTime = System.currentTimeMillis();
+
+        logger.info("[{}] START - Checking users async: count={}", threadName, userIds.size());
+
+        List<Long> unknown = userIds.stream().filter(id -> !missingUsers.isKnownMissing(id)).toList();
+        if (unknown.isEmpty()) {
+            logger.info("[{}] NEGATIVE HIT - All users recently not found: count={}", threadName, userIds.size());
+            return CompletableFuture.completedFuture(Set.of());
+        }
+
+        try {
+            List<Long> existing = userFeignClient.findExistingUserIds(unknown).getBody();
+            Set<Long> found = existing == null ? Set.of() : new HashSet<>(existing);
+            for (Long id : unknown) {
+                if (!found.contains(id)) {
+                    missingUsers.recordMissing(id);
+                }
+            }
+
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("[{}] SUCCESS - Users checked in {}ms: count={}, found={}, knownMissing={}",
+                       threadName, duration, userIds.size(), found.size(), userIds.size() - unknown.size());
+
+            return CompletableFuture.completedFuture(found);
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("[{}] FAILED - User check failed in {}ms: count={}, error={}",
+                        threadName, duration, userIds.size(), e.getMessage());
+
+            CompletableFuture<Set<Long>> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(
+                new RuntimeException("User validation failed: " + e.getMessage(), e)
+            );
+            return failedFuture;
+        }
+    }
+}
@@ -0,0 +1,634 @@
+package com.mstcc.friendshipms.services;
+
+import com.mstcc.friendshipms.entities.FriendshipStatus;
+import com.mstcc.friendshipms.repositories.FriendshipRepository;
+import com.mstcc.friendshipms.repositories.FriendshipRepository.EdgeRow;
+import com.mstcc.friendshipms.services.GraphSnapshotStore.MappedGraph;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory graph of accepted friendships in compressed sparse-row (CSR) form.
+ *
+ * <p>The base graph is three primitive arrays: sorted user IDs, per-user offsets and one
+ * {@code long[]} holding every user's sorted neighbour list back to back — 16 bytes per
+ * friendship instead of a {@code Friendship} entity per row. Neighbour lookups and degree
+ * are O(1) slices, and "are A and B friends" is a binary search, all without database access.
+ *
+ * <p>CSR arrays are immutable, so writes go to a small overlay holding the full, sorted
+ * neighbour array of each user changed since the last compaction. Once the overlay grows
+ * past a fraction of the graph it is merged into a fresh CSR and swapped in atomically.
+ * Reads are lock-free; writes are serialised and applied only after their transaction
+ * commits, so a rolled-back write never reaches the graph.
+ *
+ * <p>Every applied change bumps the {@link GraphGenerations} of both users and of their
+ * friends, which invalidates the cached graph-derived results (suggestions, mutual friends)
+ * in the two-hop neighbourhood of the change.
+ *
+ * <p>The graph is kept current by the writes of this instance, which is the only
+ * friendship-ms instance in the deployment. At startup it is restored from the
+ * memory-mapped {@link GraphSnapshotStore} snapshot plus its write-ahead log when one exists,
+ * which makes it queryable within seconds; the database is then re-read in the background
+ * and swapped in to repair any drift. Without a snapshot the graph is loaded from the
+ * database before the application starts. A fresh snapshot is written after every load
+ * and periodically while the graph changes.
+ */
+@Component
+@DependsOn("statusMigration")
+public class FriendshipGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(FriendshipGraph.class);
+
+    private static final int LOAD_PAGE_SIZE = 50_000;
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+    private static final int COMPACTION_DIVISOR = 8;
+    private static final long SNAPSHOT_INTERVAL_MS = 10 * 60 * 1000L;
+    private static final long[] NO_NEIGHBOURS = new long[0];
+
+    private final FriendshipRepository friendshipRepository;
+    private final GraphGenerations graphGenerations;
+    private final GraphSnapshotStore snapshotStore;
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(Csr.EMPTY, new ConcurrentHashMap<>());
+    private volatile long edgeCount;
+    private volatile boolean restored;
+
+    // Guarded by writeLock
+    private long walSequence;
+    private long changesSinceSnapshot;
+    private List<long[]> changesDuringLoad;
+
+    public FriendshipGraph(FriendshipRepository friendshipRepository, GraphGenerations graphGenerations,
+                           GraphSnapshotStore snapshotStore) {
+        this.friendshipRepository = friendshipRepository;
+        this.graphGenerations = graphGenerations;
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * Neighbours of one user as a read-only view into the graph buffers, which are either
+     * heap arrays or a memory-mapped snapshot.
+     *
+     * @param buffer backing buffer, never modified
+     * @param from   first index (inclusive)
+     * @param to     last index (exclusive)
+     */
+    public record Adjacency(LongBuffer buffer, int from, int to) {
+
+        static final Adjacency EMPTY = of(NO_NEIGHBOURS, 0);
+
+        /**
+         * Wraps the first {@code length} entries of a sorted array.
+         */
+        public static Adjacency of(long[] sorted, int length) {
+            return new Adjacency(LongBuffer.wrap(sorted), 0, length);
+        }
+
+        public int size() {
+            return to - from;
+        }
+
+        public long get(int i) {
+            return buffer.get(from + i);
+        }
+
+        public boolean contains(long userId) {
+            return indexOf(userId) >= 0;
+        }
+
+        /**
+         * Binary-searches for a user.
+         *
+         * @return position of the user, or {@code -(insertion point) - 1} as in {@link Arrays#binarySearch}
+         */
+        public int indexOf(long userId) {
+            int i = binarySearch(buffer, from, to, userId);
+            return i >= 0 ? i - from : i + from;
+        }
+
+        /**
+         * Copies the neighbours into {@code dst} starting at {@code pos}.
+         */
+        public void copyTo(long[] dst, int pos) {
+            buffer.get(from, dst, pos, size());
+        }
+
+        public long[] toArray() {
+            long[] copy = new long[size()];
+            copyTo(copy, 0);
+            return copy;
+        }
+    }
+
+    /**
+     * Restores the graph from the on-disk snapshot and write-ahead log, or loads it from
+     * the database if there is no usable snapshot.
+     */
+    @PostConstruct
+    public void start() {
+        if (!restore()) {
+            // Logs without a snapshot to replay onto are useless
+            snapshotStore.deleteWalBefore(Long.MAX_VALUE);
+            load();
+        }
+    }
+
+    /**
+     * Brings the graph to a durable, database-consistent state once the application is up:
+     * a restored graph is reloaded from the database, and either way a fresh snapshot is
+     * written so the next start is warm. Runs in the background; reads keep being served
+     * from the current graph until the reloaded one is swapped in.
+     */
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!snapshotStore.isEnabled()) {
+            return;
+        }
+        if (restored) {
+            synchronized (writeLock) {
+                changesDuringLoad = new ArrayList<>();
+            }
+            load();
+            restored = false;
+        }
+        writeSnapshot();
+    }
+
+    /**
+     * Writes a snapshot if the graph changed since the last one.
+     */
+    @Scheduled(initialDelay = SNAPSHOT_INTERVAL_MS, fixedDelay = SNAPSHOT_INTERVAL_MS)
+    public void snapshotIfChanged() {
+        boolean changed;
+        synchronized (writeLock) {
+            changed = changesSinceSnapshot > 0;
+        }
+        if (changed) {
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * Loads all accepted friendships from the database, paging by ID. Changes applied while
+     * a background reload runs are replayed onto the loaded graph before it is swapped in.
+     */
+    public void load() {
+        long startTime = System.currentTimeMillis();
+
+        long[] us = new long[LOAD_PAGE_SIZE];
+        long[] vs = new long[LOAD_PAGE_SIZE];
+        int count = 0;
+        long afterId = 0;
+        while (true) {
+            List<EdgeRow> page = friendshipRepository.findEdgesAfter(
+                    FriendshipStatus.ACCEPTED, afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
+            if (count + page.size() > us.length) {
+                int capacity = Math.max(us.length * 2, count + page.size());
+                us = Arrays.copyOf(us, capacity);
+                vs = Arrays.copyOf(vs, capacity);
+            }
+            for (EdgeRow row : page) {
+                us[count] = row.getUserId1();
+                vs[count] = row.getUserId2();
+                count++;
+            }
+            afterId = page.get(page.size() - 1).getId();
+            if (page.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+        }
+
+        Csr csr = Csr.fromEdges(us, vs, count);
+        int replayed = 0;
+        synchronized (writeLock) {
+            snapshot = new Snapshot(csr, new ConcurrentHashMap<>());
+            edgeCount = csr.neighbourCount() / 2;
+            if (changesDuringLoad != null) {
+                for (long[] change : changesDuringLoad) {
+                    applyLocked(change[0], change[1], change[2] == 1);
+                }
+                replayed = changesDuringLoad.size();
+                changesDuringLoad = null;
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Friendship graph loaded in {}ms - users: {}, friendships: {}, replayed: {}",
+                duration, csr.nodeCount, edgeCount, replayed);
+    }
+
+    /**
+     * Compacts the graph and writes it as the new snapshot, starting a new write-ahead log.
+     * The snapshot is written outside the write lock; writes go to the new log meanwhile.
+     * Skipped while a background reload is running.
+     */
+    public void writeSnapshot() {
+        if (!snapshotStore.isEnabled()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+
+        Csr csr;
+        long sequence;
+        synchronized (writeLock) {
+            if (changesDuringLoad != null) {
+                return;
+            }
+            if (!snapshot.overrides.isEmpty()) {
+                compact(snapshot);
+            }
+            csr = snapshot.csr;
+            sequence = ++walSequence;
+            snapshotStore.startWal(sequence);
+            changesSinceSnapshot = 0;
+        }
+
+        try {
+            MappedGraph mapped = snapshotStore.write(csr.nodeIds, csr.offsets, csr.neighbours, sequence);
+            synchronized (writeLock) {
+                // Move the base graph off-heap unless a compaction replaced it meanwhile
+                if (snapshot.csr == csr) {
+                    snapshot = new Snapshot(Csr.mapped(mapped), snapshot.overrides);
+                }
+            }
+            snapshotStore.deleteWalBefore(sequence);
+        } catch (IOException e) {
+            logger.warn("Friendship graph snapshot failed, keeping previous snapshot: {}", e.getMessage());
+            return;
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Friendship graph snapshot written in {}ms - users: {}, friendships: {}",
+                duration, csr.nodeCount, csr.neighbourCount() / 2);
+    }
+
+    /**
+     * Returns the neighbours of a user, sorted ascending.
+     *
+     * @param userId user ID
+     * @return read-only adjacency view (empty if the user has no friends)
+     */
+    public Adjacency adjacency(long userId) {
+        Snapshot current = snapshot;
+        long[] override = current.overrides.get(userId);
+        if (override != null) {
+            return Adjacency.of(override, override.length);
+        }
+        return current.csr.adjacency(userId);
+    }
+
+    /**
+     * Returns a copy of a user's friend IDs, sorted ascending.
+     *
+     * @param userId user ID
+     * @return friend IDs
+     */
+    public long[] friendIds(long userId) {
+        return adjacency(userId).toArray();
+    }
+
+    /**
+     * Returns the number of friends of a user.
+     *
+     * @param userId user ID
+     * @return degree of the user in the graph
+     */
+    public int degree(long userId) {
+        return adjacency(userId).size();
+    }
+
+    /**
+     * Checks whether two users are friends, searching the smaller neighbour list.
+     *
+     * @param userId  first user ID
+     * @param otherId second user ID
+     * @return {@code true} if an accepted friendship exists between them
+     */
+    public boolean areFriends(long userId, long otherId) {
+        Adjacency a = adjacency(userId);
+        Adjacency b = adjacency(otherId);
+        return a.size() <= b.size() ? a.contains(otherId) : b.contains(userId);
+    }
+
+    /**
+     * Number of accepted friendships in the graph.
+     *
+     * @return edge count
+     */
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Records a new accepted friendship once the current transaction commits.
+     *
+     * @param userId1 one user of the friendship
+     * @param userId2 the other user
+     */
+    public void addFriendship(Long userId1, Long userId2) {
+        afterCommit(() -> apply(userId1, userId2, true));
+    }
+
+    /**
+     * Removes an accepted friendship once the current transaction commits.
+     *
+     * @param userId1 one user of the friendship
+     * @param userId2 the other user
+     */
+    public void removeFriendship(Long userId1, Long userId2) {
+        afterCommit(() -> apply(userId1, userId2, false));
+    }
+
+    /**
+     * Checks whether a status counts as a graph edge.
+     *
+     * @param status friendship status
+     * @return {@code true} for accepted friendships
+     */
+    public static boolean isEdge(FriendshipStatus status) {
+        return status == FriendshipStatus.ACCEPTED;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private boolean restore() {
+        long startTime = System.currentTimeMillis();
+        Optional<MappedGraph> mapped = snapshotStore.open();
+        if (mapped.isEmpty()) {
+            return false;
+        }
+
+        Csr csr = Csr.mapped(mapped.get());
+        synchronized (writeLock) {
+            snapshot = new Snapshot(csr, new ConcurrentHashMap<>());
+            edgeCount = csr.neighbourCount() / 2;
+            long lastSequence = snapshotStore.replayWal(mapped.get().walSequence(), this::applyLocked);
+            walSequence = lastSequence + 1;
+            snapshotStore.startWal(walSequence);
+        }
+        restored = true;
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Friendship graph restored from snapshot in {}ms - users: {}, friendships: {}",
+                duration, csr.nodeCount, edgeCount);
+        return true;
+    }
+
+    private void apply(Long userId1, Long userId2, boolean add) {
+        if (userId1 == null || userId2 == null || userId1.equals(userId2)) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(new long[]{userId1, userId2, add ? 1 : 0});
+            }
+            if (applyLocked(userId1, userId2, add)) {
+                snapshotStore.appendWal(add, userId1, userId2);
+                changesSinceSnapshot++;
+            }
+        }
+    }
+
+    private boolean applyLocked(long userId1, long userId2, boolean add) {
+        Snapshot current = snapshot;
+        boolean changed = update(current, userId1, userId2, add);
+        update(current, userId2, userId1, add);
+        if (!changed) {
+            return false;
+        }
+        edgeCount += add ? 1 : -1;
+        int threshold = Math.max(MIN_COMPACTION_THRESHOLD, current.csr.nodeCount / COMPACTION_DIVISOR);
+        if (current.overrides.size() > threshold) {
+            compact(current);
+        }
+        bumpNeighbourhood(userId1);
+        bumpNeighbourhood(userId2);
+        return true;
+    }
+
+    private void bumpNeighbourhood(long userId) {
+        graphGenerations.bump(userId);
+        Adjacency friends = adjacency(userId);
+        for (int i = 0; i < friends.size(); i++) {
+            graphGenerations.bump(friends.get(i));
+        }
+    }
+
+    private boolean update(Snapshot current, long userId, long neighbourId, boolean add) {
+        Adjacency adjacency = adjacency(userId);
+        int pos = adjacency.indexOf(neighbourId);
+        if (add == pos >= 0) {
+            return false;
+        }
+        LongBuffer buffer = adjacency.buffer();
+        int from = adjacency.from();
+        long[] updated = new long[adjacency.size() + (add ? 1 : -1)];
+        if (add) {
+            int insertAt = -pos - 1;
+            buffer.get(from, updated, 0, insertAt);
+            updated[insertAt] = neighbourId;
+            buffer.get(from + insertAt, updated, insertAt + 1, adjacency.size() - insertAt);
+        } else {
+            buffer.get(from, updated, 0, pos);
+            buffer.get(from + pos + 1, updated, pos, adjacency.size() - pos - 1);
+        }
+        current.overrides.put(userId, updated);
+        return true;
+    }
+
+    private void compact(Snapshot current) {
+        long startTime = System.currentTimeMillis();
+
+        int n = current.csr.nodeCount;
+        long[] nodes = new long[n + current.overrides.size()];
+        current.csr.nodeIds.get(0, nodes, 0, n);
+        for (Long userId : current.overrides.keySet()) {
+            nodes[n++] = userId;
+        }
+        Arrays.sort(nodes, 0, n);
+
+        long[] nodeIds = new long[n];
+        int[] offsets = new int[n + 1];
+        int nodeCount = 0;
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && nodes[i] == nodes[i - 1]) {
+                continue;
+            }
+            int degree = adjacency(nodes[i]).size();
+            if (degree == 0) {
+                continue;
+            }
+            nodeIds[nodeCount] = nodes[i];
+            offsets[nodeCount] = (int) total;
+            total += degree;
+            nodeCount++;
+        }
+        offsets[nodeCount] = (int) total;
+
+        long[] neighbours = new long[(int) total];
+        for (int i = 0; i < nodeCount; i++) {
+            adjacency(nodeIds[i]).copyTo(neighbours, offsets[i]);
+        }
+
+        Csr csr = Csr.heap(Arrays.copyOf(nodeIds, nodeCount), Arrays.copyOf(offsets, nodeCount + 1), neighbours);
+        snapshot = new Snapshot(csr, new ConcurrentHashMap<>());
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Friendship graph compacted in {}ms - users: {}, overrides merged: {}",
+                duration, nodeCount, current.overrides.size());
+    }
+
+    /**
+     * Immutable CSR arrays plus the overlay of users changed since they were built.
+     */
+    private record Snapshot(Csr csr, Map<Long, long[]> overrides) {
+    }
+
+    /**
+     * Same contract as {@link Arrays#binarySearch(long[], int, int, long)}, on a buffer.
+     */
+    private static int binarySearch(LongBuffer buffer, int from, int to, long key) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = buffer.get(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Immutable compressed sparse-row adjacency: the neighbours of {@code nodeIds[i]} are
+     * {@code neighbours[offsets[i] .. offsets[i + 1])}, sorted ascending. Backed by heap
+     * arrays after a load or compaction, or by a memory-mapped snapshot.
+     */
+    private static final class Csr {
+
+        static final Csr EMPTY = heap(NO_NEIGHBOURS, new int[]{0}, NO_NEIGHBOURS);
+
+        final LongBuffer nodeIds;
+        final IntBuffer offsets;
+        final LongBuffer neighbours;
+        final int nodeCount;
+
+        private Csr(LongBuffer nodeIds, IntBuffer offsets, LongBuffer neighbours) {
+            this.nodeIds = nodeIds;
+            this.offsets = offsets;
+            this.neighbours = neighbours;
+            this.nodeCount = nodeIds.capacity();
+        }
+
+        static Csr heap(long[] nodeIds, int[] offsets, long[] neighbours) {
+            return new Csr(LongBuffer.wrap(nodeIds), IntBuffer.wrap(offsets), LongBuffer.wrap(neighbours));
+        }
+
+        static Csr mapped(MappedGraph mapped) {
+            return new Csr(mapped.nodeIds(), mapped.offsets(), mapped.neighbours());
+        }
+
+        long neighbourCount() {
+            return neighbours.capacity();
+        }
+
+        Adjacency adjacency(long userId) {
+            int i = binarySearch(nodeIds, 0, nodeCount, userId);
+            return i < 0 ? Adjacency.EMPTY : new Adjacency(neighbours, offsets.get(i), offsets.get(i + 1));
+        }
+
+        /**
+         * Builds a CSR from an undirected edge list; duplicate edges are collapsed.
+         */
+        static Csr fromEdges(long[] us, long[] vs, int count) {
+            long[] endpoints = new long[count * 2];
+            System.arraycopy(us, 0, endpoints, 0, count);
+            System.arraycopy(vs, 0, endpoints, count, count);
+            Arrays.sort(endpoints);
+            int n = 0;
+            for (int i = 0; i < endpoints.length; i++) {
+                if (i == 0 || endpoints[i] != endpoints[i - 1]) {
+                    endpoints[n++] = endpoints[i];
+                }
+            }
+            long[] nodeIds = Arrays.copyOf(endpoints, n);
+
+            int[] offsets = new int[n + 1];
+            for (int e = 0; e < count; e++) {
+                offsets[Arrays.binarySearch(nodeIds, us[e]) + 1]++;
+                offsets[Arrays.binarySearch(nodeIds, vs[e]) + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            long[] neighbours = new long[count * 2];
+            int[] fill = Arrays.copyOf(offsets, n);
+            for (int e = 0; e < count; e++) {
+                neighbours[fill[Arrays.binarySearch(nodeIds, us[e])]++] = vs[e];
+                neighbours[fill[Arrays.binarySearch(nodeIds, vs[e])]++] = us[e];
+            }
+
+            // Sort each neighbour list and squeeze out duplicates
+            int[] compactOffsets = new int[n + 1];
+            int write = 0;
+            for (int i = 0; i < n; i++) {
+                Arrays.sort(neighbours, offsets[i], offsets[i + 1]);
+                compactOffsets[i] = write;
+                for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                    if (j == offsets[i] || neighbours[j] != neighbours[j - 1]) {
+                        neighbours[write++] = neighbours[j];
+                    }
+                }
+            }
+            compactOffsets[n] = write;
+            return heap(nodeIds, compactOffsets, write == neighbours.length ? neighbours : Arrays.copyOf(neighbours, write));
+        }
+    }
+}
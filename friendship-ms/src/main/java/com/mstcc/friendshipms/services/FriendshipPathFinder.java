@@ -0,0 +1,226 @@
+package com.mstcc.friendshipms.services;
+
+import com.mstcc.friendshipms.services.FriendshipGraph.Adjacency;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Degree-of-separation queries on the {@link FriendshipGraph} using bidirectional BFS.
+ *
+ * <p>Two searches start from both users and always expand the side whose frontier is
+ * smaller, one full level at a time, until they meet. With average degree {@code d} and
+ * distance {@code k}, this visits roughly {@code 2·d^(k/2)} users instead of {@code d^k}.
+ * Visited sets are open-addressing {@code long} hash tables that also record each user's
+ * parent, so no boxing happens on the hot path and one shortest chain can be rebuilt.
+ *
+ * <p>A search gives up, reporting no connection, once it has visited
+ * {@value #MAX_VISITED} users, which bounds the memory and latency of a single request.
+ */
+@Component
+public class FriendshipPathFinder {
+
+    /** Upper bound on users visited by both sides of a single search. */
+    static final int MAX_VISITED = 2_000_000;
+
+    private final FriendshipGraph friendshipGraph;
+
+    public FriendshipPathFinder(FriendshipGraph friendshipGraph) {
+        this.friendshipGraph = friendshipGraph;
+    }
+
+    /**
+     * Finds a shortest chain of friends between two users.
+     *
+     * @param from     starting user ID
+     * @param to       target user ID
+     * @param maxDepth maximum number of friendships in the chain
+     * @return user IDs from {@code from} to {@code to}, or null if they are not connected
+     *         within {@code maxDepth} hops
+     */
+    public long[] shortestPath(long from, long to, int maxDepth) {
+        if (from == to) {
+            return new long[]{from};
+        }
+
+        Side forward = new Side(from);
+        Side backward = new Side(to);
+        int depth = 0;
+        while (depth < maxDepth && forward.frontierSize > 0 && backward.frontierSize > 0) {
+            boolean expandForward = forward.frontierSize <= backward.frontierSize;
+            Side near = expandForward ? forward : backward;
+            Side far = expandForward ? backward : forward;
+
+            long meeting = expand(near, far);
+            depth++;
+            if (meeting != LongParentMap.NONE) {
+                return join(forward, backward, meeting);
+            }
+            if (forward.visited.size() + backward.visited.size() > MAX_VISITED) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * Expands one full level of {@code near}; returns the first user also visited by
+     * {@code far}, or {@link LongParentMap#NONE}.
+     */
+    private long expand(Side near, Side far) {
+        long[] next = new long[Math.max(16, near.frontierSize * 2)];
+        int nextSize = 0;
+        for (int i = 0; i < near.frontierSize; i++) {
+            long user = near.frontier[i];
+            Adjacency friends = friendshipGraph.adjacency(user);
+            for (int j = 0; j < friends.size(); j++) {
+                long friend = friends.get(j);
+                if (!near.visited.putIfAbsent(friend, user)) {
+                    continue;
+                }
+                if (far.visited.containsKey(friend)) {
+                    return friend;
+                }
+                if (nextSize == next.length) {
+                    next = Arrays.copyOf(next, nextSize * 2);
+                }
+                next[nextSize++] = friend;
+            }
+        }
+        near.frontier = next;
+        near.frontierSize = nextSize;
+        return LongParentMap.NONE;
+    }
+
+    private static long[] join(Side forward, Side backward, long meeting) {
+        int toMeeting = forward.visited.depthOf(meeting);
+        int fromMeeting = backward.visited.depthOf(meeting);
+        long[] path = new long[toMeeting + fromMeeting + 1];
+
+        long user = meeting;
+        for (int i = toMeeting; i >= 0; i--) {
+            path[i] = user;
+            user = forward.visited.get(user);
+        }
+        user = meeting;
+        for (int i = toMeeting; i < path.length; i++) {
+            path[i] = user;
+            user = backward.visited.get(user);
+        }
+        return path;
+    }
+
+    /**
+     * State of one direction of the search: the current frontier and every visited user.
+     */
+    private static final class Side {
+
+        final LongParentMap visited = new LongParentMap();
+        long[] frontier;
+        int frontierSize;
+
+        Side(long start) {
+            visited.putIfAbsent(start, start);
+            frontier = new long[]{start};
+            frontierSize = 1;
+        }
+    }
+
+    /**
+     * Open-addressing hash map from user ID to the user it was reached from (linear probing).
+     * The start user is its own parent.
+     */
+    static final class LongParentMap {
+
+        static final long NONE = Long.MIN_VALUE;
+        private static final float LOAD_FACTOR = 0.5f;
+
+        private long[] keys;
+        private long[] parents;
+        private int size;
+        private int mask;
+
+        LongParentMap() {
+            allocate(64);
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean containsKey(long key) {
+            return keys[slot(key)] == key;
+        }
+
+        /** Returns the parent of {@code key}, or {@link #NONE} if it is absent. */
+        long get(long key) {
+            int slot = slot(key);
+            return keys[slot] == key ? parents[slot] : NONE;
+        }
+
+        /** Inserts {@code key}; returns false, leaving the map unchanged, if it was present. */
+        boolean putIfAbsent(long key, long parent) {
+            int slot = slot(key);
+            if (keys[slot] == key) {
+                return false;
+            }
+            keys[slot] = key;
+            parents[slot] = parent;
+            if (++size > keys.length * LOAD_FACTOR) {
+                rehash();
+            }
+            return true;
+        }
+
+        /** Number of parent hops from {@code key} back to the start user. */
+        int depthOf(long key) {
+            int depth = 0;
+            for (long parent = get(key); parent != key; key = parent, parent = get(key)) {
+                depth++;
+            }
+            return depth;
+        }
+
+        private int slot(long key) {
+            int slot = (int) mix(key) & mask;
+            while (keys[slot] != NONE && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            parents = new long[capacity];
+            Arrays.fill(keys, NONE);
+            mask = capacity - 1;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            long[] oldParents = parents;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != NONE) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    parents[slot] = oldParents[i];
+                }
+            }
+        }
+
+        /** MurmurHash3 64-bit finaliser — spreads sequential IDs across the table. */
+        private static long mix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.mstcc.friendshipms.services;
 
+import com.mstcc.friendshipms.dto.BulkFriendshipResultDTO;
+import com.mstcc.friendshipms.dto.DistanceDTO;
+import com.mstcc.friendshipms.dto.FriendSuggestionDTO;
+import com.mstcc.friendshipms.dto.FriendshipPageDTO;
+import com.mstcc.friendshipms.dto.MutualFriendsDTO;
 import com.mstcc.friendshipms.entities.Friendship;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -17,14 +23,29 @@ public interface FriendshipService {
     /**
      * Creates a friendship after parallel validation of both users.
      * Normalises user ID order so that (A,B) and (B,A) map to the same row.
+     * The requester defaults to the user given as {@code userId1} and the status to
+     * {@code PENDING}.
      *
      * @param friendship the friendship entity to persist
      * @return the saved friendship with a generated ID
-     * @throws IllegalArgumentException if both user IDs are equal (self-friendship)
+     * @throws IllegalArgumentException if both user IDs are equal (self-friendship) or the
+     *                                  requester is not one of the two users
      * @throws com.mstcc.friendshipms.exception.FriendshipValidationException if upstream validation fails
      */
     Friendship createAndValidateFriendship(Friendship friendship);
 
+    /**
+     * Creates many friendships at once, e.g. from a contact import.
+     * Pairs are normalised and de-duplicated in memory, all distinct users are validated with
+     * one batched upstream call, and valid pairs are inserted with multi-row statements that
+     * skip pairs which already exist.
+     *
+     * @param friendships pairs to create; status and requester default as in {@link #createAndValidateFriendship}
+     * @return the outcome of each pair, in request order
+     * @throws com.mstcc.friendshipms.exception.FriendshipValidationException if upstream validation fails
+     */
+    List<BulkFriendshipResultDTO> importFriendships(List<Friendship> friendships);
+
     /**
      * Retrieves a friendship by its ID.
      *
@@ -42,6 +63,98 @@ public interface FriendshipService {
      */
     List<Friendship> findFriendshipsByUserId(Long userId);
 
+    /**
+     * Retrieves a page of a user's accepted friendships, ordered by friendship ID.
+     *
+     * @param userId  user ID
+     * @param afterId last friendship ID of the previous page (0 for the first page)
+     * @param limit   maximum number of friendships in the page
+     * @return the page
+     */
+    FriendshipPageDTO findAcceptedFriendships(Long userId, Long afterId, int limit);
+
+    /**
+     * Retrieves a page of pending requests other users sent to a user, ordered by friendship ID.
+     *
+     * @param userId  recipient user ID
+     * @param afterId last friendship ID of the previous page (0 for the first page)
+     * @param limit   maximum number of requests in the page
+     * @return the page
+     */
+    FriendshipPageDTO findIncomingRequests(Long userId, Long afterId, int limit);
+
+    /**
+     * Retrieves a page of pending requests a user sent, ordered by friendship ID.
+     *
+     * @param userId  requesting user ID
+     * @param afterId last friendship ID of the previous page (0 for the first page)
+     * @param limit   maximum number of requests in the page
+     * @return the page
+     */
+    FriendshipPageDTO findOutgoingRequests(Long userId, Long afterId, int limit);
+
+    /**
+     * Returns the IDs of a user's accepted friends, sorted ascending.
+     *
+     * @param userId user ID
+     * @return friend IDs (may be empty)
+     */
+    long[] findFriendIds(Long userId);
+
+    /**
+     * Returns the number of accepted friends of a user.
+     *
+     * @param userId user ID
+     * @return friend count
+     */
+    int countFriends(Long userId);
+
+    /**
+     * Checks whether two users have an accepted friendship.
+     *
+     * @param userId  first user ID
+     * @param otherId second user ID
+     * @return {@code true} if they are friends
+     */
+    boolean areFriends(Long userId, Long otherId);
+
+    /**
+     * Checks which of the given users are friends of a user, in one call.
+     *
+     * @param userId       user ID
+     * @param candidateIds user IDs to check
+     * @return each distinct candidate ID, in request order, mapped to whether it is a friend
+     */
+    Map<Long, Boolean> areFriends(Long userId, List<Long> candidateIds);
+
+    /**
+     * Suggests friends of friends, ranked by number of mutual friends.
+     *
+     * @param userId user ID
+     * @param limit  maximum number of suggestions
+     * @return suggestions, best first (may be empty)
+     */
+    List<FriendSuggestionDTO> suggestFriends(Long userId, int limit);
+
+    /**
+     * Returns the friends two users have in common.
+     *
+     * @param userId  first user ID
+     * @param otherId second user ID
+     * @return mutual friend IDs and their count
+     */
+    MutualFriendsDTO findMutualFriends(Long userId, Long otherId);
+
+    /**
+     * Finds the degree of separation between two users and one shortest chain of friends.
+     *
+     * @param from     starting user ID
+     * @param to       target user ID
+     * @param maxDepth maximum number of friendships in the chain
+     * @return the distance and path, both null if not connected within {@code maxDepth}
+     */
+    DistanceDTO findDistance(Long from, Long to, int maxDepth);
+
     /**
      * Updates an existing friendship after re-validating both users.
      *
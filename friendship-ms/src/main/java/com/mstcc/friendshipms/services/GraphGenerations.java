@@ -0,0 +1,54 @@
+package com.mstcc.friendshipms.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user neighbourhood generations used as part of graph-derived cache keys.
+ *
+ * <p>Friend suggestions and mutual-friend results depend on every friendship within two
+ * hops of a user. {@link FriendshipGraph} bumps the generation of both users of a changed
+ * friendship and of all their friends, so only the cached results near the change are
+ * abandoned; everything else stays valid instead of being dropped by an {@code allEntries}
+ * eviction.
+ *
+ * <p>The per-status friendship pages are keyed by the same generation. The friendship service
+ * bumps both users of any created, updated or deleted friendship after the transaction
+ * commits, including pending requests that never reach the graph.
+ *
+ * <p>Generations come from one monotonic clock, so a counter evicted from this bounded map
+ * is re-created with a value no earlier cache key can have used. The graph bumps after it
+ * has applied the change, so a reader can never cache a pre-change result under a new key.
+ */
+@Component("graphGenerations")
+public class GraphGenerations {
+
+    private static final int MAX_TRACKED_USERS = 200_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<Long, Long> generations = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_USERS)
+            .build();
+
+    /**
+     * Current neighbourhood generation of a user.
+     *
+     * @param userId user ID
+     * @return the user's generation
+     */
+    public long user(Long userId) {
+        return generations.get(userId, k -> clock.incrementAndGet());
+    }
+
+    /**
+     * Invalidates the graph-derived cache entries of a user.
+     *
+     * @param userId user ID
+     */
+    public void bump(long userId) {
+        generations.put(userId, clock.incrementAndGet());
+    }
+}
@@ -0,0 +1,366 @@
+package com.mstcc.friendshipms.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * On-disk snapshot and write-ahead log of the {@link FriendshipGraph}, for warm starts.
+ *
+ * <p>The snapshot is the graph's CSR arrays written back to back in little-endian order:
+ * <pre>
+ *   header (64 bytes)   magic, version, WAL sequence, node count, neighbour count
+ *   long[nodes]         sorted user IDs
+ *   int[nodes + 1]      offsets into the neighbour array (padded to 8 bytes)
+ *   long[neighbours]    every user's sorted neighbour list
+ * </pre>
+ * On startup the sections are memory-mapped read-only, so the graph is queryable as soon as
+ * the file is mapped and its bulk lives in the page cache rather than on the Java heap.
+ * Each section must fit in one mapping (2 GB); larger graphs fall back to a database load.
+ *
+ * <p>Changes applied after a snapshot are appended to {@code graph-<sequence>.wal} as
+ * 17-byte records (operation, user, user). A snapshot stores the sequence of the first WAL
+ * file it does not include; restoring replays that file and every later one. Snapshots are
+ * written to a temporary file and atomically renamed, so a crash never leaves a torn file.
+ */
+@Component
+public class GraphSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphSnapshotStore.class);
+
+    /** Relative to the working directory; a named volume in docker-compose keeps it across restarts. */
+    private static final String SNAPSHOT_DIR = "data/graph";
+    private static final int MAGIC = 0x46474331; // "FGC1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int WRITE_CHUNK_BYTES = 1 << 20;
+    private static final String SNAPSHOT_FILE = "graph.snapshot";
+    private static final Pattern WAL_FILE = Pattern.compile("graph-(\\d+)\\.wal");
+    private static final byte WAL_ADD = 1;
+    private static final byte WAL_REMOVE = 0;
+
+    /**
+     * Memory-mapped CSR sections of a snapshot.
+     *
+     * @param nodeIds     sorted user IDs
+     * @param offsets     neighbour offsets, one more than the number of users
+     * @param neighbours  neighbour lists back to back
+     * @param walSequence first WAL sequence to replay on top of the snapshot
+     */
+    public record MappedGraph(LongBuffer nodeIds, IntBuffer offsets, LongBuffer neighbours, long walSequence) {
+    }
+
+    /**
+     * Receives the records of a WAL replay in order.
+     */
+    @FunctionalInterface
+    public interface WalReplay {
+        void apply(long userId1, long userId2, boolean add);
+    }
+
+    private final Path directory;
+    private final boolean enabled;
+    private final ByteBuffer walRecord = ByteBuffer.allocate(17);
+
+    private FileChannel wal;
+
+    public GraphSnapshotStore() {
+        this(Paths.get(SNAPSHOT_DIR), true);
+    }
+
+    GraphSnapshotStore(Path directory, boolean enabled) {
+        this.directory = directory;
+        this.enabled = enabled && createDirectory(directory);
+    }
+
+    /**
+     * Whether snapshots and the WAL are written and read.
+     *
+     * @return {@code false} if disabled or the snapshot directory is unusable
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Memory-maps the latest snapshot.
+     *
+     * @return the mapped sections, or empty if there is no usable snapshot
+     */
+    public Optional<MappedGraph> open() {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!enabled || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                logger.warn("Ignoring friendship graph snapshot with unknown format: {}", file);
+                return Optional.empty();
+            }
+            long walSequence = header.getLong();
+            long nodeCount = header.getInt();
+            header.getInt();
+            long neighbourCount = header.getLong();
+
+            long nodeBytes = nodeCount * Long.BYTES;
+            long offsetBytes = padTo8((nodeCount + 1) * Integer.BYTES);
+            long neighbourBytes = neighbourCount * Long.BYTES;
+            if (channel.size() != HEADER_BYTES + nodeBytes + offsetBytes + neighbourBytes) {
+                logger.warn("Ignoring truncated friendship graph snapshot: {}", file);
+                return Optional.empty();
+            }
+            if (Math.max(nodeBytes, neighbourBytes) > Integer.MAX_VALUE) {
+                logger.warn("Friendship graph snapshot too large to map ({} neighbours), loading from database",
+                        neighbourCount);
+                return Optional.empty();
+            }
+
+            LongBuffer nodeIds = map(channel, HEADER_BYTES, nodeBytes).asLongBuffer();
+            IntBuffer offsets = map(channel, HEADER_BYTES + nodeBytes, (nodeCount + 1) * Integer.BYTES).asIntBuffer();
+            LongBuffer neighbours = map(channel, HEADER_BYTES + nodeBytes + offsetBytes, neighbourBytes).asLongBuffer();
+            return Optional.of(new MappedGraph(nodeIds, offsets, neighbours, walSequence));
+
+        } catch (IOException e) {
+            logger.warn("Could not map friendship graph snapshot, loading from database: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a snapshot atomically and maps the written file.
+     *
+     * @param nodeIds     sorted user IDs
+     * @param offsets     neighbour offsets
+     * @param neighbours  neighbour lists back to back
+     * @param walSequence first WAL sequence not included in the snapshot
+     * @return the mapped sections of the new snapshot
+     * @throws IOException if the snapshot cannot be written or mapped
+     */
+    public MappedGraph write(LongBuffer nodeIds, IntBuffer offsets, LongBuffer neighbours, long walSequence)
+            throws IOException {
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        int nodeCount = nodeIds.capacity();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(walSequence)
+                  .putInt(nodeCount).putInt(0).putLong(neighbours.capacity());
+            header.clear();
+            writeFully(channel, header);
+
+            ByteBuffer chunk = ByteBuffer.allocateDirect(WRITE_CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            writeLongs(channel, chunk, nodeIds);
+            writeInts(channel, chunk, offsets);
+            if ((offsets.capacity() & 1) == 1) {
+                writeFully(channel, ByteBuffer.allocate(Integer.BYTES));
+            }
+            writeLongs(channel, chunk, neighbours);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return open().orElseThrow(() -> new IOException("Snapshot written but could not be mapped: " + target));
+    }
+
+    /**
+     * Replays every WAL file with a sequence at or after {@code fromSequence}, oldest first.
+     * A record cut short by a crash ends the replay of its file.
+     *
+     * @param fromSequence first WAL sequence to replay
+     * @param replay       receives each record
+     * @return the highest WAL sequence found, or {@code fromSequence - 1} if there is none
+     */
+    public long replayWal(long fromSequence, WalReplay replay) {
+        long highest = fromSequence - 1;
+        int records = 0;
+        for (long sequence : walSequences()) {
+            if (sequence < fromSequence) {
+                continue;
+            }
+            highest = sequence;
+            try (InputStream file = Files.newInputStream(walFile(sequence));
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+                while (true) {
+                    byte op = in.readByte();
+                    long userId1 = in.readLong();
+                    long userId2 = in.readLong();
+                    replay.apply(userId1, userId2, op == WAL_ADD);
+                    records++;
+                }
+            } catch (EOFException e) {
+                // end of file, possibly after a partial record
+            } catch (IOException e) {
+                logger.warn("Stopped replaying friendship graph WAL {}: {}", sequence, e.getMessage());
+            }
+        }
+        if (records > 0) {
+            logger.info("Replayed {} friendship graph WAL records", records);
+        }
+        return highest;
+    }
+
+    /**
+     * Directs subsequent WAL appends to a new, empty file.
+     *
+     * @param sequence sequence of the new WAL file
+     */
+    public void startWal(long sequence) {
+        if (!enabled) {
+            return;
+        }
+        closeWal();
+        try {
+            wal = FileChannel.open(walFile(sequence), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            logger.warn("Could not open friendship graph WAL {}: {}", sequence, e.getMessage());
+        }
+    }
+
+    /**
+     * Appends one applied change to the current WAL file. Callers serialise appends.
+     *
+     * @param add     {@code true} for an added friendship, {@code false} for a removed one
+     * @param userId1 one user of the friendship
+     * @param userId2 the other user
+     */
+    public void appendWal(boolean add, long userId1, long userId2) {
+        if (wal == null) {
+            return;
+        }
+        walRecord.clear();
+        walRecord.put(add ? WAL_ADD : WAL_REMOVE).putLong(userId1).putLong(userId2).flip();
+        try {
+            writeFully(wal, walRecord);
+        } catch (IOException e) {
+            logger.warn("Could not append to friendship graph WAL: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes WAL files older than {@code sequence}, which a snapshot has made redundant.
+     *
+     * @param sequence oldest WAL sequence to keep
+     */
+    public void deleteWalBefore(long sequence) {
+        for (long existing : walSequences()) {
+            if (existing < sequence) {
+                try {
+                    Files.deleteIfExists(walFile(existing));
+                } catch (IOException e) {
+                    logger.warn("Could not delete friendship graph WAL {}: {}", existing, e.getMessage());
+                }
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static boolean createDirectory(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Friendship graph snapshots disabled, cannot use {}: {}", directory, e.getMessage());
+            return false;
+        }
+    }
+
+    private Path walFile(long sequence) {
+        return directory.resolve("graph-" + sequence + ".wal");
+    }
+
+    private List<Long> walSequences() {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                Matcher matcher = WAL_FILE.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    sequences.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not list friendship graph WAL files: {}", e.getMessage());
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private void closeWal() {
+        if (wal != null) {
+            try {
+                wal.close();
+            } catch (IOException e) {
+                logger.warn("Could not close friendship graph WAL: {}", e.getMessage());
+            }
+            wal = null;
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long padTo8(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static void writeLongs(FileChannel channel, ByteBuffer chunk, LongBuffer source) throws IOException {
+        int perChunk = chunk.capacity() / Long.BYTES;
+        for (int from = 0; from < source.capacity(); from += perChunk) {
+            int length = Math.min(perChunk, source.capacity() - from);
+            chunk.clear();
+            chunk.asLongBuffer().put(source.slice(from, length));
+            chunk.limit(length * Long.BYTES);
+            writeFully(channel, chunk);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer chunk, IntBuffer source) throws IOException {
+        int perChunk = chunk.capacity() / Integer.BYTES;
+        for (int from = 0; from < source.capacity(); from += perChunk) {
+            int length = Math.min(perChunk, source.capacity() - from);
+            chunk.clear();
+            chunk.asIntBuffer().put(source.slice(from, length));
+            chunk.limit(length * Integer.BYTES);
+            writeFully(channel, chunk);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
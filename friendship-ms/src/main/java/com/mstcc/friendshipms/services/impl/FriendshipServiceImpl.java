@@ -1,22 +1,45 @@
 package com.mstcc.friendshipms.services.impl;
 
+import com.mstcc.friendshipms.dto.BulkFriendshipResultDTO;
+import com.mstcc.friendshipms.dto.BulkFriendshipResultDTO.Outcome;
+import com.mstcc.friendshipms.dto.DistanceDTO;
+import com.mstcc.friendshipms.dto.FriendSuggestionDTO;
+import com.mstcc.friendshipms.dto.FriendshipPageDTO;
+import com.mstcc.friendshipms.dto.MutualFriendsDTO;
 import com.mstcc.friendshipms.dto.UserDTO;
 import com.mstcc.friendshipms.entities.Friendship;
+import com.mstcc.friendshipms.entities.FriendshipStatus;
 import com.mstcc.friendshipms.exception.FriendshipValidationException;
+import com.mstcc.friendshipms.repositories.FriendshipBulkRepository;
 import com.mstcc.friendshipms.repositories.FriendshipRepository;
+import com.mstcc.friendshipms.services.FriendRecommender;
 import com.mstcc.friendshipms.services.FriendshipAsyncHelper;
+import com.mstcc.friendshipms.services.FriendshipGraph;
+import com.mstcc.friendshipms.services.FriendshipPathFinder;
 import com.mstcc.friendshipms.services.FriendshipService;
+import com.mstcc.friendshipms.services.GraphGenerations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +57,21 @@ import java.util.concurrent.TimeoutException;
  * <p>ID normalisation invariant: userId1 is always the smaller of the two IDs,
  * ensuring that (A,B) and (B,A) resolve to the same database row and preventing
  * duplicate friendship entries with swapped user IDs.
+ *
+ * <p>A write evicts only the {@code userFriendships} entries of the users it touches (both
+ * users of the friendship, plus the previous pair when an update changes it), after the
+ * transaction commits, so every other user's cached friend list survives.
+ *
+ * <p>Accepted friends, incoming and outgoing requests are listed with keyset pagination
+ * through per-status indexes and cached in separate caches, so the hot accepted-friends
+ * path never reads pending or declined rows.
+ *
+ * <p>Accepted friendships are mirrored into the in-memory {@link FriendshipGraph}, which
+ * answers friend lists, degree and membership checks without touching the database.
+ * Suggestions and mutual friends are computed on the graph by {@link FriendRecommender}
+ * and cached under per-user neighbourhood generations, so a friendship change only
+ * invalidates results within two hops of it. Degrees of separation are answered by a
+ * bidirectional BFS in {@link FriendshipPathFinder}.
  */
 @Service
 @Transactional(readOnly = true)
@@ -41,20 +79,46 @@ public class FriendshipServiceImpl implements FriendshipService {
 
     private static final Logger logger = LoggerFactory.getLogger(FriendshipServiceImpl.class);
     private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    /** user-ms answers {@code POST /exists} with 400 above this many IDs. */
+    private static final int USER_EXISTENCE_BATCH = 1000;
 
     private final FriendshipRepository friendshipRepository;
+    private final FriendshipBulkRepository friendshipBulkRepository;
     private final FriendshipAsyncHelper asyncHelper;
+    private final FriendshipGraph friendshipGraph;
+    private final FriendRecommender friendRecommender;
+    private final FriendshipPathFinder pathFinder;
+    private final CacheManager cacheManager;
+    private final GraphGenerations graphGenerations;
 
     /**
      * Constructs the service with its required dependencies.
      *
      * @param friendshipRepository JPA repository for friendship persistence
+     * @param friendshipBulkRepository multi-row inserts for bulk imports
      * @param asyncHelper          helper that issues parallel async calls to upstream services
+     * @param friendshipGraph      in-memory graph of accepted friendships
+     * @param friendRecommender    suggestion and mutual-friend computations on the graph
+     * @param pathFinder           degree-of-separation search on the graph
+     * @param cacheManager         cache manager used for targeted per-user evictions
+     * @param graphGenerations     per-user generations in the keys of the status list caches
      */
     public FriendshipServiceImpl(FriendshipRepository friendshipRepository,
-                                 FriendshipAsyncHelper asyncHelper) {
+                                 FriendshipBulkRepository friendshipBulkRepository,
+                                 FriendshipAsyncHelper asyncHelper,
+                                 FriendshipGraph friendshipGraph,
+                                 FriendRecommender friendRecommender,
+                                 FriendshipPathFinder pathFinder,
+                                 CacheManager cacheManager,
+                                 GraphGenerations graphGenerations) {
         this.friendshipRepository = friendshipRepository;
+        this.friendshipBulkRepository = friendshipBulkRepository;
         this.asyncHelper = asyncHelper;
+        this.friendshipGraph = friendshipGraph;
+        this.friendRecommender = friendRecommender;
+        this.pathFinder = pathFinder;
+        this.cacheManager = cacheManager;
+        this.graphGenerations = graphGenerations;
     }
 
     /**
@@ -62,7 +126,6 @@ public class FriendshipServiceImpl implements FriendshipService {
      */
     @Override
     @Transactional
-    @CacheEvict(value = {"friendships", "userFriendships"}, allEntries = true)
     public Friendship createAndValidateFriendship(Friendship friendship) {
         long startTime = System.currentTimeMillis();
         logger.info("Creating friendship - userId1: {}, userId2: {}, status: {}",
@@ -73,6 +136,16 @@ public class FriendshipServiceImpl implements FriendshipService {
             throw new IllegalArgumentException("Cannot create friendship with yourself");
         }
 
+        // The user given first sends the request unless stated otherwise; record it
+        // before normalisation swaps the IDs.
+        if (friendship.getRequesterId() == null) {
+            friendship.setRequesterId(friendship.getUserId1());
+        }
+        if (friendship.getStatus() == null) {
+            friendship.setStatus(FriendshipStatus.PENDING);
+        }
+        validateRequester(friendship);
+
         // Normalise ID order so (A,B) and (B,A) map to the same row,
         // preventing duplicate friendship entries with swapped user IDs.
         normaliseUserIdOrder(friendship);
@@ -95,6 +168,10 @@ public class FriendshipServiceImpl implements FriendshipService {
 
             friendship.setCreatedAt(LocalDateTime.now());
             Friendship savedFriendship = friendshipRepository.save(friendship);
+            evictUserFriendships(savedFriendship.getUserId1(), savedFriendship.getUserId2());
+            if (FriendshipGraph.isEdge(savedFriendship.getStatus())) {
+                friendshipGraph.addFriendship(savedFriendship.getUserId1(), savedFriendship.getUserId2());
+            }
 
             long duration = System.currentTimeMillis() - startTime;
             logger.info("Friendship created successfully in {}ms - friendshipId: {}",
@@ -115,6 +192,79 @@ public class FriendshipServiceImpl implements FriendshipService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public List<BulkFriendshipResultDTO> importFriendships(List<Friendship> friendships) {
+        long startTime = System.currentTimeMillis();
+        logger.info("Importing friendships - pairs: {}", friendships.size());
+
+        BulkFriendshipResultDTO[] results = new BulkFriendshipResultDTO[friendships.size()];
+        // First occurrence of each normalised pair, in request order
+        Map<List<Long>, Integer> firstIndexByPair = new LinkedHashMap<>();
+        for (int i = 0; i < friendships.size(); i++) {
+            Friendship friendship = friendships.get(i);
+            String problem = prepareForImport(friendship);
+            if (problem != null) {
+                results[i] = result(friendship, Outcome.INVALID, null, problem);
+                continue;
+            }
+            Integer first = firstIndexByPair.putIfAbsent(
+                    List.of(friendship.getUserId1(), friendship.getUserId2()), i);
+            if (first != null) {
+                results[i] = result(friendship, Outcome.DUPLICATE, null, "Same pair as item " + first);
+            }
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        for (List<Long> pair : firstIndexByPair.keySet()) {
+            userIds.addAll(pair);
+        }
+        Set<Long> existingUsers = fetchExistingUsers(userIds);
+
+        List<Friendship> toInsert = new ArrayList<>(firstIndexByPair.size());
+        for (int i : firstIndexByPair.values()) {
+            Friendship friendship = friendships.get(i);
+            if (!existingUsers.contains(friendship.getUserId1())) {
+                results[i] = result(friendship, Outcome.USER_NOT_FOUND, null, "User not found: " + friendship.getUserId1());
+            } else if (!existingUsers.contains(friendship.getUserId2())) {
+                results[i] = result(friendship, Outcome.USER_NOT_FOUND, null, "User not found: " + friendship.getUserId2());
+            } else {
+                toInsert.add(friendship);
+            }
+        }
+
+        Map<List<Long>, Long> insertedIds = new HashMap<>();
+        for (Friendship row : friendshipBulkRepository.insertIgnoringExisting(toInsert, LocalDateTime.now())) {
+            insertedIds.put(List.of(row.getUserId1(), row.getUserId2()), row.getId());
+        }
+
+        int created = 0;
+        for (Friendship friendship : toInsert) {
+            int i = firstIndexByPair.get(List.of(friendship.getUserId1(), friendship.getUserId2()));
+            Long id = insertedIds.get(List.of(friendship.getUserId1(), friendship.getUserId2()));
+            if (id == null) {
+                results[i] = result(friendship, Outcome.ALREADY_EXISTS, null,
+                        "Friendship already exists between users " + friendship.getUserId1()
+                        + " and " + friendship.getUserId2());
+                continue;
+            }
+            results[i] = result(friendship, Outcome.CREATED, id, null);
+            created++;
+            evictUserFriendships(friendship.getUserId1(), friendship.getUserId2());
+            if (FriendshipGraph.isEdge(friendship.getStatus())) {
+                friendshipGraph.addFriendship(friendship.getUserId1(), friendship.getUserId2());
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Friendships imported in {}ms - pairs: {}, created: {}", duration, friendships.size(), created);
+
+        return Arrays.asList(results);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -147,15 +297,145 @@ public class FriendshipServiceImpl implements FriendshipService {
         return friendships;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Cacheable(value = "acceptedFriendships",
+               key = "#userId + '_' + @graphGenerations.user(#userId) + '_' + #afterId + '_' + #limit")
+    public FriendshipPageDTO findAcceptedFriendships(Long userId, Long afterId, int limit) {
+        return page("accepted friendships", userId, limit, friendshipRepository.findByUserAndStatusAfter(
+                userId, FriendshipStatus.ACCEPTED, afterId, PageRequest.of(0, limit + 1)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Cacheable(value = "incomingRequests",
+               key = "#userId + '_' + @graphGenerations.user(#userId) + '_' + #afterId + '_' + #limit")
+    public FriendshipPageDTO findIncomingRequests(Long userId, Long afterId, int limit) {
+        return page("incoming requests", userId, limit, friendshipRepository.findReceivedAfter(
+                userId, FriendshipStatus.PENDING, afterId, PageRequest.of(0, limit + 1)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Cacheable(value = "outgoingRequests",
+               key = "#userId + '_' + @graphGenerations.user(#userId) + '_' + #afterId + '_' + #limit")
+    public FriendshipPageDTO findOutgoingRequests(Long userId, Long afterId, int limit) {
+        return page("outgoing requests", userId, limit,
+                friendshipRepository.findByRequesterIdAndStatusAndIdGreaterThanOrderByIdAsc(
+                        userId, FriendshipStatus.PENDING, afterId, PageRequest.of(0, limit + 1)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Served from the in-memory graph — no database access.
+     */
+    @Override
+    public long[] findFriendIds(Long userId) {
+        return friendshipGraph.friendIds(userId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Served from the in-memory graph — no database access.
+     */
+    @Override
+    public int countFriends(Long userId) {
+        return friendshipGraph.degree(userId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Served from the in-memory graph — binary search over the smaller neighbour list.
+     */
+    @Override
+    public boolean areFriends(Long userId, Long otherId) {
+        return friendshipGraph.areFriends(userId, otherId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Served from the in-memory graph: the sorted candidates are intersected with the
+     * user's sorted neighbour list in a single pass, so no per-pair lookups happen.
+     */
+    @Override
+    public Map<Long, Boolean> areFriends(Long userId, List<Long> candidateIds) {
+        long[] candidates = candidateIds.stream().mapToLong(Long::longValue).toArray();
+        long[] friends = friendRecommender.friendsAmong(userId, candidates);
+
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (long candidate : candidates) {
+            result.putIfAbsent(candidate, Arrays.binarySearch(friends, candidate) >= 0);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Cached per user and limit under the user's neighbourhood generation, which the graph
+     * bumps whenever a friendship within two hops changes.
+     */
+    @Override
+    @Cacheable(value = "friendSuggestions",
+               key = "#userId + '_' + @graphGenerations.user(#userId) + '_' + #limit")
+    public List<FriendSuggestionDTO> suggestFriends(Long userId, int limit) {
+        long startTime = System.currentTimeMillis();
+
+        List<FriendSuggestionDTO> suggestions = friendRecommender.suggest(userId, limit);
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Friend suggestions computed in {}ms - userId: {}, degree: {}, count: {}",
+                duration, userId, friendshipGraph.degree(userId), suggestions.size());
+
+        return suggestions;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Cached per pair under both users' neighbourhood generations.
+     */
+    @Override
+    @Cacheable(value = "mutualFriends",
+               key = "#userId + '_' + @graphGenerations.user(#userId) + '_' + #otherId + '_' + @graphGenerations.user(#otherId)")
+    public MutualFriendsDTO findMutualFriends(Long userId, Long otherId) {
+        return new MutualFriendsDTO(userId, otherId, friendRecommender.mutualFriends(userId, otherId));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Served from the in-memory graph — no database access.
+     */
+    @Override
+    public DistanceDTO findDistance(Long from, Long to, int maxDepth) {
+        long startTime = System.currentTimeMillis();
+
+        DistanceDTO distance = new DistanceDTO(from, to, pathFinder.shortestPath(from, to, maxDepth));
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Distance computed in {}ms - from: {}, to: {}, distance: {}",
+                duration, from, to, distance.getDistance());
+
+        return distance;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "friendships", key = "#id"),
-            @CacheEvict(value = "userFriendships", allEntries = true)
-    })
+    @CacheEvict(value = "friendships", key = "#id")
     public Optional<Friendship> updateAndValidateFriendship(Long id, Friendship friendshipDetails) {
         logger.info("Updating friendship - id: {}", id);
 
@@ -200,11 +480,24 @@ public class FriendshipServiceImpl implements FriendshipService {
                 CompletableFuture.allOf(user1Future, user2Future)
                         .get(VALIDATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
 
+                if (FriendshipGraph.isEdge(friendship.getStatus())) {
+                    friendshipGraph.removeFriendship(friendship.getUserId1(), friendship.getUserId2());
+                }
+                evictUserFriendships(friendship.getUserId1(), friendship.getUserId2());
+
                 friendship.setUserId1(friendshipDetails.getUserId1());
                 friendship.setUserId2(friendshipDetails.getUserId2());
                 friendship.setStatus(friendshipDetails.getStatus());
+                if (friendshipDetails.getRequesterId() != null) {
+                    friendship.setRequesterId(friendshipDetails.getRequesterId());
+                }
+                validateRequester(friendship);
 
                 Friendship updated = friendshipRepository.save(friendship);
+                evictUserFriendships(updated.getUserId1(), updated.getUserId2());
+                if (FriendshipGraph.isEdge(updated.getStatus())) {
+                    friendshipGraph.addFriendship(updated.getUserId1(), updated.getUserId2());
+                }
 
                 long duration = System.currentTimeMillis() - startTime;
                 logger.info("Friendship updated successfully in {}ms", duration);
@@ -226,16 +519,20 @@ public class FriendshipServiceImpl implements FriendshipService {
      */
     @Override
     @Transactional
-    @CacheEvict(value = {"friendships", "userFriendships"}, allEntries = true)
+    @CacheEvict(value = "friendships", key = "#id")
     public void deleteFriendship(Long id) {
         logger.info("Deleting friendship - id: {}", id);
 
-        if (!friendshipRepository.existsById(id)) {
+        Friendship friendship = friendshipRepository.findById(id).orElseThrow(() -> {
             logger.warn("Friendship not found for deletion - id: {}", id);
-            throw new IllegalArgumentException("Friendship not found: " + id);
-        }
+            return new IllegalArgumentException("Friendship not found: " + id);
+        });
 
         friendshipRepository.deleteById(id);
+        evictUserFriendships(friendship.getUserId1(), friendship.getUserId2());
+        if (FriendshipGraph.isEdge(friendship.getStatus())) {
+            friendshipGraph.removeFriendship(friendship.getUserId1(), friendship.getUserId2());
+        }
         logger.info("Friendship deleted successfully - id: {}", id);
     }
 
@@ -254,6 +551,147 @@ public class FriendshipServiceImpl implements FriendshipService {
     // Private helpers
     // -------------------------------------------------------------------------
 
+    /**
+     * Applies the create defaults and normalisation to one imported pair.
+     *
+     * @param friendship the pair, normalised in place when valid
+     * @return why the pair cannot be imported, or null if it is valid
+     */
+    private String prepareForImport(Friendship friendship) {
+        if (friendship == null || friendship.getUserId1() == null || friendship.getUserId2() == null) {
+            return "userId1 and userId2 are required";
+        }
+        if (friendship.getUserId1().equals(friendship.getUserId2())) {
+            return "Cannot create friendship with yourself";
+        }
+        if (friendship.getRequesterId() == null) {
+            friendship.setRequesterId(friendship.getUserId1());
+        }
+        if (friendship.getStatus() == null) {
+            friendship.setStatus(FriendshipStatus.PENDING);
+        }
+        try {
+            validateRequester(friendship);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        normaliseUserIdOrder(friendship);
+        return null;
+    }
+
+    /**
+     * Validates all users of an import with batched upstream calls. An import of 1000 pairs
+     * can name 2000 users, more than user-ms checks per call, so the IDs are split into
+     * batches that are checked concurrently and merged.
+     *
+     * @param userIds distinct user IDs
+     * @return the IDs that exist
+     * @throws FriendshipValidationException if user-ms cannot answer in time
+     */
+    private Set<Long> fetchExistingUsers(Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        List<CompletableFuture<Set<Long>>> batches = new ArrayList<>();
+        Set<Long> batch = new HashSet<>();
+        for (Long userId : userIds) {
+            batch.add(userId);
+            if (batch.size() == USER_EXISTENCE_BATCH) {
+                batches.add(asyncHelper.getExistingUserIdsAsync(batch));
+                batch = new HashSet<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(asyncHelper.getExistingUserIdsAsync(batch));
+        }
+
+        try {
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+                .get(VALIDATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Set<Long> existing = new HashSet<>();
+            for (CompletableFuture<Set<Long>> result : batches) {
+                existing.addAll(result.join());
+            }
+            return existing;
+        } catch (TimeoutException e) {
+            logger.error("Validation timeout after {}s", VALIDATION_TIMEOUT_SECONDS);
+            throw new FriendshipValidationException("Validation timeout: external services took too long", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FriendshipValidationException("Validation interrupted", e);
+        } catch (ExecutionException e) {
+            logger.error("Validation failed: {}", e.getCause().getMessage());
+            throw new FriendshipValidationException("Validation failed: " + e.getCause().getMessage(), e);
+        }
+    }
+
+    private static BulkFriendshipResultDTO result(Friendship friendship, Outcome outcome, Long id, String message) {
+        return friendship == null
+                ? new BulkFriendshipResultDTO(null, null, outcome, id, message)
+                : new BulkFriendshipResultDTO(friendship.getUserId1(), friendship.getUserId2(), outcome, id, message);
+    }
+
+    /**
+     * Evicts the cached friend lists of the given users and moves them to a new generation,
+     * which abandons their cached accepted, incoming and outgoing pages. Both happen once the
+     * current transaction commits, so a concurrent reader cannot re-cache the pre-commit rows.
+     *
+     * @param userIds users whose {@code userFriendships} entry and status list pages are stale
+     */
+    private void evictUserFriendships(Long... userIds) {
+        Cache cache = cacheManager.getCache("userFriendships");
+        Runnable evict = () -> {
+            for (Long userId : userIds) {
+                if (cache != null) {
+                    cache.evict(userId);
+                }
+                graphGenerations.bump(userId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    /**
+     * Ensures the requester, if set, is one of the two users of the friendship.
+     *
+     * @param friendship the friendship to check
+     * @throws IllegalArgumentException if the requester is a third user
+     */
+    private void validateRequester(Friendship friendship) {
+        Long requesterId = friendship.getRequesterId();
+        if (requesterId != null
+                && !requesterId.equals(friendship.getUserId1())
+                && !requesterId.equals(friendship.getUserId2())) {
+            throw new IllegalArgumentException("Requester " + requesterId + " is not part of the friendship");
+        }
+    }
+
+    /**
+     * Builds a keyset page from a query that fetched one row more than the limit.
+     *
+     * @param listing label for the log line
+     * @param userId  user the listing belongs to
+     * @param limit   page size
+     * @param rows    up to {@code limit + 1} rows ordered by ID
+     * @return the page, with {@code nextAfterId} set if more rows exist
+     */
+    private FriendshipPageDTO page(String listing, Long userId, int limit, List<Friendship> rows) {
+        boolean hasMore = rows.size() > limit;
+        List<Friendship> items = hasMore ? List.copyOf(rows.subList(0, limit)) : rows;
+        Long nextAfterId = hasMore ? items.get(items.size() - 1).getId() : null;
+        logger.info("Fetched {} - userId: {}, count: {}, hasMore: {}", listing, userId, items.size(), hasMore);
+        return new FriendshipPageDTO(items, nextAfterId);
+    }
+
     /**
      * Ensures userId1 is always less than userId2.
      * This invariant prevents duplicate rows for (A,B) and (B,A).
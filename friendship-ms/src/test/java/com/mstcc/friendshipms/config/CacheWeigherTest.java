@@ -0,0 +1,69 @@
+package com.mstcc.friendshipms.config;
+
+import com.mstcc.friendshipms.dto.FriendshipPageDTO;
+import com.mstcc.friendshipms.dto.MutualFriendsDTO;
+import com.mstcc.friendshipms.entities.Friendship;
+import com.mstcc.friendshipms.entities.FriendshipStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CacheWeigher}. The byte budgets in application.yml assume these
+ * per-friend costs.
+ */
+class CacheWeigherTest {
+
+    /** A friendship (176 bytes) plus its slot in the list's backing array. */
+    private static final int BYTES_PER_FRIENDSHIP = 180;
+
+    private final CacheWeigher weigher = new CacheWeigher();
+
+    @Test
+    @DisplayName("a user's friend list weighs in proportion to the user's degree")
+    void weigh_friendListGrowsWithDegree() {
+        int oneFriend = weigher.weigh(1L, friendships(1));
+        int hub = weigher.weigh(1L, friendships(1001));
+
+        assertThat(hub - oneFriend).isEqualTo(1000 * BYTES_PER_FRIENDSHIP);
+        // Entry, Long key, list header and one friendship
+        assertThat(oneFriend).isEqualTo(64 + 16 + 40 + 8 + 176);
+    }
+
+    @Test
+    @DisplayName("a status page weighs its friendships and mutual friends weigh eight bytes per ID")
+    void weigh_pagesAndMutualFriendsGrowWithItems() {
+        int emptyPage = weigher.weigh("1_5_0_20", new FriendshipPageDTO(List.of(), null));
+        int fullPage = weigher.weigh("1_5_0_20", new FriendshipPageDTO(friendships(20), 20L));
+        int noMutuals = weigher.weigh("1_2", new MutualFriendsDTO(1L, 2L, new long[0]));
+        int manyMutuals = weigher.weigh("1_2", new MutualFriendsDTO(1L, 2L, new long[1000]));
+
+        // The items plus the boxed next-page cursor
+        assertThat(fullPage - emptyPage).isEqualTo(20 * BYTES_PER_FRIENDSHIP + 16);
+        assertThat(manyMutuals - noMutuals).isEqualTo(8_000);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static List<Friendship> friendships(int count) {
+        List<Friendship> friendships = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            Friendship friendship = new Friendship();
+            friendship.setId(i);
+            friendship.setUserId1(1L);
+            friendship.setUserId2(i + 2);
+            friendship.setRequesterId(1L);
+            friendship.setStatus(FriendshipStatus.ACCEPTED);
+            friendship.setCreatedAt(LocalDateTime.now());
+            friendships.add(friendship);
+        }
+        return friendships;
+    }
+}
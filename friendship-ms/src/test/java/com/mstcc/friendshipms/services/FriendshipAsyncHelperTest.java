@@ -0,0 +1,85 @@
+package com.mstcc.friendshipms.services;
+
+import com.mstcc.friendshipms.dto.UserDTO;
+import com.mstcc.friendshipms.feignclients.UserFeignClient;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the negative caching in {@link FriendshipAsyncHelper}.
+ *
+ * <p>The helper is called on the bare object, so its {@code @Async} methods run on the test thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class FriendshipAsyncHelperTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/api/users/7", Map.of(), null,
+            StandardCharsets.UTF_8, null);
+
+    @Mock
+    private UserFeignClient userFeignClient;
+
+    private FriendshipAsyncHelper asyncHelper;
+
+    @BeforeEach
+    void setUp() {
+        asyncHelper = new FriendshipAsyncHelper(userFeignClient, new ConcurrentMapCacheManager("missingUsers"));
+    }
+
+    @Test
+    @DisplayName("a 404 from user-ms is remembered and the next lookup is answered locally")
+    void getUserAsync_whenNotFound_answersRepeatLocally() {
+        when(userFeignClient.getUserById(7L))
+                .thenThrow(new FeignException.NotFound("Not Found", REQUEST, null, Map.of()));
+
+        assertThat(asyncHelper.getUserAsync(7L)).isCompletedExceptionally();
+        assertThat(asyncHelper.getUserAsync(7L)).isCompletedExceptionally();
+
+        verify(userFeignClient, times(1)).getUserById(7L);
+    }
+
+    @Test
+    @DisplayName("a timeout or an open circuit is not remembered, so the next lookup asks again")
+    void getUserAsync_whenUnavailable_asksAgain() {
+        when(userFeignClient.getUserById(7L))
+                .thenThrow(new RetryableException(-1, "Read timed out", Request.HttpMethod.GET, (Long) null, REQUEST))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("user-ms")))
+                .thenReturn(ResponseEntity.ok(new UserDTO()));
+
+        assertThat(asyncHelper.getUserAsync(7L)).isCompletedExceptionally();
+        assertThat(asyncHelper.getUserAsync(7L)).isCompletedExceptionally();
+        assertThat(asyncHelper.getUserAsync(7L)).isNotCompletedExceptionally();
+
+        verify(userFeignClient, times(3)).getUserById(7L);
+    }
+
+    @Test
+    @DisplayName("users a batch check does not return are left out of the next batch")
+    void getExistingUserIdsAsync_remembersMissingUsers() {
+        when(userFeignClient.findExistingUserIds(List.of(1L, 2L))).thenReturn(ResponseEntity.ok(List.of(1L)));
+        when(userFeignClient.findExistingUserIds(List.of(1L))).thenReturn(ResponseEntity.ok(List.of(1L)));
+
+        assertThat(asyncHelper.getExistingUserIdsAsync(List.of(1L, 2L)).join()).containsExactly(1L);
+        assertThat(asyncHelper.getExistingUserIdsAsync(List.of(1L, 2L)).join()).containsExactly(1L);
+
+        verify(userFeignClient).findExistingUserIds(List.of(1L));
+    }
+}
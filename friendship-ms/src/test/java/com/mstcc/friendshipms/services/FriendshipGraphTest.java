@@ -0,0 +1,300 @@
+package com.mstcc.friendshipms.services;
+
+import com.mstcc.friendshipms.dto.FriendSuggestionDTO;
+import com.mstcc.friendshipms.entities.FriendshipStatus;
+import com.mstcc.friendshipms.repositories.FriendshipRepository;
+import com.mstcc.friendshipms.repositories.FriendshipRepository.EdgeRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link FriendshipGraph} and the {@link FriendRecommender} and
+ * {@link FriendshipPathFinder} built on it.
+ *
+ * <p>The repository is mocked to feed the initial edge list; incremental updates run
+ * without a transaction, so they are applied immediately. Snapshots are disabled except in
+ * the snapshot tests, which write to a temporary directory.
+ */
+@ExtendWith(MockitoExtension.class)
+class FriendshipGraphTest {
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    @TempDir
+    Path snapshotDir;
+
+    private GraphGenerations generations;
+    private FriendshipGraph graph;
+    private FriendRecommender recommender;
+    private FriendshipPathFinder pathFinder;
+
+    @BeforeEach
+    void setUp() {
+        generations = new GraphGenerations();
+        graph = new FriendshipGraph(friendshipRepository, generations, new GraphSnapshotStore(snapshotDir, false));
+        recommender = new FriendRecommender(graph);
+        pathFinder = new FriendshipPathFinder(graph);
+    }
+
+    private void loadEdges(long[]... pairs) {
+        stubEdges(pairs);
+        graph.load();
+    }
+
+    private void stubEdges(long[]... pairs) {
+        List<EdgeRow> rows = new ArrayList<>();
+        for (int i = 0; i < pairs.length; i++) {
+            long id = i + 1;
+            long u = pairs[i][0];
+            long v = pairs[i][1];
+            rows.add(new EdgeRow() {
+                @Override public Long getId() { return id; }
+                @Override public Long getUserId1() { return u; }
+                @Override public Long getUserId2() { return v; }
+            });
+        }
+        when(friendshipRepository.findEdgesAfter(eq(FriendshipStatus.ACCEPTED), eq(0L), any(Pageable.class))).thenReturn(rows);
+    }
+
+    // -------------------------------------------------------------------------
+    // load
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("load builds sorted, symmetric neighbour lists and collapses duplicate edges")
+    void load_buildsSymmetricSortedAdjacency() {
+        loadEdges(new long[]{1, 3}, new long[]{1, 2}, new long[]{2, 3}, new long[]{1, 2});
+
+        assertThat(graph.friendIds(1L)).containsExactly(2L, 3L);
+        assertThat(graph.friendIds(3L)).containsExactly(1L, 2L);
+        assertThat(graph.degree(2L)).isEqualTo(2);
+        assertThat(graph.edgeCount()).isEqualTo(3);
+        assertThat(graph.friendIds(99L)).isEmpty();
+    }
+
+    // -------------------------------------------------------------------------
+    // incremental updates
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("addFriendship and removeFriendship update both users and the edge count")
+    void addAndRemove_updateBothEndpoints() {
+        loadEdges(new long[]{1, 2});
+
+        graph.addFriendship(1L, 5L);
+        assertThat(graph.friendIds(1L)).containsExactly(2L, 5L);
+        assertThat(graph.areFriends(5L, 1L)).isTrue();
+        assertThat(graph.edgeCount()).isEqualTo(2);
+
+        graph.removeFriendship(2L, 1L);
+        assertThat(graph.friendIds(1L)).containsExactly(5L);
+        assertThat(graph.friendIds(2L)).isEmpty();
+        assertThat(graph.areFriends(1L, 2L)).isFalse();
+        assertThat(graph.edgeCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("repeated adds and removes of the same edge are idempotent")
+    void addAndRemove_areIdempotent() {
+        loadEdges();
+
+        graph.addFriendship(1L, 2L);
+        graph.addFriendship(2L, 1L);
+        graph.removeFriendship(3L, 4L);
+
+        assertThat(graph.edgeCount()).isEqualTo(1);
+        assertThat(graph.friendIds(2L)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("compaction after many writes keeps every neighbour list intact")
+    void manyWrites_triggerCompactionWithoutLosingEdges() {
+        loadEdges();
+
+        for (long user = 1; user <= 3000; user++) {
+            graph.addFriendship(user, user + 1);
+        }
+        graph.removeFriendship(1500L, 1501L);
+
+        assertThat(graph.edgeCount()).isEqualTo(2999);
+        assertThat(graph.friendIds(1L)).containsExactly(2L);
+        assertThat(graph.friendIds(1500L)).containsExactly(1499L);
+        assertThat(graph.friendIds(2000L)).containsExactly(1999L, 2001L);
+        assertThat(graph.areFriends(3001L, 3000L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("a friendship change bumps the generations of both users and their friends only")
+    void change_bumpsTwoHopNeighbourhoodGenerations() {
+        loadEdges(new long[]{1, 2}, new long[]{3, 4}, new long[]{5, 6});
+        long gen2 = generations.user(2L);
+        long gen4 = generations.user(4L);
+        long gen6 = generations.user(6L);
+
+        graph.addFriendship(1L, 3L);
+
+        assertThat(generations.user(2L)).isGreaterThan(gen2);
+        assertThat(generations.user(4L)).isGreaterThan(gen4);
+        assertThat(generations.user(6L)).isEqualTo(gen6);
+    }
+
+    // -------------------------------------------------------------------------
+    // snapshots
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("a restarted graph is restored from the snapshot plus the write-ahead log without the database")
+    void start_withSnapshot_restoresSnapshotAndReplaysWal() {
+        GraphSnapshotStore store = new GraphSnapshotStore(snapshotDir, true);
+        FriendshipGraph first = new FriendshipGraph(friendshipRepository, generations, store);
+        stubEdges(new long[]{1, 2}, new long[]{1, 3}, new long[]{2, 3});
+        first.start();
+        first.writeSnapshot();
+        first.addFriendship(1L, 4L);
+        first.removeFriendship(2L, 3L);
+
+        FriendshipGraph restarted = new FriendshipGraph(friendshipRepository, new GraphGenerations(),
+                new GraphSnapshotStore(snapshotDir, true));
+        restarted.start();
+
+        verify(friendshipRepository, times(1)).findEdgesAfter(any(), anyLong(), any(Pageable.class));
+        assertThat(restarted.friendIds(1L)).containsExactly(2L, 3L, 4L);
+        assertThat(restarted.friendIds(2L)).containsExactly(1L);
+        assertThat(restarted.friendIds(4L)).containsExactly(1L);
+        assertThat(restarted.areFriends(2L, 3L)).isFalse();
+        assertThat(restarted.edgeCount()).isEqualTo(3);
+
+        // Writes after the restore still reach the restored graph
+        restarted.addFriendship(4L, 5L);
+        assertThat(restarted.friendIds(4L)).containsExactly(1L, 5L);
+    }
+
+    @Test
+    @DisplayName("a damaged snapshot is ignored and the graph is loaded from the database")
+    void start_withTruncatedSnapshot_loadsFromDatabase() throws Exception {
+        Path snapshotFile = snapshotDir.resolve("graph.snapshot");
+        Files.write(snapshotFile, new byte[10]);
+        GraphSnapshotStore store = new GraphSnapshotStore(snapshotDir, true);
+        graph = new FriendshipGraph(friendshipRepository, generations, store);
+        stubEdges(new long[]{7, 8});
+
+        graph.start();
+
+        assertThat(graph.friendIds(7L)).containsExactly(8L);
+        assertThat(store.open()).isEmpty();
+    }
+
+    // -------------------------------------------------------------------------
+    // suggestions and mutual friends
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("suggest ranks two-hop users by mutual friends and excludes the user and existing friends")
+    void suggest_ranksByMutualFriends() {
+        // 1 is friends with 2, 3, 4; 5 shares all three, 6 shares two, 7 shares one, 2-3 are friends
+        loadEdges(new long[]{1, 2}, new long[]{1, 3}, new long[]{1, 4}, new long[]{2, 3},
+                  new long[]{2, 5}, new long[]{3, 5}, new long[]{4, 5},
+                  new long[]{2, 6}, new long[]{4, 6}, new long[]{3, 7});
+
+        List<FriendSuggestionDTO> suggestions = recommender.suggest(1L, 10);
+
+        assertThat(suggestions).extracting(FriendSuggestionDTO::getUserId).containsExactly(5L, 6L, 7L);
+        assertThat(suggestions).extracting(FriendSuggestionDTO::getMutualFriends).containsExactly(3, 2, 1);
+    }
+
+    @Test
+    @DisplayName("suggest keeps only the top k, breaking ties by lower user ID")
+    void suggest_keepsTopK() {
+        loadEdges(new long[]{1, 2}, new long[]{2, 9}, new long[]{2, 8}, new long[]{2, 7});
+
+        List<FriendSuggestionDTO> suggestions = recommender.suggest(1L, 2);
+
+        assertThat(suggestions).extracting(FriendSuggestionDTO::getUserId).containsExactly(7L, 8L);
+        assertThat(recommender.suggest(99L, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("mutualFriends intersects both neighbour lists, including very uneven ones")
+    void mutualFriends_intersectsSortedLists() {
+        loadEdges(new long[]{1, 10}, new long[]{1, 20}, new long[]{1, 30},
+                  new long[]{2, 20}, new long[]{2, 30}, new long[]{2, 40});
+        for (long user = 100; user < 300; user++) {
+            graph.addFriendship(3L, user);
+        }
+        graph.addFriendship(3L, 30L);
+
+        assertThat(recommender.mutualFriends(1L, 2L)).containsExactly(20L, 30L);
+        assertThat(recommender.mutualFriends(3L, 1L)).containsExactly(30L);
+        assertThat(recommender.mutualFriends(1L, 99L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("friendsAmong returns the distinct candidates that are friends, in any input order")
+    void friendsAmong_filtersCandidates() {
+        loadEdges(new long[]{1, 2}, new long[]{1, 5}, new long[]{1, 9});
+
+        assertThat(recommender.friendsAmong(1L, new long[]{9, 3, 2, 9, 7})).containsExactly(2L, 9L);
+        assertThat(recommender.friendsAmong(1L, new long[0])).isEmpty();
+        assertThat(recommender.friendsAmong(42L, new long[]{1})).isEmpty();
+    }
+
+    // -------------------------------------------------------------------------
+    // distance
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("shortestPath returns a shortest chain from one user to the other")
+    void shortestPath_findsShortestChain() {
+        // Long route 1-2-3-4-5-6 and a shortcut 1-7-8-6
+        loadEdges(new long[]{1, 2}, new long[]{2, 3}, new long[]{3, 4}, new long[]{4, 5}, new long[]{5, 6},
+                  new long[]{1, 7}, new long[]{7, 8}, new long[]{8, 6});
+
+        assertThat(pathFinder.shortestPath(1L, 6L, 6)).containsExactly(1L, 7L, 8L, 6L);
+        assertThat(pathFinder.shortestPath(6L, 1L, 6)).containsExactly(6L, 8L, 7L, 1L);
+        assertThat(pathFinder.shortestPath(2L, 1L, 1)).containsExactly(2L, 1L);
+        assertThat(pathFinder.shortestPath(4L, 4L, 1)).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("shortestPath returns null when the users are disconnected or too far apart")
+    void shortestPath_whenNotConnectedWithinDepth_returnsNull() {
+        loadEdges(new long[]{1, 2}, new long[]{2, 3}, new long[]{3, 4}, new long[]{10, 11});
+
+        assertThat(pathFinder.shortestPath(1L, 4L, 2)).isNull();
+        assertThat(pathFinder.shortestPath(1L, 4L, 3)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(pathFinder.shortestPath(1L, 11L, 12)).isNull();
+        assertThat(pathFinder.shortestPath(1L, 99L, 12)).isNull();
+    }
+
+    @Test
+    @DisplayName("shortestPath handles frontiers large enough to grow the visited tables")
+    void shortestPath_onLargeGraph_findsDistance() {
+        // Two stars of 500 leaves each, joined by a single bridge between two leaves
+        List<long[]> edges = new ArrayList<>();
+        for (long leaf = 1; leaf <= 500; leaf++) {
+            edges.add(new long[]{1_000L, leaf});
+            edges.add(new long[]{2_000L, 2_000L + leaf});
+        }
+        edges.add(new long[]{250L, 2_250L});
+        loadEdges(edges.toArray(new long[0][]));
+
+        assertThat(pathFinder.shortestPath(7L, 2_009L, 6)).containsExactly(7L, 1_000L, 250L, 2_250L, 2_000L, 2_009L);
+    }
+}
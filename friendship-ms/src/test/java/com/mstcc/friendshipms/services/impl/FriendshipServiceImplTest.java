@@ -1,24 +1,40 @@
 package com.mstcc.friendshipms.services.impl;
 
+import com.mstcc.friendshipms.dto.BulkFriendshipResultDTO;
+import com.mstcc.friendshipms.dto.BulkFriendshipResultDTO.Outcome;
+import com.mstcc.friendshipms.dto.FriendshipPageDTO;
 import com.mstcc.friendshipms.dto.UserDTO;
 import com.mstcc.friendshipms.entities.Friendship;
+import com.mstcc.friendshipms.entities.FriendshipStatus;
 import com.mstcc.friendshipms.exception.FriendshipValidationException;
+import com.mstcc.friendshipms.repositories.FriendshipBulkRepository;
 import com.mstcc.friendshipms.repositories.FriendshipRepository;
 import com.mstcc.friendshipms.services.FriendshipAsyncHelper;
+import com.mstcc.friendshipms.services.FriendRecommender;
+import com.mstcc.friendshipms.services.FriendshipGraph;
+import com.mstcc.friendshipms.services.FriendshipPathFinder;
+import com.mstcc.friendshipms.services.GraphGenerations;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -37,9 +53,27 @@ class FriendshipServiceImplTest {
     @Mock
     private FriendshipRepository friendshipRepository;
 
+    @Mock
+    private FriendshipBulkRepository friendshipBulkRepository;
+
     @Mock
     private FriendshipAsyncHelper asyncHelper;
 
+    @Mock
+    private FriendshipGraph friendshipGraph;
+
+    @Mock
+    private FriendRecommender friendRecommender;
+
+    @Mock
+    private FriendshipPathFinder pathFinder;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private GraphGenerations graphGenerations = new GraphGenerations();
+
     @InjectMocks
     private FriendshipServiceImpl friendshipService;
 
@@ -53,7 +87,7 @@ class FriendshipServiceImplTest {
         friendship.setId(1L);
         friendship.setUserId1(1L);
         friendship.setUserId2(2L);
-        friendship.setStatus("PENDING");
+        friendship.setStatus(FriendshipStatus.PENDING);
 
         user1DTO = new UserDTO();
         user1DTO.setId(1L);
@@ -120,6 +154,19 @@ class FriendshipServiceImplTest {
         assertThat(saved.getUserId1()).isLessThan(saved.getUserId2());
         assertThat(saved.getUserId1()).isEqualTo(3L);
         assertThat(saved.getUserId2()).isEqualTo(10L);
+        assertThat(saved.getRequesterId()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("createFriendship rejects a requester who is not one of the two users")
+    void createFriendship_withForeignRequester_throwsIllegalArgumentException() {
+        friendship.setRequesterId(7L);
+
+        assertThatThrownBy(() -> friendshipService.createAndValidateFriendship(friendship))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Requester 7");
+
+        verify(friendshipRepository, never()).save(any());
     }
 
     @Test
@@ -141,6 +188,61 @@ class FriendshipServiceImplTest {
         assertThat(saved.getUserId2()).isEqualTo(5L);
     }
 
+    @Test
+    @DisplayName("createFriendship adds accepted friendships to the in-memory graph, not pending ones")
+    void createFriendship_whenAccepted_addsEdgeToGraph() {
+        friendship.setStatus(FriendshipStatus.ACCEPTED);
+        when(asyncHelper.getUserAsync(1L))
+                .thenReturn(CompletableFuture.completedFuture(user1DTO));
+        when(asyncHelper.getUserAsync(2L))
+                .thenReturn(CompletableFuture.completedFuture(user2DTO));
+        when(friendshipRepository.save(any(Friendship.class))).thenReturn(friendship);
+
+        friendshipService.createAndValidateFriendship(friendship);
+
+        verify(friendshipGraph).addFriendship(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("createFriendship evicts the cached friend lists of both users only")
+    void createFriendship_evictsUserFriendshipsOfBothUsersOnly() {
+        ConcurrentMapCache userFriendships = new ConcurrentMapCache("userFriendships");
+        userFriendships.put(1L, List.of());
+        userFriendships.put(2L, List.of());
+        userFriendships.put(3L, List.of());
+        when(cacheManager.getCache("userFriendships")).thenReturn(userFriendships);
+        when(asyncHelper.getUserAsync(1L))
+                .thenReturn(CompletableFuture.completedFuture(user1DTO));
+        when(asyncHelper.getUserAsync(2L))
+                .thenReturn(CompletableFuture.completedFuture(user2DTO));
+        when(friendshipRepository.save(any(Friendship.class))).thenReturn(friendship);
+
+        friendshipService.createAndValidateFriendship(friendship);
+
+        assertThat(userFriendships.get(1L)).isNull();
+        assertThat(userFriendships.get(2L)).isNull();
+        assertThat(userFriendships.get(3L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("createFriendship moves only both users' status list pages to a new generation")
+    void createFriendship_bumpsGenerationsOfBothUsersOnly() {
+        long user1 = graphGenerations.user(1L);
+        long user2 = graphGenerations.user(2L);
+        long user3 = graphGenerations.user(3L);
+        when(asyncHelper.getUserAsync(1L))
+                .thenReturn(CompletableFuture.completedFuture(user1DTO));
+        when(asyncHelper.getUserAsync(2L))
+                .thenReturn(CompletableFuture.completedFuture(user2DTO));
+        when(friendshipRepository.save(any(Friendship.class))).thenReturn(friendship);
+
+        friendshipService.createAndValidateFriendship(friendship);
+
+        assertThat(graphGenerations.user(1L)).isNotEqualTo(user1);
+        assertThat(graphGenerations.user(2L)).isNotEqualTo(user2);
+        assertThat(graphGenerations.user(3L)).isEqualTo(user3);
+    }
+
     // -------------------------------------------------------------------------
     // createAndValidateFriendship — upstream failure
     // -------------------------------------------------------------------------
@@ -208,17 +310,29 @@ class FriendshipServiceImplTest {
     @Test
     @DisplayName("deleteFriendship removes friendship when found")
     void deleteFriendship_whenFound_deletesSuccessfully() {
-        when(friendshipRepository.existsById(1L)).thenReturn(true);
+        when(friendshipRepository.findById(1L)).thenReturn(Optional.of(friendship));
 
         assertThatCode(() -> friendshipService.deleteFriendship(1L)).doesNotThrowAnyException();
 
         verify(friendshipRepository).deleteById(1L);
+        verify(friendshipGraph, never()).removeFriendship(any(), any());
+    }
+
+    @Test
+    @DisplayName("deleteFriendship removes an accepted friendship from the in-memory graph")
+    void deleteFriendship_whenAccepted_removesEdgeFromGraph() {
+        friendship.setStatus(FriendshipStatus.ACCEPTED);
+        when(friendshipRepository.findById(1L)).thenReturn(Optional.of(friendship));
+
+        friendshipService.deleteFriendship(1L);
+
+        verify(friendshipGraph).removeFriendship(1L, 2L);
     }
 
     @Test
     @DisplayName("deleteFriendship throws IllegalArgumentException when not found")
     void deleteFriendship_whenNotFound_throwsIllegalArgumentException() {
-        when(friendshipRepository.existsById(99L)).thenReturn(false);
+        when(friendshipRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> friendshipService.deleteFriendship(99L))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -240,4 +354,157 @@ class FriendshipServiceImplTest {
 
         assertThat(result).hasSize(1).containsExactly(friendship);
     }
+
+    // -------------------------------------------------------------------------
+    // updateAndValidateFriendship — cache eviction
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("updateFriendship evicts the friend lists and pages of the old and the new pair only")
+    void updateFriendship_whenPairChanges_evictsOldAndNewPair() {
+        ConcurrentMapCache userFriendships = new ConcurrentMapCache("userFriendships");
+        for (long userId = 1; userId <= 4; userId++) {
+            userFriendships.put(userId, List.of());
+        }
+        long oldPartner = graphGenerations.user(2L);
+        long bystander = graphGenerations.user(4L);
+        when(cacheManager.getCache("userFriendships")).thenReturn(userFriendships);
+        Friendship details = new Friendship();
+        details.setUserId1(3L);
+        details.setUserId2(1L);
+        details.setStatus(FriendshipStatus.ACCEPTED);
+        when(friendshipRepository.findById(1L)).thenReturn(Optional.of(friendship));
+        when(asyncHelper.getUserAsync(1L))
+                .thenReturn(CompletableFuture.completedFuture(user1DTO));
+        when(asyncHelper.getUserAsync(3L))
+                .thenReturn(CompletableFuture.completedFuture(user2DTO));
+        when(friendshipRepository.save(any(Friendship.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        friendshipService.updateAndValidateFriendship(1L, details);
+
+        assertThat(userFriendships.get(1L)).isNull();
+        assertThat(userFriendships.get(2L)).isNull();
+        assertThat(userFriendships.get(3L)).isNull();
+        assertThat(userFriendships.get(4L)).isNotNull();
+        assertThat(graphGenerations.user(2L)).isNotEqualTo(oldPartner);
+        assertThat(graphGenerations.user(4L)).isEqualTo(bystander);
+    }
+
+    // -------------------------------------------------------------------------
+    // importFriendships
+    // -------------------------------------------------------------------------
+
+    private static Friendship pair(Long userId1, Long userId2) {
+        Friendship f = new Friendship();
+        f.setUserId1(userId1);
+        f.setUserId2(userId2);
+        f.setStatus(FriendshipStatus.ACCEPTED);
+        return f;
+    }
+
+    @Test
+    @DisplayName("importFriendships validates users once, inserts unique pairs and reports each outcome in order")
+    void importFriendships_reportsOutcomePerPair() {
+        when(asyncHelper.getExistingUserIdsAsync(Set.of(1L, 2L, 4L, 99L)))
+                .thenReturn(CompletableFuture.completedFuture(Set.of(1L, 2L, 4L)));
+        Friendship inserted = pair(1L, 2L);
+        inserted.setId(10L);
+        when(friendshipBulkRepository.insertIgnoringExisting(any(), any())).thenReturn(List.of(inserted));
+
+        List<BulkFriendshipResultDTO> results = friendshipService.importFriendships(List.of(
+                pair(2L, 1L), pair(1L, 2L), pair(3L, 3L), pair(1L, 99L), pair(4L, 1L)));
+
+        assertThat(results).extracting(BulkFriendshipResultDTO::getOutcome).containsExactly(
+                Outcome.CREATED, Outcome.DUPLICATE, Outcome.INVALID, Outcome.USER_NOT_FOUND, Outcome.ALREADY_EXISTS);
+        assertThat(results.get(0).getId()).isEqualTo(10L);
+        assertThat(results.get(0).getUserId1()).isEqualTo(1L);
+        assertThat(results.get(4).getUserId1()).isEqualTo(1L);
+        verify(asyncHelper, times(1)).getExistingUserIdsAsync(any());
+        verify(friendshipGraph).addFriendship(1L, 2L);
+        verify(friendshipGraph, never()).addFriendship(1L, 4L);
+    }
+
+    @Test
+    @DisplayName("importFriendships checks more than 1000 users in batches user-ms accepts and merges them")
+    void importFriendships_whenManyUsers_validatesInBatches() {
+        List<Set<Long>> requested = new ArrayList<>();
+        when(asyncHelper.getExistingUserIdsAsync(any())).thenAnswer(inv -> {
+            Set<Long> ids = Set.copyOf(inv.getArgument(0));
+            requested.add(ids);
+            return CompletableFuture.completedFuture(ids);
+        });
+        when(friendshipBulkRepository.insertIgnoringExisting(any(), any())).thenAnswer(inv -> {
+            List<Friendship> rows = inv.getArgument(0);
+            rows.forEach(row -> row.setId(row.getUserId1()));
+            return rows;
+        });
+        List<Friendship> pairs = new ArrayList<>();
+        for (long i = 1; i <= 1000; i++) {
+            pairs.add(pair(i, 10_000L + i));
+        }
+
+        List<BulkFriendshipResultDTO> results = friendshipService.importFriendships(pairs);
+
+        assertThat(requested).hasSize(2).allSatisfy(ids -> assertThat(ids).hasSize(1000));
+        assertThat(requested.stream().flatMap(Set::stream).distinct()).hasSize(2000);
+        assertThat(results).extracting(BulkFriendshipResultDTO::getOutcome).containsOnly(Outcome.CREATED);
+    }
+
+    @Test
+    @DisplayName("importFriendships fails the whole import when user-ms cannot validate")
+    void importFriendships_whenUpstreamFails_throwsFriendshipValidationException() {
+        when(asyncHelper.getExistingUserIdsAsync(any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("user-ms down")));
+
+        assertThatThrownBy(() -> friendshipService.importFriendships(List.of(pair(1L, 2L))))
+                .isInstanceOf(FriendshipValidationException.class);
+
+        verifyNoInteractions(friendshipBulkRepository);
+    }
+
+    // -------------------------------------------------------------------------
+    // areFriends (batch)
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("areFriends maps each distinct candidate, in request order, to its friendship flag")
+    void areFriends_batch_mapsCandidatesInOrder() {
+        when(friendRecommender.friendsAmong(eq(1L), any())).thenReturn(new long[]{2L, 9L});
+
+        Map<Long, Boolean> result = friendshipService.areFriends(1L, List.of(9L, 3L, 2L, 9L));
+
+        assertThat(result).containsExactly(entry(9L, true), entry(3L, false), entry(2L, true));
+    }
+
+    // -------------------------------------------------------------------------
+    // per-status listings
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("findAcceptedFriendships fetches one extra row to set the next cursor")
+    void findAcceptedFriendships_whenMoreRows_setsNextAfterId() {
+        Friendship second = new Friendship();
+        second.setId(5L);
+        Friendship third = new Friendship();
+        third.setId(9L);
+        when(friendshipRepository.findByUserAndStatusAfter(eq(1L), eq(FriendshipStatus.ACCEPTED), eq(0L), any()))
+                .thenReturn(List.of(friendship, second, third));
+
+        FriendshipPageDTO page = friendshipService.findAcceptedFriendships(1L, 0L, 2);
+
+        assertThat(page.getItems()).containsExactly(friendship, second);
+        assertThat(page.getNextAfterId()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("findIncomingRequests returns the last page without a cursor")
+    void findIncomingRequests_onLastPage_hasNoNextAfterId() {
+        when(friendshipRepository.findReceivedAfter(eq(2L), eq(FriendshipStatus.PENDING), eq(0L), any()))
+                .thenReturn(List.of(friendship));
+
+        FriendshipPageDTO page = friendshipService.findIncomingRequests(2L, 0L, 20);
+
+        assertThat(page.getItems()).containsExactly(friendship);
+        assertThat(page.getNextAfterId()).isNull();
+    }
 }
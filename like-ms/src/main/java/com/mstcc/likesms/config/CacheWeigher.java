@@ -0,0 +1,29 @@
+package com.mstcc.likesms.config;
+
+import com.mstcc.cache.EntryWeigher;
+import com.mstcc.likesms.entities.Like;
+
+/**
+ * Weighs like-ms cache entries. A like is a handful of IDs, so the size of a
+ * {@code postLikes} or {@code userLikes} entry is essentially proportional to the number of
+ * likes in it — which is exactly what an entry count cannot bound.
+ */
+final class CacheWeigher extends EntryWeigher {
+
+    @Override
+    protected long estimateOther(Object value) {
+        if (value instanceof Like like) {
+            return like(like);
+        }
+        return super.estimateOther(value);
+    }
+
+    private static long like(Like like) {
+        return align(OBJECT_HEADER + 5 * REFERENCE)
+                + boxed(like.getId())
+                + boxed(like.getPostId())
+                + boxed(like.getCommentId())
+                + boxed(like.getUserId())
+                + dateTime(like.getCreatedAt());
+    }
+}
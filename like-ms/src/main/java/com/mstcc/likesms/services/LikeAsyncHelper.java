@@ -1,5 +1,6 @@
 package com.mstcc.likesms.services;
 
+import com.mstcc.cache.NegativeCache;
 import com.mstcc.likesms.feignclients.CommentFeignClient;
 import com.mstcc.likesms.feignclients.PostFeignClient;
 import com.mstcc.likesms.feignclients.UserFeignClient;
@@ -8,6 +9,7 @@ import com.mstcc.likesms.dto.PostDTO;
 import com.mstcc.likesms.dto.UserDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
@@ -26,13 +28,21 @@ public class LikeAsyncHelper {
     private final UserFeignClient userFeignClient;
     private final PostFeignClient postFeignClient;
     private final CommentFeignClient commentFeignClient;
+    /** IDs the owning service recently answered 404 for (see CacheConfig). */
+    private final NegativeCache missingUsers;
+    private final NegativeCache missingPosts;
+    private final NegativeCache missingComments;
 
     public LikeAsyncHelper(UserFeignClient userFeignClient,
                           PostFeignClient postFeignClient,
-                          CommentFeignClient commentFeignClient) {
+                          CommentFeignClient commentFeignClient,
+                          CacheManager cacheManager) {
         this.userFeignClient = userFeignClient;
         this.postFeignClient = postFeignClient;
         this.commentFeignClient = commentFeignClient;
+        this.missingUsers = new NegativeCache(cacheManager, "missingUsers");
+        this.missingPosts = new NegativeCache(cacheManager, "missingPosts");
+        this.missingComments = new NegativeCache(cacheManager, "missingComments");
     }
 
     /**
@@ -46,6 +56,10 @@ public class LikeAsyncHelper {
         long startTime = System.currentTimeMillis();
         
         logger.info("[{}] START - Fetching user async: userId={}", threadName, userId);
+
+        if (missingUsers.isKnownMissing(userId)) {
+            return missingUsers.failed(new RuntimeException("User not found: " + userId));
+        }
         
         try {
             ResponseEntity<UserDTO> response = userFeignClient.getUserById(userId);
@@ -61,6 +75,7 @@ public class LikeAsyncHelper {
             long duration = System.currentTimeMillis() - startTime;
             logger.error("[{}] FAILED - User fetch failed in {}ms: userId={}, error={}",
                         threadName, duration, userId, e.getMessage());
+            missingUsers.recordIfNotFound(userId, e);
             
             CompletableFuture<UserDTO> failedFuture = new CompletableFuture<>();
             failedFuture.completeExceptionally(
@@ -81,6 +96,10 @@ public class LikeAsyncHelper {
         long startTime = System.currentTimeMillis();
         
         logger.info("[{}] START - Fetching post async: postId={}", threadName, postId);
+
+        if (missingPosts.isKnownMissing(postId)) {
+            return missingPosts.failed(new RuntimeException("Post not found: " + postId));
+        }
         
         try {
             ResponseEntity<PostDTO> response = postFeignClient.getPostById(postId);
@@ -96,6 +115,7 @@ public class LikeAsyncHelper {
             long duration = System.currentTimeMillis() - startTime;
             logger.error("[{}] FAILED - Post fetch failed in {}ms: postId={}, error={}",
                         threadName, duration, postId, e.getMessage());
+            missingPosts.recordIfNotFound(postId, e);
             
             CompletableFuture<PostDTO> failedFuture = new CompletableFuture<>();
             failedFuture.completeExceptionally(
@@ -116,6 +136,10 @@ public class LikeAsyncHelper {
         long startTime = System.currentTimeMillis();
         
         logger.info("[{}] START - Fetching comment async: commentId={}", threadName, commentId);
+
+        if (missingComments.isKnownMissing(commentId)) {
+            return missingComments.failed(new RuntimeException("Comment not found: " + commentId));
+        }
         
         try {
             ResponseEntity<CommentDTO> response = commentFeignClient.getCommentById(commentId);
@@ -131,6 +155,7 @@ public class LikeAsyncHelper {
             long duration = System.currentTimeMillis() - startTime;
             logger.error("[{}] FAILED - Comment fetch failed in {}ms: commentId={}, error={}",
                         threadName, duration, commentId, e.getMessage());
+            missingComments.recordIfNotFound(commentId, e);
             
             CompletableFuture<CommentDTO> failedFuture = new CompletableFuture<>();
             failedFuture.completeExceptionally(
@@ -139,4 +164,4 @@ public class LikeAsyncHelper {
             return failedFuture;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.mstcc.likesms.config;
+
+import com.mstcc.likesms.entities.Like;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CacheWeigher}. The byte budgets in application.yml assume these
+ * per-like costs.
+ */
+class CacheWeigherTest {
+
+    /** A post like (152 bytes) plus its slot in the list's backing array. */
+    private static final int BYTES_PER_LIKE = 156;
+
+    private final CacheWeigher weigher = new CacheWeigher();
+
+    @Test
+    @DisplayName("a like list weighs a fixed amount per like")
+    void weigh_likeListGrowsPerLike() {
+        int oneLike = weigher.weigh(1L, likes(1, null));
+        int popular = weigher.weigh(1L, likes(1001, null));
+
+        assertThat(popular - oneLike).isEqualTo(1000 * BYTES_PER_LIKE);
+        // Entry, Long key, list header and one like
+        assertThat(oneLike).isEqualTo(64 + 16 + 40 + 8 + 152);
+    }
+
+    @Test
+    @DisplayName("a comment like also counts its comment ID")
+    void weigh_commentLikeCountsCommentId() {
+        int postLike = weigher.weigh(1L, likes(1, null));
+        int commentLike = weigher.weigh(1L, likes(1, 9L));
+
+        assertThat(commentLike - postLike).isEqualTo(16);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static List<Like> likes(int count, Long commentId) {
+        List<Like> likes = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            Like like = new Like();
+            like.setId(i);
+            like.setPostId(1L);
+            like.setCommentId(commentId);
+            like.setUserId(i + 10);
+            like.setCreatedAt(LocalDateTime.now());
+            likes.add(like);
+        }
+        return likes;
+    }
+}
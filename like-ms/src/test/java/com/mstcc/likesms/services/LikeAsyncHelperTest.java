@@ -0,0 +1,93 @@
+package com.mstcc.likesms.services;
+
+import com.mstcc.likesms.dto.PostDTO;
+import com.mstcc.likesms.feignclients.CommentFeignClient;
+import com.mstcc.likesms.feignclients.PostFeignClient;
+import com.mstcc.likesms.feignclients.UserFeignClient;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the negative caching in {@link LikeAsyncHelper}.
+ *
+ * <p>The helper is called on the bare object, so its {@code @Async} methods run on the test thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class LikeAsyncHelperTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/api/posts/20", Map.of(), null,
+            StandardCharsets.UTF_8, null);
+
+    @Mock
+    private UserFeignClient userFeignClient;
+
+    @Mock
+    private PostFeignClient postFeignClient;
+
+    @Mock
+    private CommentFeignClient commentFeignClient;
+
+    private LikeAsyncHelper asyncHelper;
+
+    @BeforeEach
+    void setUp() {
+        asyncHelper = new LikeAsyncHelper(userFeignClient, postFeignClient, commentFeignClient,
+                new ConcurrentMapCacheManager("missingUsers", "missingPosts", "missingComments"));
+    }
+
+    @Test
+    @DisplayName("a 404 from post-ms is remembered and the next lookup is answered locally")
+    void getPostAsync_whenNotFound_answersRepeatLocally() {
+        when(postFeignClient.getPostById(20L))
+                .thenThrow(new FeignException.NotFound("Not Found", REQUEST, null, Map.of()));
+
+        assertThat(asyncHelper.getPostAsync(20L)).isCompletedExceptionally();
+        assertThat(asyncHelper.getPostAsync(20L)).isCompletedExceptionally();
+
+        verify(postFeignClient, times(1)).getPostById(20L);
+    }
+
+    @Test
+    @DisplayName("a timeout or an open circuit is not remembered, so the next lookup asks again")
+    void getPostAsync_whenUnavailable_asksAgain() {
+        when(postFeignClient.getPostById(20L))
+                .thenThrow(new RetryableException(-1, "Read timed out", Request.HttpMethod.GET, (Long) null, REQUEST))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("post-ms")))
+                .thenReturn(ResponseEntity.ok(new PostDTO()));
+
+        assertThat(asyncHelper.getPostAsync(20L)).isCompletedExceptionally();
+        assertThat(asyncHelper.getPostAsync(20L)).isCompletedExceptionally();
+        assertThat(asyncHelper.getPostAsync(20L)).isCompleted().isNotCompletedExceptionally();
+
+        verify(postFeignClient, times(3)).getPostById(20L);
+    }
+
+    @Test
+    @DisplayName("users, posts and comments are remembered separately")
+    void getUserAsync_whenNotFound_doesNotMarkPostMissing() {
+        when(userFeignClient.getUserById(20L))
+                .thenThrow(new FeignException.NotFound("Not Found", REQUEST, null, Map.of()));
+        when(postFeignClient.getPostById(20L)).thenReturn(ResponseEntity.ok(new PostDTO()));
+
+        assertThat(asyncHelper.getUserAsync(20L)).isCompletedExceptionally();
+
+        assertThat(asyncHelper.getPostAsync(20L)).isNotCompletedExceptionally();
+    }
+}
@@ -5,12 +5,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Post Microservice
  * Enables Feign clients to communicate with User and Comment services
  */
 @EnableFeignClients
+@EnableScheduling
 @SpringBootApplication
 public class PostMsApplication {
 
@@ -1,40 +1,161 @@
 package com.mstcc.postsms.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.mstcc.cache.CacheAutoSizer;
+import com.mstcc.cache.HotKeySketch;
+import com.mstcc.cache.HotKeyTracker;
+import com.mstcc.cache.MissRatioCurve;
+import com.mstcc.cache.SampledCaffeineCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Cache configuration for Post microservice using Caffeine
- * Provides high-performance caching with TTL and size limits
+ * Provides high-performance caching with TTL and per-cache heap budgets
+ *
+ * <p>Caches are bounded by the estimated bytes of their entries ({@link CacheWeigher}) rather
+ * than by entry count: a post with 5000 characters of content and a page of comments weighs
+ * far more than a short one. Budgets are read from {@code cache.max-bytes.<cache>} in
+ * application.yml.
+ *
+ * <p>Budgets are ceilings: {@link CacheAutoSizer} shrinks a cache below its budget when its
+ * miss-ratio curve shows the extra memory buys almost no hits.
+ *
+ * <p>Lookups in {@link #HOT_KEY_CACHES} also feed a {@link HotKeySketch}, reported by
+ * {@link HotKeyTracker}; a pinned hot key weighs nothing, so size-based eviction skips it.
  */
 @Configuration
 @EnableCaching
+@Import({CacheAutoSizer.class, HotKeyTracker.class})
 public class CacheConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    private static final String BUDGET_PREFIX = "cache.max-bytes.";
+    private static final DataSize DEFAULT_BUDGET = DataSize.ofMegabytes(16);
+    private static final int NEGATIVE_TTL_SECONDS = 30;
+    /** Caches whose hottest keys are tracked — where a viral post shows up. */
+    private static final Set<String> HOT_KEY_CACHES = Set.of("posts");
+
+    private final CacheWeigher weigher = new CacheWeigher();
+    private final Map<String, HotKeySketch> hotKeys = new ConcurrentHashMap<>();
+
     /**
      * Configures Caffeine cache manager with optimized settings
+     * @param environment source of the per-cache byte budgets
      * @return configured cache manager
      */
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-            "posts",      // Cache for getPostById()
-            "allPosts",   // Cache for getAllPosts()
-            "userPosts"   // Cache for getPostsByUser()
-        );
-        
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-            .maximumSize(5000)                     // Max 5k entries (posts are larger than users)
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(
+                    String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                // Every cache feeds a miss-ratio curve that CacheAutoSizer sizes it from. The
+                // curve gets the plain weigher, so it ignores pinning (see MissRatioCurve)
+                long budget = cache.policy().eviction().orElseThrow().getMaximum();
+                return new SampledCaffeineCache(name, cache, isAllowNullValues(),
+                        new MissRatioCurve(budget, weigher), hotKeys.get(name));
+            }
+        };
+        cacheManager.setCacheNames(List.of());     // Only the caches registered below
+
+        // Cache for getPostById() and getPostWithCommentPreview()
+        cacheManager.registerCustomCache("posts", weighted(environment, "posts")
             .expireAfterWrite(15, TimeUnit.MINUTES) // TTL 15 minutes
             .expireAfterAccess(10, TimeUnit.MINUTES) // Evict if not accessed for 10 min
-            .recordStats());                        // Enable statistics for monitoring
-        
+            .recordStats()                          // Enable statistics for monitoring
+            .build());
+        // Cache for getRecentPosts()
+        cacheManager.registerCustomCache("allPosts", weighted(environment, "allPosts")
+            .expireAfterWrite(15, TimeUnit.MINUTES)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .recordStats()
+            .build());
+        // Cache for getPostsByUser()
+        cacheManager.registerCustomCache("userPosts", weighted(environment, "userPosts")
+            .expireAfterWrite(15, TimeUnit.MINUTES)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .recordStats()
+            .build());
+
+        // IDs the owning services recently answered 404 for — short-lived so an entity
+        // created in the meantime is not rejected for long
+        cacheManager.registerCustomCache("missingUsers", weighted(environment, "missingUsers")
+            .expireAfterWrite(NEGATIVE_TTL_SECONDS, TimeUnit.SECONDS)
+            .recordStats()
+            .build());
+        cacheManager.registerCustomCache("missingPosts", weighted(environment, "missingPosts")
+            .expireAfterWrite(NEGATIVE_TTL_SECONDS, TimeUnit.SECONDS)
+            .recordStats()
+            .build());
+
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    /**
+     * Publishes the estimated heap bytes held by each cache ({@code cache.estimated.bytes})
+     * and its budget ({@code cache.max.bytes}), tagged by cache name.
+     * @param cacheManager the Caffeine cache manager
+     * @return binder registering one pair of gauges per cache
+     */
+    @Bean
+    public MeterBinder cacheWeightMetrics(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : cacheManager.getCacheNames()) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> cache =
+                        ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+                Gauge.builder("cache.estimated.bytes", cache, CacheConfig::weightedSize)
+                        .tag("cache", name)
+                        .baseUnit("bytes")
+                        .description("Estimated heap bytes held by the cache entries")
+                        .register(registry);
+                Gauge.builder("cache.max.bytes", cache, CacheConfig::maximumWeight)
+                        .tag("cache", name)
+                        .baseUnit("bytes")
+                        .description("Current byte bound of the cache, set by CacheAutoSizer within its budget")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double weightedSize(com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    private static double maximumWeight(com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return cache.policy().eviction().map(eviction -> eviction.getMaximum()).orElse(0L);
+    }
+
+    private Caffeine<Object, Object> weighted(Environment environment, String cacheName) {
+        DataSize budget = environment.getProperty(BUDGET_PREFIX + cacheName, DataSize.class, DEFAULT_BUDGET);
+        logger.info("Cache {} bounded to {} bytes", cacheName, budget.toBytes());
+        Weigher<Object, Object> cacheWeigher = weigher;
+        if (HOT_KEY_CACHES.contains(cacheName)) {
+            HotKeySketch sketch = new HotKeySketch();
+            hotKeys.put(cacheName, sketch);
+            cacheWeigher = (key, value) -> sketch.isPinned(key) ? 0 : weigher.weigh(key, value);
+        }
+        return Caffeine.newBuilder()
+            .maximumWeight(budget.toBytes())
+            .weigher(cacheWeigher);
+    }
+}
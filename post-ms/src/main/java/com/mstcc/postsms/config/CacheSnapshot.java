@@ -0,0 +1,175 @@
+package com.mstcc.postsms.config;
+
+import com.mstcc.cache.CacheSnapshotEngine;
+import com.mstcc.cache.SnapshotCodec;
+import com.mstcc.postsms.dto.CommentDTO;
+import com.mstcc.postsms.dto.PostDTO;
+import com.mstcc.postsms.dto.UserDTO;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.mstcc.cache.SnapshotFields.readDateTime;
+import static com.mstcc.cache.SnapshotFields.readLong;
+import static com.mstcc.cache.SnapshotFields.readString;
+import static com.mstcc.cache.SnapshotFields.writeDateTime;
+import static com.mstcc.cache.SnapshotFields.writeLong;
+import static com.mstcc.cache.SnapshotFields.writeString;
+
+/**
+ * Snapshots the {@code posts} and {@code allPosts} caches across restarts, so a restarted
+ * instance does not send its first minutes of traffic to Postgres and user-ms. Keys are post
+ * IDs or strings such as {@code feed_recent_20}; values are posts or pages of posts.
+ */
+@Component
+public class CacheSnapshot extends CacheSnapshotEngine {
+
+    private static final int VERSION = 1;
+    private static final byte LONG_KEY = 0;
+    private static final byte STRING_KEY = 1;
+
+    public CacheSnapshot(CacheManager cacheManager) {
+        this(cacheManager, DEFAULT_DIRECTORY, true);
+    }
+
+    CacheSnapshot(CacheManager cacheManager, Path directory, boolean enabled) {
+        super(cacheManager, directory, enabled, VERSION, codecs());
+    }
+
+    private static Map<String, SnapshotCodec> codecs() {
+        Map<String, SnapshotCodec> codecs = new LinkedHashMap<>();
+        codecs.put("posts", new PostCodec());
+        codecs.put("allPosts", new PostListCodec());
+        return codecs;
+    }
+
+    /** A post under a post ID or a string key. */
+    private static class PostCodec implements SnapshotCodec {
+
+        @Override
+        public boolean isEncodable(Object key, Object value) {
+            return (key instanceof Long || key instanceof String) && value instanceof PostDTO;
+        }
+
+        @Override
+        public void writeKey(DataOutput out, Object key) throws IOException {
+            if (key instanceof Long id) {
+                out.writeByte(LONG_KEY);
+                out.writeLong(id);
+            } else {
+                out.writeByte(STRING_KEY);
+                writeString(out, (String) key);
+            }
+        }
+
+        @Override
+        public Object readKey(ByteBuffer buffer) {
+            byte type = buffer.get();
+            return switch (type) {
+                case LONG_KEY -> buffer.getLong();
+                case STRING_KEY -> readString(buffer);
+                default -> throw new IllegalStateException("Unknown key type in snapshot: " + type);
+            };
+        }
+
+        @Override
+        public void writeValue(DataOutput out, Object value) throws IOException {
+            writePost(out, (PostDTO) value);
+        }
+
+        @Override
+        public Object readValue(ByteBuffer buffer) {
+            return readPost(buffer);
+        }
+    }
+
+    /** A page of posts, keyed like a single post. */
+    private static final class PostListCodec extends PostCodec {
+
+        @Override
+        public boolean isEncodable(Object key, Object value) {
+            return (key instanceof Long || key instanceof String)
+                    && value instanceof List<?> list && list.stream().allMatch(PostDTO.class::isInstance);
+        }
+
+        @Override
+        public void writeValue(DataOutput out, Object value) throws IOException {
+            List<?> posts = (List<?>) value;
+            out.writeInt(posts.size());
+            for (Object post : posts) {
+                writePost(out, (PostDTO) post);
+            }
+        }
+
+        @Override
+        public Object readValue(ByteBuffer buffer) {
+            int size = buffer.getInt();
+            List<PostDTO> posts = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                posts.add(readPost(buffer));
+            }
+            return posts;
+        }
+    }
+
+    private static void writePost(DataOutput out, PostDTO post) throws IOException {
+        writeLong(out, post.getId());
+        writeString(out, post.getContent());
+        writeDateTime(out, post.getCreatedAt());
+        UserDTO user = post.getUser();
+        out.writeBoolean(user != null);
+        if (user != null) {
+            writeLong(out, user.getId());
+            writeString(out, user.getUsername());
+            writeString(out, user.getEmail());
+        }
+        List<CommentDTO> comments = post.getComments();
+        out.writeInt(comments != null ? comments.size() : -1);
+        if (comments != null) {
+            for (CommentDTO comment : comments) {
+                writeLong(out, comment.getId());
+                writeLong(out, comment.getUserId());
+                writeString(out, comment.getContent());
+            }
+        }
+        writeLong(out, post.getCommentCount());
+        writeString(out, post.getCommentsUrl());
+    }
+
+    private static PostDTO readPost(ByteBuffer buffer) {
+        PostDTO post = new PostDTO();
+        post.setId(readLong(buffer));
+        post.setContent(readString(buffer));
+        post.setCreatedAt(readDateTime(buffer));
+        if (buffer.get() != 0) {
+            UserDTO user = new UserDTO();
+            user.setId(readLong(buffer));
+            user.setUsername(readString(buffer));
+            user.setEmail(readString(buffer));
+            post.setUser(user);
+        }
+        int comments = buffer.getInt();
+        if (comments >= 0) {
+            List<CommentDTO> list = new ArrayList<>(comments);
+            for (int i = 0; i < comments; i++) {
+                CommentDTO comment = new CommentDTO();
+                comment.setId(readLong(buffer));
+                comment.setUserId(readLong(buffer));
+                comment.setContent(readString(buffer));
+                list.add(comment);
+            }
+            post.setComments(list);
+        }
+        post.setCommentCount(readLong(buffer));
+        post.setCommentsUrl(readString(buffer));
+        return post;
+    }
+}
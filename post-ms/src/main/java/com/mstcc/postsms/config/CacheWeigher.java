@@ -0,0 +1,56 @@
+package com.mstcc.postsms.config;
+
+import com.mstcc.cache.EntryWeigher;
+import com.mstcc.postsms.dto.CommentDTO;
+import com.mstcc.postsms.dto.PostDTO;
+import com.mstcc.postsms.dto.UserDTO;
+
+/**
+ * Weighs post-ms cache entries. Strings are counted at two bytes per character even though
+ * Latin-1 text is stored in one, and weighing a post with a full comment page costs one pass
+ * over its comments.
+ */
+final class CacheWeigher extends EntryWeigher {
+
+    @Override
+    protected long estimateOther(Object value) {
+        if (value instanceof PostDTO post) {
+            return post(post);
+        }
+        if (value instanceof UserDTO user) {
+            return user(user);
+        }
+        if (value instanceof CommentDTO comment) {
+            return comment(comment);
+        }
+        return super.estimateOther(value);
+    }
+
+    private long post(PostDTO post) {
+        return align(OBJECT_HEADER + 7 * REFERENCE)
+                + boxed(post.getId())
+                + string(post.getContent())
+                + dateTime(post.getCreatedAt())
+                + user(post.getUser())
+                + list(post.getComments())
+                + boxed(post.getCommentCount())
+                + string(post.getCommentsUrl());
+    }
+
+    private static long user(UserDTO user) {
+        if (user == null) {
+            return 0;
+        }
+        return align(OBJECT_HEADER + 3 * REFERENCE)
+                + boxed(user.getId())
+                + string(user.getUsername())
+                + string(user.getEmail());
+    }
+
+    private static long comment(CommentDTO comment) {
+        return align(OBJECT_HEADER + 3 * REFERENCE)
+                + boxed(comment.getId())
+                + boxed(comment.getUserId())
+                + string(comment.getContent());
+    }
+}
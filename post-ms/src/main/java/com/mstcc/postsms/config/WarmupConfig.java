@@ -0,0 +1,60 @@
+package com.mstcc.postsms.config;
+
+import com.mstcc.cache.StartupWarmup;
+import com.mstcc.postsms.dto.PostDTO;
+import com.netflix.appinfo.ApplicationInfoManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Startup warm-up of post-ms. After the feed queries in {@code warmup.requests}, it reads up to
+ * {@code warmup.hot-posts} posts: the hottest entries of the {@code posts} cache, which
+ * {@link CacheSnapshot} restored, followed by the posts of the feed pages the queries just
+ * cached.
+ */
+@Configuration
+public class WarmupConfig {
+
+    private static final String POST_PATH = "/api/posts/";
+
+    @Bean
+    public StartupWarmup startupWarmup(CacheManager cacheManager,
+                                       ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                                       Environment environment) {
+        int hotPosts = Binder.get(environment).bind("warmup.hot-posts", Integer.class).orElse(50);
+        return new StartupWarmup(POST_PATH, () -> hotPostIds(cacheManager, hotPosts), applicationInfoManager,
+                environment);
+    }
+
+    static Set<Long> hotPostIds(CacheManager cacheManager, int limit) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (cacheManager.getCache("posts") instanceof CaffeineCache posts) {
+            posts.getNativeCache().policy().eviction().ifPresent(eviction -> {
+                for (Object key : eviction.hottest(limit).keySet()) {
+                    if (key instanceof Long id) {
+                        ids.add(id);
+                    }
+                }
+            });
+        }
+        if (cacheManager.getCache("allPosts") instanceof CaffeineCache feeds) {
+            for (Object page : feeds.getNativeCache().asMap().values()) {
+                for (Object post : page instanceof List<?> list ? list : List.of()) {
+                    if (ids.size() < limit && post instanceof PostDTO dto && dto.getId() != null) {
+                        ids.add(dto.getId());
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+}
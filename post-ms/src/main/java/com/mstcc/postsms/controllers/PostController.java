@@ -11,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST controller for Post operations.
@@ -25,6 +26,8 @@ import java.util.List;
 public class PostController {
 
     private static final Logger logger = LoggerFactory.getLogger(PostController.class);
+    private static final int MAX_PREVIEW_COMMENTS = 10;
+    private static final int MAX_ID_PAGE_SIZE = 10000;
 
     private final PostService postService;
 
@@ -51,14 +54,27 @@ public class PostController {
 
     /**
      * Retrieves a post by ID.
-     * @param id post ID
-     * @return post if found, 404 otherwise
+     * When {@code previewComments} is given, only that many latest comments are embedded,
+     * together with {@code commentCount} and {@code commentsUrl} to fetch the rest.
+     * @param id              post ID
+     * @param previewComments optional number of latest comments to embed (capped at 10)
+     * @return post if found, 404 otherwise; 400 if previewComments is not positive
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PostDTO> getPostById(@PathVariable Long id) {
-        logger.info("GET /api/posts/{} - Fetching post by id", id);
-        return postService.getPostById(id)
-                .map(post -> {
+    public ResponseEntity<?> getPostById(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer previewComments) {
+        logger.info("GET /api/posts/{} - Fetching post by id (previewComments={})", id, previewComments);
+        if (previewComments != null && previewComments <= 0) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.of(400, "Bad Request", "previewComments must be greater than 0"));
+        }
+        Optional<PostDTO> result = previewComments != null
+                ? postService.getPostWithCommentPreview(id, Math.min(previewComments, MAX_PREVIEW_COMMENTS))
+                : postService.getPostById(id);
+        return result
+                .<ResponseEntity<?>>map(post -> {
                     logger.info("Post found: id={}", id);
                     return ResponseEntity.ok(post);
                 })
@@ -143,4 +159,24 @@ public class PostController {
         boolean exists = postService.existsById(id);
         return ResponseEntity.ok(exists);
     }
+
+    /**
+     * Returns a page of post IDs in ascending order.
+     * Used by comment-ms to seed its local post existence filter without per-post calls.
+     * @param afterId exclusive lower bound; pass the last ID of the previous page (defaults to 0)
+     * @param limit   maximum number of IDs (defaults to 1000, capped at 10000)
+     * @return 200 with the IDs (empty when exhausted), or 400 if limit is not positive
+     */
+    @GetMapping("/ids")
+    public ResponseEntity<?> getPostIds(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "1000") int limit) {
+        logger.info("GET /api/posts/ids - Fetching post IDs after {} (limit={})", afterId, limit);
+        if (limit <= 0) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.of(400, "Bad Request", "limit must be greater than 0"));
+        }
+        return ResponseEntity.ok(postService.getPostIdsAfter(afterId, Math.min(limit, MAX_ID_PAGE_SIZE)));
+    }
 }
@@ -0,0 +1,27 @@
+package com.mstcc.postsms.dto;
+
+import java.util.List;
+
+/**
+ * One page of comments as returned by comment-ms {@code GET /api/comments/post/{postId}}.
+ */
+public class CommentPageDTO {
+    private List<CommentDTO> items;
+    private String nextCursor;
+
+    public List<CommentDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CommentDTO> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
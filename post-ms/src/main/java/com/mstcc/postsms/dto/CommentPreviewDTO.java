@@ -0,0 +1,37 @@
+package com.mstcc.postsms.dto;
+
+import java.util.List;
+
+/**
+ * Latest comments and total count of a post, as returned by comment-ms
+ * {@code POST /api/comments/preview}.
+ */
+public class CommentPreviewDTO {
+    private Long postId;
+    private long totalCount;
+    private List<CommentDTO> comments;
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public List<CommentDTO> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<CommentDTO> comments) {
+        this.comments = comments;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mstcc.postsms.dto;
+
+import java.util.List;
+
+/**
+ * Request body for comment-ms {@code POST /api/comments/preview}.
+ */
+public class CommentPreviewRequest {
+    private List<Long> postIds;
+    private Integer limit;
+
+    public CommentPreviewRequest() {
+    }
+
+    public CommentPreviewRequest(List<Long> postIds, Integer limit) {
+        this.postIds = postIds;
+        this.limit = limit;
+    }
+
+    public List<Long> getPostIds() {
+        return postIds;
+    }
+
+    public void setPostIds(List<Long> postIds) {
+        this.postIds = postIds;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
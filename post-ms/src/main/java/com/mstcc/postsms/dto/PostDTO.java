@@ -1,5 +1,6 @@
 package com.mstcc.postsms.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.mstcc.postsms.entities.Post;
 
 import java.time.LocalDateTime;
@@ -12,6 +13,12 @@ public class PostDTO {
     private UserDTO user;
     private List<CommentDTO> comments;
 
+    // Only populated in comment-preview mode
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long commentCount;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String commentsUrl;
+
     public PostDTO() {
     }
 
@@ -62,4 +69,20 @@ public class PostDTO {
     public void setComments(List<CommentDTO> comments) {
         this.comments = comments;
     }
-}
\ No newline at end of file
+
+    public Long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(Long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public String getCommentsUrl() {
+        return commentsUrl;
+    }
+
+    public void setCommentsUrl(String commentsUrl) {
+        this.commentsUrl = commentsUrl;
+    }
+}
@@ -1,16 +1,52 @@
 package com.mstcc.postsms.feignclients;
 
-import com.mstcc.postsms.dto.CommentDTO;
+import com.mstcc.postsms.dto.CommentPageDTO;
+import com.mstcc.postsms.dto.CommentPreviewDTO;
+import com.mstcc.postsms.dto.CommentPreviewRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
 @FeignClient(name = "comment-ms", path = "/api/comments")
 public interface CommentFeignClient {
 
+    /**
+     * Fetches the first page of a post's comments (oldest first).
+     * @param postId the post ID
+     * @param limit  maximum number of comments in the page
+     * @return ResponseEntity containing the comment page
+     */
     @GetMapping("/post/{postId}")
-    ResponseEntity<List<CommentDTO>> getCommentsByPostId(@PathVariable("postId") Long postId);
+    ResponseEntity<CommentPageDTO> getCommentsByPostId(@PathVariable("postId") Long postId,
+                                                       @RequestParam("limit") int limit);
+
+    /**
+     * Fetches the latest comments and total comment count of the given posts.
+     * @param request post IDs and number of comments per post
+     * @return ResponseEntity containing one preview per post
+     */
+    @PostMapping("/preview")
+    ResponseEntity<List<CommentPreviewDTO>> getCommentPreviews(@RequestBody CommentPreviewRequest request);
+
+    /**
+     * Notifies comment-ms that a post was created, so its existence filter learns the ID.
+     * @param postId the new post ID
+     * @return empty response
+     */
+    @PostMapping("/post-events/{postId}/created")
+    ResponseEntity<Void> postCreated(@PathVariable("postId") Long postId);
+
+    /**
+     * Notifies comment-ms that a post was deleted, so it stops trusting cached positives.
+     * @param postId the deleted post ID
+     * @return empty response
+     */
+    @PostMapping("/post-events/{postId}/deleted")
+    ResponseEntity<Void> postDeleted(@PathVariable("postId") Long postId);
 }
@@ -1,7 +1,10 @@
 package com.mstcc.postsms.repositories;
 
 import com.mstcc.postsms.entities.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +16,10 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      * Find all posts by a specific user
      */
     List<Post> findByUserId(Long userId);
+
+    /**
+     * Keyset page of post IDs in ascending order, read from the primary key index only
+     */
+    @Query("SELECT p.id FROM Post p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package com.mstcc.postsms.services;
 
+import com.mstcc.cache.NegativeCache;
 import com.mstcc.postsms.feignclients.CommentFeignClient;
 import com.mstcc.postsms.feignclients.UserFeignClient;
 import com.mstcc.postsms.dto.CommentDTO;
+import com.mstcc.postsms.dto.CommentPageDTO;
+import com.mstcc.postsms.dto.CommentPreviewDTO;
+import com.mstcc.postsms.dto.CommentPreviewRequest;
 import com.mstcc.postsms.dto.UserDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
@@ -21,14 +26,21 @@ import java.util.concurrent.CompletableFuture;
 public class PostAsyncHelper {
     
     private static final Logger logger = LoggerFactory.getLogger(PostAsyncHelper.class);
+
+    /** Comments embedded in a post response — bounded so popular posts keep a fixed payload. */
+    private static final int COMMENTS_PAGE_SIZE = 20;
     
     private final UserFeignClient userFeignClient;
     private final CommentFeignClient commentFeignClient;
+    /** IDs the owning service recently answered 404 for (see CacheConfig). */
+    private final NegativeCache missingUsers;
 
     public PostAsyncHelper(UserFeignClient userFeignClient, 
-                          CommentFeignClient commentFeignClient) {
+                          CommentFeignClient commentFeignClient,
+                          CacheManager cacheManager) {
         this.userFeignClient = userFeignClient;
         this.commentFeignClient = commentFeignClient;
+        this.missingUsers = new NegativeCache(cacheManager, "missingUsers");
     }
 
     /**
@@ -42,6 +54,10 @@ public class PostAsyncHelper {
         long startTime = System.currentTimeMillis();
         
         logger.info("[{}] START - Fetching user async: userId={}", threadName, userId);
+
+        if (missingUsers.isKnownMissing(userId)) {
+            return missingUsers.failed(new RuntimeException("User not found: " + userId));
+        }
         
         try {
             ResponseEntity<UserDTO> response = userFeignClient.getUserById(userId);
@@ -57,6 +73,7 @@ public class PostAsyncHelper {
             long duration = System.currentTimeMillis() - startTime;
             logger.error("[{}] FAILED - User fetch failed in {}ms: userId={}, error={}", 
                         threadName, duration, userId, e.getMessage());
+            missingUsers.recordIfNotFound(userId, e);
             
             CompletableFuture<UserDTO> failedFuture = new CompletableFuture<>();
             failedFuture.completeExceptionally(
@@ -67,9 +84,9 @@ public class PostAsyncHelper {
     }
 
     /**
-     * Fetches comments for a post asynchronously
+     * Fetches the first page of comments for a post asynchronously
      * @param postId the post ID
-     * @return CompletableFuture containing list of comments
+     * @return CompletableFuture containing at most {@value #COMMENTS_PAGE_SIZE} comments
      */
     @Async("taskExecutor")
     public CompletableFuture<List<CommentDTO>> getCommentsAsync(Long postId) {
@@ -79,8 +96,10 @@ public class PostAsyncHelper {
         logger.info("[{}] START - Fetching comments async: postId={}", threadName, postId);
         
         try {
-            ResponseEntity<List<CommentDTO>> response = commentFeignClient.getCommentsByPostId(postId);
-            List<CommentDTO> comments = response.getBody();
+            ResponseEntity<CommentPageDTO> response =
+                    commentFeignClient.getCommentsByPostId(postId, COMMENTS_PAGE_SIZE);
+            CommentPageDTO page = response.getBody();
+            List<CommentDTO> comments = page != null ? page.getItems() : null;
             
             long duration = System.currentTimeMillis() - startTime;
             logger.info("[{}] SUCCESS - Comments fetched in {}ms: postId={}, count={}", 
@@ -97,4 +116,69 @@ public class PostAsyncHelper {
             return CompletableFuture.completedFuture(List.of());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches the latest comments and total comment count of a post asynchronously
+     * @param postId the post ID
+     * @param limit  number of latest comments to include
+     * @return CompletableFuture containing the preview, or null if comment-ms is unavailable
+     */
+    @Async("taskExecutor")
+    public CompletableFuture<CommentPreviewDTO> getCommentPreviewAsync(Long postId, int limit) {
+        String threadName = Thread.currentThread().getName();
+        long startTime = System.currentTimeMillis();
+
+        logger.info("[{}] START - Fetching comment preview async: postId={}, limit={}", threadName, postId, limit);
+
+        try {
+            ResponseEntity<List<CommentPreviewDTO>> response =
+                    commentFeignClient.getCommentPreviews(new CommentPreviewRequest(List.of(postId), limit));
+            List<CommentPreviewDTO> previews = response.getBody();
+            CommentPreviewDTO preview = previews != null && !previews.isEmpty() ? previews.get(0) : null;
+
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("[{}] SUCCESS - Comment preview fetched in {}ms: postId={}, total={}",
+                       threadName, duration, postId, preview != null ? preview.getTotalCount() : 0);
+
+            return CompletableFuture.completedFuture(preview);
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.warn("[{}] WARN - Comment preview fetch failed in {}ms: postId={}, returning no preview",
+                       threadName, duration, postId);
+
+            // Comments are optional - the post is still returned without them
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Notifies comment-ms of a new post asynchronously (fire-and-forget).
+     * Failures are logged only: comment-ms falls back to remote checks until its next rebuild.
+     * @param postId the new post ID
+     */
+    @Async("taskExecutor")
+    public void notifyPostCreatedAsync(Long postId) {
+        try {
+            commentFeignClient.postCreated(postId);
+        } catch (Exception e) {
+            logger.warn("[{}] WARN - Post created notification failed: postId={}, error={}",
+                       Thread.currentThread().getName(), postId, e.getMessage());
+        }
+    }
+
+    /**
+     * Notifies comment-ms of a deleted post asynchronously (fire-and-forget).
+     * Failures are logged only: comment-ms drops deleted posts on its next rebuild.
+     * @param postId the deleted post ID
+     */
+    @Async("taskExecutor")
+    public void notifyPostDeletedAsync(Long postId) {
+        try {
+            commentFeignClient.postDeleted(postId);
+        } catch (Exception e) {
+            logger.warn("[{}] WARN - Post deleted notification failed: postId={}, error={}",
+                       Thread.currentThread().getName(), postId, e.getMessage());
+        }
+    }
+}
@@ -26,6 +26,16 @@ public interface PostService {
      */
     Optional<PostDTO> getPostById(Long id);
 
+    /**
+     * Returns a post by ID with user populated and only a preview of its comments:
+     * the latest {@code commentLimit} comments, the total comment count and a link
+     * to the paginated comment listing.
+     * @param id           post ID
+     * @param commentLimit number of latest comments to embed
+     * @return optional containing the post DTO if found
+     */
+    Optional<PostDTO> getPostWithCommentPreview(Long id, int commentLimit);
+
     /**
      * Returns all posts by a user.
      * @param userId user ID
@@ -63,4 +73,13 @@ public interface PostService {
      * @return true if the post exists
      */
     boolean existsById(Long id);
+
+    /**
+     * Returns post IDs greater than {@code afterId} in ascending order.
+     * Used by comment-ms to seed its local post existence filter.
+     * @param afterId exclusive lower bound (0 for the first page)
+     * @param limit   maximum number of IDs to return
+     * @return ascending list of post IDs, empty when there are no more
+     */
+    List<Long> getPostIdsAfter(Long afterId, int limit);
 }
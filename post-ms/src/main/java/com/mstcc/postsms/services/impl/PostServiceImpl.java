@@ -1,6 +1,7 @@
 package com.mstcc.postsms.services.impl;
 
 import com.mstcc.postsms.dto.CommentDTO;
+import com.mstcc.postsms.dto.CommentPreviewDTO;
 import com.mstcc.postsms.dto.PostDTO;
 import com.mstcc.postsms.dto.UserDTO;
 import com.mstcc.postsms.entities.Post;
@@ -10,12 +11,16 @@ import com.mstcc.postsms.services.PostService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -33,6 +38,10 @@ import java.util.stream.Collectors;
  * <p>
  * SRP: this class owns all post business logic.
  * DIP: implements {@link PostService}; callers depend on the interface, not this class.
+ * <p>
+ * IDs found not to exist are remembered for a short time in the {@code missingPosts} cache
+ * rather than as empty entries in the long-lived {@code posts} cache, so repeated lookups of
+ * deleted or bogus IDs skip the database without pinning "absent" answers for 15 minutes.
  */
 @Service
 @Transactional(readOnly = true)
@@ -40,17 +49,22 @@ public class PostServiceImpl implements PostService {
 
     private static final Logger logger = LoggerFactory.getLogger(PostServiceImpl.class);
     private static final int FETCH_TIMEOUT_SECONDS = 5;
+    private static final String COMMENTS_URL_TEMPLATE = "/api/comments/post/%d";
+    private static final String MISSING_POSTS = "missingPosts";
 
     private final PostRepository postRepository;
     private final PostAsyncHelper asyncHelper;
     private final Executor taskExecutor;
+    private final CacheManager cacheManager;
 
     public PostServiceImpl(PostRepository postRepository,
                            PostAsyncHelper asyncHelper,
-                           @Qualifier("taskExecutor") Executor taskExecutor) {
+                           @Qualifier("taskExecutor") Executor taskExecutor,
+                           CacheManager cacheManager) {
         this.postRepository = postRepository;
         this.asyncHelper = asyncHelper;
         this.taskExecutor = taskExecutor;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -64,13 +78,13 @@ public class PostServiceImpl implements PostService {
      * @param id post ID
      * @return optional containing post DTO if found; enrichment fields may be null on upstream failure
      */
-    @Cacheable(value = "posts", key = "#id")
+    @Cacheable(value = "posts", key = "#id", unless = "#result == null")
     @Override
     public Optional<PostDTO> getPostById(Long id) {
         logger.info("Fetching post by id: {}", id);
         long startTime = System.currentTimeMillis();
 
-        return postRepository.findById(id).map(post -> {
+        return findPost(id).map(post -> {
             UserDTO user = null;
             List<CommentDTO> comments = List.of();
 
@@ -104,6 +118,67 @@ public class PostServiceImpl implements PostService {
         });
     }
 
+    /**
+     * Retrieves a post by ID with user enrichment and a bounded comment preview.
+     *
+     * <p>Instead of the first page of comments, only the latest {@code commentLimit}
+     * comments and the total count are embedded, plus {@code commentsUrl} pointing at
+     * the paginated listing in comment-ms. Response size and cache entry weight stay
+     * fixed however many comments the post has. Upstream failures degrade the same way
+     * as {@link #getPostById(Long)}; {@code commentCount} is left null when comment-ms
+     * could not be reached.
+     *
+     * @param id           post ID
+     * @param commentLimit number of latest comments to embed
+     * @return optional containing post DTO if found
+     */
+    @Cacheable(value = "posts", key = "'preview_' + #id + '_' + #commentLimit", unless = "#result == null")
+    @Override
+    public Optional<PostDTO> getPostWithCommentPreview(Long id, int commentLimit) {
+        logger.info("Fetching post with comment preview - postId: {}, commentLimit: {}", id, commentLimit);
+        long startTime = System.currentTimeMillis();
+
+        return findPost(id).map(post -> {
+            UserDTO user = null;
+            CommentPreviewDTO preview = null;
+
+            try {
+                CompletableFuture<UserDTO> userFuture = asyncHelper.getUserAsync(post.getUserId());
+                CompletableFuture<CommentPreviewDTO> previewFuture =
+                        asyncHelper.getCommentPreviewAsync(post.getId(), commentLimit);
+
+                CompletableFuture.allOf(userFuture, previewFuture)
+                    .get(FETCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+                user = userFuture.get();
+                preview = previewFuture.get();
+
+            } catch (TimeoutException e) {
+                logger.warn("Timeout fetching enrichment data for postId: {} after {}s — returning partial response",
+                           id, FETCH_TIMEOUT_SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted fetching enrichment data for postId: {}", id);
+            } catch (ExecutionException e) {
+                logger.warn("Failed to fetch enrichment data for postId: {}, error: {}",
+                           id, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+
+            List<CommentDTO> comments = preview != null && preview.getComments() != null
+                    ? preview.getComments()
+                    : List.of();
+            PostDTO dto = new PostDTO(post, user, comments);
+            dto.setCommentCount(preview != null ? preview.getTotalCount() : null);
+            dto.setCommentsUrl(String.format(COMMENTS_URL_TEMPLATE, post.getId()));
+
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info("Post with comment preview fetched in {}ms - postId: {}, comments: {}/{}",
+                       duration, id, comments.size(), dto.getCommentCount());
+
+            return dto;
+        });
+    }
+
     /**
      * Retrieves recent posts as a lightweight feed — no cross-service enrichment.
      *
@@ -191,6 +266,9 @@ public class PostServiceImpl implements PostService {
         post.setCreatedAt(LocalDateTime.now());
 
         Post savedPost = postRepository.save(post);
+        evictMissing(savedPost.getId());
+        // Only once committed: comment-ms trusts the notification without asking post-ms
+        afterCommit(() -> asyncHelper.notifyPostCreatedAsync(savedPost.getId()));
 
         // Attempt to enrich with user data; degrade gracefully if user-ms is unavailable.
         // The post is already persisted — do NOT fail the request due to an enrichment error.
@@ -288,6 +366,7 @@ public class PostServiceImpl implements PostService {
         }
 
         postRepository.deleteById(id);
+        afterCommit(() -> asyncHelper.notifyPostDeletedAsync(id));
         logger.info("Post deleted successfully - postId: {}", id);
     }
 
@@ -299,6 +378,60 @@ public class PostServiceImpl implements PostService {
      */
     @Override
     public boolean existsById(Long id) {
-        return postRepository.existsById(id);
+        Cache missing = cacheManager.getCache(MISSING_POSTS);
+        if (missing != null && missing.get(id) != null) {
+            return false;
+        }
+        boolean exists = postRepository.existsById(id);
+        if (!exists && missing != null) {
+            missing.put(id, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    /**
+     * Returns a keyset page of post IDs.
+     * Pure local read on the primary key index — no Feign calls and no caching.
+     * @param afterId exclusive lower bound (0 for the first page)
+     * @param limit   maximum number of IDs to return
+     * @return ascending list of post IDs
+     */
+    @Override
+    public List<Long> getPostIdsAfter(Long afterId, int limit) {
+        return postRepository.findIdsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    /** Loads a post unless it was recently found missing; a new miss is remembered. */
+    private Optional<Post> findPost(Long id) {
+        Cache missing = cacheManager.getCache(MISSING_POSTS);
+        if (missing != null && missing.get(id) != null) {
+            logger.info("Post recently not found, skipping lookup - postId: {}", id);
+            return Optional.empty();
+        }
+        Optional<Post> post = postRepository.findById(id);
+        if (post.isEmpty() && missing != null) {
+            missing.put(id, Boolean.TRUE);
+        }
+        return post;
+    }
+
+    private void evictMissing(Long id) {
+        Cache missing = cacheManager.getCache(MISSING_POSTS);
+        if (missing != null) {
+            missing.evict(id);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
@@ -0,0 +1,48 @@
+package com.mstcc.postsms.config;
+
+import com.mstcc.cache.HotKeyTracker;
+import com.mstcc.cache.SampledCaffeineCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the caches built by {@link CacheConfig}.
+ */
+class CacheConfigTest {
+
+    @Test
+    @DisplayName("with pinning enabled the hottest post weighs nothing against the posts budget")
+    void refresh_pinsHottestKeyAtZeroWeight() {
+        MockEnvironment environment = new MockEnvironment().withProperty("cache.hot-keys.pin", "true");
+        CacheManager cacheManager = new CacheConfig().cacheManager(environment);
+        SampledCaffeineCache posts = (SampledCaffeineCache) cacheManager.getCache("posts");
+        posts.put(1L, "x".repeat(1000));
+        long weightBefore = weightedSize(posts);
+        for (int i = 0; i < 8_000; i++) {
+            posts.get(1L);
+        }
+
+        new HotKeyTracker(cacheManager, new SimpleMeterRegistry(), environment).refresh();
+
+        assertThat(posts.hotKeys().pinned()).isEqualTo(Set.of(1L));
+        assertThat(weightBefore).isGreaterThan(2_000);
+        assertThat(weightedSize(posts)).isZero();
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /** Weighted size once Caffeine has applied pending writes. */
+    private static long weightedSize(SampledCaffeineCache cache) {
+        cache.getNativeCache().cleanUp();
+        return cache.getNativeCache().policy().eviction().orElseThrow().weightedSize().orElseThrow();
+    }
+}
@@ -0,0 +1,144 @@
+package com.mstcc.postsms.config;
+
+import com.mstcc.postsms.dto.CommentDTO;
+import com.mstcc.postsms.dto.PostDTO;
+import com.mstcc.postsms.dto.UserDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CacheSnapshot}.
+ */
+class CacheSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("posts and the recent feed survive a restart and the snapshot is consumed")
+    void restart_restoresPostsAndFeed() {
+        CacheManager before = cacheManager();
+        PostDTO post = post();
+        before.getCache("posts").put(1L, post);
+        before.getCache("posts").put("preview_1_3", post);
+        before.getCache("allPosts").put("feed_recent_20", List.of(post));
+        new CacheSnapshot(before, directory, true).stop();
+
+        CacheManager after = cacheManager();
+        new CacheSnapshot(after, directory, true).start();
+
+        PostDTO restored = after.getCache("posts").get(1L, PostDTO.class);
+        assertThat(restored).usingRecursiveComparison().isEqualTo(post);
+        assertThat(after.getCache("posts").get("preview_1_3", PostDTO.class)).usingRecursiveComparison().isEqualTo(post);
+        List<?> feed = after.getCache("allPosts").get("feed_recent_20", List.class);
+        assertThat(feed).hasSize(1);
+        assertThat(feed.get(0)).usingRecursiveComparison().isEqualTo(post);
+        assertThat(directory.resolve("cache.snapshot")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("entries past their TTL at startup are discarded")
+    void restart_discardsExpiredEntries() throws IOException {
+        CacheManager before = cacheManager();
+        before.getCache("posts").put(1L, post());
+        new CacheSnapshot(before, directory, true).stop();
+        // Pretend the snapshot was written 20 minutes ago — past the 15 minute write TTL
+        backdate(directory.resolve("cache.snapshot"), 20 * 60_000L);
+
+        CacheManager after = cacheManager();
+        new CacheSnapshot(after, directory, true).start();
+
+        assertThat(after.getCache("posts").get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("a restored entry is removed when its original write TTL runs out")
+    void restart_expiresRestoredEntriesOnTime() throws IOException, InterruptedException {
+        CacheManager before = cacheManager();
+        before.getCache("posts").put(1L, post());
+        new CacheSnapshot(before, directory, true).stop();
+        // Written 300ms short of the 15 minute write TTL, but read recently
+        setFirstWriteAge(directory.resolve("cache.snapshot"), 15 * 60_000L - 300);
+
+        CacheManager after = cacheManager();
+        new CacheSnapshot(after, directory, true).start();
+        assertThat(after.getCache("posts").get(1L)).isNotNull();
+        Thread.sleep(1_000);
+
+        assertThat(after.getCache("posts").get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("an unreadable snapshot is skipped and the caches start cold")
+    void restart_ignoresCorruptSnapshot() throws IOException {
+        Files.write(directory.resolve("cache.snapshot"), new byte[] {1, 2, 3});
+
+        CacheManager after = cacheManager();
+        new CacheSnapshot(after, directory, true).start();
+
+        assertThat(after.getCache("posts").get(1L)).isNull();
+        assertThat(directory.resolve("cache.snapshot")).doesNotExist();
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static CacheManager cacheManager() {
+        return new CacheConfig().cacheManager(new MockEnvironment());
+    }
+
+    private static PostDTO post() {
+        UserDTO user = new UserDTO();
+        user.setId(7L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        CommentDTO comment = new CommentDTO();
+        comment.setId(3L);
+        comment.setUserId(8L);
+        comment.setContent("Olá, mundo");
+        PostDTO post = new PostDTO();
+        post.setId(1L);
+        post.setContent("Hello");
+        post.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000));
+        post.setUser(user);
+        post.setComments(List.of(comment));
+        post.setCommentCount(1L);
+        return post;
+    }
+
+    /** Moves the snapshot's written-at timestamp, which follows the magic and version, back in time. */
+    private static void backdate(Path snapshot, long millis) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer timestamp = ByteBuffer.allocate(Long.BYTES);
+            channel.read(timestamp, 8);
+            timestamp.flip();
+            long writtenAt = timestamp.getLong();
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, writtenAt - millis), 8);
+        }
+    }
+
+    /**
+     * Overwrites the write age of the first {@code posts} entry, which follows the header (magic,
+     * version, timestamp, cache count), the cache name and the entry count.
+     */
+    private static void setFirstWriteAge(Path snapshot, long millis) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, millis), 20 + 4 + "posts".length() + 4);
+        }
+    }
+}
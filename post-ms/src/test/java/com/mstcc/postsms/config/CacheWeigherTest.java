@@ -0,0 +1,89 @@
+package com.mstcc.postsms.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mstcc.postsms.dto.CommentDTO;
+import com.mstcc.postsms.dto.PostDTO;
+import com.mstcc.postsms.dto.UserDTO;
+import com.mstcc.postsms.entities.Post;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CacheWeigher}.
+ */
+class CacheWeigherTest {
+
+    private final CacheWeigher weigher = new CacheWeigher();
+
+    @Test
+    @DisplayName("a post weighs in proportion to its content and embedded comments")
+    void weigh_growsWithContentAndComments() {
+        PostDTO small = post("Hi", List.of());
+        PostDTO large = post("x".repeat(5000), comments(20, 500));
+
+        int smallWeight = weigher.weigh(1L, small);
+        int largeWeight = weigher.weigh(1L, large);
+
+        assertThat(smallWeight).isLessThan(1_000);
+        // 5000 chars of content plus 20 comments of 500 chars, two bytes per char
+        assertThat(largeWeight).isGreaterThan(2 * (5000 + 20 * 500));
+    }
+
+    @Test
+    @DisplayName("a weighted cache evicts down to its byte budget rather than an entry count")
+    void weightedCache_staysWithinBudget() {
+        long budget = 256 * 1024;
+        Cache<Object, Object> cache = Caffeine.newBuilder()
+                .maximumWeight(budget)
+                .weigher(weigher)
+                .executor(Runnable::run)
+                .build();
+
+        for (long id = 1; id <= 200; id++) {
+            cache.put(id, post("x".repeat(5000), List.of()));
+        }
+        cache.cleanUp();
+
+        long weighted = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertThat(weighted).isLessThanOrEqualTo(budget);
+        assertThat(cache.estimatedSize()).isLessThan(200);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static PostDTO post(String content, List<CommentDTO> comments) {
+        Post post = new Post();
+        post.setId(1L);
+        post.setUserId(10L);
+        post.setContent(content);
+        post.setCreatedAt(LocalDateTime.now());
+
+        UserDTO user = new UserDTO();
+        user.setId(10L);
+        user.setUsername("vitor");
+        user.setEmail("vitor@example.com");
+
+        return new PostDTO(post, user, comments);
+    }
+
+    private static List<CommentDTO> comments(int count, int length) {
+        List<CommentDTO> comments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CommentDTO comment = new CommentDTO();
+            comment.setId((long) i);
+            comment.setUserId(10L);
+            comment.setContent("c".repeat(length));
+            comments.add(comment);
+        }
+        return comments;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mstcc.postsms.config;
+
+import com.mstcc.postsms.dto.PostDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link WarmupConfig}.
+ */
+class WarmupConfigTest {
+
+    @Test
+    @DisplayName("hot posts are the cached posts followed by the posts of cached feed pages")
+    void hotPostIds_takesPostsThenFeedPages() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(new MockEnvironment());
+        cacheManager.getCache("posts").put(7L, post(7L));
+        cacheManager.getCache("posts").put("preview_7_3", post(7L));
+        cacheManager.getCache("allPosts").put("feed_recent_20", List.of(post(8L), post(7L)));
+
+        assertThat(WarmupConfig.hotPostIds(cacheManager, 50)).containsExactly(7L, 8L);
+    }
+
+    @Test
+    @DisplayName("feed posts stop once the limit is reached")
+    void hotPostIds_stopsAtLimit() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(new MockEnvironment());
+        cacheManager.getCache("allPosts").put("feed_recent_20", List.of(post(8L), post(9L), post(10L)));
+
+        assertThat(WarmupConfig.hotPostIds(cacheManager, 2)).containsExactly(8L, 9L);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static PostDTO post(Long id) {
+        PostDTO post = new PostDTO();
+        post.setId(id);
+        post.setContent("Hello");
+        return post;
+    }
+}
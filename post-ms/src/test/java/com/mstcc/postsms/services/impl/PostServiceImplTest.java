@@ -1,6 +1,7 @@
 package com.mstcc.postsms.services.impl;
 
 import com.mstcc.postsms.dto.CommentDTO;
+import com.mstcc.postsms.dto.CommentPreviewDTO;
 import com.mstcc.postsms.dto.PostDTO;
 import com.mstcc.postsms.dto.UserDTO;
 import com.mstcc.postsms.entities.Post;
@@ -12,6 +13,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -44,6 +48,7 @@ class PostServiceImplTest {
     /** Synchronous executor: runs tasks on the calling thread, eliminating async non-determinism. */
     private final Executor syncExecutor = Runnable::run;
 
+    private ConcurrentMapCacheManager cacheManager;
     private PostServiceImpl postService;
 
     private Post post;
@@ -52,7 +57,8 @@ class PostServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        postService = new PostServiceImpl(postRepository, asyncHelper, syncExecutor);
+        cacheManager = new ConcurrentMapCacheManager("missingPosts");
+        postService = new PostServiceImpl(postRepository, asyncHelper, syncExecutor, cacheManager);
 
         post = new Post();
         post.setId(1L);
@@ -114,6 +120,52 @@ class PostServiceImplTest {
         assertThat(result.get().getContent()).isEqualTo("Hello world");
     }
 
+    // -------------------------------------------------------------------------
+    // getPostWithCommentPreview
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("getPostWithCommentPreview embeds preview comments, total count and comments link")
+    void getPostWithCommentPreview_whenExists_returnsPreview() {
+        CommentDTO latest = new CommentDTO();
+        latest.setId(7L);
+        CommentPreviewDTO preview = new CommentPreviewDTO();
+        preview.setPostId(1L);
+        preview.setTotalCount(1500L);
+        preview.setComments(List.of(latest));
+
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(asyncHelper.getUserAsync(10L))
+                .thenReturn(CompletableFuture.completedFuture(userDTO));
+        when(asyncHelper.getCommentPreviewAsync(1L, 3))
+                .thenReturn(CompletableFuture.completedFuture(preview));
+
+        Optional<PostDTO> result = postService.getPostWithCommentPreview(1L, 3);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getComments()).containsExactly(latest);
+        assertThat(result.get().getCommentCount()).isEqualTo(1500L);
+        assertThat(result.get().getCommentsUrl()).isEqualTo("/api/comments/post/1");
+        verify(asyncHelper, never()).getCommentsAsync(any());
+    }
+
+    @Test
+    @DisplayName("getPostWithCommentPreview leaves count null when comment-ms is unavailable (graceful degradation)")
+    void getPostWithCommentPreview_whenPreviewUnavailable_returnsPostWithoutCount() {
+        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
+        when(asyncHelper.getUserAsync(10L))
+                .thenReturn(CompletableFuture.completedFuture(userDTO));
+        when(asyncHelper.getCommentPreviewAsync(1L, 3))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        Optional<PostDTO> result = postService.getPostWithCommentPreview(1L, 3);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getComments()).isEmpty();
+        assertThat(result.get().getCommentCount()).isNull();
+        assertThat(result.get().getUser()).isEqualTo(userDTO);
+    }
+
     // -------------------------------------------------------------------------
     // createPost
     // -------------------------------------------------------------------------
@@ -134,6 +186,30 @@ class PostServiceImplTest {
         assertThat(result.getContent()).isEqualTo("Hello world");
         assertThat(result.getUser()).isEqualTo(userDTO);
         verify(postRepository).save(any(Post.class));
+        verify(asyncHelper).notifyPostCreatedAsync(1L);
+    }
+
+    @Test
+    @DisplayName("createPost notifies comment-ms only after the transaction commits")
+    void createPost_insideTransaction_notifiesAfterCommit() {
+        PostDTO input = new PostDTO();
+        input.setContent("New post");
+        input.setUser(userDTO);
+        when(postRepository.save(any(Post.class))).thenReturn(post);
+        when(asyncHelper.getUserAsync(10L))
+                .thenReturn(CompletableFuture.completedFuture(userDTO));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postService.createPost(input);
+            verify(asyncHelper, never()).notifyPostCreatedAsync(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(asyncHelper).notifyPostCreatedAsync(1L);
     }
 
     @Test
@@ -156,6 +232,21 @@ class PostServiceImplTest {
         verify(postRepository).save(any(Post.class));
     }
 
+    @Test
+    @DisplayName("createPost clears a negative entry for the new post ID")
+    void createPost_evictsMissingEntry() {
+        cacheManager.getCache("missingPosts").put(1L, Boolean.TRUE);
+        when(postRepository.save(any(Post.class))).thenReturn(post);
+        when(asyncHelper.getUserAsync(10L)).thenReturn(CompletableFuture.completedFuture(userDTO));
+        PostDTO request = new PostDTO();
+        request.setUser(userDTO);
+        request.setContent("Hello world");
+
+        postService.createPost(request);
+
+        assertThat(cacheManager.getCache("missingPosts").get(1L)).isNull();
+    }
+
     // -------------------------------------------------------------------------
     // updatePostContentByUser
     // -------------------------------------------------------------------------
@@ -209,6 +300,7 @@ class PostServiceImplTest {
         assertThatCode(() -> postService.deletePost(1L)).doesNotThrowAnyException();
 
         verify(postRepository).deleteById(1L);
+        verify(asyncHelper).notifyPostDeletedAsync(1L);
     }
 
     @Test
@@ -242,4 +334,17 @@ class PostServiceImplTest {
 
         assertThat(postService.existsById(99L)).isFalse();
     }
+
+    @Test
+    @DisplayName("a post recently found missing is answered without the database")
+    void existsById_whenKnownMissing_skipsRepository() {
+        when(postRepository.existsById(99L)).thenReturn(false);
+
+        assertThat(postService.existsById(99L)).isFalse();
+        assertThat(postService.existsById(99L)).isFalse();
+        assertThat(postService.getPostById(99L)).isEmpty();
+
+        verify(postRepository, times(1)).existsById(99L);
+        verify(postRepository, never()).findById(99L);
+    }
 }
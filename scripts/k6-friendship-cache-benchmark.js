@@ -0,0 +1,151 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+// ═══════════════════════════════════════════════════════════════
+// 📊 BENCHMARK DE CACHE - userFriendships (friendship-ms)
+// ═══════════════════════════════════════════════════════════════
+// Carga mista de leituras (listagem de amizades por usuário, com
+// usuários "quentes") e escritas (criação/remoção de amizades).
+// Mede a taxa de acerto do cache userFriendships no Actuator do
+// friendship-ms antes e depois da carga.
+//
+// Rode uma vez contra o build anterior (evicção allEntries) e outra
+// contra o build atual (evicção apenas dos dois usuários da amizade)
+// para comparar o hit ratio:
+//
+//   k6 run -e BASE_URL=http://localhost:18765 \
+//          -e FRIENDSHIP_URL=http://localhost:18085 \
+//          k6-friendship-cache-benchmark.js
+// ═══════════════════════════════════════════════════════════════
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:18765';
+const FRIENDSHIP_URL = __ENV.FRIENDSHIP_URL || 'http://localhost:18085';
+const USER_COUNT = parseInt(__ENV.USER_COUNT || '200');
+const WRITE_RATIO = parseFloat(__ENV.WRITE_RATIO || '0.05');
+const HOT_USERS = Math.max(1, Math.floor(USER_COUNT / 10));
+
+const reads = new Counter('friend_list_reads');
+const writes = new Counter('friendship_writes');
+
+export const options = {
+  scenarios: {
+    mixed_load: {
+      executor: 'constant-vus',
+      vus: parseInt(__ENV.VUS || '20'),
+      duration: __ENV.DURATION || '2m',
+    },
+  },
+  thresholds: {
+    'http_req_failed{operation:list_friends}': ['rate<0.01'],
+  },
+};
+
+// ═══════════════════════════════════════════════════════════════
+// 🎯 FUNÇÕES AUXILIARES
+// ═══════════════════════════════════════════════════════════════
+function randomInt(min, max) {
+  return Math.floor(Math.random() * (max - min + 1)) + min;
+}
+
+// 80% das leituras vão para 10% dos usuários, como em um feed real
+function pickUser(userIds) {
+  if (Math.random() < 0.8) {
+    return userIds[randomInt(0, HOT_USERS - 1)];
+  }
+  return userIds[randomInt(0, userIds.length - 1)];
+}
+
+function cacheGets(result) {
+  const url = `${FRIENDSHIP_URL}/actuator/metrics/cache.gets?tag=cache:userFriendships&tag=result:${result}`;
+  const res = http.get(url, { tags: { operation: 'actuator' } });
+  if (res.status !== 200) {
+    return 0;
+  }
+  return res.json().measurements[0].value;
+}
+
+function snapshot() {
+  return { hits: cacheGets('hit'), misses: cacheGets('miss') };
+}
+
+// ═══════════════════════════════════════════════════════════════
+// ⚙️ SETUP - cria usuários e mede o cache antes da carga
+// ═══════════════════════════════════════════════════════════════
+export function setup() {
+  console.log(`👤 Criando ${USER_COUNT} usuários...`);
+  const userIds = [];
+  for (let i = 0; i < USER_COUNT; i++) {
+    const payload = JSON.stringify({
+      username: `Cache Bench ${i}`,
+      email: `cachebench${i}_${Date.now()}@test.com`,
+      password: 'test123'
+    });
+    const res = http.post(`${BASE_URL}/user-ms/api/users`, payload, {
+      headers: { 'Content-Type': 'application/json' },
+      tags: { operation: 'setup' },
+    });
+    if (res.status === 201 || res.status === 200) {
+      userIds.push(res.json().id);
+    }
+  }
+  console.log(`✅ ${userIds.length} usuários criados`);
+
+  return { userIds, before: snapshot() };
+}
+
+// ═══════════════════════════════════════════════════════════════
+// 🎬 CARGA MISTA
+// ═══════════════════════════════════════════════════════════════
+const createdIds = [];
+
+export default function (data) {
+  const userIds = data.userIds;
+
+  if (Math.random() >= WRITE_RATIO) {
+    const res = http.get(`${BASE_URL}/friendship-ms/api/friendships/user/${pickUser(userIds)}`, {
+      tags: { operation: 'list_friends' },
+    });
+    check(res, { 'list friends: status 200': (r) => r.status === 200 });
+    reads.add(1);
+    return;
+  }
+
+  if (createdIds.length > 0 && Math.random() < 0.5) {
+    const id = createdIds.splice(randomInt(0, createdIds.length - 1), 1)[0];
+    http.del(`${BASE_URL}/friendship-ms/api/friendships/${id}`, null, {
+      tags: { operation: 'delete_friendship' },
+    });
+  } else {
+    const userId1 = userIds[randomInt(0, userIds.length - 1)];
+    let userId2 = userIds[randomInt(0, userIds.length - 1)];
+    if (userId1 === userId2) {
+      userId2 = userIds[(userIds.indexOf(userId1) + 1) % userIds.length];
+    }
+    const res = http.post(`${BASE_URL}/friendship-ms/api/friendships`,
+      JSON.stringify({ userId1, userId2, status: 'ACCEPTED' }), {
+        headers: { 'Content-Type': 'application/json' },
+        tags: { operation: 'create_friendship' },
+      });
+    if (res.status === 201) {
+      createdIds.push(res.json().id);
+    }
+  }
+  writes.add(1);
+}
+
+// ═══════════════════════════════════════════════════════════════
+// 📈 TEARDOWN - hit ratio do cache durante a carga
+// ═══════════════════════════════════════════════════════════════
+export function teardown(data) {
+  const after = snapshot();
+  const hits = after.hits - data.before.hits;
+  const misses = after.misses - data.before.misses;
+  const total = hits + misses;
+  const ratio = total > 0 ? (hits / total) * 100 : 0;
+
+  console.log('');
+  console.log('📊 Cache userFriendships durante a carga:');
+  console.log(`   hits: ${hits}, misses: ${misses}, hit ratio: ${ratio.toFixed(1)}%`);
+  console.log('');
+}
@@ -202,10 +202,10 @@ function listUsers() {
     timeout: '10s',
   };
   
-  const res = http.get(`${BASE_URL}/user-ms/api/users`, params);
+  const res = http.get(`${BASE_URL}/user-ms/api/users?limit=100`, params);
   const result = handleResponse(res, getOperationTime, 'List Users');
   
-  return result.success && result.data ? result.data : [];
+  return result.success && result.data ? result.data.items : [];
 }
 
 // 👤 BUSCAR USUÁRIO POR ID
@@ -70,7 +70,9 @@ build_all() {
     echo -e "${BLUE}[BUILD] Building all services...${NC}"
     echo ""
 
+    # cache-support is a library the services depend on, so it is installed first
     local services=(
+        "cache-support:Cache Support"
         "eureka-server-ms:Eureka Server"
         "user-ms:User Service"
         "post-ms:Post Service"
@@ -89,7 +91,9 @@ build_all() {
         ((count++)) || true
         echo -e "${CYAN}[$count/$total] $name${NC}"
         cd "$PROJECT_ROOT/$dir"
-        if mvn clean package -DskipTests -q 2>/tmp/build_${dir}.log; then
+        local goal=package
+        [ "$dir" = "cache-support" ] && goal=install
+        if mvn clean $goal -DskipTests -q 2>/tmp/build_${dir}.log; then
             echo -e "  ${GREEN}OK${NC}"
         else
             echo -e "  ${RED}FALHOU - ver /tmp/build_${dir}.log${NC}"
@@ -2,11 +2,13 @@ package com.mstcc.userms;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for User Microservice
  * This service does not call other services, so no Feign client needed
  */
+@EnableScheduling
 @SpringBootApplication
 public class UserMsApplication {
 
@@ -0,0 +1,96 @@
+package com.mstcc.userms.config;
+
+import com.mstcc.cache.CacheSnapshotEngine;
+import com.mstcc.cache.SnapshotCodec;
+import com.mstcc.userms.entities.User;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+
+import static com.mstcc.cache.SnapshotFields.readDateTime;
+import static com.mstcc.cache.SnapshotFields.readLong;
+import static com.mstcc.cache.SnapshotFields.readString;
+import static com.mstcc.cache.SnapshotFields.writeDateTime;
+import static com.mstcc.cache.SnapshotFields.writeLong;
+import static com.mstcc.cache.SnapshotFields.writeString;
+
+/**
+ * Snapshots the {@code users} cache across restarts, so a restarted instance does not answer
+ * the first minutes of user lookups from every other service out of Postgres. Users are
+ * written without their password, and the file is readable by its owner only where the file
+ * system supports it, as it holds e-mail addresses.
+ */
+@Component
+public class CacheSnapshot extends CacheSnapshotEngine {
+
+    /** Version 2 dropped the password from snapshotted users. */
+    private static final int VERSION = 2;
+
+    public CacheSnapshot(CacheManager cacheManager) {
+        this(cacheManager, DEFAULT_DIRECTORY, true);
+    }
+
+    CacheSnapshot(CacheManager cacheManager, Path directory, boolean enabled) {
+        super(cacheManager, directory, enabled, VERSION, Map.of("users", new UserCodec()));
+    }
+
+    @Override
+    protected FileAttribute<?>[] fileAttributes() {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[] {PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))};
+    }
+
+    /** A user under its ID. */
+    private static final class UserCodec implements SnapshotCodec {
+
+        @Override
+        public boolean isEncodable(Object key, Object value) {
+            return key instanceof Long && value instanceof User;
+        }
+
+        @Override
+        public void writeKey(DataOutput out, Object key) throws IOException {
+            out.writeLong((Long) key);
+        }
+
+        @Override
+        public Object readKey(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+
+        /**
+         * Writes a user without its password. Restored users carry none, which is safe because the
+         * {@code users} cache is only read by {@code GET /api/users/{id}}, whose response omits it.
+         */
+        @Override
+        public void writeValue(DataOutput out, Object value) throws IOException {
+            User user = (User) value;
+            writeLong(out, user.getId());
+            writeString(out, user.getUsername());
+            writeString(out, user.getEmail());
+            writeDateTime(out, user.getCreatedAt());
+            writeLong(out, user.getChangeVersion());
+        }
+
+        @Override
+        public Object readValue(ByteBuffer buffer) {
+            User user = new User();
+            user.setId(readLong(buffer));
+            user.setUsername(readString(buffer));
+            user.setEmail(readString(buffer));
+            user.setCreatedAt(readDateTime(buffer));
+            user.setChangeVersion(readLong(buffer));
+            return user;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.mstcc.userms.config;
+
+import com.mstcc.cache.EntryWeigher;
+import com.mstcc.userms.entities.User;
+
+/**
+ * Weighs user-ms cache entries. Lookups by username repeat the username in the key, which is
+ * counted as well.
+ */
+final class CacheWeigher extends EntryWeigher {
+
+    @Override
+    protected long estimateOther(Object value) {
+        if (value instanceof User user) {
+            return user(user);
+        }
+        return super.estimateOther(value);
+    }
+
+    private static long user(User user) {
+        return align(OBJECT_HEADER + 6 * REFERENCE)
+                + boxed(user.getId())
+                + string(user.getUsername())
+                + string(user.getEmail())
+                + string(user.getPassword())
+                + dateTime(user.getCreatedAt())
+                + boxed(user.getChangeVersion());
+    }
+}
@@ -0,0 +1,33 @@
+package com.mstcc.userms.config;
+
+import com.mstcc.userms.repositories.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the change-feed version sequence and assigns a version to users written before
+ * the column existed, so every user appears in the feed from {@code since=0}.
+ * Runs once per startup and is a no-op once all rows have a version.
+ */
+@Component
+public class ChangeFeedMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedMigration.class);
+
+    private final UserRepository userRepository;
+
+    public ChangeFeedMigration(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void backfillChangeVersions() {
+        userRepository.createChangeVersionSequence();
+        int updated = userRepository.backfillChangeVersions();
+        if (updated > 0) {
+            logger.info("Assigned change-feed versions to {} existing users", updated);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.mstcc.userms.config;
+
+import com.mstcc.cache.StartupWarmup;
+import com.netflix.appinfo.ApplicationInfoManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Startup warm-up of user-ms. After the queries in {@code warmup.requests}, it reads up to
+ * {@code warmup.hot-users} users: the hottest entries of the {@code users} cache, which
+ * {@link CacheSnapshot} restored. Without a snapshot only the configured queries are replayed.
+ */
+@Configuration
+public class WarmupConfig {
+
+    private static final String USER_PATH = "/api/users/";
+
+    @Bean
+    public StartupWarmup startupWarmup(CacheManager cacheManager,
+                                       ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                                       Environment environment) {
+        int hotUsers = Binder.get(environment).bind("warmup.hot-users", Integer.class).orElse(100);
+        return new StartupWarmup(USER_PATH, () -> hotUserIds(cacheManager, hotUsers), applicationInfoManager,
+                environment);
+    }
+
+    static Set<Long> hotUserIds(CacheManager cacheManager, int limit) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (cacheManager.getCache("users") instanceof CaffeineCache users) {
+            users.getNativeCache().policy().eviction().ifPresent(eviction -> {
+                for (Object key : eviction.hottest(limit).keySet()) {
+                    if (key instanceof Long id) {
+                        ids.add(id);
+                    }
+                }
+            });
+        }
+        return ids;
+    }
+}
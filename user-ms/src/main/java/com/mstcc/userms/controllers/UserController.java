@@ -1,17 +1,28 @@
 package com.mstcc.userms.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mstcc.userms.dto.UserChangePageDTO;
 import com.mstcc.userms.dto.UserCreateDTO;
 import com.mstcc.userms.dto.UserResponseDTO;
 import com.mstcc.userms.entities.User;
+import com.mstcc.userms.exception.ErrorResponse;
+import com.mstcc.userms.services.UserChangeFeed;
 import com.mstcc.userms.services.UserService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * REST controller for User operations.
@@ -24,26 +35,59 @@ import java.util.List;
 public class UserController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
+    private static final int MAX_EXISTENCE_CHECKS = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int MAX_CHANGES = 1000;
+    private static final int MAX_CHANGE_WAIT_SECONDS = 30;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     private final UserService userService;
+    private final UserChangeFeed changeFeed;
+    private final ObjectWriter userWriter;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserChangeFeed changeFeed, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.changeFeed = changeFeed;
+        this.userWriter = objectMapper.writerFor(UserResponseDTO.class);
     }
 
     /**
-     * Returns all registered users.
+     * Returns one page of users ordered by ID.
      *
-     * @return 200 with list of user response DTOs
+     * @param afterId {@code nextAfterId} of the previous page (omit for the first page)
+     * @param limit   maximum number of users (defaults to 20, capped at 100)
+     * @return 200 with the page (items may be empty), or 400 if limit is not positive
      */
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        logger.info("GET /api/users - Fetching all users");
-        List<UserResponseDTO> users = userService.findAllUsers().stream()
-                .map(UserResponseDTO::from)
-                .toList();
-        logger.info("Returning {} users", users.size());
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getUsers(@RequestParam(defaultValue = "0") Long afterId,
+                                      @RequestParam(defaultValue = "20") int limit) {
+        logger.info("GET /api/users - Fetching users (afterId={}, limit={})", afterId, limit);
+        if (limit <= 0) {
+            return invalidLimit();
+        }
+        return ResponseEntity.ok(userService.findUsers(afterId, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Streams every user as newline-delimited JSON, one {@link UserResponseDTO} per line.
+     * Users are serialised as they are read from the database, so memory use per request
+     * is constant regardless of the number of users.
+     *
+     * @return 200 with an {@code application/x-ndjson} body
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        logger.info("GET /api/users/export - Streaming all users");
+        StreamingResponseBody body = out -> userService.exportUsers(user -> {
+            try {
+                out.write(userWriter.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     /**
@@ -66,6 +110,75 @@ public class UserController {
                 });
     }
 
+    /**
+     * User change feed for downstream replicas: upserts and deletions after a version, in
+     * version order. With {@code waitSeconds} the request long-polls, returning as soon as a
+     * change commits, or with an empty page when the wait runs out.
+     *
+     * @param since       {@code lastVersion} of the previous page (0 for a full sync)
+     * @param limit       maximum number of changes (defaults to 100, capped at 1000)
+     * @param waitSeconds how long to wait when there are no changes (defaults to 0, capped at 30)
+     * @return 200 with the changes, or 400 if a parameter is out of range
+     */
+    @GetMapping("/changes")
+    public DeferredResult<ResponseEntity<?>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                        @RequestParam(defaultValue = "100") int limit,
+                                                        @RequestParam(defaultValue = "0") int waitSeconds) {
+        logger.info("GET /api/users/changes - Fetching changes (since={}, limit={}, waitSeconds={})",
+                since, limit, waitSeconds);
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+        if (limit <= 0) {
+            result.setResult(invalidLimit());
+            return result;
+        }
+        if (since < 0 || waitSeconds < 0) {
+            result.setResult(ResponseEntity.badRequest()
+                    .body(ErrorResponse.of(400, "Bad Request", "since and waitSeconds must not be negative")));
+            return result;
+        }
+
+        int pageSize = Math.min(limit, MAX_CHANGES);
+        UserChangePageDTO page = userService.findChanges(since, pageSize);
+        if (!page.changes().isEmpty() || waitSeconds == 0) {
+            result.setResult(ResponseEntity.ok(page));
+            return result;
+        }
+
+        DeferredResult<ResponseEntity<?>> poll =
+                new DeferredResult<>(Math.min(waitSeconds, MAX_CHANGE_WAIT_SECONDS) * 1000L, ResponseEntity.ok(page));
+        Runnable onChange = () -> {
+            if (!poll.isSetOrExpired()) {
+                poll.setResult(ResponseEntity.ok(userService.findChanges(since, pageSize)));
+            }
+        };
+        // Runs after a timeout or a dropped connection too, so idle waiters do not pile up
+        poll.onCompletion(() -> changeFeed.cancel(onChange));
+        changeFeed.awaitChangeAfter(since, onChange);
+        return poll;
+    }
+
+    /**
+     * Finds users whose username starts with a prefix, ignoring case, for mentions and
+     * autocomplete. Served from an in-memory index.
+     *
+     * @param prefix username prefix (must not be blank)
+     * @param limit  maximum number of matches (defaults to 10, capped at 50)
+     * @return 200 with matches ordered by username, or 400 if prefix is blank or limit is not positive
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchUsers(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") int limit) {
+        logger.info("GET /api/users/search - Searching usernames (prefix={}, limit={})", prefix, limit);
+        if (prefix.isBlank()) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorResponse.of(400, "Bad Request", "prefix must not be blank"));
+        }
+        if (limit <= 0) {
+            return invalidLimit();
+        }
+        return ResponseEntity.ok(userService.searchByUsernamePrefix(prefix, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
     /**
      * Returns a single user by username.
      *
@@ -147,4 +260,30 @@ public class UserController {
         logger.info("GET /api/users/{}/exists - Checking user existence", id);
         return ResponseEntity.ok(userService.existsById(id));
     }
-}
\ No newline at end of file
+
+    /**
+     * Batch existence check used by other microservices to validate many users in one call.
+     *
+     * @param ids user IDs to check (at most 1000)
+     * @return 200 with the IDs that exist, or 400 if the list is missing, contains nulls or is too long
+     */
+    @PostMapping("/exists")
+    public ResponseEntity<?> findExistingUserIds(@RequestBody List<Long> ids) {
+        logger.info("POST /api/users/exists - Checking existence of {} users", ids == null ? 0 : ids.size());
+        if (ids == null || ids.stream().anyMatch(Objects::isNull)) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorResponse.of(400, "Bad Request", "user IDs must not be null"));
+        }
+        if (ids.size() > MAX_EXISTENCE_CHECKS) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorResponse.of(400, "Bad Request",
+                            "at most " + MAX_EXISTENCE_CHECKS + " user IDs can be checked per request"));
+        }
+        return ResponseEntity.ok(userService.findExistingIds(ids));
+    }
+
+    private static ResponseEntity<ErrorResponse> invalidLimit() {
+        return ResponseEntity.badRequest()
+                .body(ErrorResponse.of(400, "Bad Request", "limit must be positive"));
+    }
+}
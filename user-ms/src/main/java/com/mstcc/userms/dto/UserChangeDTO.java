@@ -0,0 +1,26 @@
+package com.mstcc.userms.dto;
+
+import com.mstcc.userms.entities.User;
+import com.mstcc.userms.entities.UserTombstone;
+
+/**
+ * One entry of the user change feed: the latest state of a user, or its deletion.
+ *
+ * @param version  change-feed version, increasing in commit order
+ * @param type     {@code UPSERT} or {@code DELETE}
+ * @param id       user ID
+ * @param username username, null for deletions
+ * @param email    email address, null for deletions
+ */
+public record UserChangeDTO(long version, Type type, Long id, String username, String email) {
+
+    public enum Type { UPSERT, DELETE }
+
+    public static UserChangeDTO upsert(User user) {
+        return new UserChangeDTO(user.getChangeVersion(), Type.UPSERT, user.getId(), user.getUsername(), user.getEmail());
+    }
+
+    public static UserChangeDTO delete(UserTombstone tombstone) {
+        return new UserChangeDTO(tombstone.getChangeVersion(), Type.DELETE, tombstone.getUserId(), null, null);
+    }
+}
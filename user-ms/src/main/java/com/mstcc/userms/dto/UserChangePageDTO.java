@@ -0,0 +1,12 @@
+package com.mstcc.userms.dto;
+
+import java.util.List;
+
+/**
+ * One page of the user change feed.
+ *
+ * @param changes     changes in version order; only the latest write of each user is kept
+ * @param lastVersion pass as {@code since} to fetch the next page; unchanged if the page is empty
+ */
+public record UserChangePageDTO(List<UserChangeDTO> changes, long lastVersion) {
+}
@@ -0,0 +1,12 @@
+package com.mstcc.userms.dto;
+
+import java.util.List;
+
+/**
+ * One page of the user directory.
+ *
+ * @param items       users on this page, ordered by ID
+ * @param nextAfterId pass as {@code afterId} to fetch the next page; null on the last page
+ */
+public record UserPageDTO(List<UserResponseDTO> items, Long nextAfterId) {
+}
@@ -0,0 +1,11 @@
+package com.mstcc.userms.dto;
+
+/**
+ * Minimal user projection for lookups that only need to identify and display a user,
+ * such as mention autocomplete.
+ *
+ * @param id       unique identifier
+ * @param username display name
+ */
+public record UserSummaryDTO(Long id, String username) {
+}
@@ -7,7 +7,11 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(
+    name = "users",
+    // The change feed reads users written after a given version
+    indexes = @Index(name = "idx_users_change_version", columnList = "change_version")
+)
 @Getter
 @Setter
 public class User {
@@ -27,6 +31,10 @@ public class User {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    /** Change-feed version of the last write to this user. */
+    @Column(name = "change_version")
+    private Long changeVersion;
+
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
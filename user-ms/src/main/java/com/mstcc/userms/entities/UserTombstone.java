@@ -0,0 +1,44 @@
+package com.mstcc.userms.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records a deleted user so the change feed can report the deletion after the row is gone.
+ * User IDs are never reused, so there is at most one tombstone per ID.
+ */
+@Entity
+@Table(
+    name = "user_tombstones",
+    indexes = @Index(name = "idx_user_tombstones_change_version", columnList = "change_version")
+)
+@Getter
+@Setter
+public class UserTombstone {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
+    @Column(name = "deleted_at", updatable = false)
+    private LocalDateTime deletedAt;
+
+    protected UserTombstone() {
+    }
+
+    public UserTombstone(Long userId, Long changeVersion) {
+        this.userId = userId;
+        this.changeVersion = changeVersion;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        deletedAt = LocalDateTime.now();
+    }
+}
@@ -1,10 +1,60 @@
 package com.mstcc.userms.repositories;
 
+import com.mstcc.userms.dto.UserResponseDTO;
 import com.mstcc.userms.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination: seeks past afterId on the primary key instead of counting an OFFSET
+    @Query("SELECT new com.mstcc.userms.dto.UserResponseDTO(u.id, u.username, u.email) " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponseDTO> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Server-side cursor: PostgreSQL fetches 500 rows at a time (auto-commit is off),
+    // and DTO projections are not managed entities, so the persistence context stays empty
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.mstcc.userms.dto.UserResponseDTO(u.id, u.username, u.email) FROM User u ORDER BY u.id")
+    Stream<UserResponseDTO> streamAll();
+
+    @Query("SELECT u FROM User u WHERE u.changeVersion > :since ORDER BY u.changeVersion")
+    List<User> findChangedAfter(@Param("since") Long since, Pageable pageable);
+
+    // Takes the next change-feed version under a transaction-scoped advisory lock. The lock is held
+    // until commit, so writers commit in version order and a reader that has seen version v will
+    // never later find an uncommitted version below v appear.
+    @Query(value = "SELECT nextval('user_change_version_seq') FROM (SELECT pg_advisory_xact_lock(4404)) AS lock",
+           nativeQuery = true)
+    Long nextChangeVersion();
+
+    @Modifying
+    @Transactional
+    @Query(value = "CREATE SEQUENCE IF NOT EXISTS user_change_version_seq", nativeQuery = true)
+    void createChangeVersionSequence();
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE users SET change_version = nextval('user_change_version_seq') WHERE change_version IS NULL",
+           nativeQuery = true)
+    int backfillChangeVersions();
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.mstcc.userms.repositories;
+
+import com.mstcc.userms.entities.UserTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+    List<UserTombstone> findByChangeVersionGreaterThanOrderByChangeVersionAsc(Long since, Pageable pageable);
+}
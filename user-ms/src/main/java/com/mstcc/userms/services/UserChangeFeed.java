@@ -0,0 +1,74 @@
+package com.mstcc.userms.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wakes long-polling change-feed readers when a user write commits.
+ *
+ * <p>A reader that found no changes after its {@code since} version registers a callback;
+ * the next committed write runs every registered callback once on a dedicated thread, so the
+ * writer's after-commit hook never waits for readers to re-query. A reader that gives up
+ * first (timeout, disconnect) cancels its callback so it does not linger until the next write.
+ */
+@Component
+public class UserChangeFeed {
+
+    private final AtomicLong latestVersion = new AtomicLong();
+    private final Set<Runnable> waiters = ConcurrentHashMap.newKeySet();
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "UserChangeFeed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Records a committed change and wakes every waiting reader.
+     *
+     * @param version change-feed version of the committed write
+     */
+    public void published(long version) {
+        latestVersion.accumulateAndGet(version, Math::max);
+        for (Runnable waiter : waiters) {
+            // Whoever removes a waiter runs it, so a concurrent cancel or publish cannot double-run it
+            if (waiters.remove(waiter)) {
+                notifier.execute(waiter);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code onChange} once a change after {@code since} is published, or right away if
+     * one already was. A reader that stops waiting should {@link #cancel} the callback.
+     *
+     * @param since    last version the reader has seen
+     * @param onChange callback run at most once
+     */
+    public void awaitChangeAfter(long since, Runnable onChange) {
+        waiters.add(onChange);
+        // A change published between the reader's query and the registration above
+        if (latestVersion.get() > since && waiters.remove(onChange)) {
+            notifier.execute(onChange);
+        }
+    }
+
+    /**
+     * Drops a callback registered with {@link #awaitChangeAfter} that has not run yet.
+     *
+     * @param onChange the registered callback
+     */
+    public void cancel(Runnable onChange) {
+        waiters.remove(onChange);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdownNow();
+    }
+}
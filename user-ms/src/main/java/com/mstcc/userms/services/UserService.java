@@ -1,9 +1,15 @@
 package com.mstcc.userms.services;
 
+import com.mstcc.userms.dto.UserChangePageDTO;
+import com.mstcc.userms.dto.UserPageDTO;
+import com.mstcc.userms.dto.UserResponseDTO;
+import com.mstcc.userms.dto.UserSummaryDTO;
 import com.mstcc.userms.entities.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Contract for user management operations.
@@ -14,10 +20,19 @@ import java.util.Optional;
 public interface UserService {
 
     /**
-     * Returns all registered users.
-     * @return unordered list of all users
+     * Returns one page of users ordered by ID, starting after {@code afterId}.
+     * @param afterId ID of the last user of the previous page (0 for the first page)
+     * @param limit   maximum number of users
+     * @return the page and the {@code afterId} of the next one
      */
-    List<User> findAllUsers();
+    UserPageDTO findUsers(Long afterId, int limit);
+
+    /**
+     * Streams every user, ordered by ID, to a consumer without loading them all into memory.
+     * @param sink receives each user as it is read
+     * @return number of users streamed
+     */
+    long exportUsers(Consumer<UserResponseDTO> sink);
 
     /**
      * Looks up a user by primary key.
@@ -33,6 +48,24 @@ public interface UserService {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Returns user upserts and deletions written after a change-feed version, in version order.
+     * Used by other services to keep a local replica of user summaries current.
+     * @param since last version already applied by the caller (0 for a full sync)
+     * @param limit maximum number of changes
+     * @return the changes and the version to pass as {@code since} next time
+     */
+    UserChangePageDTO findChanges(long since, int limit);
+
+    /**
+     * Finds users whose username starts with a prefix, ignoring case.
+     * Used for mention and autocomplete lookups.
+     * @param prefix username prefix
+     * @param limit  maximum number of matches
+     * @return matches ordered by username
+     */
+    List<UserSummaryDTO> searchByUsernamePrefix(String prefix, int limit);
+
     /**
      * Persists a new user after validating username uniqueness.
      * @param user user entity to save
@@ -64,4 +97,12 @@ public interface UserService {
      * @return true if the user exists
      */
     boolean existsById(Long id);
+
+    /**
+     * Returns which of the given user IDs exist, in a single query.
+     * Used by other services to validate many users at once.
+     * @param ids user IDs to check
+     * @return the IDs that belong to existing users
+     */
+    List<Long> findExistingIds(Collection<Long> ids);
 }
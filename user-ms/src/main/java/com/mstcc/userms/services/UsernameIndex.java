@@ -0,0 +1,291 @@
+package com.mstcc.userms.services;
+
+import com.mstcc.userms.dto.UserResponseDTO;
+import com.mstcc.userms.dto.UserSummaryDTO;
+import com.mstcc.userms.repositories.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory, case-insensitive username prefix index for autocomplete and mentions.
+ *
+ * <p>The base index is three parallel arrays sorted by lower-cased username: the sort keys,
+ * the user IDs and the original usernames. A prefix lookup is one binary search followed by
+ * a scan of the matching run, so it takes microseconds and never issues a {@code LIKE 'x%'}
+ * query, which the {@code users} table has no index for.
+ *
+ * <p>The arrays are immutable; writes go to a small sorted overlay that shadows the base
+ * entries it shares a key with, and removals are recorded as tombstones. Once the overlay
+ * grows past a fraction of the index it is merged into fresh arrays and swapped in
+ * atomically. Reads are lock-free; writes are serialised and applied only after their
+ * transaction commits.
+ *
+ * <p>The index is loaded from the database at startup and is kept current by the writes of
+ * this instance, which is the only user-ms instance in the deployment.
+ */
+@Component
+public class UsernameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsernameIndex.class);
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+    private static final int COMPACTION_DIVISOR = 8;
+    /** Separates the lower-cased username from the ID in a sort key; sorts before any username character. */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final UserRepository userRepository;
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new long[0], new String[0],
+            new ConcurrentSkipListMap<>());
+
+    public UsernameIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Loads every username from the database, paging by ID.
+     */
+    @PostConstruct
+    public void load() {
+        long startTime = System.currentTimeMillis();
+
+        List<Entry> entries = new ArrayList<>();
+        long afterId = 0;
+        while (true) {
+            List<UserResponseDTO> page = userRepository.findPageAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (UserResponseDTO user : page) {
+                entries.add(new Entry(key(user.username(), user.id()), user.id(), user.username()));
+            }
+            if (page.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).id();
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+
+        synchronized (writeLock) {
+            snapshot = build(entries);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Username index loaded in {}ms - users: {}", duration, entries.size());
+    }
+
+    /**
+     * Returns the users whose username starts with a prefix, ignoring case.
+     *
+     * @param prefix username prefix
+     * @param limit  maximum number of matches
+     * @return matches ordered by lower-cased username (may be empty)
+     */
+    public List<UserSummaryDTO> search(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        List<UserSummaryDTO> matches = new ArrayList<>(Math.min(limit, 64));
+
+        int i = Arrays.binarySearch(current.keys, lower);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        Iterator<Map.Entry<String, Entry>> overlay = current.overlay.tailMap(lower, true).entrySet().iterator();
+        Map.Entry<String, Entry> pending = nextMatch(overlay, lower);
+
+        while (matches.size() < limit) {
+            String baseKey = i < current.keys.length && current.keys[i].startsWith(lower) ? current.keys[i] : null;
+            if (baseKey == null && pending == null) {
+                break;
+            }
+            int cmp = baseKey == null ? 1 : pending == null ? -1 : baseKey.compareTo(pending.getKey());
+            if (cmp < 0) {
+                matches.add(new UserSummaryDTO(current.ids[i], current.usernames[i]));
+                i++;
+                continue;
+            }
+            // The overlay shadows a base entry with the same key
+            if (cmp == 0) {
+                i++;
+            }
+            Entry entry = pending.getValue();
+            if (!entry.isRemoved()) {
+                matches.add(new UserSummaryDTO(entry.id, entry.username));
+            }
+            pending = nextMatch(overlay, lower);
+        }
+        return matches;
+    }
+
+    /**
+     * Number of usernames in the index.
+     *
+     * @return indexed user count
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        int size = current.keys.length;
+        for (Map.Entry<String, Entry> e : current.overlay.entrySet()) {
+            boolean inBase = Arrays.binarySearch(current.keys, e.getKey()) >= 0;
+            if (e.getValue().isRemoved()) {
+                size -= inBase ? 1 : 0;
+            } else {
+                size += inBase ? 0 : 1;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Indexes a new user once the current transaction commits.
+     *
+     * @param id       user ID
+     * @param username username
+     */
+    public void add(Long id, String username) {
+        afterCommit(() -> apply(id, null, username));
+    }
+
+    /**
+     * Moves a user to a new username once the current transaction commits.
+     *
+     * @param id          user ID
+     * @param oldUsername username before the change
+     * @param newUsername username after the change
+     */
+    public void rename(Long id, String oldUsername, String newUsername) {
+        afterCommit(() -> apply(id, oldUsername, newUsername));
+    }
+
+    /**
+     * Removes a user once the current transaction commits.
+     *
+     * @param id       user ID
+     * @param username username of the removed user
+     */
+    public void remove(Long id, String username) {
+        afterCommit(() -> apply(id, username, null));
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static String key(String username, long id) {
+        return username.toLowerCase(Locale.ROOT) + KEY_SEPARATOR + id;
+    }
+
+    private static Map.Entry<String, Entry> nextMatch(Iterator<Map.Entry<String, Entry>> overlay, String prefix) {
+        if (!overlay.hasNext()) {
+            return null;
+        }
+        Map.Entry<String, Entry> next = overlay.next();
+        return next.getKey().startsWith(prefix) ? next : null;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void apply(Long id, String oldUsername, String newUsername) {
+        if (id == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (oldUsername != null) {
+                String oldKey = key(oldUsername, id);
+                current.overlay.put(oldKey, new Entry(oldKey, id, null));
+            }
+            if (newUsername != null) {
+                String newKey = key(newUsername, id);
+                current.overlay.put(newKey, new Entry(newKey, id, newUsername));
+            }
+            int threshold = Math.max(MIN_COMPACTION_THRESHOLD, current.keys.length / COMPACTION_DIVISOR);
+            if (current.overlay.size() > threshold) {
+                compact(current);
+            }
+        }
+    }
+
+    private void compact(Snapshot current) {
+        long startTime = System.currentTimeMillis();
+
+        List<Entry> merged = new ArrayList<>(current.keys.length + current.overlay.size());
+        Iterator<Entry> overlay = current.overlay.values().iterator();
+        Entry pending = overlay.hasNext() ? overlay.next() : null;
+        int i = 0;
+        while (i < current.keys.length || pending != null) {
+            int cmp = i == current.keys.length ? 1 : pending == null ? -1 : current.keys[i].compareTo(pending.key);
+            if (cmp < 0) {
+                merged.add(new Entry(current.keys[i], current.ids[i], current.usernames[i]));
+                i++;
+                continue;
+            }
+            if (cmp == 0) {
+                i++;
+            }
+            if (!pending.isRemoved()) {
+                merged.add(pending);
+            }
+            pending = overlay.hasNext() ? overlay.next() : null;
+        }
+        snapshot = build(merged);
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Username index compacted in {}ms - users: {}, overrides merged: {}",
+                duration, merged.size(), current.overlay.size());
+    }
+
+    private static Snapshot build(List<Entry> sorted) {
+        String[] keys = new String[sorted.size()];
+        long[] ids = new long[sorted.size()];
+        String[] usernames = new String[sorted.size()];
+        for (int i = 0; i < keys.length; i++) {
+            Entry entry = sorted.get(i);
+            keys[i] = entry.key;
+            ids[i] = entry.id;
+            usernames[i] = entry.username;
+        }
+        return new Snapshot(keys, ids, usernames, new ConcurrentSkipListMap<>());
+    }
+
+    /**
+     * One indexed user; a null username marks a removal in the overlay.
+     */
+    private record Entry(String key, long id, String username) {
+
+        boolean isRemoved() {
+            return username == null;
+        }
+    }
+
+    /**
+     * Immutable sorted arrays plus the overlay of entries changed since they were built.
+     */
+    private record Snapshot(String[] keys, long[] ids, String[] usernames,
+                            ConcurrentSkipListMap<String, Entry> overlay) {
+    }
+}
@@ -1,56 +1,131 @@
 package com.mstcc.userms.services.impl;
 
+import com.mstcc.userms.dto.UserChangeDTO;
+import com.mstcc.userms.dto.UserChangePageDTO;
+import com.mstcc.userms.dto.UserPageDTO;
+import com.mstcc.userms.dto.UserResponseDTO;
+import com.mstcc.userms.dto.UserSummaryDTO;
 import com.mstcc.userms.entities.User;
+import com.mstcc.userms.entities.UserTombstone;
 import com.mstcc.userms.repositories.UserRepository;
+import com.mstcc.userms.repositories.UserTombstoneRepository;
+import com.mstcc.userms.services.UserChangeFeed;
 import com.mstcc.userms.services.UserService;
+import com.mstcc.userms.services.UsernameIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Default implementation of {@link UserService}.
  * Handles all user CRUD operations with Caffeine caching.
  * Validation logic is delegated to Bean Validation annotations on DTOs (SRP).
+ *
+ * <p>Writes keep the {@code users}, {@code usersByUsername} and {@code userExists} caches
+ * warm: once the transaction commits, the written user is put into each cache under its
+ * own keys, and only a username the user no longer has is evicted.
+ *
+ * <p>Lookups of IDs that do not exist are remembered for a short time in the
+ * {@code missingUsers} cache instead of the long-lived lookup caches, so repeated validation
+ * of deleted or bogus IDs skips the database without keeping stale "absent" entries around
+ * for long. Creating a user removes its ID from that cache.
+ *
+ * <p>Every write also takes the next change-feed version, stored on the user (or on its
+ * tombstone for deletions), and wakes long-polling feed readers after commit.
  */
 @Service
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
+    private static final String MISSING_USERS = "missingUsers";
 
     private final UserRepository userRepository;
+    private final UserTombstoneRepository tombstoneRepository;
+    private final UsernameIndex usernameIndex;
+    private final UserChangeFeed changeFeed;
+    private final CacheManager cacheManager;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserTombstoneRepository tombstoneRepository,
+                           UsernameIndex usernameIndex, UserChangeFeed changeFeed, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.usernameIndex = usernameIndex;
+        this.changeFeed = changeFeed;
+        this.cacheManager = cacheManager;
     }
 
     /**
      * {@inheritDoc}
      *
-     * <p>Result is cached with a short TTL so that concurrent spike-load requests
-     * are served from memory rather than hitting the database on every call.
-     * The cache is invalidated on any write operation via {@code @CacheEvict}.
+     * <p>Seeks on the primary key, so every page costs the same however deep it is.
+     * Not cached: pages are cheap index range scans, and a cached page would be
+     * invalidated by every user write.
      */
     @Override
-    @Cacheable(value = "allUsers", key = "'all'")
-    public List<User> findAllUsers() {
-        logger.info("Fetching all users from database");
-        return userRepository.findAll();
+    public UserPageDTO findUsers(Long afterId, int limit) {
+        long startTime = System.currentTimeMillis();
+        List<UserResponseDTO> rows = userRepository.findPageAfter(afterId, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<UserResponseDTO> items = hasMore ? List.copyOf(rows.subList(0, limit)) : rows;
+        Long nextAfterId = hasMore ? items.get(items.size() - 1).id() : null;
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Fetched {} users after id {} in {}ms", items.size(), afterId, duration);
+        return new UserPageDTO(items, nextAfterId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Reads through a database cursor with a bounded fetch size inside one read-only
+     * transaction, so memory use does not grow with the number of users.
+     */
+    @Override
+    public long exportUsers(Consumer<UserResponseDTO> sink) {
+        long startTime = System.currentTimeMillis();
+        long count = 0;
+        try (Stream<UserResponseDTO> users = userRepository.streamAll()) {
+            Iterator<UserResponseDTO> it = users.iterator();
+            while (it.hasNext()) {
+                sink.accept(it.next());
+                count++;
+            }
+        }
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Exported {} users in {}ms", count, duration);
+        return count;
     }
 
     /** {@inheritDoc} */
     @Override
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = "users", key = "#id", unless = "#result == null")
     public Optional<User> findUserById(Long id) {
+        if (isKnownMissing(id)) {
+            return Optional.empty();
+        }
         logger.info("Fetching user by id: {} (cache miss or first call)", id);
-        return userRepository.findById(id);
+        Optional<User> user = userRepository.findById(id);
+        if (user.isEmpty()) {
+            put(MISSING_USERS, id, Boolean.TRUE);
+        }
+        return user;
     }
 
     /** {@inheritDoc} */
@@ -61,10 +136,47 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByUsername(username);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Merges the users and the tombstones written after {@code since}, each read through
+     * its change-version index. A user written several times appears once, at its latest version.
+     */
+    @Override
+    public UserChangePageDTO findChanges(long since, int limit) {
+        long startTime = System.currentTimeMillis();
+        PageRequest page = PageRequest.of(0, limit);
+        List<User> upserts = userRepository.findChangedAfter(since, page);
+        List<UserTombstone> deletes = tombstoneRepository.findByChangeVersionGreaterThanOrderByChangeVersionAsc(since, page);
+
+        List<UserChangeDTO> changes = new ArrayList<>(Math.min(limit, upserts.size() + deletes.size()));
+        int u = 0;
+        int d = 0;
+        while (changes.size() < limit && (u < upserts.size() || d < deletes.size())) {
+            boolean takeUpsert = d == deletes.size()
+                    || (u < upserts.size() && upserts.get(u).getChangeVersion() < deletes.get(d).getChangeVersion());
+            changes.add(takeUpsert ? UserChangeDTO.upsert(upserts.get(u++)) : UserChangeDTO.delete(deletes.get(d++)));
+        }
+        long lastVersion = changes.isEmpty() ? since : changes.get(changes.size() - 1).version();
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Fetched {} user changes after version {} in {}ms", changes.size(), since, duration);
+        return new UserChangePageDTO(changes, lastVersion);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Served from the in-memory {@link UsernameIndex} — no database access.
+     */
+    @Override
+    public List<UserSummaryDTO> searchByUsernamePrefix(String prefix, int limit) {
+        return usernameIndex.search(prefix, limit);
+    }
+
     /** {@inheritDoc} */
     @Override
     @Transactional
-    @CacheEvict(value = {"users", "usersByUsername", "allUsers"}, allEntries = true)
     public User saveUser(User user) {
         logger.info("Creating new user: {}", user.getUsername());
 
@@ -73,7 +185,13 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Username already exists: " + user.getUsername());
         }
 
+        user.setChangeVersion(userRepository.nextChangeVersion());
         User savedUser = userRepository.save(user);
+        usernameIndex.add(savedUser.getId(), savedUser.getUsername());
+        afterCommit(() -> {
+            cacheUser(savedUser);
+            published(savedUser.getChangeVersion());
+        });
         logger.info("User created successfully: id={}, username={}", savedUser.getId(), savedUser.getUsername());
         return savedUser;
     }
@@ -81,12 +199,6 @@ public class UserServiceImpl implements UserService {
     /** {@inheritDoc} */
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "users", key = "#id"),
-        @CacheEvict(value = "usersByUsername", allEntries = true),
-        @CacheEvict(value = "allUsers", allEntries = true),
-        @CacheEvict(value = "userExists", key = "#id")
-    })
     public Optional<User> updateUser(Long id, User userDetails) {
         logger.info("Updating user: id={}", id);
 
@@ -99,11 +211,23 @@ public class UserServiceImpl implements UserService {
                 }
             }
 
+            String previousUsername = user.getUsername();
             user.setUsername(userDetails.getUsername());
             user.setEmail(userDetails.getEmail());
             user.setPassword(userDetails.getPassword());
+            user.setChangeVersion(userRepository.nextChangeVersion());
 
             User updated = userRepository.save(user);
+            if (!previousUsername.equals(updated.getUsername())) {
+                usernameIndex.rename(id, previousUsername, updated.getUsername());
+            }
+            afterCommit(() -> {
+                if (!previousUsername.equals(updated.getUsername())) {
+                    evict("usersByUsername", previousUsername);
+                }
+                cacheUser(updated);
+                published(updated.getChangeVersion());
+            });
             logger.info("User updated successfully: id={}", id);
             return updated;
         });
@@ -112,28 +236,120 @@ public class UserServiceImpl implements UserService {
     /** {@inheritDoc} */
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "users", key = "#id"),
-        @CacheEvict(value = "usersByUsername", allEntries = true),
-        @CacheEvict(value = "allUsers", allEntries = true),
-        @CacheEvict(value = "userExists", key = "#id")
-    })
     public void deleteUser(Long id) {
         logger.info("Deleting user: id={}", id);
 
-        if (!userRepository.existsById(id)) {
+        User user = userRepository.findById(id).orElseThrow(() -> {
             logger.warn("User not found for deletion: id={}", id);
-            throw new IllegalArgumentException("User not found: " + id);
-        }
+            return new IllegalArgumentException("User not found: " + id);
+        });
 
+        Long version = userRepository.nextChangeVersion();
+        tombstoneRepository.save(new UserTombstone(id, version));
         userRepository.deleteById(id);
+        usernameIndex.remove(id, user.getUsername());
+        afterCommit(() -> {
+            published(version);
+            evict("users", id);
+            evict("userExists", id);
+            evict("usersByUsername", user.getUsername());
+            put(MISSING_USERS, id, Boolean.TRUE);
+        });
         logger.info("User deleted successfully: id={}", id);
     }
 
     /** {@inheritDoc} */
     @Override
-    @Cacheable(value = "userExists", key = "#id")
+    @Cacheable(value = "userExists", key = "#id", unless = "!#result")
     public boolean existsById(Long id) {
-        return userRepository.existsById(id);
+        if (isKnownMissing(id)) {
+            return false;
+        }
+        boolean exists = userRepository.existsById(id);
+        if (!exists) {
+            put(MISSING_USERS, id, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>IDs recently found missing are answered from the {@code missingUsers} cache and left
+     * out of the query; IDs the query does not return are added to it.
+     */
+    @Override
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        long startTime = System.currentTimeMillis();
+        List<Long> unknown = ids.stream().filter(id -> !isKnownMissing(id)).toList();
+        List<Long> existing = unknown.isEmpty() ? List.of() : userRepository.findExistingIds(unknown);
+        if (existing.size() < unknown.size()) {
+            Set<Long> found = new HashSet<>(existing);
+            for (Long id : unknown) {
+                if (!found.contains(id)) {
+                    put(MISSING_USERS, id, Boolean.TRUE);
+                }
+            }
+        }
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Checked existence of {} users in {}ms - found: {}, known missing: {}",
+                ids.size(), duration, existing.size(), ids.size() - unknown.size());
+        return existing;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * Writes a user through to every cache keyed by it. The lookup caches hold the user
+     * itself, as {@code @Cacheable} unwraps {@code Optional} results.
+     */
+    private void cacheUser(User user) {
+        put("users", user.getId(), user);
+        put("usersByUsername", user.getUsername(), user);
+        put("userExists", user.getId(), true);
+        evict(MISSING_USERS, user.getId());
+    }
+
+    private boolean isKnownMissing(Long id) {
+        Cache cache = cacheManager.getCache(MISSING_USERS);
+        return cache != null && cache.get(id) != null;
+    }
+
+    private void published(Long version) {
+        if (version != null) {
+            changeFeed.published(version);
+        }
+    }
+
+    private void put(String cacheName, Object key, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.put(key, value);
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
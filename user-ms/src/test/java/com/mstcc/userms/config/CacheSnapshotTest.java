@@ -0,0 +1,77 @@
+package com.mstcc.userms.config;
+
+import com.mstcc.userms.entities.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CacheSnapshot}.
+ */
+class CacheSnapshotTest {
+
+    private static final String PASSWORD = "s3cret-Passw0rd";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("users survive a restart without their password ever reaching the snapshot")
+    void restart_restoresUsersWithoutPassword() throws IOException {
+        CacheManager before = cacheManager();
+        before.getCache("users").put(1L, user());
+        new CacheSnapshot(before, directory, false).save();
+
+        String snapshot = new String(Files.readAllBytes(directory.resolve("cache.snapshot")), StandardCharsets.ISO_8859_1);
+        assertThat(snapshot).contains("alice@example.com").doesNotContain(PASSWORD);
+
+        CacheManager after = cacheManager();
+        new CacheSnapshot(after, directory, true).start();
+
+        User restored = after.getCache("users").get(1L, User.class);
+        assertThat(restored).usingRecursiveComparison().ignoringFields("password").isEqualTo(user());
+        assertThat(restored.getPassword()).isNull();
+        assertThat(directory.resolve("cache.snapshot")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("an unreadable snapshot is skipped and the caches start cold")
+    void restart_ignoresCorruptSnapshot() throws IOException {
+        Files.write(directory.resolve("cache.snapshot"), new byte[] {1, 2, 3});
+
+        CacheManager after = cacheManager();
+        new CacheSnapshot(after, directory, true).start();
+
+        assertThat(after.getCache("users").get(1L)).isNull();
+        assertThat(directory.resolve("cache.snapshot")).doesNotExist();
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static CacheManager cacheManager() {
+        return new CacheConfig().cacheManager(new MockEnvironment());
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        user.setPassword(PASSWORD);
+        user.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000));
+        user.setChangeVersion(42L);
+        return user;
+    }
+}
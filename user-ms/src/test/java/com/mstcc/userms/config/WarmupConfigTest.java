@@ -0,0 +1,47 @@
+package com.mstcc.userms.config;
+
+import com.mstcc.userms.entities.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link WarmupConfig}.
+ */
+class WarmupConfigTest {
+
+    @Test
+    @DisplayName("hot users are the cached users, up to the limit")
+    void hotUserIds_takesCachedUsersUpToLimit() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(new MockEnvironment());
+        for (long id = 1; id <= 20; id++) {
+            cacheManager.getCache("users").put(id, user(id));
+        }
+
+        assertThat(WarmupConfig.hotUserIds(cacheManager, 100)).hasSize(20);
+        assertThat(WarmupConfig.hotUserIds(cacheManager, 5)).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("without cached users there is nothing to read")
+    void hotUserIds_emptyWithoutCachedUsers() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(new MockEnvironment());
+
+        assertThat(WarmupConfig.hotUserIds(cacheManager, 100)).isEmpty();
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+}
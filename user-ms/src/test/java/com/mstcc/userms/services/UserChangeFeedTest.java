@@ -0,0 +1,67 @@
+package com.mstcc.userms.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UserChangeFeed}.
+ */
+class UserChangeFeedTest {
+
+    private final UserChangeFeed feed = new UserChangeFeed();
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    @DisplayName("a waiting reader is woken once by the next published change")
+    void published_wakesWaiterOnce() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch woken = new CountDownLatch(1);
+        feed.awaitChangeAfter(0, () -> {
+            runs.incrementAndGet();
+            woken.countDown();
+        });
+
+        feed.published(1);
+        feed.published(2);
+
+        assertThat(woken.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitNotifier();
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("a cancelled waiter is not run by a later change")
+    void cancel_dropsWaiter() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        Runnable waiter = runs::incrementAndGet;
+        feed.awaitChangeAfter(0, waiter);
+
+        feed.cancel(waiter);
+        feed.published(1);
+
+        awaitNotifier();
+        assertThat(runs).hasValue(0);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /** Callbacks run in order on one thread, so a later callback having run means the earlier ones have too. */
+    private void awaitNotifier() throws InterruptedException {
+        CountDownLatch drained = new CountDownLatch(1);
+        feed.awaitChangeAfter(-1, drained::countDown);
+        assertThat(drained.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
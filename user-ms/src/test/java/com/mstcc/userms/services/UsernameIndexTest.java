@@ -0,0 +1,103 @@
+package com.mstcc.userms.services;
+
+import com.mstcc.userms.dto.UserResponseDTO;
+import com.mstcc.userms.dto.UserSummaryDTO;
+import com.mstcc.userms.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UsernameIndex}.
+ *
+ * <p>The repository is mocked to feed the initial usernames; writes run without a
+ * transaction, so they are applied immediately.
+ */
+@ExtendWith(MockitoExtension.class)
+class UsernameIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UsernameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UsernameIndex(userRepository);
+    }
+
+    private void loadUsers(String... usernames) {
+        List<UserResponseDTO> rows = new ArrayList<>();
+        for (int i = 0; i < usernames.length; i++) {
+            rows.add(new UserResponseDTO(i + 1L, usernames[i], usernames[i] + "@example.com"));
+        }
+        when(userRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        index.load();
+    }
+
+    private static List<String> names(List<UserSummaryDTO> matches) {
+        return matches.stream().map(UserSummaryDTO::username).toList();
+    }
+
+    // -------------------------------------------------------------------------
+    // search
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("search matches prefixes case-insensitively, in username order, up to the limit")
+    void search_matchesPrefixIgnoringCase() {
+        loadUsers("maria", "Marcos", "ana", "MARTA", "mario");
+
+        assertThat(names(index.search("MAR", 10))).containsExactly("Marcos", "maria", "mario", "MARTA");
+        assertThat(names(index.search("mar", 2))).containsExactly("Marcos", "maria");
+        assertThat(index.search("maria", 10)).extracting(UserSummaryDTO::id).containsExactly(1L);
+        assertThat(index.search("z", 10)).isEmpty();
+    }
+
+    // -------------------------------------------------------------------------
+    // writes
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("added, renamed and removed users are reflected in search before compaction")
+    void writes_areVisibleThroughOverlay() {
+        loadUsers("bob", "bruna", "carla");
+
+        index.add(10L, "Bia");
+        index.rename(1L, "bob", "roberto");
+        index.remove(2L, "bruna");
+
+        assertThat(names(index.search("b", 10))).containsExactly("Bia");
+        assertThat(names(index.search("r", 10))).containsExactly("roberto");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("compaction after many writes keeps every username searchable")
+    void manyWrites_triggerCompactionWithoutLosingUsers() {
+        loadUsers("alice");
+
+        for (long id = 100; id < 2100; id++) {
+            index.add(id, "user" + id);
+        }
+        index.remove(1L, "alice");
+        index.rename(150L, "user150", "zed");
+
+        assertThat(index.size()).isEqualTo(2000);
+        assertThat(index.search("alice", 10)).isEmpty();
+        assertThat(names(index.search("user15", 3))).containsExactly("user1500", "user1501", "user1502");
+        assertThat(index.search("zed", 10)).extracting(UserSummaryDTO::id).containsExactly(150L);
+    }
+}
@@ -1,7 +1,15 @@
 package com.mstcc.userms.services.impl;
 
+import com.mstcc.userms.dto.UserPageDTO;
+import com.mstcc.userms.dto.UserResponseDTO;
 import com.mstcc.userms.entities.User;
+import com.mstcc.userms.dto.UserChangeDTO;
+import com.mstcc.userms.dto.UserChangePageDTO;
+import com.mstcc.userms.entities.UserTombstone;
 import com.mstcc.userms.repositories.UserRepository;
+import com.mstcc.userms.repositories.UserTombstoneRepository;
+import com.mstcc.userms.services.UserChangeFeed;
+import com.mstcc.userms.services.UsernameIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,12 +17,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -29,6 +44,18 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private UsernameIndex usernameIndex;
+
+    @Mock
+    private UserChangeFeed changeFeed;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -44,18 +71,49 @@ class UserServiceImplTest {
     }
 
     // -------------------------------------------------------------------------
-    // findAllUsers
+    // findUsers / exportUsers
     // -------------------------------------------------------------------------
 
     @Test
-    @DisplayName("findAllUsers returns list from repository")
-    void findAllUsers_returnsAllUsers() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
+    @DisplayName("findUsers fetches one extra row to decide whether there is a next page")
+    void findUsers_whenMoreRows_returnsNextAfterId() {
+        List<UserResponseDTO> rows = List.of(
+                new UserResponseDTO(3L, "a", "a@example.com"),
+                new UserResponseDTO(5L, "b", "b@example.com"),
+                new UserResponseDTO(8L, "c", "c@example.com"));
+        when(userRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+
+        UserPageDTO page = userService.findUsers(0L, 2);
+
+        assertThat(page.items()).extracting(UserResponseDTO::id).containsExactly(3L, 5L);
+        assertThat(page.nextAfterId()).isEqualTo(5L);
+        verify(userRepository).findPageAfter(0L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    @DisplayName("findUsers returns a null nextAfterId on the last page")
+    void findUsers_onLastPage_returnsNullNextAfterId() {
+        when(userRepository.findPageAfter(eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(new UserResponseDTO(8L, "c", "c@example.com")));
 
-        List<User> result = userService.findAllUsers();
+        UserPageDTO page = userService.findUsers(5L, 2);
 
-        assertThat(result).hasSize(1).containsExactly(user);
-        verify(userRepository).findAll();
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextAfterId()).isNull();
+    }
+
+    @Test
+    @DisplayName("exportUsers hands every streamed user to the sink in order")
+    void exportUsers_streamsAllUsers() {
+        when(userRepository.streamAll()).thenReturn(Stream.of(
+                new UserResponseDTO(1L, "a", "a@example.com"),
+                new UserResponseDTO(2L, "b", "b@example.com")));
+        List<Long> exported = new ArrayList<>();
+
+        long count = userService.exportUsers(dto -> exported.add(dto.id()));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(1L, 2L);
     }
 
     // -------------------------------------------------------------------------
@@ -96,6 +154,7 @@ class UserServiceImplTest {
 
         assertThat(saved).isEqualTo(user);
         verify(userRepository).save(user);
+        verify(usernameIndex).add(1L, "vitor");
     }
 
     @Test
@@ -132,6 +191,7 @@ class UserServiceImplTest {
         assertThat(result).isPresent();
         assertThat(result.get().getUsername()).isEqualTo("vitor_updated");
         assertThat(result.get().getEmail()).isEqualTo("updated@example.com");
+        verify(usernameIndex).rename(1L, "vitor", "vitor_updated");
     }
 
     @Test
@@ -172,17 +232,19 @@ class UserServiceImplTest {
     @Test
     @DisplayName("deleteUser removes user when found")
     void deleteUser_whenFound_deletesSuccessfully() {
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         assertThatCode(() -> userService.deleteUser(1L)).doesNotThrowAnyException();
 
         verify(userRepository).deleteById(1L);
+        verify(usernameIndex).remove(1L, "vitor");
+        verify(tombstoneRepository).save(any(UserTombstone.class));
     }
 
     @Test
     @DisplayName("deleteUser throws IllegalArgumentException when user does not exist")
     void deleteUser_whenNotFound_throwsIllegalArgumentException() {
-        when(userRepository.existsById(99L)).thenReturn(false);
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.deleteUser(99L))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -191,6 +253,154 @@ class UserServiceImplTest {
         verify(userRepository, never()).deleteById(any());
     }
 
+    // -------------------------------------------------------------------------
+    // change feed
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("saveUser stamps the next change version and publishes it")
+    void saveUser_stampsChangeVersion() {
+        when(userRepository.findByUsername("vitor")).thenReturn(Optional.empty());
+        when(userRepository.nextChangeVersion()).thenReturn(42L);
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.saveUser(user);
+
+        assertThat(user.getChangeVersion()).isEqualTo(42L);
+        verify(changeFeed).published(42L);
+    }
+
+    @Test
+    @DisplayName("findChanges merges upserts and deletions in version order up to the limit")
+    void findChanges_mergesUpsertsAndDeletesByVersion() {
+        User a = new User();
+        a.setId(1L);
+        a.setUsername("a");
+        a.setChangeVersion(11L);
+        User b = new User();
+        b.setId(2L);
+        b.setUsername("b");
+        b.setChangeVersion(14L);
+        when(userRepository.findChangedAfter(eq(10L), any(Pageable.class))).thenReturn(List.of(a, b));
+        when(tombstoneRepository.findByChangeVersionGreaterThanOrderByChangeVersionAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(new UserTombstone(7L, 12L), new UserTombstone(8L, 15L)));
+
+        UserChangePageDTO page = userService.findChanges(10L, 3);
+
+        assertThat(page.changes()).extracting(UserChangeDTO::version).containsExactly(11L, 12L, 14L);
+        assertThat(page.changes()).extracting(UserChangeDTO::type)
+                .containsExactly(UserChangeDTO.Type.UPSERT, UserChangeDTO.Type.DELETE, UserChangeDTO.Type.UPSERT);
+        assertThat(page.lastVersion()).isEqualTo(14L);
+    }
+
+    @Test
+    @DisplayName("findChanges keeps the caller's version when nothing changed")
+    void findChanges_whenNoChanges_keepsSince() {
+        when(userRepository.findChangedAfter(eq(20L), any(Pageable.class))).thenReturn(List.of());
+        when(tombstoneRepository.findByChangeVersionGreaterThanOrderByChangeVersionAsc(eq(20L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        UserChangePageDTO page = userService.findChanges(20L, 100);
+
+        assertThat(page.changes()).isEmpty();
+        assertThat(page.lastVersion()).isEqualTo(20L);
+    }
+
+    // -------------------------------------------------------------------------
+    // cache write-through
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("saveUser writes the new user through to the users, usersByUsername and userExists caches")
+    void saveUser_writesThroughCaches() {
+        ConcurrentMapCacheManager caches = new ConcurrentMapCacheManager("users", "usersByUsername", "userExists", "missingUsers");
+        UserServiceImpl service = new UserServiceImpl(userRepository, tombstoneRepository, usernameIndex, changeFeed, caches);
+        caches.getCache("usersByUsername").put("vitor", null);
+        when(userRepository.findByUsername("vitor")).thenReturn(Optional.empty());
+        when(userRepository.save(user)).thenReturn(user);
+
+        service.saveUser(user);
+
+        assertThat(caches.getCache("users").get(1L, User.class)).isSameAs(user);
+        assertThat(caches.getCache("usersByUsername").get("vitor", User.class)).isSameAs(user);
+        assertThat(caches.getCache("userExists").get(1L, Boolean.class)).isTrue();
+    }
+
+    @Test
+    @DisplayName("updateUser evicts only the old username and writes the renamed user through")
+    void updateUser_evictsOldUsernameOnly() {
+        ConcurrentMapCacheManager caches = new ConcurrentMapCacheManager("users", "usersByUsername", "userExists", "missingUsers");
+        UserServiceImpl service = new UserServiceImpl(userRepository, tombstoneRepository, usernameIndex, changeFeed, caches);
+        User other = new User();
+        other.setId(2L);
+        other.setUsername("ana");
+        caches.getCache("usersByUsername").put("vitor", user);
+        caches.getCache("usersByUsername").put("ana", other);
+
+        User details = new User();
+        details.setUsername("vitor_new");
+        details.setEmail("new@example.com");
+        details.setPassword("pass");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("vitor_new")).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.updateUser(1L, details);
+
+        assertThat(caches.getCache("usersByUsername").get("vitor")).isNull();
+        assertThat(caches.getCache("usersByUsername").get("ana", User.class)).isSameAs(other);
+        assertThat(caches.getCache("usersByUsername").get("vitor_new", User.class)).isSameAs(user);
+        assertThat(caches.getCache("users").get(1L, User.class).getEmail()).isEqualTo("new@example.com");
+    }
+
+    @Test
+    @DisplayName("deleteUser evicts the user and records its ID as missing")
+    void deleteUser_cachesAbsence() {
+        ConcurrentMapCacheManager caches = new ConcurrentMapCacheManager("users", "usersByUsername", "userExists", "missingUsers");
+        UserServiceImpl service = new UserServiceImpl(userRepository, tombstoneRepository, usernameIndex, changeFeed, caches);
+        caches.getCache("users").put(1L, user);
+        caches.getCache("usersByUsername").put("vitor", user);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        service.deleteUser(1L);
+
+        assertThat(caches.getCache("users").get(1L)).isNull();
+        assertThat(caches.getCache("usersByUsername").get("vitor")).isNull();
+        assertThat(caches.getCache("missingUsers").get(1L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("a user recently found missing is answered without the database until it is created")
+    void findUserById_whenKnownMissing_skipsRepository() {
+        ConcurrentMapCacheManager caches = new ConcurrentMapCacheManager("users", "usersByUsername", "userExists", "missingUsers");
+        UserServiceImpl service = new UserServiceImpl(userRepository, tombstoneRepository, usernameIndex, changeFeed, caches);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThat(service.findUserById(1L)).isEmpty();
+        assertThat(service.findUserById(1L)).isEmpty();
+        assertThat(service.existsById(1L)).isFalse();
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, never()).existsById(1L);
+
+        when(userRepository.findByUsername("vitor")).thenReturn(Optional.empty());
+        when(userRepository.save(user)).thenReturn(user);
+        service.saveUser(user);
+
+        assertThat(caches.getCache("missingUsers").get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("findExistingIds leaves known-missing IDs out of the query and records new misses")
+    void findExistingIds_skipsKnownMissing() {
+        ConcurrentMapCacheManager caches = new ConcurrentMapCacheManager("missingUsers");
+        UserServiceImpl service = new UserServiceImpl(userRepository, tombstoneRepository, usernameIndex, changeFeed, caches);
+        caches.getCache("missingUsers").put(3L, Boolean.TRUE);
+        when(userRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        assertThat(service.findExistingIds(List.of(1L, 2L, 3L))).containsExactly(1L);
+        assertThat(caches.getCache("missingUsers").get(2L)).isNotNull();
+    }
+
     // -------------------------------------------------------------------------
     // existsById
     // -------------------------------------------------------------------------
@@ -210,4 +420,24 @@ class UserServiceImplTest {
 
         assertThat(userService.existsById(99L)).isFalse();
     }
+
+    // -------------------------------------------------------------------------
+    // findExistingIds
+    // -------------------------------------------------------------------------
+
+    @Test
+    @DisplayName("findExistingIds returns the IDs found by a single repository query")
+    void findExistingIds_returnsExistingIds() {
+        when(userRepository.findExistingIds(List.of(1L, 2L, 99L))).thenReturn(List.of(1L, 2L));
+
+        assertThat(userService.findExistingIds(List.of(1L, 2L, 99L))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("findExistingIds skips the query for an empty list")
+    void findExistingIds_withEmptyList_doesNotQuery() {
+        assertThat(userService.findExistingIds(List.of())).isEmpty();
+
+        verify(userRepository, never()).findExistingIds(any());
+    }
 }